@@ -0,0 +1,25 @@
+package com.selimhorri.app.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A routed GET response kept at the edge: the headers the origin sent (minus hop-by-hop and
+ * per-request ones), the uncompressed body and when it was stored, used for the Age header.
+ */
+@Getter
+@AllArgsConstructor
+public final class CachedResponse {
+	
+	private final HttpHeaders headers;
+	private final byte[] body;
+	private final long storedAtMillis;
+	private final long ttlSeconds;
+	
+	public long ageSeconds(final long nowMillis) {
+		return Math.max(0, (nowMillis - this.storedAtMillis) / 1000);
+	}
+	
+}
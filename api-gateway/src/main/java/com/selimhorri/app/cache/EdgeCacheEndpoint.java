@@ -0,0 +1,47 @@
+package com.selimhorri.app.cache;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code /actuator/edgecache}: GET reports the size and hit ratio of the edge cache,
+ * DELETE purges it, optionally only the paths starting with {@code pathPrefix}
+ * (for example {@code DELETE /actuator/edgecache?pathPrefix=/api/products}).
+ */
+@Component
+@Endpoint(id = "edgecache")
+@Slf4j
+@RequiredArgsConstructor
+public class EdgeCacheEndpoint {
+	
+	private final EdgeResponseCache edgeResponseCache;
+	
+	@ReadOperation
+	public Map<String, Object> stats() {
+		final CacheStats stats = this.edgeResponseCache.stats();
+		return Map.of(
+				"entries", this.edgeResponseCache.size(),
+				"hitCount", stats.hitCount(),
+				"missCount", stats.missCount(),
+				"hitRatio", stats.hitRate(),
+				"evictionCount", stats.evictionCount());
+	}
+	
+	@DeleteOperation
+	public Map<String, Object> purge(@Nullable final String pathPrefix) {
+		final int purged = this.edgeResponseCache.purge(pathPrefix);
+		log.info("Edge cache purged {} entries for prefix '{}'", purged, pathPrefix);
+		return Map.of("purged", purged);
+	}
+	
+}
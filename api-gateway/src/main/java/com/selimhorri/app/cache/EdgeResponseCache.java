@@ -0,0 +1,121 @@
+package com.selimhorri.app.cache;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * In-memory store behind the EdgeCache route filter. Entries are bounded by total body size
+ * (Caffeine evicts the least recently used first) and expire after the TTL chosen for each
+ * response. Lookups are plain map reads, so serving a hit never blocks the event loop.
+ */
+@Component
+public class EdgeResponseCache {
+	
+	public static final String CACHE_NAME = "edgeResponseCache";
+	
+	private final Cache<Key, CachedResponse> responses;
+	private final long maxEntryBytes;
+	private final long maxTtlSeconds;
+	
+	public EdgeResponseCache(final MeterRegistry meterRegistry,
+			@Value("${app.edge-cache.maximum-weight-bytes:67108864}") final long maximumWeightBytes,
+			@Value("${app.edge-cache.max-entry-bytes:1048576}") final long maxEntryBytes,
+			@Value("${app.edge-cache.max-ttl-seconds:300}") final long maxTtlSeconds) {
+		this.maxEntryBytes = maxEntryBytes;
+		this.maxTtlSeconds = maxTtlSeconds;
+		this.responses = Caffeine.newBuilder()
+				.maximumWeight(maximumWeightBytes)
+				.weigher((Key key, CachedResponse response) -> key.weight() + response.getBody().length)
+				.expireAfter(new Expiry<Key, CachedResponse>() {
+					@Override
+					public long expireAfterCreate(final Key key, final CachedResponse response, final long currentTime) {
+						return TimeUnit.SECONDS.toNanos(response.getTtlSeconds());
+					}
+					
+					@Override
+					public long expireAfterUpdate(final Key key, final CachedResponse response, final long currentTime,
+							final long currentDuration) {
+						return TimeUnit.SECONDS.toNanos(response.getTtlSeconds());
+					}
+					
+					@Override
+					public long expireAfterRead(final Key key, final CachedResponse response, final long currentTime,
+							final long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.responses, CACHE_NAME);
+	}
+	
+	public CachedResponse get(final Key key) {
+		return this.responses.getIfPresent(key);
+	}
+	
+	public void put(final Key key, final CachedResponse response) {
+		this.responses.put(key, response);
+	}
+	
+	public long getMaxEntryBytes() {
+		return this.maxEntryBytes;
+	}
+	
+	public long getMaxTtlSeconds() {
+		return this.maxTtlSeconds;
+	}
+	
+	/**
+	 * Drops every entry whose path starts with the given prefix, or all entries for a
+	 * {@code null} or empty prefix. Returns the number of entries removed.
+	 */
+	public int purge(final String pathPrefix) {
+		final Map<Key, CachedResponse> entries = this.responses.asMap();
+		final int before = entries.size();
+		if (pathPrefix == null || pathPrefix.isEmpty())
+			entries.clear();
+		else
+			entries.keySet().removeIf(key -> key.getPath().startsWith(pathPrefix));
+		return before - entries.size();
+	}
+	
+	public long size() {
+		this.responses.cleanUp();
+		return this.responses.estimatedSize();
+	}
+	
+	public CacheStats stats() {
+		return this.responses.stats();
+	}
+	
+	@Getter
+	@ToString
+	@EqualsAndHashCode
+	@AllArgsConstructor
+	public static final class Key {
+		private final String routeId;
+		private final String path;
+		private final String query;
+		private final String accept;
+		
+		int weight() {
+			return this.routeId.length() + this.path.length() + this.query.length() + this.accept.length();
+		}
+	}
+	
+}
@@ -0,0 +1,234 @@
+package com.selimhorri.app.config.filter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Single-flight route filter: while a GET is in flight upstream, identical GETs (same route,
+ * path, query, Accept, Authorization and If-None-Match) wait for it instead of being routed
+ * too, and the leader's response is replayed to each of them. Nothing is kept once the
+ * leader's response is written, so this only flattens concurrent bursts and never serves
+ * stale data. Streamed responses cannot be replayed: waiters are then routed on their own,
+ * as are the requests beyond {@code maxWaiters} for a single flight.
+ */
+@Component
+public class CoalesceGatewayFilterFactory extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+	
+	// Por dentro de la caché de borde y por fuera del hedging: los que esperan comparten la respuesta ya cubierta
+	public static final int COALESCE_FILTER_ORDER = HedgeGatewayFilterFactory.HEDGE_FILTER_ORDER - 1;
+	
+	private static final Set<String> UNSHARED_HEADERS = Set.of(
+			HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+			HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+			HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT));
+	
+	private final Map<List<String>, Flight> inFlight = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+	private final int defaultMaxWaiters;
+	
+	public CoalesceGatewayFilterFactory(final MeterRegistry meterRegistry,
+			@Value("${app.coalescing.max-waiters:1000}") final int defaultMaxWaiters) {
+		super(Config.class);
+		this.meterRegistry = meterRegistry;
+		this.defaultMaxWaiters = defaultMaxWaiters;
+	}
+	
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("enabled", "maxWaiters");
+	}
+	
+	@Override
+	public GatewayFilter apply(final Config config) {
+		final int maxWaiters = (config.getMaxWaiters() == null) ? this.defaultMaxWaiters : config.getMaxWaiters();
+		
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			if (!config.isEnabled() || !HttpMethod.GET.equals(exchange.getRequest().getMethod()))
+				return chain.filter(exchange);
+			
+			final List<String> key = keyOf(exchange);
+			final String routeId = key.get(0);
+			final Flight candidate = new Flight();
+			final Flight flight = this.inFlight.putIfAbsent(key, candidate);
+			if (flight == null)
+				return this.lead(exchange, chain, key, candidate, routeId);
+			
+			if (flight.getWaiters().incrementAndGet() > maxWaiters) {
+				flight.getWaiters().decrementAndGet();
+				this.count(routeId, "overflow");
+				return chain.filter(exchange);
+			}
+			this.count(routeId, "collapsed");
+			return flight.getResult().asMono()
+					.map(shared -> writeShared(exchange.getResponse(), shared))
+					// Respuesta no compartible (flujo) o el líder se canceló: se enruta por su cuenta
+					.switchIfEmpty(Mono.fromSupplier(() -> {
+						this.count(routeId, "fallback");
+						return chain.filter(exchange);
+					}))
+					.flatMap(Function.identity());
+		}, COALESCE_FILTER_ORDER);
+	}
+	
+	private Mono<Void> lead(final ServerWebExchange exchange, final GatewayFilterChain chain,
+			final List<String> key, final Flight flight, final String routeId) {
+		this.count(routeId, "leader");
+		return chain.filter(exchange.mutate()
+						.response(new SharingResponse(exchange.getResponse(), key, flight))
+						.build())
+				.doOnError(flight::fail)
+				.doFinally(signal -> {
+					// Cubre cancelaciones y respuestas sin cuerpo que no pasaron por writeWith
+					this.land(key, flight);
+					flight.getResult().tryEmitEmpty();
+				});
+	}
+	
+	private void land(final List<String> key, final Flight flight) {
+		if (this.inFlight.remove(key, flight))
+			DistributionSummary.builder("gateway.coalescing.waiters")
+					.description("Requests that waited on a single upstream call")
+					.register(this.meterRegistry)
+					.record(flight.getWaiters().get());
+	}
+	
+	private void count(final String routeId, final String result) {
+		Counter.builder("gateway.coalescing.requests")
+				.description("Idempotent requests seen by the coalescing filter, by outcome")
+				.tag("route", routeId)
+				.tag("result", result)
+				.register(this.meterRegistry)
+				.increment();
+	}
+	
+	private static List<String> keyOf(final ServerWebExchange exchange) {
+		final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		final ServerHttpRequest request = exchange.getRequest();
+		final HttpHeaders headers = request.getHeaders();
+		return List.of(
+				(route == null) ? "" : route.getId(),
+				request.getURI().getRawPath(),
+				Objects.toString(request.getURI().getRawQuery(), ""),
+				String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)),
+				Objects.toString(headers.getFirst(HttpHeaders.AUTHORIZATION), ""),
+				String.join(",", headers.getOrEmpty(HttpHeaders.IF_NONE_MATCH)));
+	}
+	
+	private static Mono<Void> writeShared(final ServerHttpResponse response, final SharedResponse shared) {
+		response.setStatusCode(shared.getStatus());
+		final HttpHeaders headers = response.getHeaders();
+		shared.getHeaders().forEach((name, values) -> headers.put(name, values));
+		if (shared.getBody().length == 0 && !HttpStatus.OK.equals(shared.getStatus()))
+			return response.setComplete();
+		headers.setContentLength(shared.getBody().length);
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.getBody())));
+	}
+	
+	@Getter
+	private static class Flight {
+		
+		private final Sinks.One<SharedResponse> result = Sinks.one();
+		private final AtomicInteger waiters = new AtomicInteger();
+		
+		void fail(final Throwable error) {
+			this.result.tryEmitError(error);
+		}
+		
+	}
+	
+	@Getter
+	@AllArgsConstructor
+	private static class SharedResponse {
+		private final HttpStatus status;
+		private final HttpHeaders headers;
+		private final byte[] body;
+	}
+	
+	private class SharingResponse extends ServerHttpResponseDecorator {
+		
+		private final List<String> key;
+		private final Flight flight;
+		
+		SharingResponse(final ServerHttpResponse delegate, final List<String> key, final Flight flight) {
+			super(delegate);
+			this.key = key;
+			this.flight = flight;
+		}
+		
+		@Override
+		public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+			if (this.getHeaders().containsKey(HttpHeaders.SET_COOKIE))
+				return super.writeWith(body);
+			return DataBufferUtils.join(body)
+					.defaultIfEmpty(this.bufferFactory().wrap(new byte[0]))
+					.flatMap(joined -> {
+						final byte[] bytes = new byte[joined.readableByteCount()];
+						joined.read(bytes);
+						DataBufferUtils.release(joined);
+						this.share(bytes);
+						return super.writeWith(Mono.just(this.bufferFactory().wrap(bytes)));
+					});
+		}
+		
+		@Override
+		public Mono<Void> setComplete() {
+			if (!this.getHeaders().containsKey(HttpHeaders.SET_COOKIE))
+				this.share(new byte[0]);
+			return super.setComplete();
+		}
+		
+		private void share(final byte[] body) {
+			final HttpStatus status = (this.getStatusCode() == null) ? HttpStatus.OK : this.getStatusCode();
+			final HttpHeaders shared = new HttpHeaders();
+			this.getHeaders().forEach((name, values) -> {
+				if (!UNSHARED_HEADERS.contains(name.toLowerCase(Locale.ROOT)))
+					shared.put(name, List.copyOf(values));
+			});
+			// Se retira antes de emitir: quien llegue después ya inicia su propia llamada
+			land(this.key, this.flight);
+			this.flight.getResult().tryEmitValue(new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(shared), body));
+		}
+		
+	}
+	
+	@Data
+	public static class Config {
+		private boolean enabled = true;
+		private Integer maxWaiters;
+	}
+	
+}
@@ -0,0 +1,111 @@
+package com.selimhorri.app.config.filter;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.deadline.Deadline;
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stamps every routed request with an absolute deadline, {@code now + app.deadline.timeout-millis}
+ * in epoch milliseconds, in the {@value Deadline#HEADER} header the services below honour. A
+ * client may ask for an earlier deadline with the same header but never a later one. When the
+ * deadline passes the routed call is cancelled and the client gets a 504. Streamed responses
+ * (NDJSON, SSE and the {@code exclude-paths}) carry no deadline.
+ */
+@Component
+@Slf4j
+public class DeadlineFilter implements GlobalFilter, Ordered {
+	
+	public static final String HOP = "API-GATEWAY";
+	
+	// Lo más externo posible: el plazo cubre caché, coalescencia, hedging y compresión
+	public static final int DEADLINE_FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+	
+	private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+	
+	private final boolean enabled;
+	private final long timeoutMillis;
+	private final List<String> excludePaths;
+	private final DeadlineMetrics deadlineMetrics;
+	
+	public DeadlineFilter(final MeterRegistry meterRegistry,
+			@Value("${app.deadline.enabled:true}") final boolean enabled,
+			@Value("${app.deadline.timeout-millis:15000}") final long timeoutMillis,
+			@Value("${app.deadline.exclude-paths:/**/stream}") final List<String> excludePaths) {
+		this.enabled = enabled;
+		this.timeoutMillis = timeoutMillis;
+		this.excludePaths = List.copyOf(excludePaths);
+		// Mismo contador y etiquetas que los servicios: el gateway es un salto más
+		this.deadlineMetrics = new DeadlineMetrics(meterRegistry, HOP);
+	}
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		final ServerHttpRequest request = exchange.getRequest();
+		if (!this.enabled || this.isStreaming(request))
+			return chain.filter(exchange.mutate()
+					.request(request.mutate().headers(headers -> headers.remove(Deadline.HEADER)).build())
+					.build());
+		
+		final long now = System.currentTimeMillis();
+		final long deadline = Math.min(now + this.timeoutMillis, requestedDeadline(request, Long.MAX_VALUE));
+		if (deadline <= now) {
+			this.deadlineMetrics.exceeded(DeadlineMetrics.INBOUND);
+			return this.gatewayTimeout(exchange.getResponse());
+		}
+		
+		final ServerWebExchange stamped = exchange.mutate()
+				.request(request.mutate().headers(headers -> headers.set(Deadline.HEADER, Deadline.ofEpochMillis(deadline).toHeaderValue())).build())
+				.build();
+		return chain.filter(stamped)
+				.timeout(Duration.ofMillis(deadline - now), Mono.defer(() -> {
+					log.debug("Deadline exceeded for {} {}", request.getMethod(), request.getURI().getRawPath());
+					this.deadlineMetrics.exceeded(DeadlineMetrics.INBOUND);
+					return this.gatewayTimeout(stamped.getResponse());
+				}));
+	}
+	
+	@Override
+	public int getOrder() {
+		return DEADLINE_FILTER_ORDER;
+	}
+	
+	private boolean isStreaming(final ServerHttpRequest request) {
+		final String path = request.getURI().getRawPath();
+		return this.excludePaths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path))
+				|| request.getHeaders().getAccept().stream()
+						.anyMatch(accept -> MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(accept)
+								|| MediaType.TEXT_EVENT_STREAM.equalsTypeAndSubtype(accept));
+	}
+	
+	private static long requestedDeadline(final ServerHttpRequest request, final long defaultValue) {
+		final Deadline requested = Deadline.parse(request.getHeaders().getFirst(Deadline.HEADER));
+		return (requested == null) ? defaultValue : requested.getEpochMillis();
+	}
+	
+	// Si la respuesta ya empezó a escribirse solo queda cortar la conexión, que es lo que hace la cancelación
+	private Mono<Void> gatewayTimeout(final ServerHttpResponse response) {
+		if (response.isCommitted())
+			return Mono.empty();
+		response.setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+		return response.setComplete();
+	}
+	
+}
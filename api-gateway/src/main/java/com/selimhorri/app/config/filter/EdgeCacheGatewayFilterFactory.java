@@ -0,0 +1,242 @@
+package com.selimhorri.app.config.filter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.cache.CachedResponse;
+import com.selimhorri.app.cache.EdgeResponseCache;
+
+import lombok.Data;
+import reactor.core.publisher.Mono;
+
+/**
+ * Route filter that answers anonymous GETs from {@link EdgeResponseCache}. Responses are stored
+ * only when the origin marks them shareable ({@code public} or {@code s-maxage}, never
+ * {@code private}, {@code no-cache} or {@code no-store}) and live for their {@code s-maxage}
+ * (or {@code max-age}), capped by the route's {@code maxTtlSeconds}. A matching
+ * If-None-Match on a hit is answered with 304 without touching the origin.
+ */
+@Component
+public class EdgeCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<EdgeCacheGatewayFilterFactory.Config> {
+
+	// Dentro de la compresión (se cachea el cuerpo sin comprimir) y por fuera del filtro de coalescencia,
+	// para que la respuesta del líder se guarde y los aciertos no esperen a ningún vuelo
+	public static final int EDGE_CACHE_FILTER_ORDER = CoalesceGatewayFilterFactory.COALESCE_FILTER_ORDER - 1;
+	public static final String CACHE_STATUS_HEADER = "X-Edge-Cache";
+
+	private static final Set<String> UNSTORED_HEADERS = Set.of(
+			HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+			HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+			HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+			HttpHeaders.DATE.toLowerCase(Locale.ROOT),
+			HttpHeaders.SET_COOKIE.toLowerCase(Locale.ROOT),
+			HttpHeaders.VARY.toLowerCase(Locale.ROOT),
+			HttpHeaders.AGE.toLowerCase(Locale.ROOT),
+			CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT));
+
+	private final EdgeResponseCache edgeResponseCache;
+
+	public EdgeCacheGatewayFilterFactory(final EdgeResponseCache edgeResponseCache) {
+		super(Config.class);
+		this.edgeResponseCache = edgeResponseCache;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("maxTtlSeconds");
+	}
+
+	@Override
+	public GatewayFilter apply(final Config config) {
+		final long maxTtlSeconds = (config.getMaxTtlSeconds() == null)
+				? this.edgeResponseCache.getMaxTtlSeconds()
+				: Math.min(config.getMaxTtlSeconds(), this.edgeResponseCache.getMaxTtlSeconds());
+
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			final ServerHttpRequest request = exchange.getRequest();
+			final Map<String, String> requestCacheControl = parseCacheControl(request.getHeaders());
+			if (!HttpMethod.GET.equals(request.getMethod())
+					|| request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+					|| requestCacheControl.containsKey("no-store")) {
+				exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "BYPASS");
+				return chain.filter(exchange);
+			}
+
+			final EdgeResponseCache.Key key = keyOf(exchange);
+			final boolean revalidate = requestCacheControl.containsKey("no-cache")
+					|| "0".equals(requestCacheControl.get("max-age"));
+			if (!revalidate) {
+				final CachedResponse cached = this.edgeResponseCache.get(key);
+				if (cached != null)
+					return writeCached(exchange, cached);
+			}
+
+			exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+			return chain.filter(exchange.mutate()
+					.response(new StoringResponse(exchange.getResponse(), key, maxTtlSeconds))
+					.build());
+		}, EDGE_CACHE_FILTER_ORDER);
+	}
+
+	private static EdgeResponseCache.Key keyOf(final ServerWebExchange exchange) {
+		final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		final ServerHttpRequest request = exchange.getRequest();
+		final String query = request.getURI().getRawQuery();
+		final String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+		return new EdgeResponseCache.Key(
+				(route == null) ? "" : route.getId(),
+				request.getURI().getRawPath(),
+				(query == null) ? "" : query,
+				(accept == null) ? "" : accept);
+	}
+
+	private static Mono<Void> writeCached(final ServerWebExchange exchange, final CachedResponse cached) {
+		final ServerHttpResponse response = exchange.getResponse();
+		final HttpHeaders headers = response.getHeaders();
+		headers.set(CACHE_STATUS_HEADER, "HIT");
+		headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(System.currentTimeMillis())));
+
+		final String eTag = cached.getHeaders().getETag();
+		if (eTag != null && matchesIfNoneMatch(exchange.getRequest().getHeaders().getIfNoneMatch(), eTag)) {
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			headers.setETag(eTag);
+			headers.addAll(HttpHeaders.CACHE_CONTROL, cached.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL));
+			return response.setComplete();
+		}
+
+		response.setStatusCode(HttpStatus.OK);
+		cached.getHeaders().forEach((name, values) -> headers.put(name, values));
+		headers.setContentLength(cached.getBody().length);
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.getBody())));
+	}
+
+	// Comparación débil, como la que aplica Spring MVC a los GET condicionales
+	private static boolean matchesIfNoneMatch(final List<String> ifNoneMatch, final String eTag) {
+		final String opaque = stripWeak(eTag);
+		return ifNoneMatch.stream()
+				.anyMatch(candidate -> "*".equals(candidate.trim()) || stripWeak(candidate.trim()).equals(opaque));
+	}
+
+	private static String stripWeak(final String eTag) {
+		return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+	}
+
+	static Map<String, String> parseCacheControl(final HttpHeaders headers) {
+		final Map<String, String> directives = new HashMap<>();
+		headers.getOrEmpty(HttpHeaders.CACHE_CONTROL).stream()
+				.flatMap(value -> Arrays.stream(value.split(",")))
+				.map(String::trim)
+				.filter(directive -> !directive.isEmpty())
+				.forEach(directive -> {
+					final int equals = directive.indexOf('=');
+					if (equals < 0)
+						directives.put(directive.toLowerCase(Locale.ROOT), "");
+					else
+						directives.put(directive.substring(0, equals).trim().toLowerCase(Locale.ROOT),
+								directive.substring(equals + 1).trim().replace("\"", ""));
+				});
+		return directives;
+	}
+
+	/**
+	 * Seconds the response may be shared for, or 0 when the origin does not allow a shared
+	 * cache to keep it.
+	 */
+	static long sharedTtlSeconds(final HttpHeaders responseHeaders) {
+		final Map<String, String> directives = parseCacheControl(responseHeaders);
+		if (directives.containsKey("private") || directives.containsKey("no-store") || directives.containsKey("no-cache"))
+			return 0;
+		final String ttl = directives.containsKey("s-maxage") ? directives.get("s-maxage") : directives.get("max-age");
+		if (ttl == null)
+			return 0;
+		try {
+			return Math.max(0, Long.parseLong(ttl));
+		}
+		catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private class StoringResponse extends ServerHttpResponseDecorator {
+
+		private final EdgeResponseCache.Key key;
+		private final long maxTtlSeconds;
+
+		StoringResponse(final ServerHttpResponse delegate, final EdgeResponseCache.Key key, final long maxTtlSeconds) {
+			super(delegate);
+			this.key = key;
+			this.maxTtlSeconds = maxTtlSeconds;
+		}
+
+		@Override
+		public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+			final long ttlSeconds = Math.min(sharedTtlSeconds(this.getHeaders()), this.maxTtlSeconds);
+			if (!this.isStorable() || ttlSeconds <= 0)
+				return super.writeWith(body);
+
+			return DataBufferUtils.join(body)
+					.flatMap(joined -> {
+						final byte[] bytes = new byte[joined.readableByteCount()];
+						joined.read(bytes);
+						DataBufferUtils.release(joined);
+						if (bytes.length <= edgeResponseCache.getMaxEntryBytes())
+							edgeResponseCache.put(this.key,
+									new CachedResponse(this.storedHeaders(), bytes, System.currentTimeMillis(), ttlSeconds));
+						return super.writeWith(Mono.just(this.bufferFactory().wrap(bytes)));
+					});
+		}
+
+		private boolean isStorable() {
+			final HttpHeaders headers = this.getHeaders();
+			if (!HttpStatus.OK.equals(this.getStatusCode()) || headers.containsKey(HttpHeaders.SET_COOKIE)
+					|| headers.containsKey(HttpHeaders.CONTENT_ENCODING))
+				return false;
+			final long contentLength = headers.getContentLength();
+			if (contentLength > edgeResponseCache.getMaxEntryBytes())
+				return false;
+			// Los flujos (NDJSON, SSE) se escriben con writeAndFlushWith y nunca llegan aquí, pero por si acaso
+			final MediaType contentType = headers.getContentType();
+			return contentType == null
+					|| !(MediaType.APPLICATION_NDJSON.includes(contentType) || MediaType.TEXT_EVENT_STREAM.includes(contentType));
+		}
+
+		private HttpHeaders storedHeaders() {
+			final HttpHeaders stored = new HttpHeaders();
+			this.getHeaders().forEach((name, values) -> {
+				final String lowerName = name.toLowerCase(Locale.ROOT);
+				if (!UNSTORED_HEADERS.contains(lowerName) && !lowerName.startsWith("access-control-"))
+					stored.put(name, List.copyOf(values));
+			});
+			return HttpHeaders.readOnlyHttpHeaders(stored);
+		}
+
+	}
+
+	@Data
+	public static class Config {
+		private Long maxTtlSeconds;
+	}
+
+}
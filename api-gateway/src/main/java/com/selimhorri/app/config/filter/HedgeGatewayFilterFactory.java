@@ -0,0 +1,258 @@
+package com.selimhorri.app.config.filter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+
+import com.selimhorri.app.config.hedging.HedgingPolicy;
+import com.selimhorri.app.config.loadbalancer.LoadBalancerStats;
+
+import lombok.Data;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedges idempotent GETs: if the upstream has not answered after the route's hedge delay (see
+ * {@link HedgingPolicy}) and the hedging budget allows it, the same request is sent again and
+ * the first non-5xx response is written to the client; the other attempt is cancelled, which
+ * closes its connection. Both attempts carry the same {@value LoadBalancerStats#HEDGE_ID_HEADER}
+ * so the load balancer sends the backup to a different instance.
+ * <p>
+ * Each attempt runs the rest of the filter chain on its own copy of the exchange attributes and
+ * into an in-memory response, so streamed responses are never hedged: neither requests that
+ * accept NDJSON or SSE nor paths matching {@code app.hedging.excluded-paths}, whatever they
+ * accept. Routes to the proxy are not hedged here either, its Feign clients already hedge
+ * their calls to the services.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+	
+	// Envuelve el enrutado y la escritura de Netty de cada intento
+	public static final int HEDGE_FILTER_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+	
+	private final HedgingPolicy hedgingPolicy;
+	private final List<String> excludedPaths;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	
+	public HedgeGatewayFilterFactory(final HedgingPolicy hedgingPolicy,
+			@Value("${app.hedging.excluded-paths:/**/stream}") final List<String> excludedPaths) {
+		super(Config.class);
+		this.hedgingPolicy = hedgingPolicy;
+		this.excludedPaths = excludedPaths;
+	}
+	
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("enabled");
+	}
+	
+	@Override
+	public GatewayFilter apply(final Config config) {
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			if (!config.isEnabled() || !this.isHedgeable(exchange.getRequest()))
+				return chain.filter(exchange);
+			
+			final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			final HedgingPolicy.Target target = this.hedgingPolicy.target((route == null) ? "" : route.getId());
+			final ServerHttpRequest request = exchange.getRequest().mutate()
+					.header(LoadBalancerStats.HEDGE_ID_HEADER, UUID.randomUUID().toString())
+					.build();
+			
+			final Mono<Attempt> primary = attempt(exchange, request, chain, target, false);
+			final Mono<Attempt> backup = Mono.delay(target.onRequest())
+					.filter(tick -> target.tryHedge())
+					.flatMap(tick -> attempt(exchange, request, chain, target, true));
+			
+			// El primero que responde sin 5xx gana; takeUntil cancela al otro intento
+			return Flux.merge(primary, backup)
+					.takeUntil(Attempt::isSuccessful)
+					.collectList()
+					.flatMap(attempts -> {
+						final Attempt winner = attempts.stream()
+								.filter(Attempt::isSuccessful)
+								.findFirst()
+								.orElseGet(() -> attempts.stream()
+										.filter(attempt -> !attempt.isHedge())
+										.findFirst()
+										.orElse(attempts.get(0)));
+						if (attempts.size() > 1 || winner.isHedge())
+							target.recordWinner(winner.isHedge());
+						return winner.writeTo(exchange.getResponse());
+					});
+		}, HEDGE_FILTER_ORDER);
+	}
+	
+	private boolean isHedgeable(final ServerHttpRequest request) {
+		if (!HttpMethod.GET.equals(request.getMethod()))
+			return false;
+		// Un stream se pide también sin Accept de stream: se excluye por ruta para no acumularlo en memoria
+		final String path = request.getPath().pathWithinApplication().value();
+		if (this.excludedPaths.stream().anyMatch(pattern -> this.pathMatcher.match(pattern, path)))
+			return false;
+		return request.getHeaders().getAccept().stream()
+				.noneMatch(accept -> MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(accept)
+						|| MediaType.TEXT_EVENT_STREAM.equalsTypeAndSubtype(accept));
+	}
+	
+	private static Mono<Attempt> attempt(final ServerWebExchange exchange, final ServerHttpRequest request,
+			final GatewayFilterChain chain, final HedgingPolicy.Target target, final boolean hedge) {
+		return Mono.defer(() -> {
+			final CapturingResponse response = new CapturingResponse(exchange.getResponse().bufferFactory());
+			final long start = System.nanoTime();
+			return chain.filter(new AttemptExchange(exchange, request, response))
+					.then(Mono.fromSupplier(() -> new Attempt(hedge, response, null)))
+					.onErrorResume(error -> Mono.just(new Attempt(hedge, response, error)))
+					// Un intento cancelado también aporta una cota inferior de la latencia
+					.doFinally(signal -> target.recordLatency(System.nanoTime() - start));
+		});
+	}
+	
+	private static final class Attempt {
+		
+		private final boolean hedge;
+		private final CapturingResponse response;
+		private final Throwable error;
+		
+		Attempt(final boolean hedge, final CapturingResponse response, final Throwable error) {
+			this.hedge = hedge;
+			this.response = response;
+			this.error = error;
+		}
+		
+		boolean isHedge() {
+			return this.hedge;
+		}
+		
+		boolean isSuccessful() {
+			return this.error == null
+					&& (this.response.getRawStatusCode() == null || this.response.getRawStatusCode() < 500);
+		}
+		
+		Mono<Void> writeTo(final ServerHttpResponse target) {
+			if (this.error != null)
+				return Mono.error(this.error);
+			if (this.response.getRawStatusCode() != null)
+				target.setRawStatusCode(this.response.getRawStatusCode());
+			target.getHeaders().putAll(this.response.getHeaders());
+			this.response.getCookies().values().forEach(cookies -> cookies.forEach(target::addCookie));
+			if (this.response.body == null)
+				return target.setComplete();
+			final byte[] body = this.response.body;
+			target.getHeaders().setContentLength(body.length);
+			return target.writeWith(Mono.fromSupplier(() -> target.bufferFactory().wrap(body)));
+		}
+		
+	}
+	
+	/**
+	 * Exchange of one attempt: its own request, response and attributes, so the load balancer
+	 * and routing filters of both attempts do not see each other's state.
+	 */
+	private static final class AttemptExchange extends ServerWebExchangeDecorator {
+		
+		private final ServerHttpRequest request;
+		private final ServerHttpResponse response;
+		private final Map<String, Object> attributes;
+		
+		AttemptExchange(final ServerWebExchange delegate, final ServerHttpRequest request, final ServerHttpResponse response) {
+			super(delegate);
+			this.request = request;
+			this.response = response;
+			this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+		}
+		
+		@Override
+		public ServerHttpRequest getRequest() {
+			return this.request;
+		}
+		
+		@Override
+		public ServerHttpResponse getResponse() {
+			return this.response;
+		}
+		
+		@Override
+		public Map<String, Object> getAttributes() {
+			return this.attributes;
+		}
+		
+	}
+	
+	private static final class CapturingResponse extends AbstractServerHttpResponse {
+		
+		private volatile byte[] body;
+		
+		CapturingResponse(final DataBufferFactory bufferFactory) {
+			super(bufferFactory);
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T getNativeResponse() {
+			return (T) this;
+		}
+		
+		@Override
+		protected Mono<Void> writeWithInternal(final Publisher<? extends DataBuffer> body) {
+			return DataBufferUtils.join(body)
+					.doOnNext(joined -> {
+						final byte[] bytes = new byte[joined.readableByteCount()];
+						joined.read(bytes);
+						DataBufferUtils.release(joined);
+						this.body = bytes;
+					})
+					.then();
+		}
+		
+		@Override
+		protected Mono<Void> writeAndFlushWithInternal(final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return this.writeWithInternal(Flux.from(body).concatMap(Flux::from));
+		}
+		
+		@Override
+		protected void applyStatusCode() {
+			// Se aplica al copiar el intento ganador sobre la respuesta real
+		}
+		
+		@Override
+		protected void applyHeaders() {
+			// Idem
+		}
+		
+		@Override
+		protected void applyCookies() {
+			// Idem
+		}
+		
+	}
+	
+	@Data
+	public static class Config {
+		private boolean enabled = true;
+	}
+	
+}
@@ -0,0 +1,286 @@
+package com.selimhorri.app.config.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compresses routed responses for the client: brotli when it is accepted and the native
+ * library is available, gzip otherwise. Only bodies of an allow-listed media type and of at
+ * least {@code app.compression.min-response-size-bytes} are compressed, chunk by chunk as they
+ * arrive, so a large body is never held whole in memory; streamed responses (NDJSON, SSE) are
+ * left alone so they keep flowing unbuffered.
+ */
+@Component
+@Slf4j
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+
+	public static final String BROTLI = "br";
+	public static final String GZIP = "gzip";
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	private final boolean enabled;
+	private final int minResponseSizeBytes;
+	private final List<MediaType> mimeTypes;
+	private final boolean brotliAvailable;
+	private final Encoder.Parameters brotliParameters;
+	private final MeterRegistry meterRegistry;
+
+	public ResponseCompressionFilter(final MeterRegistry meterRegistry,
+			@Value("${app.compression.enabled:true}") final boolean enabled,
+			@Value("${app.compression.min-response-size-bytes:2048}") final int minResponseSizeBytes,
+			@Value("${app.compression.mime-types:application/json,application/problem+json,text/html,text/plain,text/css,application/javascript}") final List<String> mimeTypes,
+			@Value("${app.compression.brotli.enabled:true}") final boolean brotliEnabled,
+			@Value("${app.compression.brotli.quality:4}") final int brotliQuality) {
+		this.meterRegistry = meterRegistry;
+		this.enabled = enabled;
+		this.minResponseSizeBytes = minResponseSizeBytes;
+		this.mimeTypes = mimeTypes.stream()
+				.map(MediaType::parseMediaType)
+				.collect(Collectors.toUnmodifiableList());
+		this.brotliAvailable = brotliEnabled && Brotli4jLoader.isAvailable();
+		this.brotliParameters = new Encoder.Parameters().setQuality(brotliQuality);
+		if (brotliEnabled && !this.brotliAvailable)
+			log.warn("Brotli native library not available, falling back to gzip: {}",
+					Brotli4jLoader.getUnavailabilityCause().getMessage());
+	}
+
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		final String encoding = this.negotiate(exchange.getRequest().getHeaders());
+		if (encoding == null || HttpMethod.HEAD.equals(exchange.getRequest().getMethod()))
+			return chain.filter(exchange);
+		return chain.filter(exchange.mutate()
+				.response(new CompressingResponse(exchange.getResponse(), encoding))
+				.build());
+	}
+
+	@Override
+	public int getOrder() {
+		// Debe envolver la respuesta antes de que NettyWriteResponseFilter escriba el cuerpo y por fuera
+		// de la caché de borde, que guarda el cuerpo sin comprimir
+		return EdgeCacheGatewayFilterFactory.EDGE_CACHE_FILTER_ORDER - 1;
+	}
+
+	String negotiate(final HttpHeaders requestHeaders) {
+		if (!this.enabled)
+			return null;
+		final List<String> accepted = requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING).stream()
+				.flatMap(value -> List.of(value.split(",")).stream())
+				.map(token -> token.trim().toLowerCase(Locale.ROOT))
+				.filter(token -> !token.endsWith(";q=0"))
+				.map(token -> token.split(";")[0].trim())
+				.collect(Collectors.toList());
+		if (this.brotliAvailable && accepted.contains(BROTLI))
+			return BROTLI;
+		if (accepted.contains(GZIP))
+			return GZIP;
+		return null;
+	}
+
+	private boolean isCompressible(final HttpHeaders responseHeaders) {
+		if (responseHeaders.containsKey(HttpHeaders.CONTENT_ENCODING))
+			return false;
+		final long contentLength = responseHeaders.getContentLength();
+		if (contentLength >= 0 && contentLength < this.minResponseSizeBytes)
+			return false;
+		final MediaType contentType = responseHeaders.getContentType();
+		return contentType != null && this.mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(contentType));
+	}
+
+	private OutputStream encoder(final OutputStream sink, final String encoding) throws IOException {
+		if (BROTLI.equals(encoding))
+			return new BrotliOutputStream(sink, this.brotliParameters);
+		// syncFlush: cada flush entrega lo comprimido hasta ahora en vez de retenerlo en el deflater
+		return new GZIPOutputStream(sink, true);
+	}
+
+	private void record(final String encoding, final long cpuNanos, final long uncompressedBytes, final long compressedBytes) {
+		Timer.builder("gateway.compression.cpu.time")
+				.description("CPU time spent compressing response bodies")
+				.tag("encoding", encoding)
+				.register(this.meterRegistry)
+				.record(cpuNanos, TimeUnit.NANOSECONDS);
+		DistributionSummary.builder("gateway.compression.ratio")
+				.description("Uncompressed size divided by compressed size")
+				.tag("encoding", encoding)
+				.register(this.meterRegistry)
+				.record(compressedBytes == 0 ? 1.0 : (double) uncompressedBytes / compressedBytes);
+		DistributionSummary.builder("gateway.compression.uncompressed.size")
+				.baseUnit("bytes")
+				.tag("encoding", encoding)
+				.register(this.meterRegistry)
+				.record(uncompressedBytes);
+	}
+
+	private void countResponse(final String result) {
+		Counter.builder("gateway.compression.responses")
+				.description("Responses eligible for compression, by outcome")
+				.tag("result", result)
+				.register(this.meterRegistry)
+				.increment();
+	}
+
+	private class CompressingResponse extends ServerHttpResponseDecorator {
+
+		private final String encoding;
+
+		CompressingResponse(final ServerHttpResponse delegate, final String encoding) {
+			super(delegate);
+			this.encoding = encoding;
+		}
+
+		@Override
+		public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+			final HttpHeaders headers = this.getHeaders();
+			if (!isCompressible(headers))
+				return super.writeWith(body);
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+			// Con Content-Length ya se sabe que alcanza el umbral; sin él solo se retiene el principio del
+			// cuerpo hasta llegar al umbral o al final, y a partir de ahí se comprime trozo a trozo
+			final long[] seen = new long[1];
+			return super.writeWith(Flux.<DataBuffer>from(body)
+					.bufferUntil(buffer -> (seen[0] += buffer.readableByteCount()) >= minResponseSizeBytes)
+					.switchOnFirst((first, buffers) -> {
+						final Flux<DataBuffer> chunks = buffers.concatMapIterable(Function.identity());
+						if (!first.hasValue() || seen[0] < minResponseSizeBytes) {
+							countResponse("below-threshold");
+							return chunks;
+						}
+						countResponse("compressed");
+						headers.set(HttpHeaders.CONTENT_ENCODING, this.encoding);
+						headers.remove(HttpHeaders.CONTENT_LENGTH);
+						// Una ETag fuerte identifica la representación sin comprimir
+						final String eTag = headers.getETag();
+						if (eTag != null && !eTag.startsWith("W/"))
+							headers.setETag("W/" + eTag);
+						return this.compress(chunks);
+					})
+					.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release));
+		}
+
+		private Flux<DataBuffer> compress(final Flux<DataBuffer> chunks) {
+			return Flux.using(() -> new StreamingCompression(this.encoding),
+					compression -> chunks
+							.map(chunk -> this.bufferFactory().wrap(compression.write(chunk)))
+							.concatWith(Mono.fromCallable(() -> this.bufferFactory().wrap(compression.finish())))
+							.filter(buffer -> buffer.readableByteCount() > 0),
+					StreamingCompression::close);
+		}
+
+	}
+
+	/**
+	 * Compresses one response body as its chunks arrive: each chunk is flushed through the encoder
+	 * so the client starts receiving data before the upstream finishes, and nothing but the
+	 * encoder window is held in memory.
+	 */
+	private class StreamingCompression {
+
+		private final String encoding;
+		private final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+		private final OutputStream encoder;
+		private final boolean cpuTimeSupported = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+		private long cpuNanos;
+		private long uncompressedBytes;
+		private long compressedBytes;
+		private boolean finished;
+
+		StreamingCompression(final String encoding) throws IOException {
+			this.encoding = encoding;
+			this.encoder = encoder(this.sink, encoding);
+		}
+
+		byte[] write(final DataBuffer chunk) {
+			final byte[] bytes = new byte[chunk.readableByteCount()];
+			chunk.read(bytes);
+			DataBufferUtils.release(chunk);
+			return this.drain(() -> {
+				this.encoder.write(bytes);
+				this.encoder.flush();
+			}, bytes.length);
+		}
+
+		byte[] finish() {
+			final byte[] tail = this.drain(this.encoder::close, 0);
+			this.finished = true;
+			record(this.encoding, this.cpuNanos, this.uncompressedBytes, this.compressedBytes);
+			return tail;
+		}
+
+		void close() {
+			// Respuesta cancelada o con error: se liberan los recursos nativos del encoder de brotli
+			if (!this.finished) {
+				try {
+					this.encoder.close();
+				}
+				catch (IOException e) {
+					log.debug("Could not close the {} encoder of an aborted response", this.encoding, e);
+				}
+			}
+		}
+
+		private byte[] drain(final EncoderAction action, final int inputBytes) {
+			// Se mide el tiempo de CPU del hilo, no el tiempo de pared, para ajustar los umbrales
+			final long start = this.cpuTimeSupported ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+			try {
+				action.run();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			this.cpuNanos += (this.cpuTimeSupported ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime()) - start;
+			final byte[] compressed = this.sink.toByteArray();
+			this.sink.reset();
+			this.uncompressedBytes += inputBytes;
+			this.compressedBytes += compressed.length;
+			return compressed;
+		}
+
+	}
+
+	@FunctionalInterface
+	private interface EncoderAction {
+		void run() throws IOException;
+	}
+
+}
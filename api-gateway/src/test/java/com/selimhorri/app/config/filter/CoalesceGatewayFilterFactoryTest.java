@@ -0,0 +1,153 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class CoalesceGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"productId\":1,\"productTitle\":\"asus\"}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private CoalesceGatewayFilterFactory factory;
+    private AtomicInteger originCalls;
+    private Sinks.Empty<Void> gate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new CoalesceGatewayFilterFactory(meterRegistry, 1000);
+        originCalls = new AtomicInteger();
+        gate = Sinks.empty();
+    }
+
+    @Test
+    void shouldCollapseConcurrentIdenticalGetsIntoOneUpstreamCall() {
+        GatewayFilter filter = factory.apply(new CoalesceGatewayFilterFactory.Config());
+        List<MockServerWebExchange> exchanges = IntStream.range(0, 5)
+                .mapToObj(i -> exchange("/api/products/1"))
+                .collect(Collectors.toList());
+
+        List<Mono<Void>> pending = exchanges.stream()
+                .map(exchange -> filter.filter(exchange, gatedOrigin()).cache())
+                .collect(Collectors.toList());
+        pending.forEach(Mono::subscribe);
+        gate.tryEmitEmpty();
+        Flux.merge(pending).blockLast();
+
+        assertThat(originCalls.get()).isEqualTo(1);
+        exchanges.forEach(exchange -> {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        });
+        assertThat(meterRegistry.get("gateway.coalescing.requests").tag("result", "collapsed").counter().count())
+                .isEqualTo(4.0);
+        assertThat(meterRegistry.get("gateway.coalescing.waiters").summary().max()).isEqualTo(4.0);
+    }
+
+    @Test
+    void shouldNotCollapseDifferentCallers() {
+        GatewayFilter filter = factory.apply(new CoalesceGatewayFilterFactory.Config());
+        Mono<Void> anonymous = filter.filter(exchange("/api/products/1"), gatedOrigin()).cache();
+        Mono<Void> authenticated = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")), gatedOrigin()).cache();
+        Mono<Void> otherPath = filter.filter(exchange("/api/products/2"), gatedOrigin()).cache();
+
+        List.of(anonymous, authenticated, otherPath).forEach(Mono::subscribe);
+        gate.tryEmitEmpty();
+        Flux.merge(anonymous, authenticated, otherPath).blockLast();
+
+        assertThat(originCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRouteWaitersBeyondTheLimitOnTheirOwn() {
+        CoalesceGatewayFilterFactory.Config config = new CoalesceGatewayFilterFactory.Config();
+        config.setMaxWaiters(1);
+        GatewayFilter filter = factory.apply(config);
+
+        List<Mono<Void>> pending = IntStream.range(0, 3)
+                .mapToObj(i -> filter.filter(exchange("/api/products/1"), gatedOrigin()).cache())
+                .collect(Collectors.toList());
+        pending.forEach(Mono::subscribe);
+        gate.tryEmitEmpty();
+        Flux.merge(pending).blockLast();
+
+        assertThat(originCalls.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("gateway.coalescing.requests").tag("result", "overflow").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldPropagateLeaderFailureToWaiters() {
+        GatewayFilter filter = factory.apply(new CoalesceGatewayFilterFactory.Config());
+        GatewayFilterChain failingOrigin = exchange -> {
+            originCalls.incrementAndGet();
+            return gate.asMono().then(Mono.error(new IllegalStateException("upstream down")));
+        };
+
+        Mono<Void> leader = filter.filter(exchange("/api/products/1"), failingOrigin).cache();
+        Mono<Void> waiter = filter.filter(exchange("/api/products/1"), failingOrigin).cache();
+        leader.subscribe(null, e -> { });
+        waiter.subscribe(null, e -> { });
+        gate.tryEmitEmpty();
+
+        assertThat(waiter.onErrorResume(IllegalStateException.class, e -> Mono.empty()).then(Mono.just(true)).block())
+                .isTrue();
+        assertThat(originCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPassThroughWhenDisabled() {
+        CoalesceGatewayFilterFactory.Config config = new CoalesceGatewayFilterFactory.Config();
+        config.setEnabled(false);
+        GatewayFilter filter = factory.apply(config);
+
+        Mono<Void> first = filter.filter(exchange("/api/products/1"), gatedOrigin()).cache();
+        Mono<Void> second = filter.filter(exchange("/api/products/1"), gatedOrigin()).cache();
+        List.of(first, second).forEach(Mono::subscribe);
+        gate.tryEmitEmpty();
+        Flux.merge(first, second).blockLast();
+
+        assertThat(originCalls.get()).isEqualTo(2);
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private GatewayFilterChain gatedOrigin() {
+        return exchange -> {
+            originCalls.incrementAndGet();
+            return gate.asMono().then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                DataBuffer buffer = response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8));
+                return response.writeWith(Mono.just(buffer));
+            }));
+        };
+    }
+}
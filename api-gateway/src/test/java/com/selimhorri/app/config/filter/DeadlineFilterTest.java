@@ -0,0 +1,106 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.selimhorri.app.config.deadline.Deadline;
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class DeadlineFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DeadlineFilter(meterRegistry, true, 200, List.of("/**/stream"));
+    }
+
+    @Test
+    void shouldStampTheDeadlineOnRoutedRequests() {
+        final AtomicReference<String> forwarded = new AtomicReference<>();
+        final long before = System.currentTimeMillis();
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/app/api/products")), capturing(forwarded)).block();
+
+        assertThat(Long.parseLong(forwarded.get())).isBetween(before + 200, System.currentTimeMillis() + 200);
+    }
+
+    @Test
+    void shouldKeepAnEarlierClientDeadlineButNeverALaterOne() {
+        final AtomicReference<String> forwarded = new AtomicReference<>();
+        final long earlier = System.currentTimeMillis() + 50;
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/app/api/products")
+                .header(Deadline.HEADER, Long.toString(earlier))), capturing(forwarded)).block();
+        assertThat(forwarded.get()).isEqualTo(Long.toString(earlier));
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/app/api/products")
+                .header(Deadline.HEADER, Long.toString(earlier + 60_000))), capturing(forwarded)).block();
+        assertThat(Long.parseLong(forwarded.get())).isLessThan(earlier + 60_000);
+    }
+
+    @Test
+    void shouldAnswerGatewayTimeoutWithoutRoutingAnExpiredRequest() {
+        final AtomicBoolean routed = new AtomicBoolean();
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/app/api/products")
+                .header(Deadline.HEADER, Long.toString(System.currentTimeMillis() - 1)));
+
+        filter.filter(exchange, routedExchange -> {
+            routed.set(true);
+            return Mono.empty();
+        }).block();
+
+        assertThat(routed).isFalse();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(meterRegistry.get("deadline.exceeded").tag("stage", "inbound").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCancelTheRouteWhenTheDeadlinePasses() {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/app/api/products"));
+
+        filter.filter(exchange, routedExchange -> Mono.delay(Duration.ofSeconds(5)).then()).block(Duration.ofSeconds(2));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(meterRegistry.get("deadline.exceeded").tag("hop", DeadlineFilter.HOP)
+                .tag("stage", DeadlineMetrics.INBOUND).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLeaveStreamsWithoutDeadline() {
+        final AtomicReference<String> forwarded = new AtomicReference<>("unset");
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/app/api/products/stream")
+                .header(Deadline.HEADER, "1")), capturing(forwarded)).block();
+        assertThat(forwarded.get()).isNull();
+
+        forwarded.set("unset");
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/app/api/orders")
+                .accept(MediaType.APPLICATION_NDJSON)), capturing(forwarded)).block();
+        assertThat(forwarded.get()).isNull();
+    }
+
+    private static GatewayFilterChain capturing(final AtomicReference<String> forwarded) {
+        return routedExchange -> {
+            forwarded.set(routedExchange.getRequest().getHeaders().getFirst(Deadline.HEADER));
+            return Mono.empty();
+        };
+    }
+}
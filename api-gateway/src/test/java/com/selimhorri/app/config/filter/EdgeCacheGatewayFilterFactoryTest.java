@@ -0,0 +1,128 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.selimhorri.app.cache.EdgeResponseCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class EdgeCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"collection\":[{\"productId\":1,\"productTitle\":\"asus\"}]}";
+    private static final String SHARED = "max-age=0, public, s-maxage=60";
+
+    private EdgeResponseCache edgeResponseCache;
+    private GatewayFilter filter;
+    private AtomicInteger originCalls;
+
+    @BeforeEach
+    void setUp() {
+        edgeResponseCache = new EdgeResponseCache(new SimpleMeterRegistry(), 1024 * 1024, 64 * 1024, 300);
+        filter = new EdgeCacheGatewayFilterFactory(edgeResponseCache).apply(new EdgeCacheGatewayFilterFactory.Config());
+        originCalls = new AtomicInteger();
+    }
+
+    @Test
+    void shouldServeSecondRequestFromCache() {
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/products?page=1"));
+        filter.filter(first, origin(SHARED)).block();
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/api/products?page=1"));
+        filter.filter(second, origin(SHARED)).block();
+
+        assertThat(originCalls.get()).isEqualTo(1);
+        assertThat(first.getResponse().getHeaders().getFirst(EdgeCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo("MISS");
+        HttpHeaders headers = second.getResponse().getHeaders();
+        assertThat(headers.getFirst(EdgeCacheGatewayFilterFactory.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(headers.getETag()).isEqualTo("W/\"v1\"");
+        assertThat(headers.getFirst(HttpHeaders.AGE)).isNotNull();
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void shouldKeySeparatelyOnQueryAndAccept() {
+        filter.filter(exchange(MockServerHttpRequest.get("/api/products?page=1")), origin(SHARED)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/products?page=2")), origin(SHARED)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/products?page=1")
+                .accept(MediaType.APPLICATION_JSON)), origin(SHARED)).block();
+
+        assertThat(originCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWithNotModified() {
+        filter.filter(exchange(MockServerHttpRequest.get("/api/products/1")), origin(SHARED)).block();
+        MockServerWebExchange conditional = exchange(MockServerHttpRequest.get("/api/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""));
+        filter.filter(conditional, origin(SHARED)).block();
+
+        assertThat(originCalls.get()).isEqualTo(1);
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(conditional.getResponse().getBodyAsString().block()).isEmpty();
+    }
+
+    @Test
+    void shouldNotStorePrivateOrNoCacheResponses() {
+        filter.filter(exchange(MockServerHttpRequest.get("/api/products/1")), origin("no-cache, private")).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/products/1")), origin("no-cache, private")).block();
+
+        assertThat(originCalls.get()).isEqualTo(2);
+        assertThat(edgeResponseCache.size()).isZero();
+    }
+
+    @Test
+    void shouldBypassAuthenticatedRequests() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/products/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+        filter.filter(exchange, origin(SHARED)).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(EdgeCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo("BYPASS");
+        assertThat(edgeResponseCache.size()).isZero();
+    }
+
+    @Test
+    void shouldGoToOriginAgainAfterPurge() {
+        filter.filter(exchange(MockServerHttpRequest.get("/api/products/1")), origin(SHARED)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/categories/1")), origin(SHARED)).block();
+
+        assertThat(edgeResponseCache.purge("/api/products")).isEqualTo(1);
+        filter.filter(exchange(MockServerHttpRequest.get("/api/products/1")), origin(SHARED)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/categories/1")), origin(SHARED)).block();
+
+        assertThat(originCalls.get()).isEqualTo(3);
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private GatewayFilterChain origin(String cacheControl) {
+        return exchange -> {
+            originCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setETag("W/\"v1\"");
+            response.getHeaders().set(HttpHeaders.CACHE_CONTROL, cacheControl);
+            DataBuffer buffer = response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8));
+            return response.writeWith(Mono.just(buffer));
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.selimhorri.app.config.hedging.HedgingPolicy;
+import com.selimhorri.app.config.loadbalancer.LoadBalancerStats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class HedgeGatewayFilterFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter filter;
+    private AtomicInteger attempts;
+    private List<String> hedgeIds;
+    private AtomicBoolean slowAttemptCancelled;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Sin muestras suficientes el retardo es el máximo: 50 ms
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(meterRegistry, 0.95, 10, 50, 1000, 5);
+        filter = new HedgeGatewayFilterFactory(hedgingPolicy, List.of("/**/stream")).apply(new HedgeGatewayFilterFactory.Config());
+        attempts = new AtomicInteger();
+        hedgeIds = new CopyOnWriteArrayList<>();
+        slowAttemptCancelled = new AtomicBoolean();
+    }
+
+    @Test
+    void shouldAnswerWithTheBackupWhenThePrimaryIsSlow() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/1"));
+
+        filter.filter(exchange, origin(Duration.ofSeconds(5), Duration.ZERO)).block(Duration.ofSeconds(2));
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(hedgeIds).hasSize(2).doesNotContainNull();
+        assertThat(hedgeIds.get(0)).isEqualTo(hedgeIds.get(1));
+        assertThat(slowAttemptCancelled.get()).isTrue();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"attempt\":2}");
+        assertThat(meterRegistry.get("hedging.wins").tag("winner", "hedge").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotHedgeFastResponses() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/1"));
+
+        filter.filter(exchange, origin(Duration.ZERO, Duration.ZERO)).block(Duration.ofSeconds(2));
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"attempt\":1}");
+    }
+
+    @Test
+    void shouldNotHedgeWritesOrStreams() {
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/api/orders"));
+        MockServerWebExchange stream = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/stream")
+                .accept(MediaType.APPLICATION_NDJSON));
+
+        // Un stream pedido sin Accept de stream también queda fuera: lo excluye su ruta
+        MockServerWebExchange streamWithoutAccept = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/product-service/api/products/stream").accept(MediaType.ALL));
+
+        filter.filter(post, origin(Duration.ofMillis(200), Duration.ZERO)).block(Duration.ofSeconds(2));
+        filter.filter(stream, origin(Duration.ofMillis(200), Duration.ZERO)).block(Duration.ofSeconds(2));
+        filter.filter(streamWithoutAccept, origin(Duration.ofMillis(200), Duration.ZERO)).block(Duration.ofSeconds(2));
+
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(hedgeIds).containsOnlyNulls();
+    }
+
+    private GatewayFilterChain origin(Duration firstDelay, Duration otherDelay) {
+        return exchange -> {
+            int attempt = attempts.incrementAndGet();
+            hedgeIds.add(exchange.getRequest().getHeaders().getFirst(LoadBalancerStats.HEDGE_ID_HEADER));
+            return Mono.delay(attempt == 1 ? firstDelay : otherDelay)
+                    .doOnCancel(() -> slowAttemptCancelled.set(true))
+                    .then(Mono.defer(() -> {
+                        ServerHttpResponse response = exchange.getResponse();
+                        response.setStatusCode(HttpStatus.OK);
+                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        byte[] body = ("{\"attempt\":" + attempt + "}").getBytes(StandardCharsets.UTF_8);
+                        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+                    }));
+        };
+    }
+}
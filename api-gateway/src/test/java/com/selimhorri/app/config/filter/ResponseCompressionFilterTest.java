@@ -0,0 +1,174 @@
+package com.selimhorri.app.config.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ResponseCompressionFilterTest {
+
+    private static final String LARGE_BODY = "{\"collection\":[" + "{\"productId\":1,\"productTitle\":\"asus\"},".repeat(200) + "{}]}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ResponseCompressionFilter(meterRegistry, true, 1024,
+                List.of("application/json", "text/plain"), true, 4);
+    }
+
+    @Test
+    void shouldGzipLargeJsonResponses() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip, deflate");
+
+        filter.filter(exchange, writing(MediaType.APPLICATION_JSON, LARGE_BODY)).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(headers.getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gunzip(bodyOf(exchange))).isEqualTo(LARGE_BODY);
+        assertThat(meterRegistry.get("gateway.compression.ratio").tag("encoding", "gzip").summary().mean())
+                .isGreaterThan(1.0);
+        assertThat(meterRegistry.get("gateway.compression.cpu.time").tag("encoding", "gzip").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldCompressChunkedBodiesChunkByChunk() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip");
+        List<String> chunks = Collections.nCopies(40, "{\"productId\":1,\"productTitle\":\"asus\"},");
+
+        filter.filter(exchange, streaming(MediaType.APPLICATION_JSON, chunks)).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(headers.getContentLength()).isEqualTo(-1);
+        List<byte[]> written = exchange.getResponse().getBody()
+                .map(ResponseCompressionFilterTest::bytesOf)
+                .collectList()
+                .block();
+        // Lo retenido hasta alcanzar el umbral sale en un trozo; cada trozo siguiente se comprime y se envía solo
+        assertThat(written).hasSizeGreaterThan(chunks.size() / 2);
+        assertThat(gunzip(concat(written))).isEqualTo(String.join("", chunks));
+    }
+
+    @Test
+    void shouldPreferBrotliWhenAcceptedAndAvailable() throws IOException {
+        assumeTrue(Brotli4jLoader.isAvailable());
+        MockServerWebExchange exchange = exchange("gzip, br");
+
+        filter.filter(exchange, writing(MediaType.APPLICATION_JSON, LARGE_BODY)).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+        assertThat(new String(Decoder.decompress(bodyOf(exchange)).getDecompressedData(), StandardCharsets.UTF_8))
+                .isEqualTo(LARGE_BODY);
+    }
+
+    @Test
+    void shouldLeaveSmallResponsesUncompressed() {
+        MockServerWebExchange exchange = exchange("gzip");
+
+        filter.filter(exchange, writing(MediaType.APPLICATION_JSON, "{\"productId\":1}")).block();
+
+        assertThat(exchange.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(new String(bodyOf(exchange), StandardCharsets.UTF_8)).isEqualTo("{\"productId\":1}");
+        assertThat(meterRegistry.get("gateway.compression.responses").tag("result", "below-threshold").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldLeaveMediaTypesOutsideTheAllowListUncompressed() {
+        MockServerWebExchange exchange = exchange("gzip");
+
+        filter.filter(exchange, writing(MediaType.IMAGE_PNG, LARGE_BODY)).block();
+
+        assertThat(exchange.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    void shouldNotCompressWhenClientDoesNotAcceptIt() {
+        assertThat(filter.negotiate(new HttpHeaders())).isNull();
+        HttpHeaders identityOnly = new HttpHeaders();
+        identityOnly.add(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity");
+        assertThat(filter.negotiate(identityOnly)).isNull();
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/products")
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+    }
+
+    private static GatewayFilterChain writing(MediaType contentType, String body) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.getHeaders().setContentType(contentType);
+            DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+            return response.writeWith(Mono.just(buffer));
+        };
+    }
+
+    private static GatewayFilterChain streaming(MediaType contentType, List<String> chunks) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.getHeaders().setContentType(contentType);
+            return response.writeWith(Flux.fromIterable(chunks)
+                    .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] concat(List<byte[]> parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parts.forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static byte[] bytesOf(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    private static byte[] bodyOf(MockServerWebExchange exchange) {
+        return DataBufferUtils.join(exchange.getResponse().getBody())
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .block();
+    }
+}
@@ -0,0 +1,81 @@
+package com.selimhorri.app.config.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+import com.selimhorri.app.config.deadline.DeadlineRequestFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * The pooled, instrumented Apache HttpClient behind every service's {@code RestTemplate}. Each
+ * service only declares its {@code @LoadBalanced} bean, built with {@link #restTemplate}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnClass(PoolingHttpClientConnectionManager.class)
+public class HttpClientConfig {
+	
+	public static final String POOL_NAME = "restTemplate";
+	
+	@Bean(destroyMethod = "close")
+	public PoolingHttpClientConnectionManager httpClientConnectionManager(
+			@Value("${app.http-client.max-total:200}") final int maxTotal,
+			@Value("${app.http-client.max-per-route:50}") final int maxPerRoute,
+			@Value("${app.http-client.validate-after-inactivity-millis:2000}") final int validateAfterInactivityMillis,
+			@Value("${app.http-client.time-to-live-seconds:300}") final long timeToLiveSeconds) {
+		// La URL ya viene resuelta por el balanceador, así que cada ruta es una instancia concreta
+		final PoolingHttpClientConnectionManager connectionManager =
+				new PoolingHttpClientConnectionManager(timeToLiveSeconds, TimeUnit.SECONDS);
+		connectionManager.setMaxTotal(maxTotal);
+		connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+		connectionManager.setValidateAfterInactivity(validateAfterInactivityMillis);
+		return connectionManager;
+	}
+	
+	@Bean(destroyMethod = "close")
+	public CloseableHttpClient outboundHttpClient(final PoolingHttpClientConnectionManager httpClientConnectionManager,
+			@Value("${app.http-client.idle-timeout-seconds:30}") final long idleTimeoutSeconds,
+			@Value("${app.http-client.connect-timeout-millis:2000}") final int connectTimeoutMillis,
+			@Value("${app.http-client.connection-request-timeout-millis:2000}") final int connectionRequestTimeoutMillis,
+			@Value("${app.http-client.socket-timeout-millis:5000}") final int socketTimeoutMillis) {
+		return HttpClients.custom()
+				.setConnectionManager(httpClientConnectionManager)
+				.evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS)
+				.evictExpiredConnections()
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout(connectTimeoutMillis)
+						.setConnectionRequestTimeout(connectionRequestTimeoutMillis)
+						// Sin deadline (tareas programadas, relay del outbox) una respuesta que no llega no bloquea el hilo
+						.setSocketTimeout(socketTimeoutMillis)
+						.build())
+				.build();
+	}
+	
+	@Bean
+	public MeterBinder httpClientConnectionPoolMetrics(final PoolingHttpClientConnectionManager httpClientConnectionManager) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(httpClientConnectionManager, POOL_NAME);
+	}
+	
+	public static RestTemplate restTemplate(final CloseableHttpClient outboundHttpClient, final DeadlineMetrics deadlineMetrics) {
+		// Cada llamada lleva el deadline de la petición y solo espera lo que queda de él
+		final RestTemplate restTemplate = new RestTemplate(new DeadlineRequestFactory(outboundHttpClient, deadlineMetrics));
+		// Las respuestas se piden en Smile; los cuerpos de las peticiones siguen saliendo en JSON
+		restTemplate.getInterceptors().add(new PreferSmileInterceptor());
+		return restTemplate;
+	}
+	
+}
@@ -0,0 +1,33 @@
+package com.selimhorri.app.config.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Moves Smile to the front of the Accept header RestTemplate derives from its converters, so
+ * other services answer in the binary format whenever the response type can be read from it.
+ */
+public class PreferSmileInterceptor implements ClientHttpRequestInterceptor {
+	
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+	public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+	
+	@Override
+	public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+			final ClientHttpRequestExecution execution) throws IOException {
+		final List<MediaType> accept = new ArrayList<>(request.getHeaders().getAccept());
+		if (accept.remove(APPLICATION_SMILE)) {
+			accept.add(0, APPLICATION_SMILE);
+			request.getHeaders().setAccept(accept);
+		}
+		return execution.execute(request, body);
+	}
+	
+}
@@ -0,0 +1,78 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+import com.selimhorri.app.config.deadline.ReactiveDeadlines;
+import com.selimhorri.app.service.RemoteResourceService;
+import com.selimhorri.app.service.impl.RemoteResourceServiceImpl;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The pooled, load-balanced Reactor Netty {@link WebClient} and the {@link RemoteResourceService}
+ * built on it, for the servlet services that bring WebFlux to read other services without
+ * holding a thread. The gateway is reactive and routes with its own client.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnClass({ WebClient.class, HttpClient.class })
+public class WebClientConfig {
+	
+	public static final String POOL_NAME = "webClient";
+	
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider webClientConnectionProvider(
+			@Value("${app.web-client.max-connections:200}") final int maxConnections,
+			@Value("${app.web-client.pending-acquire-timeout-millis:2000}") final long pendingAcquireTimeoutMillis,
+			@Value("${app.web-client.max-idle-time-seconds:30}") final long maxIdleTimeSeconds) {
+		return ConnectionProvider.builder(POOL_NAME)
+				.maxConnections(maxConnections)
+				.pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+				.maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+				.evictInBackground(Duration.ofSeconds(maxIdleTimeSeconds))
+				.metrics(true)
+				.build();
+	}
+	
+	// Reactor Netty: las llamadas remotas no ocupan un hilo mientras esperan la respuesta
+	@LoadBalanced
+	@Bean
+	public WebClient.Builder loadBalancedWebClientBuilder(final ConnectionProvider webClientConnectionProvider,
+			final DeadlineMetrics deadlineMetrics,
+			@Value("${app.web-client.connect-timeout-millis:2000}") final int connectTimeoutMillis,
+			@Value("${app.web-client.response-timeout-millis:5000}") final long responseTimeoutMillis,
+			@Value("${app.web-client.max-in-memory-size-bytes:16777216}") final int maxInMemorySizeBytes) {
+		final HttpClient httpClient = HttpClient.create(webClientConnectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+				.responseTimeout(Duration.ofMillis(responseTimeoutMillis))
+				.compress(true);
+		return WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.defaultHeader(HttpHeaders.ACCEPT, PreferSmileInterceptor.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_JSON_VALUE)
+				.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySizeBytes))
+				.filter(ReactiveDeadlines.exchangeFilter(deadlineMetrics));
+	}
+	
+	@Bean
+	public RemoteResourceService remoteResourceService(@LoadBalanced final WebClient.Builder loadBalancedWebClientBuilder,
+			@Value("${app.web-client.bulk-chunk-size:100}") final int bulkChunkSize,
+			@Value("${app.web-client.max-concurrency:4}") final int maxConcurrency) {
+		return new RemoteResourceServiceImpl(loadBalancedWebClientBuilder, bulkChunkSize, maxConcurrency);
+	}
+	
+}
@@ -0,0 +1,118 @@
+package com.selimhorri.app.config.deadline;
+
+import java.util.function.Supplier;
+
+/**
+ * Point in time after which the caller no longer waits for an answer. It travels between hops
+ * in the {@value #HEADER} header as epoch milliseconds: the gateway stamps it and every service
+ * keeps the one of the request it is serving in a thread-local ({@link #current()}), so its
+ * outbound calls and transactions can be given only the budget that is left.
+ */
+public final class Deadline {
+	
+	public static final String HEADER = "X-Request-Deadline";
+	
+	private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+	
+	private final long epochMillis;
+	
+	private Deadline(final long epochMillis) {
+		this.epochMillis = epochMillis;
+	}
+	
+	public static Deadline ofEpochMillis(final long epochMillis) {
+		return new Deadline(epochMillis);
+	}
+	
+	/**
+	 * Parses the header value, or returns {@code null} when it is missing or malformed.
+	 */
+	public static Deadline parse(final String headerValue) {
+		if (headerValue == null || headerValue.isBlank())
+			return null;
+		try {
+			return new Deadline(Long.parseLong(headerValue.trim()));
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Deadline of the request being served on this thread, or {@code null} if it has none.
+	 */
+	public static Deadline current() {
+		return CURRENT.get();
+	}
+	
+	static void set(final Deadline deadline) {
+		if (deadline == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(deadline);
+	}
+	
+	/**
+	 * Runs {@code task} with the deadline of the submitting thread; usable as a
+	 * {@link org.springframework.core.task.TaskDecorator}.
+	 */
+	public static Runnable propagate(final Runnable task) {
+		final Deadline deadline = current();
+		if (deadline == null)
+			return task;
+		return () -> {
+			final Deadline previous = current();
+			set(deadline);
+			try {
+				task.run();
+			}
+			finally {
+				set(previous);
+			}
+		};
+	}
+	
+	/**
+	 * Runs {@code task} with {@code deadline} as the current one, for work that must finish
+	 * sooner than the request it belongs to.
+	 */
+	public static <T> T supplyWithin(final Deadline deadline, final Supplier<T> task) {
+		final Deadline previous = current();
+		set(deadline);
+		try {
+			return task.get();
+		}
+		finally {
+			set(previous);
+		}
+	}
+	
+	/**
+	 * {@code timeoutMillis} capped by what is left of the current deadline, if any. A
+	 * non-positive timeout means "no timeout" and is replaced by the remaining budget.
+	 */
+	public static int capMillis(final int timeoutMillis) {
+		final Deadline deadline = current();
+		if (deadline == null)
+			return timeoutMillis;
+		final long remaining = Math.max(1, deadline.remainingMillis());
+		return (int) ((timeoutMillis <= 0) ? Math.min(remaining, Integer.MAX_VALUE) : Math.min(timeoutMillis, remaining));
+	}
+	
+	public long getEpochMillis() {
+		return this.epochMillis;
+	}
+	
+	public long remainingMillis() {
+		return this.epochMillis - System.currentTimeMillis();
+	}
+	
+	public boolean isExpired() {
+		return this.remainingMillis() <= 0;
+	}
+	
+	public String toHeaderValue() {
+		return Long.toString(this.epochMillis);
+	}
+	
+}
@@ -0,0 +1,32 @@
+package com.selimhorri.app.config.deadline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// El gateway es reactivo y sella el deadline con su propio filtro
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class DeadlineConfig {
+	
+	@Bean
+	public DeadlineMetrics deadlineMetrics(final MeterRegistry meterRegistry,
+			@Value("${spring.application.name}") final String applicationName) {
+		return new DeadlineMetrics(meterRegistry, applicationName);
+	}
+	
+	@Bean
+	public FilterRegistrationBean<DeadlineFilter> deadlineFilter(final DeadlineMetrics deadlineMetrics) {
+		final FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(new DeadlineFilter(deadlineMetrics));
+		// Antes que el resto de filtros: una petición vencida no debe llegar ni a la seguridad
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+	
+}
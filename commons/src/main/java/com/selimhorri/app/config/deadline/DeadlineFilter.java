@@ -0,0 +1,53 @@
+package com.selimhorri.app.config.deadline;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the {@value Deadline#HEADER} header into {@link Deadline#current()} for the rest of
+ * the request, and answers 504 straight away when the deadline has already passed.
+ */
+@Slf4j
+public class DeadlineFilter extends OncePerRequestFilter {
+	
+	private final DeadlineMetrics deadlineMetrics;
+	
+	public DeadlineFilter(final DeadlineMetrics deadlineMetrics) {
+		this.deadlineMetrics = deadlineMetrics;
+	}
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		final Deadline deadline = Deadline.parse(request.getHeader(Deadline.HEADER));
+		if (deadline == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		if (deadline.isExpired()) {
+			log.debug("Dropping {} {}: deadline passed {} ms ago", request.getMethod(), request.getRequestURI(),
+					-deadline.remainingMillis());
+			this.deadlineMetrics.exceeded(DeadlineMetrics.INBOUND);
+			response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded");
+			return;
+		}
+		
+		Deadline.set(deadline);
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			Deadline.set(null);
+		}
+	}
+	
+}
@@ -0,0 +1,34 @@
+package com.selimhorri.app.config.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts work dropped because its deadline had passed, tagged with this hop (the application
+ * name) and the stage that noticed it: {@code inbound} (request arrived too late),
+ * {@code outbound} (remote call not made) or {@code transaction} (transaction not begun).
+ */
+public class DeadlineMetrics {
+	
+	public static final String INBOUND = "inbound";
+	public static final String OUTBOUND = "outbound";
+	public static final String TRANSACTION = "transaction";
+	
+	private final MeterRegistry meterRegistry;
+	private final String hop;
+	
+	public DeadlineMetrics(final MeterRegistry meterRegistry, final String hop) {
+		this.meterRegistry = meterRegistry;
+		this.hop = hop;
+	}
+	
+	public void exceeded(final String stage) {
+		Counter.builder("deadline.exceeded")
+				.description("Work dropped because the request deadline had passed")
+				.tag("hop", this.hop)
+				.tag("stage", stage)
+				.register(this.meterRegistry)
+				.increment();
+	}
+	
+}
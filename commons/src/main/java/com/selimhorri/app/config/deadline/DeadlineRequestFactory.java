@@ -0,0 +1,53 @@
+package com.selimhorri.app.config.deadline;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+
+/**
+ * RestTemplate request factory that forwards the current {@link Deadline}, caps the socket and
+ * pool timeouts of each call by the budget left, and refuses to start a call once the deadline
+ * has passed.
+ */
+public class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory {
+	
+	private final DeadlineMetrics deadlineMetrics;
+	
+	public DeadlineRequestFactory(final HttpClient httpClient, final DeadlineMetrics deadlineMetrics) {
+		super(httpClient);
+		this.deadlineMetrics = deadlineMetrics;
+	}
+	
+	@Override
+	public ClientHttpRequest createRequest(final URI uri, final HttpMethod httpMethod) throws IOException {
+		final Deadline deadline = Deadline.current();
+		if (deadline != null && deadline.isExpired()) {
+			this.deadlineMetrics.exceeded(DeadlineMetrics.OUTBOUND);
+			throw new DeadlineExceededException(String.format("Deadline exceeded before calling %s %s", httpMethod, uri));
+		}
+		final ClientHttpRequest request = super.createRequest(uri, httpMethod);
+		if (deadline != null)
+			request.getHeaders().set(Deadline.HEADER, deadline.toHeaderValue());
+		return request;
+	}
+	
+	@Override
+	protected RequestConfig createRequestConfig(final Object client) {
+		final RequestConfig requestConfig = super.createRequestConfig(client);
+		if (Deadline.current() == null)
+			return requestConfig;
+		final RequestConfig base = (requestConfig == null) ? RequestConfig.DEFAULT : requestConfig;
+		return RequestConfig.copy(base)
+				.setSocketTimeout(Deadline.capMillis(base.getSocketTimeout()))
+				.setConnectionRequestTimeout(Deadline.capMillis(base.getConnectionRequestTimeout()))
+				.build();
+	}
+	
+}
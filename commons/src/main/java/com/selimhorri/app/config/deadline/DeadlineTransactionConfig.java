@@ -0,0 +1,27 @@
+package com.selimhorri.app.config.deadline;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+// Solo en los servicios con JPA; el proxy no tiene transacciones propias
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnClass(name = "org.springframework.orm.jpa.JpaTransactionManager")
+public class DeadlineTransactionConfig {
+	
+	// Sustituye al JpaTransactionManager de Spring Boot, con las mismas personalizaciones
+	@Bean
+	public PlatformTransactionManager transactionManager(final DeadlineMetrics deadlineMetrics,
+			final ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+		final DeadlineTransactionManager transactionManager = new DeadlineTransactionManager(deadlineMetrics);
+		transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+		return transactionManager;
+	}
+	
+}
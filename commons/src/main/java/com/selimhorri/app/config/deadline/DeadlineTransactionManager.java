@@ -0,0 +1,44 @@
+package com.selimhorri.app.config.deadline;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+
+/**
+ * JPA transaction manager that does not begin a transaction once the request's
+ * {@link Deadline} has passed, and otherwise gives it at most the seconds that are left as
+ * its timeout, which the queries of the transaction inherit.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final transient DeadlineMetrics deadlineMetrics;
+	
+	public DeadlineTransactionManager(final DeadlineMetrics deadlineMetrics) {
+		this.deadlineMetrics = deadlineMetrics;
+	}
+	
+	@Override
+	protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+		final Deadline deadline = Deadline.current();
+		if (deadline != null && deadline.isExpired()) {
+			this.deadlineMetrics.exceeded(DeadlineMetrics.TRANSACTION);
+			throw new DeadlineExceededException("Deadline exceeded before beginning transaction " + definition.getName());
+		}
+		super.doBegin(transaction, definition);
+	}
+	
+	@Override
+	protected int determineTimeout(final TransactionDefinition definition) {
+		final int timeout = super.determineTimeout(definition);
+		final Deadline deadline = Deadline.current();
+		if (deadline == null)
+			return timeout;
+		// Los timeouts de transacción van en segundos: se redondea hacia arriba para no cortar antes de tiempo
+		final int remainingSeconds = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (deadline.remainingMillis() + 999) / 1000));
+		return (timeout == TransactionDefinition.TIMEOUT_DEFAULT) ? remainingSeconds : Math.min(timeout, remainingSeconds);
+	}
+	
+}
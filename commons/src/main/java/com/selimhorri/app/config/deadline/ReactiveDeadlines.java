@@ -0,0 +1,58 @@
+package com.selimhorri.app.config.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * {@link Deadline} support for the reactive endpoints, whose work runs off the request thread.
+ * {@link #bind} captures the deadline while the pipeline is assembled, times the pipeline out
+ * with it and puts it in the Reactor context, where {@link #exchangeFilter} picks it up to
+ * forward and enforce it on every WebClient call.
+ */
+public final class ReactiveDeadlines {
+	
+	private ReactiveDeadlines() {
+		
+	}
+	
+	public static <T> Mono<T> bind(final Mono<T> mono) {
+		final Deadline deadline = Deadline.current();
+		if (deadline == null)
+			return mono;
+		return mono
+				.timeout(Duration.ofMillis(Math.max(1, deadline.remainingMillis())))
+				.onErrorMap(TimeoutException.class, e -> new DeadlineExceededException("Deadline exceeded while serving the request", e))
+				.contextWrite(Context.of(Deadline.class, deadline));
+	}
+	
+	public static ExchangeFilterFunction exchangeFilter(final DeadlineMetrics deadlineMetrics) {
+		return (request, next) -> Mono.deferContextual(context -> {
+			final Deadline deadline = context.<Deadline>getOrEmpty(Deadline.class).orElseGet(Deadline::current);
+			if (deadline == null)
+				return next.exchange(request);
+			if (deadline.isExpired()) {
+				deadlineMetrics.exceeded(DeadlineMetrics.OUTBOUND);
+				return Mono.error(new DeadlineExceededException(
+						String.format("Deadline exceeded before calling %s %s", request.method(), request.url())));
+			}
+			return next.exchange(ClientRequest.from(request)
+							.header(Deadline.HEADER, deadline.toHeaderValue())
+							.build())
+					.timeout(Duration.ofMillis(Math.max(1, deadline.remainingMillis())))
+					.onErrorMap(TimeoutException.class, e -> {
+						deadlineMetrics.exceeded(DeadlineMetrics.OUTBOUND);
+						return new DeadlineExceededException(
+								String.format("Deadline exceeded while calling %s %s", request.method(), request.url()), e);
+					});
+		});
+	}
+	
+}
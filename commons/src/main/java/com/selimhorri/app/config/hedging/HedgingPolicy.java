@@ -0,0 +1,159 @@
+package com.selimhorri.app.config.hedging;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * When and how often to hedge idempotent reads, per target (a gateway route or a Feign
+ * method). The hedge delay is the configured percentile of the target's recent latencies,
+ * clamped between {@code minDelay} and {@code maxDelay}; until {@code minSamples} latencies
+ * have been seen it is {@code maxDelay}.
+ * <p>
+ * Backups are paid from a token bucket: every request adds {@code budgetPercent / 100} of a
+ * token and a backup costs a whole one, so hedging adds at most that share of extra load (plus
+ * a burst of {@value #BURST_TOKENS} backups after a quiet period).
+ */
+public class HedgingPolicy {
+	
+	private static final int WINDOW_SIZE = 512;
+	private static final int BURST_TOKENS = 10;
+	private static final long TOKEN = 1_000_000L;
+	private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+	
+	private final Map<String, Target> targets = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+	private final LongSupplier nanoClock;
+	private final double percentile;
+	private final long minDelayNanos;
+	private final long maxDelayNanos;
+	private final int minSamples;
+	private final long depositPerRequest;
+	
+	public HedgingPolicy(final MeterRegistry meterRegistry, final double percentile, final long minDelayMillis,
+			final long maxDelayMillis, final int minSamples, final double budgetPercent) {
+		this(meterRegistry, System::nanoTime, percentile, minDelayMillis, maxDelayMillis, minSamples, budgetPercent);
+	}
+	
+	HedgingPolicy(final MeterRegistry meterRegistry, final LongSupplier nanoClock, final double percentile,
+			final long minDelayMillis, final long maxDelayMillis, final int minSamples, final double budgetPercent) {
+		this.meterRegistry = meterRegistry;
+		this.nanoClock = nanoClock;
+		this.percentile = percentile;
+		this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+		this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+		this.minSamples = Math.min(minSamples, WINDOW_SIZE);
+		this.depositPerRequest = Math.round(budgetPercent / 100.0 * TOKEN);
+	}
+	
+	public Target target(final String name) {
+		return this.targets.computeIfAbsent(name, Target::new);
+	}
+	
+	/**
+	 * Latency window, budget and metrics of one target.
+	 */
+	public final class Target {
+		
+		private final long[] window = new long[WINDOW_SIZE];
+		private final AtomicLong budget = new AtomicLong(BURST_TOKENS * TOKEN);
+		private final Counter hedged;
+		private final Counter budgetExhausted;
+		private final Counter primaryWins;
+		private final Counter hedgeWins;
+		private long samples;
+		private volatile long delayNanos;
+		private volatile long delayComputedAtNanos;
+		
+		Target(final String name) {
+			this.delayNanos = maxDelayNanos;
+			this.delayComputedAtNanos = nanoClock.getAsLong();
+			this.hedged = this.requests(name, "hedged");
+			this.budgetExhausted = this.requests(name, "budget-exhausted");
+			this.primaryWins = this.wins(name, "primary");
+			this.hedgeWins = this.wins(name, "hedge");
+			Gauge.builder("hedging.delay", this, target -> target.delayNanos / 1_000_000.0)
+					.description("Delay before a backup request is sent")
+					.baseUnit("milliseconds")
+					.tag("target", name)
+					.register(meterRegistry);
+		}
+		
+		private Counter requests(final String name, final String outcome) {
+			return Counter.builder("hedging.requests")
+					.description("Requests that reached the hedge delay, by outcome")
+					.tag("target", name)
+					.tag("outcome", outcome)
+					.register(meterRegistry);
+		}
+		
+		private Counter wins(final String name, final String winner) {
+			return Counter.builder("hedging.wins")
+					.description("Hedged requests, by the attempt that answered first")
+					.tag("target", name)
+					.tag("winner", winner)
+					.register(meterRegistry);
+		}
+		
+		/**
+		 * Called once per request: pays into the budget and returns how long to wait before
+		 * hedging it.
+		 */
+		public Duration onRequest() {
+			this.budget.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(current + deposit, BURST_TOKENS * TOKEN));
+			final long now = nanoClock.getAsLong();
+			if (now - this.delayComputedAtNanos > DELAY_REFRESH_NANOS) {
+				this.delayComputedAtNanos = now;
+				this.delayNanos = this.computeDelay();
+			}
+			return Duration.ofNanos(this.delayNanos);
+		}
+		
+		/**
+		 * Takes a token for a backup request; false when the budget is spent.
+		 */
+		public boolean tryHedge() {
+			final long left = this.budget.getAndUpdate(current -> (current >= TOKEN) ? current - TOKEN : current);
+			if (left < TOKEN) {
+				this.budgetExhausted.increment();
+				return false;
+			}
+			this.hedged.increment();
+			return true;
+		}
+		
+		public synchronized void recordLatency(final long latencyNanos) {
+			this.window[(int) (this.samples++ % WINDOW_SIZE)] = latencyNanos;
+		}
+		
+		public void recordWinner(final boolean hedge) {
+			(hedge ? this.hedgeWins : this.primaryWins).increment();
+		}
+		
+		public Duration delay() {
+			return Duration.ofNanos(this.delayNanos);
+		}
+		
+		private long computeDelay() {
+			final long[] sorted;
+			synchronized (this) {
+				if (this.samples < minSamples)
+					return maxDelayNanos;
+				sorted = Arrays.copyOf(this.window, (int) Math.min(this.samples, WINDOW_SIZE));
+			}
+			Arrays.sort(sorted);
+			final int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+			return Math.max(minDelayNanos, Math.min(maxDelayNanos, sorted[Math.max(0, index)]));
+		}
+		
+	}
+	
+}
@@ -0,0 +1,34 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces Spring Cloud LoadBalancer's round robin with {@link PeakEwmaLoadBalancer} for every
+ * service, and registers the shared {@link LoadBalancerStats} the clients report to.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+	
+	@Bean
+	public LoadBalancerStats loadBalancerStats(final MeterRegistry meterRegistry,
+			@Value("${app.load-balancer.decay-seconds:10}") final long decaySeconds,
+			@Value("${app.load-balancer.ejection.error-rate-threshold:0.5}") final double errorRateThreshold,
+			@Value("${app.load-balancer.ejection.latency-threshold-millis:2000}") final long latencyThresholdMillis,
+			@Value("${app.load-balancer.ejection.minimum-requests:10}") final int minimumRequests,
+			@Value("${app.load-balancer.ejection.base-seconds:30}") final long baseEjectionSeconds,
+			@Value("${app.load-balancer.ejection.max-seconds:300}") final long maxEjectionSeconds,
+			@Value("${app.load-balancer.stale-request-seconds:60}") final long staleRequestSeconds,
+			@Value("${app.load-balancer.latency-excluded-paths:/**/stream,/**/bulk/**}") final List<String> latencyExcludedPaths) {
+		return new LoadBalancerStats(meterRegistry, decaySeconds, errorRateThreshold, latencyThresholdMillis,
+				minimumRequests, baseEjectionSeconds, maxEjectionSeconds, staleRequestSeconds, latencyExcludedPaths);
+	}
+	
+}
@@ -0,0 +1,354 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.AntPathMatcher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-instance latency, load and error statistics fed by the load balancer lifecycle, which
+ * every client calls around each request: gateway lb:// routes, {@code @LoadBalanced}
+ * RestTemplates and WebClients, and Feign clients.
+ * <p>
+ * Latency is tracked twice. The peak EWMA, where a slower sample replaces the average at once
+ * and faster samples decay it over {@code decay}, ranks instances for the balancer. A plain
+ * EWMA over the same decay decides ejection, so one slow request cannot eject an instance. An
+ * instance whose decayed error rate or latency crosses its threshold is ejected for
+ * {@code baseEjection} times the number of times it has been ejected (capped at
+ * {@code maxEjection}) and starts over with clean statistics when it comes back. Requests to
+ * {@code latencyExcludedPaths} (streams, bulk operations) are long by design: they count for
+ * errors and load but not for latency. The balancer drops the statistics, and the meters, of
+ * instances that discovery no longer lists.
+ * <p>
+ * Attempts of a hedged request share an {@value #HEDGE_ID_HEADER} header; the balancer uses
+ * {@link InstanceStats#isServing(String)} to send the backup to a different instance.
+ */
+@Slf4j
+public class LoadBalancerStats implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+	
+	public static final String HEDGE_ID_HEADER = "X-Hedge-Id";
+	
+	private final Map<String, InstanceStats> instances = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+	private final LongSupplier nanoClock;
+	private final long decayNanos;
+	private final double errorRateThreshold;
+	private final long latencyThresholdNanos;
+	private final int minimumRequests;
+	private final long baseEjectionNanos;
+	private final long maxEjectionNanos;
+	private final long staleRequestNanos;
+	private final List<String> latencyExcludedPaths;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	
+	public LoadBalancerStats(final MeterRegistry meterRegistry, final long decaySeconds, final double errorRateThreshold,
+			final long latencyThresholdMillis, final int minimumRequests, final long baseEjectionSeconds,
+			final long maxEjectionSeconds, final long staleRequestSeconds, final List<String> latencyExcludedPaths) {
+		this(meterRegistry, System::nanoTime, decaySeconds, errorRateThreshold, latencyThresholdMillis, minimumRequests,
+				baseEjectionSeconds, maxEjectionSeconds, staleRequestSeconds, latencyExcludedPaths);
+	}
+	
+	LoadBalancerStats(final MeterRegistry meterRegistry, final LongSupplier nanoClock, final long decaySeconds,
+			final double errorRateThreshold, final long latencyThresholdMillis, final int minimumRequests,
+			final long baseEjectionSeconds, final long maxEjectionSeconds, final long staleRequestSeconds,
+			final List<String> latencyExcludedPaths) {
+		this.meterRegistry = meterRegistry;
+		this.nanoClock = nanoClock;
+		this.decayNanos = TimeUnit.SECONDS.toNanos(decaySeconds);
+		this.errorRateThreshold = errorRateThreshold;
+		this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+		this.minimumRequests = minimumRequests;
+		this.baseEjectionNanos = TimeUnit.SECONDS.toNanos(baseEjectionSeconds);
+		this.maxEjectionNanos = TimeUnit.SECONDS.toNanos(maxEjectionSeconds);
+		this.staleRequestNanos = TimeUnit.SECONDS.toNanos(staleRequestSeconds);
+		this.latencyExcludedPaths = List.copyOf(latencyExcludedPaths);
+	}
+	
+	public InstanceStats statsOf(final ServiceInstance instance) {
+		return this.instances.computeIfAbsent(keyOf(instance), key -> this.register(instance));
+	}
+	
+	/**
+	 * Drops the statistics and meters of the instances of {@code serviceId} that discovery no
+	 * longer lists, once no request is in flight to them.
+	 */
+	public void retain(final String serviceId, final Collection<ServiceInstance> live) {
+		final Set<String> liveKeys = live.stream().map(LoadBalancerStats::keyOf).collect(Collectors.toSet());
+		this.instances.forEach((key, stats) -> {
+			if (serviceId.equalsIgnoreCase(stats.serviceId) && !liveKeys.contains(key) && stats.outstanding() == 0
+					&& this.instances.remove(key, stats)) {
+				stats.meters.forEach(this.meterRegistry::remove);
+				log.info("Dropped load balancer statistics of {} instance {}", stats.serviceId, stats.address);
+			}
+		});
+	}
+	
+	@Override
+	public void onStart(final Request<Object> request) {
+		// Nada que registrar hasta que se elige una instancia
+	}
+	
+	@Override
+	public void onStartRequest(final Request<Object> request, final Response<ServiceInstance> lbResponse) {
+		if (lbResponse != null && lbResponse.hasServer())
+			this.statsOf(lbResponse.getServer()).start(request.getContext());
+	}
+	
+	@Override
+	public void onComplete(final CompletionContext<Object, ServiceInstance, Object> completionContext) {
+		final Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+		if (CompletionContext.Status.DISCARD.equals(completionContext.status())
+				|| lbResponse == null || !lbResponse.hasServer())
+			return;
+		final boolean failed = CompletionContext.Status.FAILED.equals(completionContext.status())
+				|| isServerError(completionContext.getClientResponse());
+		this.statsOf(lbResponse.getServer())
+				.complete(completionContext.getLoadBalancerRequest().getContext(), failed);
+	}
+	
+	/**
+	 * Hedge id of the request, when the client passed its headers along with the request context.
+	 */
+	public static String hedgeIdOf(final Object context) {
+		if (!(context instanceof RequestDataContext) || ((RequestDataContext) context).getClientRequest() == null)
+			return null;
+		return ((RequestDataContext) context).getClientRequest().getHeaders().getFirst(HEDGE_ID_HEADER);
+	}
+	
+	private boolean isLatencyExcluded(final Object context) {
+		if (!(context instanceof RequestDataContext) || ((RequestDataContext) context).getClientRequest() == null
+				|| ((RequestDataContext) context).getClientRequest().getUrl() == null)
+			return false;
+		final String path = ((RequestDataContext) context).getClientRequest().getUrl().getPath();
+		return path != null && this.latencyExcludedPaths.stream().anyMatch(pattern -> this.pathMatcher.match(pattern, path));
+	}
+	
+	private static boolean isServerError(final Object clientResponse) {
+		try {
+			if (clientResponse instanceof ResponseData)
+				return ((ResponseData) clientResponse).getHttpStatus() != null
+						&& ((ResponseData) clientResponse).getHttpStatus().is5xxServerError();
+			if (clientResponse instanceof ClientHttpResponse)
+				return ((ClientHttpResponse) clientResponse).getRawStatusCode() >= 500;
+		}
+		catch (IOException e) {
+			return true;
+		}
+		return false;
+	}
+	
+	private static String keyOf(final ServiceInstance instance) {
+		return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+	}
+	
+	private InstanceStats register(final ServiceInstance instance) {
+		final InstanceStats stats = new InstanceStats(instance.getServiceId(), instance.getHost() + ":" + instance.getPort());
+		final Tags tags = Tags.of("service", String.valueOf(stats.serviceId), "instance", stats.address);
+		stats.meters.add(Gauge.builder("loadbalancer.instance.score", stats, InstanceStats::score)
+				.description("Peak-EWMA cost of the instance (latency in ms times outstanding requests + 1)")
+				.tags(tags)
+				.register(this.meterRegistry));
+		stats.meters.add(Gauge.builder("loadbalancer.instance.latency", stats, s -> s.latencyNanos() / 1_000_000.0)
+				.description("Peak-EWMA latency of the instance")
+				.baseUnit("milliseconds")
+				.tags(tags)
+				.register(this.meterRegistry));
+		stats.meters.add(Gauge.builder("loadbalancer.instance.latency.ewma", stats, s -> s.ewmaLatencyNanos() / 1_000_000.0)
+				.description("Decayed latency of the instance, compared with the ejection threshold")
+				.baseUnit("milliseconds")
+				.tags(tags)
+				.register(this.meterRegistry));
+		stats.meters.add(Gauge.builder("loadbalancer.instance.outstanding", stats, InstanceStats::outstanding)
+				.description("Requests in flight to the instance")
+				.tags(tags)
+				.register(this.meterRegistry));
+		stats.meters.add(Gauge.builder("loadbalancer.instance.error.rate", stats, InstanceStats::errorRate)
+				.description("Decayed share of failed requests")
+				.tags(tags)
+				.register(this.meterRegistry));
+		stats.meters.add(Gauge.builder("loadbalancer.instance.ejected", stats, s -> s.isEjected() ? 1 : 0)
+				.description("1 while the instance is ejected as an outlier")
+				.tags(tags)
+				.register(this.meterRegistry));
+		stats.ejections = Counter.builder("loadbalancer.instance.ejections")
+				.description("Times the instance was ejected as an outlier")
+				.tags(tags)
+				.register(this.meterRegistry);
+		stats.meters.add(stats.ejections);
+		return stats;
+	}
+	
+	/**
+	 * Statistics of one instance. Outstanding requests are tracked per request context, so a
+	 * request whose completion is never reported (a cancelled exchange) stops counting once it
+	 * is older than {@code staleRequest}.
+	 */
+	public final class InstanceStats {
+		
+		private final String serviceId;
+		private final String address;
+		private final Map<RequestKey, InFlight> inFlight = new ConcurrentHashMap<>();
+		private final List<Meter> meters = new ArrayList<>();
+		private Counter ejections;
+		
+		private double latencyNanos;
+		private double ewmaLatencyNanos;
+		private double errorRate;
+		private long samples;
+		private long lastSampleNanos;
+		private long lastPurgeNanos;
+		private long ejectedUntilNanos;
+		private int ejectionCount;
+		
+		InstanceStats(final String serviceId, final String address) {
+			this.serviceId = serviceId;
+			this.address = address;
+		}
+		
+		void start(final Object context) {
+			final long now = nanoClock.getAsLong();
+			this.inFlight.put(new RequestKey(context), new InFlight(now, hedgeIdOf(context), !isLatencyExcluded(context)));
+			if (now - this.lastPurgeNanos > TimeUnit.SECONDS.toNanos(1)) {
+				this.lastPurgeNanos = now;
+				this.inFlight.values().removeIf(request -> now - request.startedAtNanos > staleRequestNanos);
+			}
+		}
+		
+		void complete(final Object context, final boolean failed) {
+			final InFlight request = this.inFlight.remove(new RequestKey(context));
+			if (request == null)
+				return;
+			this.record(request.timed ? nanoClock.getAsLong() - request.startedAtNanos : -1, failed);
+		}
+		
+		// Un rttNanos negativo registra solo el resultado: la latencia de la petición no es representativa
+		synchronized void record(final long rttNanos, final boolean failed) {
+			final long now = nanoClock.getAsLong();
+			final double weight = (this.samples == 0) ? 0.0
+					: Math.exp(-(double) (now - this.lastSampleNanos) / Math.max(1, decayNanos));
+			this.lastSampleNanos = now;
+			this.samples++;
+			if (rttNanos >= 0) {
+				// Peak EWMA: un pico se adopta de inmediato y sólo se olvida con el tiempo
+				this.latencyNanos = (rttNanos > this.latencyNanos) ? rttNanos
+						: this.latencyNanos * weight + rttNanos * (1 - weight);
+				this.ewmaLatencyNanos = (this.ewmaLatencyNanos == 0) ? rttNanos
+						: this.ewmaLatencyNanos * weight + rttNanos * (1 - weight);
+			}
+			this.errorRate = this.errorRate * weight + (failed ? 1.0 : 0.0) * (1 - weight);
+			
+			// La expulsión usa la media sin picos: una petición lenta aislada no saca a la instancia
+			if (!this.isEjected() && this.samples >= minimumRequests
+					&& (this.errorRate >= errorRateThreshold || this.ewmaLatencyNanos >= latencyThresholdNanos))
+				this.eject(now);
+		}
+		
+		private void eject(final long now) {
+			this.ejectionCount++;
+			final long duration = Math.min(baseEjectionNanos * this.ejectionCount, maxEjectionNanos);
+			this.ejectedUntilNanos = now + duration;
+			// Vuelve con estadísticas limpias para no ser expulsada otra vez por muestras viejas
+			this.samples = 0;
+			this.latencyNanos = 0;
+			this.ewmaLatencyNanos = 0;
+			this.errorRate = 0;
+			this.ejections.increment();
+			log.warn("Ejecting {} instance {} for {}s", this.serviceId, this.address, TimeUnit.NANOSECONDS.toSeconds(duration));
+		}
+		
+		public synchronized boolean isEjected() {
+			return this.ejectedUntilNanos != 0 && nanoClock.getAsLong() < this.ejectedUntilNanos;
+		}
+		
+		/**
+		 * Whether an attempt of the given hedged request is still in flight to this instance.
+		 */
+		public boolean isServing(final String hedgeId) {
+			return hedgeId != null && this.inFlight.values().stream().anyMatch(request -> hedgeId.equals(request.hedgeId));
+		}
+		
+		public int outstanding() {
+			return this.inFlight.size();
+		}
+		
+		public synchronized double latencyNanos() {
+			return this.latencyNanos;
+		}
+		
+		public synchronized double ewmaLatencyNanos() {
+			return this.ewmaLatencyNanos;
+		}
+		
+		public synchronized double errorRate() {
+			return this.errorRate;
+		}
+		
+		/**
+		 * Peak-EWMA cost: latency (in ms, at least 1) times outstanding requests plus one, so an
+		 * idle slow instance and a busy fast one compare on expected wait.
+		 */
+		public double score() {
+			return Math.max(1.0, this.latencyNanos() / 1_000_000.0) * (this.outstanding() + 1);
+		}
+		
+	}
+	
+	private static final class InFlight {
+		
+		private final long startedAtNanos;
+		private final String hedgeId;
+		private final boolean timed;
+		
+		InFlight(final long startedAtNanos, final String hedgeId, final boolean timed) {
+			this.startedAtNanos = startedAtNanos;
+			this.hedgeId = hedgeId;
+			this.timed = timed;
+		}
+		
+	}
+	
+	// Los contextos de petición definen equals por contenido: dos peticiones iguales no deben confundirse
+	private static final class RequestKey {
+		
+		private final Object context;
+		
+		RequestKey(final Object context) {
+			this.context = context;
+		}
+		
+		@Override
+		public boolean equals(final Object other) {
+			return other instanceof RequestKey && ((RequestKey) other).context == this.context;
+		}
+		
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.context);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,103 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Picks an instance by power of two choices: two random candidates are compared and the
+ * cheaper one wins, by peak-EWMA cost or by outstanding requests alone. Ejected outliers are
+ * skipped unless that would leave fewer than {@code 100 - maxEjectedPercent}% of the
+ * instances, in which case every instance is considered again. The backup attempt of a hedged
+ * request never goes to an instance still serving the first attempt, if there is another.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+	
+	public enum Strategy {
+		PEAK_EWMA, LEAST_OUTSTANDING
+	}
+	
+	private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+	private final String serviceId;
+	private final LoadBalancerStats loadBalancerStats;
+	private final Strategy strategy;
+	private final int maxEjectedPercent;
+	
+	public PeakEwmaLoadBalancer(final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+			final String serviceId, final LoadBalancerStats loadBalancerStats, final Strategy strategy,
+			final int maxEjectedPercent) {
+		this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+		this.serviceId = serviceId;
+		this.loadBalancerStats = loadBalancerStats;
+		this.strategy = strategy;
+		this.maxEjectedPercent = maxEjectedPercent;
+	}
+	
+	@Override
+	public Mono<Response<ServiceInstance>> choose(final Request request) {
+		final ServiceInstanceListSupplier supplier = this.serviceInstanceListSupplierProvider
+				.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		final String hedgeId = LoadBalancerStats.hedgeIdOf(request.getContext());
+		return supplier.get(request).next().map(instances -> this.choose(instances, hedgeId));
+	}
+	
+	Response<ServiceInstance> choose(final List<ServiceInstance> instances, final String hedgeId) {
+		if (instances.isEmpty()) {
+			log.warn("No servers available for service: {}", this.serviceId);
+			return new EmptyResponse();
+		}
+		// Las instancias que el registro ya no lista dejan de tener estadísticas y métricas
+		this.loadBalancerStats.retain(this.serviceId, instances);
+		
+		final List<ServiceInstance> candidates = this.excludeHedged(this.healthy(instances), hedgeId);
+		if (candidates.size() == 1)
+			return new DefaultResponse(candidates.get(0));
+		
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		final int first = random.nextInt(candidates.size());
+		int second = random.nextInt(candidates.size() - 1);
+		if (second >= first)
+			second++;
+		final ServiceInstance a = candidates.get(first);
+		final ServiceInstance b = candidates.get(second);
+		return new DefaultResponse((this.cost(b) < this.cost(a)) ? b : a);
+	}
+	
+	private List<ServiceInstance> healthy(final List<ServiceInstance> instances) {
+		final List<ServiceInstance> healthy = instances.stream()
+				.filter(instance -> !this.loadBalancerStats.statsOf(instance).isEjected())
+				.collect(Collectors.toList());
+		final int minimumHealthy = (int) Math.ceil(instances.size() * (100 - this.maxEjectedPercent) / 100.0);
+		// Modo pánico: si se expulsaran demasiadas, se reparte entre todas
+		return (healthy.isEmpty() || healthy.size() < minimumHealthy) ? instances : healthy;
+	}
+	
+	private List<ServiceInstance> excludeHedged(final List<ServiceInstance> candidates, final String hedgeId) {
+		if (hedgeId == null)
+			return candidates;
+		final List<ServiceInstance> others = candidates.stream()
+				.filter(instance -> !this.loadBalancerStats.statsOf(instance).isServing(hedgeId))
+				.collect(Collectors.toList());
+		return others.isEmpty() ? candidates : others;
+	}
+	
+	private double cost(final ServiceInstance instance) {
+		final LoadBalancerStats.InstanceStats stats = this.loadBalancerStats.statsOf(instance);
+		return Strategy.LEAST_OUTSTANDING.equals(this.strategy) ? stats.outstanding() : stats.score();
+	}
+	
+}
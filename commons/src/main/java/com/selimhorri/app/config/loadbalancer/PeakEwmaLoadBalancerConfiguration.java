@@ -0,0 +1,29 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration, applied to every client through
+ * {@link LoadBalancerConfig}. It is loaded in each service's child context, so it must not be
+ * a {@code @Configuration} picked up by component scanning.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+	
+	@Bean
+	public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(final Environment environment,
+			final LoadBalancerClientFactory loadBalancerClientFactory, final LoadBalancerStats loadBalancerStats,
+			@Value("${app.load-balancer.strategy:PEAK_EWMA}") final PeakEwmaLoadBalancer.Strategy strategy,
+			@Value("${app.load-balancer.ejection.max-ejected-percent:50}") final int maxEjectedPercent) {
+		final String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		return new PeakEwmaLoadBalancer(
+				loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+				serviceId, loadBalancerStats, strategy, maxEjectedPercent);
+	}
+	
+}
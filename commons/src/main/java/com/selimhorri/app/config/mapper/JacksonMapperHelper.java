@@ -0,0 +1,27 @@
+package com.selimhorri.app.config.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Builds the JSON and Smile mappers of a service from the same configuration, so a payload
+ * written in one format can always be written in the other (java.time types included).
+ */
+public interface JacksonMapperHelper {
+	
+	public static ObjectMapper jsonMapper() {
+		return configure(JsonMapper.builder()).build();
+	}
+	
+	public static SmileMapper smileMapper() {
+		return configure(SmileMapper.builder()).build();
+	}
+	
+	// Módulos del classpath (JavaTimeModule, Jdk8Module...): los mismos que registra Spring Boot por defecto
+	private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configure(final B builder) {
+		return builder.findAndAddModules();
+	}
+	
+}
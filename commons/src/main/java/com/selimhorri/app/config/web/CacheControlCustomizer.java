@@ -0,0 +1,12 @@
+package com.selimhorri.app.config.web;
+
+/**
+ * Lets a service give some of its {@code /api/**} paths a {@code Cache-Control} other than the
+ * default {@code no-cache, private} of {@link ConditionalRequestConfig}.
+ */
+@FunctionalInterface
+public interface CacheControlCustomizer {
+	
+	void customize(CacheControlMappings mappings);
+	
+}
@@ -0,0 +1,66 @@
+package com.selimhorri.app.config.web;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+
+/**
+ * Per-service {@code Cache-Control} mappings collected from the {@link CacheControlCustomizer}s.
+ * Every mapped path is taken out of the default mapping and gets an interceptor of its own,
+ * because {@link org.springframework.web.servlet.mvc.WebContentInterceptor} does not guarantee
+ * the order in which it matches its patterns.
+ */
+public final class CacheControlMappings {
+	
+	private final List<Mapping> mappings = new ArrayList<>();
+	
+	CacheControlMappings() {
+		
+	}
+	
+	public Mapping add(final CacheControl cacheControl, final String... pathPatterns) {
+		final Mapping mapping = new Mapping(cacheControl, pathPatterns);
+		this.mappings.add(mapping);
+		return mapping;
+	}
+	
+	List<Mapping> getMappings() {
+		return Collections.unmodifiableList(this.mappings);
+	}
+	
+	public static final class Mapping {
+		
+		private final CacheControl cacheControl;
+		private final String[] pathPatterns;
+		private String[] excludePathPatterns = {};
+		
+		private Mapping(final CacheControl cacheControl, final String[] pathPatterns) {
+			this.cacheControl = cacheControl;
+			this.pathPatterns = pathPatterns;
+		}
+		
+		/**
+		 * Paths under {@code pathPatterns} that another mapping handles.
+		 */
+		public Mapping excluding(final String... excludePathPatterns) {
+			this.excludePathPatterns = excludePathPatterns;
+			return this;
+		}
+		
+		CacheControl getCacheControl() {
+			return this.cacheControl;
+		}
+		
+		String[] getPathPatterns() {
+			return this.pathPatterns;
+		}
+		
+		String[] getExcludePathPatterns() {
+			return this.excludePathPatterns;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,69 @@
+package com.selimhorri.app.config.web;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+// GET condicionales sobre /api/**; alcance y coste en docs/PATTERNS.md (Conditional GET).
+// Lo que no sea no-cache, private lo declara cada servicio con un CacheControlCustomizer
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnClass(WebMvcConfigurer.class)
+public class ConditionalRequestConfig implements WebMvcConfigurer {
+	
+	private static final String API_PATH_PATTERN = "/api/**";
+	
+	private final ObjectProvider<CacheControlCustomizer> cacheControlCustomizers;
+	
+	public ConditionalRequestConfig(final ObjectProvider<CacheControlCustomizer> cacheControlCustomizers) {
+		this.cacheControlCustomizers = cacheControlCustomizers;
+	}
+	
+	@Bean
+	public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+		final ShallowEtagHeaderFilter shallowEtagHeaderFilter = new ShallowEtagHeaderFilter();
+		// Débil: Tomcat no comprime respuestas con ETag fuerte, y el cuerpo comprimido no es byte a byte el mismo
+		shallowEtagHeaderFilter.setWriteWeakETag(true);
+		final FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+				new FilterRegistrationBean<>(shallowEtagHeaderFilter);
+		registration.addUrlPatterns("/api/*");
+		registration.setName("shallowEtagHeaderFilter");
+		return registration;
+	}
+	
+	@Override
+	public void addInterceptors(final InterceptorRegistry registry) {
+		final CacheControlMappings cacheControlMappings = new CacheControlMappings();
+		this.cacheControlCustomizers.orderedStream()
+				.forEach(customizer -> customizer.customize(cacheControlMappings));
+		final List<CacheControlMappings.Mapping> mappings = cacheControlMappings.getMappings();
+		
+		final WebContentInterceptor webContentInterceptor = new WebContentInterceptor();
+		webContentInterceptor.addCacheMapping(CacheControl.noCache().cachePrivate(), API_PATH_PATTERN);
+		registry.addInterceptor(webContentInterceptor)
+				.excludePathPatterns(mappings.stream()
+						.flatMap(mapping -> List.of(mapping.getPathPatterns()).stream())
+						.collect(Collectors.toList()));
+		
+		mappings.forEach(mapping -> {
+			final WebContentInterceptor mappedContentInterceptor = new WebContentInterceptor();
+			mappedContentInterceptor.addCacheMapping(mapping.getCacheControl(), mapping.getPathPatterns());
+			registry.addInterceptor(mappedContentInterceptor)
+					.addPathPatterns(mapping.getPathPatterns())
+					.excludePathPatterns(mapping.getExcludePathPatterns());
+		});
+	}
+	
+}
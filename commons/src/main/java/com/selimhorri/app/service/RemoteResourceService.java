@@ -0,0 +1,18 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.core.ParameterizedTypeReference;
+
+import reactor.core.publisher.Mono;
+
+public interface RemoteResourceService {
+	
+	<T> Mono<T> findOne(final String url, final Class<T> type);
+	<R, T> Mono<Map<Integer, T>> findAllByIds(final String bulkUrl, final String idsParam, final Collection<Integer> ids,
+			final Map<String, String> queryParams, final ParameterizedTypeReference<R> responseType,
+			final Function<R, Collection<T>> collectionExtractor, final Function<T, Integer> idExtractor);
+	
+}
@@ -0,0 +1,78 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.selimhorri.app.service.RemoteResourceService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads against other services through the load-balanced {@link WebClient}.
+ * Bulk lookups are split into chunks of ids that are fetched concurrently, with at most
+ * {@code app.web-client.max-concurrency} requests in flight per lookup. Each service reads the
+ * collection out of its own response type, so the bulk endpoints keep their DTOs.
+ */
+public class RemoteResourceServiceImpl implements RemoteResourceService {
+	
+	private final WebClient webClient;
+	private final int bulkChunkSize;
+	private final int maxConcurrency;
+	
+	public RemoteResourceServiceImpl(final WebClient.Builder loadBalancedWebClientBuilder, final int bulkChunkSize,
+			final int maxConcurrency) {
+		this.webClient = loadBalancedWebClientBuilder.build();
+		this.bulkChunkSize = bulkChunkSize;
+		this.maxConcurrency = maxConcurrency;
+	}
+	
+	@Override
+	public <T> Mono<T> findOne(final String url, final Class<T> type) {
+		return this.webClient.get()
+				.uri(url)
+				.retrieve()
+				.bodyToMono(type);
+	}
+	
+	@Override
+	public <R, T> Mono<Map<Integer, T>> findAllByIds(final String bulkUrl, final String idsParam, final Collection<Integer> ids,
+			final Map<String, String> queryParams, final ParameterizedTypeReference<R> responseType,
+			final Function<R, Collection<T>> collectionExtractor, final Function<T, Integer> idExtractor) {
+		return Flux.fromIterable(this.chunk(ids))
+				.flatMap(chunk -> this.webClient.get()
+						.uri(this.bulkUri(bulkUrl, idsParam, chunk, queryParams))
+						.retrieve()
+						.bodyToMono(responseType)
+						.flatMapIterable(response -> {
+							final Collection<T> collection = collectionExtractor.apply(response);
+							return (collection == null) ? List.<T>of() : collection;
+						}),
+						this.maxConcurrency)
+				.collectMap(idExtractor, Function.identity());
+	}
+	
+	private List<List<Integer>> chunk(final Collection<Integer> ids) {
+		final List<Integer> all = new ArrayList<>(ids);
+		final List<List<Integer>> chunks = new ArrayList<>();
+		for (int from = 0; from < all.size(); from += this.bulkChunkSize)
+			chunks.add(all.subList(from, Math.min(from + this.bulkChunkSize, all.size())));
+		return chunks;
+	}
+	
+	private String bulkUri(final String bulkUrl, final String idsParam, final List<Integer> ids,
+			final Map<String, String> queryParams) {
+		final UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(bulkUrl)
+				.queryParam(idsParam, ids.toArray());
+		queryParams.forEach(uriBuilder::queryParam);
+		return uriBuilder.toUriString();
+	}
+	
+}
@@ -0,0 +1,47 @@
+package com.selimhorri.app.config.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HttpClientConfigTest {
+
+    private final HttpClientConfig config = new HttpClientConfig();
+
+    @Test
+    void shouldCapTheConnectionPoolPerRoute() {
+        PoolingHttpClientConnectionManager connectionManager = config.httpClientConnectionManager(20, 5, 2000, 300);
+
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(20);
+        assertThat(connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("10.0.0.7", 8700)))).isEqualTo(5);
+        connectionManager.close();
+    }
+
+    @Test
+    void shouldBuildTheRestTemplateOnThePooledClientAndExportPoolMetrics() {
+        PoolingHttpClientConnectionManager connectionManager = config.httpClientConnectionManager(20, 5, 2000, 300);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        RestTemplate restTemplate = HttpClientConfig.restTemplate(
+                config.outboundHttpClient(connectionManager, 30, 2000, 2000, 5000),
+                new DeadlineMetrics(meterRegistry, "TEST-SERVICE"));
+        config.httpClientConnectionPoolMetrics(connectionManager).bindTo(meterRegistry);
+
+        assertThat(restTemplate.getInterceptors()).hasAtLeastOneElementOfType(PreferSmileInterceptor.class);
+        assertThat(restTemplate.getRequestFactory()).isInstanceOf(InterceptingClientHttpRequestFactory.class);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", HttpClientConfig.POOL_NAME).gauge().value()).isEqualTo(20.0);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", HttpClientConfig.POOL_NAME).gauge().value()).isZero();
+        connectionManager.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.selimhorri.app.config.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+class PreferSmileInterceptorTest {
+
+    @Test
+    void shouldAskForSmileFirst() throws Exception {
+        List<MediaType> sentAccept = send(List.of(MediaType.APPLICATION_JSON, PreferSmileInterceptor.APPLICATION_SMILE));
+
+        assertThat(sentAccept).containsExactly(PreferSmileInterceptor.APPLICATION_SMILE, MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void shouldLeaveAcceptAloneWhenTheResponseCannotBeReadAsSmile() throws Exception {
+        List<MediaType> sentAccept = send(List.of(MediaType.TEXT_PLAIN, MediaType.ALL));
+
+        assertThat(sentAccept).containsExactly(MediaType.TEXT_PLAIN, MediaType.ALL);
+    }
+
+    private static List<MediaType> send(final List<MediaType> accept) throws Exception {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://ORDER-SERVICE/api/orders"));
+        request.getHeaders().setAccept(accept);
+        List<MediaType> sentAccept = new ArrayList<>();
+
+        new PreferSmileInterceptor().intercept(request, new byte[0], (sent, body) -> {
+            sentAccept.addAll(sent.getHeaders().getAccept());
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        });
+        return sentAccept;
+    }
+}
@@ -0,0 +1,86 @@
+package com.selimhorri.app.config.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeadlineFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DeadlineFilter(new DeadlineMetrics(meterRegistry, "PAYMENT-SERVICE"));
+    }
+
+    @Test
+    void shouldExposeTheDeadlineWhileServingTheRequest() throws Exception {
+        final long deadline = System.currentTimeMillis() + 1000;
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/payment-service/api/payments");
+        request.addHeader(Deadline.HEADER, Long.toString(deadline));
+        final AtomicReference<Deadline> seen = new AtomicReference<>();
+        final AtomicReference<Integer> cappedTimeout = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(final HttpServletRequest req, final HttpServletResponse resp) {
+                seen.set(Deadline.current());
+                cappedTimeout.set(Deadline.capMillis(30_000));
+            }
+        }));
+
+        assertThat(seen.get().getEpochMillis()).isEqualTo(deadline);
+        assertThat(cappedTimeout.get()).isBetween(1, 1000);
+        assertThat(Deadline.current()).isNull();
+    }
+
+    @Test
+    void shouldRejectAnExpiredRequestWithoutServingIt() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/payment-service/api/payments");
+        request.addHeader(Deadline.HEADER, Long.toString(System.currentTimeMillis() - 1));
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT.value());
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("deadline.exceeded").tag("stage", DeadlineMetrics.INBOUND).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldCarryTheDeadlineToDecoratedTasks() throws Exception {
+        final Deadline deadline = Deadline.ofEpochMillis(System.currentTimeMillis() + 1000);
+        final AtomicReference<Deadline> seen = new AtomicReference<>();
+        Deadline.set(deadline);
+        final Runnable task;
+        try {
+            task = Deadline.propagate(() -> seen.set(Deadline.current()));
+        }
+        finally {
+            Deadline.set(null);
+        }
+
+        final Thread worker = new Thread(task);
+        worker.start();
+        worker.join(5000);
+
+        assertThat(seen.get()).isSameAs(deadline);
+    }
+}
@@ -0,0 +1,71 @@
+package com.selimhorri.app.config.hedging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HedgingPolicyTest {
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private HedgingPolicy hedgingPolicy;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        meterRegistry = new SimpleMeterRegistry();
+        hedgingPolicy = new HedgingPolicy(meterRegistry, clock::get, 0.95, 20, 1000, 50, 5);
+    }
+
+    @Test
+    void shouldWaitTheMaximumDelayUntilEnoughLatenciesAreKnown() {
+        HedgingPolicy.Target target = hedgingPolicy.target("PRODUCT-SERVICE-API");
+        IntStream.range(0, 10).forEach(i -> target.recordLatency(TimeUnit.MILLISECONDS.toNanos(5)));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertThat(target.onRequest()).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldDeriveTheDelayFromTheLatencyPercentile() {
+        HedgingPolicy.Target target = hedgingPolicy.target("PRODUCT-SERVICE-API");
+        IntStream.rangeClosed(1, 100).forEach(i -> target.recordLatency(TimeUnit.MILLISECONDS.toNanos(i)));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertThat(target.onRequest()).isEqualTo(Duration.ofMillis(95));
+        assertThat(meterRegistry.get("hedging.delay").tag("target", "PRODUCT-SERVICE-API").gauge().value())
+                .isEqualTo(95.0);
+    }
+
+    @Test
+    void shouldClampTheDelayToTheMinimum() {
+        HedgingPolicy.Target target = hedgingPolicy.target("PRODUCT-SERVICE-API");
+        IntStream.range(0, 100).forEach(i -> target.recordLatency(TimeUnit.MILLISECONDS.toNanos(1)));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertThat(target.onRequest()).isEqualTo(Duration.ofMillis(20));
+    }
+
+    @Test
+    void shouldCapBackupsToTheBudgetPercentage() {
+        HedgingPolicy.Target target = hedgingPolicy.target("ORDER-SERVICE-API");
+        IntStream.range(0, 10).forEach(i -> assertThat(target.tryHedge()).isTrue());
+        assertThat(target.tryHedge()).isFalse();
+
+        // 5 %: veinte peticiones pagan un respaldo
+        IntStream.range(0, 20).forEach(i -> target.onRequest());
+
+        assertThat(target.tryHedge()).isTrue();
+        assertThat(target.tryHedge()).isFalse();
+        assertThat(meterRegistry.get("hedging.requests").tag("outcome", "budget-exhausted").counter().count())
+                .isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,223 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PeakEwmaLoadBalancerTest {
+
+    private static final ServiceInstance FAST = new DefaultServiceInstance("order-1", "ORDER-SERVICE", "10.0.0.1", 8300, false);
+    private static final ServiceInstance SLOW = new DefaultServiceInstance("order-2", "ORDER-SERVICE", "10.0.0.2", 8300, false);
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private LoadBalancerStats stats;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+        meterRegistry = new SimpleMeterRegistry();
+        stats = new LoadBalancerStats(meterRegistry, clock::get, 10, 0.5, 2000, 5, 30, 300, 60,
+                List.of("/**/stream", "/**/bulk/**"));
+    }
+
+    @Test
+    void shouldPreferTheInstanceWithLowerPeakEwmaLatency() {
+        recordSamples(FAST, 20, false);
+        recordSamples(SLOW, 900, false);
+
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(PeakEwmaLoadBalancer.Strategy.PEAK_EWMA, 50);
+
+        IntStream.range(0, 20).forEach(i ->
+                assertThat(loadBalancer.choose(List.of(FAST, SLOW), null).getServer()).isEqualTo(FAST));
+        assertThat(meterRegistry.get("loadbalancer.instance.score").tag("instance", "10.0.0.2:8300").gauge().value())
+                .isGreaterThan(meterRegistry.get("loadbalancer.instance.score").tag("instance", "10.0.0.1:8300").gauge().value());
+    }
+
+    @Test
+    void shouldAdoptLatencyPeaksAtOnceAndForgetThemOverTime() {
+        recordSamples(FAST, 20, false);
+        stats.statsOf(FAST).record(TimeUnit.MILLISECONDS.toNanos(400), false);
+        assertThat(stats.statsOf(FAST).latencyNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        stats.statsOf(FAST).record(TimeUnit.MILLISECONDS.toNanos(20), false);
+
+        assertThat(stats.statsOf(FAST).latencyNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(25));
+    }
+
+    @Test
+    void shouldPreferTheInstanceWithFewerOutstandingRequests() {
+        stats.onStartRequest(request(), new DefaultResponse(SLOW));
+        stats.onStartRequest(request(), new DefaultResponse(SLOW));
+
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(PeakEwmaLoadBalancer.Strategy.LEAST_OUTSTANDING, 50);
+
+        assertThat(stats.statsOf(SLOW).outstanding()).isEqualTo(2);
+        assertThat(loadBalancer.choose(List.of(FAST, SLOW), null).getServer()).isEqualTo(FAST);
+    }
+
+    @Test
+    void shouldEjectInstancesWhoseServerErrorsCrossTheThreshold() {
+        IntStream.range(0, 5).forEach(i -> {
+            Request<Object> request = request();
+            stats.onStartRequest(request, new DefaultResponse(SLOW));
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+            stats.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, new DefaultResponse(SLOW),
+                    new ResponseData(HttpStatus.SERVICE_UNAVAILABLE, new HttpHeaders(), null, null)));
+        });
+
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(PeakEwmaLoadBalancer.Strategy.PEAK_EWMA, 50);
+
+        assertThat(stats.statsOf(SLOW).isEjected()).isTrue();
+        assertThat(stats.statsOf(SLOW).outstanding()).isZero();
+        IntStream.range(0, 20).forEach(i ->
+                assertThat(loadBalancer.choose(List.of(FAST, SLOW), null).getServer()).isEqualTo(FAST));
+        assertThat(meterRegistry.get("loadbalancer.instance.ejections").tag("instance", "10.0.0.2:8300").counter().count())
+                .isEqualTo(1.0);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThat(stats.statsOf(SLOW).isEjected()).isFalse();
+    }
+
+    @Test
+    void shouldEjectInstancesWhoseLatencyCrossesTheThreshold() {
+        recordSamples(SLOW, 2500, false);
+
+        assertThat(stats.statsOf(SLOW).isEjected()).isTrue();
+    }
+
+    @Test
+    void shouldNotEjectAnInstanceForASingleSlowRequest() {
+        IntStream.range(0, 4).forEach(i -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            stats.statsOf(SLOW).record(TimeUnit.MILLISECONDS.toNanos(20), false);
+        });
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        stats.statsOf(SLOW).record(TimeUnit.MILLISECONDS.toNanos(5000), false);
+
+        // El pico sí pesa al elegir instancia, pero no basta para expulsarla
+        assertThat(stats.statsOf(SLOW).latencyNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5000));
+        assertThat(stats.statsOf(SLOW).ewmaLatencyNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(2000));
+        assertThat(stats.statsOf(SLOW).isEjected()).isFalse();
+    }
+
+    @Test
+    void shouldLeaveStreamsAndBulkRequestsOutOfTheLatency() {
+        IntStream.range(0, 5).forEach(i -> {
+            Request<Object> request = request(i % 2 == 0 ? "/api/products/stream" : "/api/orders/bulk/status");
+            stats.onStartRequest(request, new DefaultResponse(SLOW));
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+            stats.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, new DefaultResponse(SLOW),
+                    new ResponseData(HttpStatus.OK, new HttpHeaders(), null, null)));
+        });
+
+        assertThat(stats.statsOf(SLOW).outstanding()).isZero();
+        assertThat(stats.statsOf(SLOW).latencyNanos()).isZero();
+        assertThat(stats.statsOf(SLOW).isEjected()).isFalse();
+    }
+
+    @Test
+    void shouldFallBackToEveryInstanceWhenTooManyAreEjected() {
+        recordSamples(FAST, 10, true);
+        recordSamples(SLOW, 10, true);
+
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(PeakEwmaLoadBalancer.Strategy.PEAK_EWMA, 50);
+
+        assertThat(loadBalancer.choose(List.of(FAST, SLOW), null).hasServer()).isTrue();
+        assertThat(loadBalancer.choose(List.of(), null).hasServer()).isFalse();
+    }
+
+    @Test
+    void shouldStopCountingRequestsWhoseCompletionIsNeverReported() {
+        stats.onStartRequest(request(), new DefaultResponse(SLOW));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        stats.onStartRequest(request(), new DefaultResponse(SLOW));
+
+        assertThat(stats.statsOf(SLOW).outstanding()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSendTheHedgedAttemptToAnotherInstance() {
+        recordSamples(FAST, 20, false);
+        recordSamples(SLOW, 900, false);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(LoadBalancerStats.HEDGE_ID_HEADER, "hedge-1");
+        Request<Object> primary = new DefaultRequest<>(new RequestDataContext(
+                new RequestData(HttpMethod.GET, URI.create("http://ORDER-SERVICE/api/orders/1"), headers, null, null)));
+        stats.onStartRequest(primary, new DefaultResponse(FAST));
+
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(PeakEwmaLoadBalancer.Strategy.PEAK_EWMA, 50);
+
+        assertThat(LoadBalancerStats.hedgeIdOf(primary.getContext())).isEqualTo("hedge-1");
+        assertThat(loadBalancer.choose(List.of(FAST, SLOW), "hedge-1").getServer()).isEqualTo(SLOW);
+        assertThat(loadBalancer.choose(List.of(FAST, SLOW), "hedge-2").getServer()).isEqualTo(FAST);
+    }
+
+    @Test
+    void shouldDropTheStatisticsAndMetersOfInstancesDiscoveryNoLongerLists() {
+        recordSamples(FAST, 20, false);
+        recordSamples(SLOW, 900, false);
+        Request<Object> inFlight = request();
+        stats.onStartRequest(inFlight, new DefaultResponse(FAST));
+
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(PeakEwmaLoadBalancer.Strategy.PEAK_EWMA, 50);
+        loadBalancer.choose(List.of(SLOW), null);
+
+        assertThat(meterRegistry.find("loadbalancer.instance.score").tag("instance", "10.0.0.1:8300").gauge()).isNotNull();
+
+        stats.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, inFlight, new DefaultResponse(FAST)));
+        loadBalancer.choose(List.of(SLOW), null);
+
+        assertThat(meterRegistry.find("loadbalancer.instance.score").tag("instance", "10.0.0.2:8300").gauge()).isNotNull();
+        assertThat(meterRegistry.find("loadbalancer.instance.ejections").tag("instance", "10.0.0.2:8300").counter()).isNotNull();
+        assertThat(meterRegistry.getMeters()).noneMatch(meter -> "10.0.0.1:8300".equals(meter.getId().getTag("instance")));
+        assertThat(stats.statsOf(FAST).latencyNanos()).isZero();
+    }
+
+    private void recordSamples(ServiceInstance instance, long latencyMillis, boolean failed) {
+        IntStream.range(0, 5).forEach(i -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            stats.statsOf(instance).record(TimeUnit.MILLISECONDS.toNanos(latencyMillis), failed);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private PeakEwmaLoadBalancer loadBalancer(PeakEwmaLoadBalancer.Strategy strategy, int maxEjectedPercent) {
+        return new PeakEwmaLoadBalancer(mock(ObjectProvider.class), "ORDER-SERVICE", stats, strategy, maxEjectedPercent);
+    }
+
+    private static Request<Object> request() {
+        return new DefaultRequest<>(new DefaultRequestContext());
+    }
+
+    private static Request<Object> request(String path) {
+        return new DefaultRequest<>(new RequestDataContext(
+                new RequestData(HttpMethod.GET, URI.create("http://ORDER-SERVICE" + path), new HttpHeaders(), null, null)));
+    }
+}
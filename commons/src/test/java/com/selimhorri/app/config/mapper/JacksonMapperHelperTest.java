@@ -0,0 +1,32 @@
+package com.selimhorri.app.config.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JacksonMapperHelperTest {
+
+    @Test
+    void shouldWriteJavaTimeTypesInSmileAsInJson() throws Exception {
+        Map<String, Instant> payload = Map.of("changedAt", Instant.parse("2026-10-18T10:15:30Z"));
+        ObjectMapper smileMapper = JacksonMapperHelper.smileMapper();
+
+        JsonNode fromSmile = smileMapper.readTree(smileMapper.writeValueAsBytes(payload));
+        JsonNode fromJson = JacksonMapperHelper.jsonMapper().valueToTree(payload);
+
+        assertThat(fromSmile).isEqualTo(fromJson);
+    }
+
+    @Test
+    void shouldRegisterTheSameModulesInBothMappers() {
+        assertThat(JacksonMapperHelper.smileMapper().getRegisteredModuleIds())
+                .isNotEmpty()
+                .isEqualTo(JacksonMapperHelper.jsonMapper().getRegisteredModuleIds());
+    }
+}
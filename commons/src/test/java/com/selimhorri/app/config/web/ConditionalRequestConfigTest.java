@@ -0,0 +1,87 @@
+package com.selimhorri.app.config.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.CacheControl;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+@SpringJUnitWebConfig(ConditionalRequestConfigTest.TestConfig.class)
+class ConditionalRequestConfigTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void shouldKeepUnmappedApiResponsesPrivate() throws Exception {
+        mockMvc.perform(get("/api/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @Test
+    void shouldApplyTheCustomizedMappingInsteadOfTheDefault() throws Exception {
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=0, public, s-maxage=60"));
+    }
+
+    @Test
+    void shouldLeaveExcludedPathsToTheMappingThatOwnsThem() throws Exception {
+        mockMvc.perform(get("/api/products/reservations/r-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import(ConditionalRequestConfig.class)
+    static class TestConfig {
+
+        @Bean
+        CacheControlCustomizer catalogCacheControlCustomizer() {
+            return mappings -> {
+                mappings.add(CacheControl.maxAge(0, TimeUnit.SECONDS).sMaxAge(60, TimeUnit.SECONDS).cachePublic(),
+                        "/api/products/**")
+                        .excluding("/api/products/reservations/**");
+                mappings.add(CacheControl.noStore(), "/api/products/reservations/**");
+            };
+        }
+
+        @Bean
+        TestController testController() {
+            return new TestController();
+        }
+    }
+
+    @RestController
+    static class TestController {
+
+        @GetMapping({ "/api/orders/1", "/api/products/1", "/api/products/reservations/r-1" })
+        String resource() {
+            return "{}";
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.selimhorri.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Mono;
+
+class RemoteResourceServiceImplTest {
+
+    private static final String PRODUCTS_BULK_URL = "http://PRODUCT-SERVICE/product-service/api/products/bulk";
+
+    private List<URI> requestedUris;
+    private RemoteResourceServiceImpl remoteResourceService;
+
+    @BeforeEach
+    void setUp() {
+        requestedUris = new CopyOnWriteArrayList<>();
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requestedUris.add(request.url());
+            String ids = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().get("productIds")
+                    .stream()
+                    .map(id -> "{\"productId\":" + id + "}")
+                    .collect(Collectors.joining(","));
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"collection\":[" + ids + "]}")
+                    .build());
+        });
+        remoteResourceService = new RemoteResourceServiceImpl(builder, 2, 4);
+    }
+
+    @Test
+    void shouldSplitBulkLookupIntoChunks() {
+        Map<Integer, Product> result = remoteResourceService.findAllByIds(
+                PRODUCTS_BULK_URL, "productIds", List.of(1, 2, 3, 4, 5), Map.of("status", "ACTIVE"),
+                new ParameterizedTypeReference<ProductPage>() {}, ProductPage::getCollection, Product::getProductId)
+                .block();
+
+        assertThat(result).containsOnlyKeys(1, 2, 3, 4, 5);
+        assertThat(requestedUris).hasSize(3);
+        assertThat(requestedUris).allSatisfy(uri -> assertThat(uri.getQuery()).contains("status=ACTIVE"));
+    }
+
+    @Test
+    void shouldNotCallRemoteServiceForEmptyIds() {
+        Map<Integer, Product> result = remoteResourceService.findAllByIds(
+                PRODUCTS_BULK_URL, "productIds", List.of(), Map.of(),
+                new ParameterizedTypeReference<ProductPage>() {}, ProductPage::getCollection, Product::getProductId)
+                .block();
+
+        assertThat(result).isEmpty();
+        assertThat(requestedUris).isEmpty();
+    }
+
+    @Test
+    void shouldTreatAMissingCollectionAsNoResults() {
+        Map<Integer, Product> result = remoteResourceService.findAllByIds(
+                PRODUCTS_BULK_URL, "productIds", List.of(1), Map.of(),
+                new ParameterizedTypeReference<ProductPage>() {}, page -> null, Product::getProductId)
+                .block();
+
+        assertThat(result).isEmpty();
+        assertThat(requestedUris).hasSize(1);
+    }
+
+    static class ProductPage {
+
+        private List<Product> collection;
+
+        public List<Product> getCollection() {
+            return collection;
+        }
+
+        public void setCollection(List<Product> collection) {
+            this.collection = collection;
+        }
+    }
+
+    static class Product {
+
+        private Integer productId;
+
+        public Integer getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Integer productId) {
+            this.productId = productId;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.async;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.selimhorri.app.config.deadline.Deadline;
+
+@Configuration
+public class AsyncConfig {
+	
+	/**
+	 * Bounded pool for remote lookups; when saturated new tasks are rejected,
+	 * so load is shed with a 503 instead of queued without limit or run on the
+	 * request thread outside the enrichment deadline.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor enrichmentExecutor(
+			@Value("${app.enrichment.pool-size:16}") final int poolSize,
+			@Value("${app.enrichment.queue-capacity:100}") final int queueCapacity) {
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("enrichment-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		// Las consultas remotas heredan el deadline de la petición que las lanza
+		executor.setTaskDecorator(Deadline::propagate);
+		executor.initialize();
+		return executor;
+	}
+	
+}
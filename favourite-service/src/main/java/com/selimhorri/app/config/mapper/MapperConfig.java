@@ -2,18 +2,23 @@ package com.selimhorri.app.config.mapper;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 
 @Configuration
 public class MapperConfig {
 	
 	@Bean
 	public ObjectMapper objectMapperBean() {
-		return new JsonMapper()
-				.enable(SerializationFeature.INDENT_OUTPUT);
+		return JacksonMapperHelper.jsonMapper();
+	}
+	
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+		// Se sirve Smile (JSON binario) cuando el cliente lo pide con Accept: application/x-jackson-smile,
+		// con los mismos módulos que el mapper JSON
+		return new MappingJackson2SmileHttpMessageConverter(JacksonMapperHelper.smileMapper());
 	}
 	
 	
@@ -2,6 +2,7 @@ package com.selimhorri.app.exception;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
 import com.selimhorri.app.exception.wrapper.DuplicateEntityException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.exception.wrapper.InvalidFavouriteDataException;
@@ -27,6 +29,42 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ApiExceptionHandler {
 
+	@ExceptionHandler(value = {
+			DeadlineExceededException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleDeadlineExceededException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle deadline exceeded*\n");
+		final var gatewayTimeout = HttpStatus.GATEWAY_TIMEOUT;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg(e.getMessage())
+						.httpStatus(gatewayTimeout)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				gatewayTimeout);
+	}
+
+	@ExceptionHandler(value = {
+			RejectedExecutionException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleRejectedExecutionException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle saturated executor*\n");
+		final var serviceUnavailable = HttpStatus.SERVICE_UNAVAILABLE;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### Too many concurrent requests, retry later! ####")
+						.httpStatus(serviceUnavailable)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				serviceUnavailable);
+	}
+
 	@ExceptionHandler(value = {
 			MethodArgumentNotValidException.class,
 			HttpMessageNotReadableException.class,
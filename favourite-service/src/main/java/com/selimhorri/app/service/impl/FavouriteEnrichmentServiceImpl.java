@@ -0,0 +1,207 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.selimhorri.app.config.deadline.Deadline;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.FavouriteEnrichmentService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves the users and products of a list of favourites concurrently:
+ * each distinct user is fetched once on the bounded enrichment executor
+ * while products are resolved with bulk calls of at most
+ * {@code app.enrichment.bulk-chunk-size} ids each. The whole fan-out
+ * shares a single deadline, which each lookup carries as its current
+ * {@link Deadline} so the socket timeout of the call ends with it;
+ * favourites whose details did not arrive in time are excluded, as they
+ * were when a lookup failed.
+ */
+@Service
+@Slf4j
+public class FavouriteEnrichmentServiceImpl implements FavouriteEnrichmentService {
+	
+	private final RestTemplate restTemplate;
+	private final Executor enrichmentExecutor;
+	private final long deadlineMillis;
+	private final int bulkChunkSize;
+	
+	public FavouriteEnrichmentServiceImpl(final RestTemplate restTemplate,
+			@Qualifier("enrichmentExecutor") final Executor enrichmentExecutor,
+			@Value("${app.enrichment.deadline-millis:3000}") final long deadlineMillis,
+			@Value("${app.enrichment.bulk-chunk-size:100}") final int bulkChunkSize) {
+		this.restTemplate = restTemplate;
+		this.enrichmentExecutor = enrichmentExecutor;
+		this.deadlineMillis = deadlineMillis;
+		this.bulkChunkSize = bulkChunkSize;
+	}
+	
+	@Override
+	public List<FavouriteDto> enrich(final List<FavouriteDto> favouriteDtos) {
+		if (favouriteDtos == null || favouriteDtos.isEmpty())
+			return List.of();
+		
+		final Set<Integer> userIds = favouriteDtos.stream()
+				.map(FavouriteDto::getUserId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		final Set<Integer> productIds = favouriteDtos.stream()
+				.map(FavouriteDto::getProductId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		
+		// El plazo propio del enriquecimiento nunca supera lo que queda del deadline de la petición
+		final Deadline requestDeadline = Deadline.current();
+		final long waitMillis = (requestDeadline == null)
+				? this.deadlineMillis
+				: Math.max(0, Math.min(this.deadlineMillis, requestDeadline.remainingMillis()));
+		final Deadline deadline = Deadline.ofEpochMillis(System.currentTimeMillis() + waitMillis);
+		
+		final Map<Integer, CompletableFuture<UserDto>> userFutures = new HashMap<>();
+		final List<CompletableFuture<Map<Integer, ProductDto>>> productFutures = new ArrayList<>();
+		try {
+			// Cancelar el futuro no corta una lectura bloqueada: es el deadline el que limita el timeout del socket
+			userIds.forEach(userId -> userFutures.put(userId, CompletableFuture.supplyAsync(
+					() -> Deadline.supplyWithin(deadline, () -> this.fetchUser(userId)), this.enrichmentExecutor)));
+			// Trozos acotados: la lista de ids viaja en la query string y product-service limita su tamaño
+			this.chunk(productIds).forEach(chunk -> productFutures.add(CompletableFuture.supplyAsync(
+					() -> Deadline.supplyWithin(deadline, () -> this.fetchProducts(chunk)), this.enrichmentExecutor)));
+		}
+		catch (RejectedExecutionException e) {
+			// Pool saturado: la petición se rechaza entera (503) en lugar de esperar o correr fuera del deadline
+			log.warn("Enrichment executor saturated, rejecting request");
+			userFutures.values().forEach(future -> future.cancel(true));
+			productFutures.forEach(future -> future.cancel(true));
+			throw e;
+		}
+		
+		final List<CompletableFuture<?>> futures = Stream.concat(userFutures.values().stream(), productFutures.stream())
+				.collect(Collectors.toList());
+		this.awaitDeadline(futures, deadline);
+		
+		final Map<Integer, UserDto> usersById = new HashMap<>();
+		userFutures.forEach((userId, future) -> {
+			final UserDto userDto = this.resultOrNull(future);
+			if (userDto != null)
+				usersById.put(userId, userDto);
+		});
+		final Map<Integer, ProductDto> productsById = new HashMap<>();
+		productFutures.forEach(future -> {
+			final Map<Integer, ProductDto> products = this.resultOrNull(future);
+			if (products != null)
+				productsById.putAll(products);
+		});
+		
+		final List<FavouriteDto> enriched = new ArrayList<>();
+		for (final FavouriteDto favouriteDto : favouriteDtos) {
+			final UserDto userDto = usersById.get(favouriteDto.getUserId());
+			final ProductDto productDto = productsById.get(favouriteDto.getProductId());
+			if (userDto == null || productDto == null) {
+				log.warn("User {} or product {} not resolved, excluding favourite",
+						favouriteDto.getUserId(), favouriteDto.getProductId());
+				continue;
+			}
+			favouriteDto.setUserDto(userDto);
+			favouriteDto.setProductDto(productDto);
+			enriched.add(favouriteDto);
+		}
+		return enriched;
+	}
+	
+	private void awaitDeadline(final List<CompletableFuture<?>> futures, final Deadline deadline) {
+		final long waitMillis = Math.max(0, deadline.remainingMillis());
+		try {
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+					.get(waitMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			log.warn("Favourite enrichment exceeded its deadline of {} ms, returning partial results", waitMillis);
+		}
+		catch (ExecutionException e) {
+			log.warn("Favourite enrichment failed: {}", e.getMessage());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			// Las consultas aún en cola ya no arrancan; las que están en curso terminan con su timeout
+			futures.stream()
+					.filter(future -> !future.isDone())
+					.forEach(future -> future.cancel(true));
+		}
+	}
+	
+	private <T> T resultOrNull(final CompletableFuture<T> future) {
+		if (!future.isDone() || future.isCompletedExceptionally())
+			return null;
+		return future.join();
+	}
+	
+	private UserDto fetchUser(final Integer userId) {
+		try {
+			return this.restTemplate.getForObject(
+					AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + userId,
+					UserDto.class);
+		}
+		catch (Exception e) {
+			log.warn("Error fetching user {}: {}", userId, e.getMessage());
+			return null;
+		}
+	}
+	
+	private List<List<Integer>> chunk(final Set<Integer> productIds) {
+		final List<Integer> ids = new ArrayList<>(productIds);
+		final List<List<Integer>> chunks = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += this.bulkChunkSize)
+			chunks.add(ids.subList(from, Math.min(from + this.bulkChunkSize, ids.size())));
+		return chunks;
+	}
+	
+	private Map<Integer, ProductDto> fetchProducts(final List<Integer> productIds) {
+		try {
+			final ResponseEntity<DtoCollectionResponse<ProductDto>> response = this.restTemplate.exchange(
+					UriComponentsBuilder.fromHttpUrl(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/bulk")
+							.queryParam("productIds", productIds.toArray())
+							.toUriString(),
+					HttpMethod.GET,
+					null,
+					new ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>() {});
+			if (response == null || response.getBody() == null || response.getBody().getCollection() == null)
+				return Map.of();
+			return response.getBody().getCollection().stream()
+					.collect(Collectors.toMap(ProductDto::getProductId, productDto -> productDto, (a, b) -> a));
+		}
+		catch (Exception e) {
+			log.warn("Error fetching products {}: {}", productIds, e.getMessage());
+			return Map.of();
+		}
+	}
+	
+}
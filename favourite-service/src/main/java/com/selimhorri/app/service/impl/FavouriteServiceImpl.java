@@ -1,10 +1,10 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -22,6 +22,7 @@ import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
 import com.selimhorri.app.helper.FavouriteMappingHelper;
 import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteEnrichmentService;
 import com.selimhorri.app.service.FavouriteService;
 
 import lombok.RequiredArgsConstructor;
@@ -35,43 +36,19 @@ public class FavouriteServiceImpl implements FavouriteService {
 
 	private final FavouriteRepository favouriteRepository;
 	private final RestTemplate restTemplate;
+	private final FavouriteEnrichmentService favouriteEnrichmentService;
 
 	@Override
+	@Transactional(TxType.NOT_SUPPORTED)
 	public List<FavouriteDto> findAll() {
 		log.info("*** FavouriteDto List, service; fetch all favourites *");
-		return this.favouriteRepository.findAll()
+		// Sin transacción de servicio: findAll abre y cierra la suya y la conexión vuelve al pool antes de las llamadas remotas
+		final List<FavouriteDto> favouriteDtos = this.favouriteRepository.findAll()
 				.stream()
 				.map(FavouriteMappingHelper::map)
-				.map(f -> {
-					try {
-						UserDto userDto = this.restTemplate
-								.getForObject(
-										AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + f.getUserId(),
-										UserDto.class);
-						ProductDto productDto = this.restTemplate
-								.getForObject(
-										AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/"
-												+ f.getProductId(),
-										ProductDto.class);
-
-						if (userDto == null || productDto == null) {
-							log.warn("User {} or product {} not found, excluding favourite", f.getUserId(),
-									f.getProductId());
-							return null;
-						}
-
-						f.setUserDto(userDto);
-						f.setProductDto(productDto);
-						return f;
-					} catch (Exception e) {
-						log.warn("Error fetching details for favourite (user: {}, product: {}), excluding: {}",
-								f.getUserId(), f.getProductId(), e.getMessage());
-						return null;
-					}
-				})
-				.filter(Objects::nonNull) // Filtra los elementos nulos (los que fallaron)
 				.distinct()
-				.collect(Collectors.toUnmodifiableList());
+				.collect(Collectors.toList());
+		return List.copyOf(this.favouriteEnrichmentService.enrich(favouriteDtos));
 	}
 
 	@Override
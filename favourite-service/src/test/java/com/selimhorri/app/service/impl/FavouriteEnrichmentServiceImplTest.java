@@ -0,0 +1,179 @@
+package com.selimhorri.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.selimhorri.app.config.deadline.Deadline;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+@ExtendWith(MockitoExtension.class)
+class FavouriteEnrichmentServiceImplTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private ExecutorService executor;
+    private FavouriteEnrichmentServiceImpl enrichmentService;
+
+    private FavouriteDto first;
+    private FavouriteDto second;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        enrichmentService = new FavouriteEnrichmentServiceImpl(restTemplate, executor, 500, 100);
+
+        first = FavouriteDto.builder().userId(1).productId(100).likeDate(LocalDateTime.now()).build();
+        second = FavouriteDto.builder().userId(1).productId(200).likeDate(LocalDateTime.now()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldFetchEachDistinctUserOnceAndProductsInBulk() {
+        given(restTemplate.getForObject(contains("/api/users/1"), eq(UserDto.class)))
+                .willReturn(UserDto.builder().userId(1).build());
+        given(restTemplate.exchange(contains("/api/products/bulk"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        ProductDto.builder().productId(100).build(),
+                        ProductDto.builder().productId(200).build()))));
+
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(first, second));
+
+        assertThat(result).hasSize(2);
+        assertThat(result).allSatisfy(f -> {
+            assertThat(f.getUserDto()).isNotNull();
+            assertThat(f.getProductDto()).isNotNull();
+        });
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(UserDto.class));
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void shouldSplitTheBulkProductLookupIntoChunks() {
+        FavouriteEnrichmentServiceImpl chunkingService = new FavouriteEnrichmentServiceImpl(restTemplate, executor, 500, 2);
+        given(restTemplate.getForObject(contains("/api/users/1"), eq(UserDto.class)))
+                .willReturn(UserDto.builder().userId(1).build());
+        given(restTemplate.exchange(contains("/api/products/bulk"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .willAnswer(invocation -> ResponseEntity.ok(new DtoCollectionResponse<>(
+                        UriComponentsBuilder.fromUriString(invocation.getArgument(0, String.class)).build()
+                                .getQueryParams().get("productIds").stream()
+                                .map(productId -> ProductDto.builder().productId(Integer.valueOf(productId)).build())
+                                .collect(Collectors.toList()))));
+        List<FavouriteDto> favourites = IntStream.rangeClosed(1, 5)
+                .mapToObj(productId -> FavouriteDto.builder().userId(1).productId(productId)
+                        .likeDate(LocalDateTime.now()).build())
+                .collect(Collectors.toList());
+
+        List<FavouriteDto> result = chunkingService.enrich(favourites);
+
+        assertThat(result).hasSize(5);
+        assertThat(result).allSatisfy(f -> assertThat(f.getProductDto().getProductId()).isEqualTo(f.getProductId()));
+        verify(restTemplate, times(3)).exchange(anyString(), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void shouldExcludeFavouritesWhoseLookupMissesTheDeadline() {
+        given(restTemplate.getForObject(contains("/api/users/1"), eq(UserDto.class))).willAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return UserDto.builder().userId(1).build();
+        });
+        given(restTemplate.exchange(contains("/api/products/bulk"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        ProductDto.builder().productId(100).build()))));
+
+        long start = System.nanoTime();
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(first));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result).isEmpty();
+        assertThat(elapsedMillis).isLessThan(1_500);
+    }
+
+    @Test
+    void shouldRunEachLookupUnderTheEnrichmentDeadlineSoItsSocketTimeoutEndsWithIt() {
+        AtomicReference<Deadline> lookupDeadline = new AtomicReference<>();
+        given(restTemplate.getForObject(contains("/api/users/1"), eq(UserDto.class))).willAnswer(invocation -> {
+            lookupDeadline.set(Deadline.current());
+            return UserDto.builder().userId(1).build();
+        });
+        given(restTemplate.exchange(contains("/api/products/bulk"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class)))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        ProductDto.builder().productId(100).build()))));
+
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(first));
+
+        assertThat(result).hasSize(1);
+        assertThat(lookupDeadline.get()).isNotNull();
+        assertThat(lookupDeadline.get().remainingMillis()).isLessThanOrEqualTo(500);
+    }
+
+    @Test
+    void shouldExcludeFavouritesWhenRemoteLookupFails() {
+        given(restTemplate.getForObject(anyString(), eq(UserDto.class)))
+                .willThrow(new IllegalStateException("No instances available for USER-SERVICE"));
+
+        List<FavouriteDto> result = enrichmentService.enrich(List.of(first));
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldRejectInsteadOfRunningLookupsOnTheCallerWhenSaturated() {
+        FavouriteEnrichmentServiceImpl saturatedService = new FavouriteEnrichmentServiceImpl(restTemplate,
+                task -> {
+                    throw new RejectedExecutionException("saturated");
+                }, 500, 100);
+
+        assertThatThrownBy(() -> saturatedService.enrich(List.of(first, second)))
+                .isInstanceOf(RejectedExecutionException.class);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void shouldReturnEmptyListForNoFavourites() {
+        assertThat(enrichmentService.enrich(List.of())).isEmpty();
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
@@ -36,6 +37,7 @@ import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
 import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.service.FavouriteEnrichmentService;
 
 @ExtendWith(MockitoExtension.class)
 class FavouriteServiceImplTest {
@@ -46,6 +48,9 @@ class FavouriteServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private FavouriteEnrichmentService favouriteEnrichmentService;
+
     @InjectMocks
     private FavouriteServiceImpl favouriteService;
 
@@ -79,14 +84,15 @@ class FavouriteServiceImplTest {
     @Test
     void shouldFindAll() {
         given(favouriteRepository.findAll()).willReturn(Collections.singletonList(favourite));
-        given(restTemplate.getForObject(anyString(), eq(UserDto.class))).willReturn(userDto);
-        given(restTemplate.getForObject(anyString(), eq(ProductDto.class))).willReturn(productDto);
+        given(favouriteEnrichmentService.enrich(anyList())).willAnswer(invocation -> invocation.getArgument(0));
 
         List<FavouriteDto> result = favouriteService.findAll();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getUserId()).isEqualTo(1);
         verify(favouriteRepository, times(1)).findAll();
+        verify(favouriteEnrichmentService, times(1)).enrich(anyList());
+        verify(restTemplate, never()).getForObject(anyString(), any());
     }
 
     @Test
@@ -14,6 +14,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -75,4 +76,9 @@ public final class Order extends AbstractMappedEntity implements Serializable {
 	@Builder.Default
 	private OrderStatus status = OrderStatus.CREATED;
 
+	// Red de seguridad para las escrituras que cargan y guardan la entidad entera
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+
 }
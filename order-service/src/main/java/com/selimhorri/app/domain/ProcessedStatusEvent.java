@@ -0,0 +1,56 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import com.selimhorri.app.domain.enums.StatusEventOutcome;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "processed_status_events")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class ProcessedStatusEvent extends AbstractMappedEntity implements Persistable<String>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// Clave de idempotencia asignada por el emisor del evento
+	@Id
+	@Column(name = "event_id", unique = true, nullable = false, updatable = false)
+	private String eventId;
+
+	@Column(name = "order_id")
+	private Integer orderId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "outcome", nullable = false)
+	private StatusEventOutcome outcome;
+
+	@Override
+	public String getId() {
+		return this.eventId;
+	}
+
+	// Solo se insertan: una segunda entrega del mismo evento choca con la clave primaria en vez de sobrescribirlo
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+}
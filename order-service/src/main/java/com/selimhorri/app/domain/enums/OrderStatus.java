@@ -3,5 +3,17 @@ package com.selimhorri.app.domain.enums;
 public enum OrderStatus {
     CREATED,
     ORDERED,
-    IN_PAYMENT
+    IN_PAYMENT;
+
+    // Siguiente estado de la máquina de estados de la orden; null cuando ya no puede avanzar
+    public OrderStatus next() {
+        switch (this) {
+            case CREATED:
+                return ORDERED;
+            case ORDERED:
+                return IN_PAYMENT;
+            default:
+                return null;
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package com.selimhorri.app.domain.enums;
+
+public enum StatusEventOutcome {
+    // La transición se aplicó con este evento
+    APPLIED,
+    // El evento ya se había procesado, pero su resultado aún no es visible; no se vuelve a aplicar
+    DUPLICATE,
+    // La orden no existe o no estaba en el estado de origen; reintentar no cambiará el resultado
+    REJECTED
+}
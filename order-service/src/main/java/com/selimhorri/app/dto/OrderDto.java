@@ -41,6 +41,9 @@ public class OrderDto implements Serializable {
 	private Double orderFee;
 	private OrderStatus orderStatus;
 	
+	// Se devuelve al actualizar la orden: una versión vieja hace fallar la escritura con 409
+	private Long version;
+	
 	@JsonProperty("cart")
 	@JsonInclude(Include.NON_NULL)
 	private CartDto cartDto;
@@ -17,6 +17,7 @@ public interface OrderMappingHelper {
                                 .orderDesc(order.getOrderDesc())
                                 .orderFee(order.getOrderFee())
                                 .orderStatus(order.getStatus())
+                                .version(order.getVersion())
                                 .cartDto(
                                                 CartDto.builder()
                                                                 .cartId(order.getCart().getCartId())
@@ -66,6 +67,7 @@ public interface OrderMappingHelper {
                                 .orderDate(orderDto.getOrderDate())
                                 .orderDesc(orderDto.getOrderDesc())
                                 .orderFee(orderDto.getOrderFee())
+                                .version(orderDto.getVersion())
                                 .cart(cart) // Preserve the existing cart
                                 .build();
         }
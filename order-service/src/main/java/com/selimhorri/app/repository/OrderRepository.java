@@ -1,11 +1,19 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderStatusChangeDto;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 
@@ -14,4 +22,34 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     // Método para encontrar una orden por ID solo si está activa
     Optional<Order> findByOrderIdAndIsActiveTrue(Integer orderId);
 
+    // Consultas por lote para que los servicios consumidores resuelvan muchas órdenes en una sola llamada
+    List<Order> findAllByOrderIdInAndIsActiveTrue(Collection<Integer> orderIds);
+
+    List<Order> findAllByOrderIdInAndStatusAndIsActiveTrue(Collection<Integer> orderIds, OrderStatus status);
+
+    // Dueño de la orden (usuario del carrito) en una sola consulta, para las comprobaciones de autorización
+    @Query("SELECT o.cart.userId FROM Order o WHERE o.orderId = :orderId AND o.isActive = true")
+    Optional<Integer> findOwnerUserIdByOrderId(@Param("orderId") Integer orderId);
+
+    // Transiciones de estado como compare-and-set: solo cambian las órdenes que siguen en el estado esperado
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :next, o.version = o.version + 1, o.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE o.orderId = :orderId AND o.status = :expected AND o.isActive = true")
+    int transitionStatus(@Param("orderId") Integer orderId, @Param("expected") OrderStatus expected,
+            @Param("next") OrderStatus next);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :next, o.version = o.version + 1, o.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE o.orderId IN :orderIds AND o.status = :expected AND o.isActive = true")
+    int transitionStatusIn(@Param("orderIds") Collection<Integer> orderIds, @Param("expected") OrderStatus expected,
+            @Param("next") OrderStatus next);
+
+    // Feed de cambios paginado por cursor (updatedAt, orderId); solo las columnas que necesitan las proyecciones
+    @Query("SELECT new com.selimhorri.app.dto.OrderStatusChangeDto(o.orderId, o.status, o.version, o.isActive, c.userId, "
+            + "o.orderDate, o.orderDesc, o.orderFee, o.updatedAt) "
+            + "FROM Order o LEFT JOIN o.cart c WHERE o.updatedAt > :since OR (o.updatedAt = :since AND o.orderId > :afterId) "
+            + "ORDER BY o.updatedAt, o.orderId")
+    List<OrderStatusChangeDto> findStatusChangesAfter(@Param("since") Instant since, @Param("afterId") Integer afterId,
+            Pageable pageable);
+
 }
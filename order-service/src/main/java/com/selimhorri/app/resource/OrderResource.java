@@ -1,5 +1,8 @@
 package com.selimhorri.app.resource;
 
+import java.time.Instant;
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -13,12 +16,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderStatusChangeDto;
+import com.selimhorri.app.dto.OrderStatusEventDto;
+import com.selimhorri.app.dto.OrderStatusEventResultDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.OrderService;
+import com.selimhorri.app.service.OrderStatusEventService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +38,7 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderResource {
 
 	private final OrderService orderService;
+	private final OrderStatusEventService orderStatusEventService;
 
 	@GetMapping
 	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAll() {
@@ -37,6 +46,23 @@ public class OrderResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAll()));
 	}
 
+	@GetMapping("/bulk")
+	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAllByIds(
+			@RequestParam("orderIds") @NotNull(message = "Input must not be NULL") final List<Integer> orderIds,
+			@RequestParam(name = "status", required = false) final OrderStatus status) {
+		log.info("*** OrderDto List, controller; fetch orders by ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAllByIds(orderIds, status)));
+	}
+
+	@GetMapping("/status-changes")
+	public ResponseEntity<DtoCollectionResponse<OrderStatusChangeDto>> findStatusChanges(
+			@RequestParam(name = "since", required = false) final Instant since,
+			@RequestParam(name = "afterId", required = false) final Integer afterId,
+			@RequestParam(name = "limit", defaultValue = "500") final int limit) {
+		log.info("*** OrderStatusChangeDto List, controller; fetch order status changes *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findStatusChanges(since, afterId, limit)));
+	}
+
 	@GetMapping("/{orderId}")
 	public ResponseEntity<OrderDto> findById(
 			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final String orderId) {
@@ -44,6 +70,13 @@ public class OrderResource {
 		return ResponseEntity.ok(this.orderService.findById(Integer.parseInt(orderId)));
 	}
 
+	@GetMapping("/{orderId}/owner")
+	public ResponseEntity<Integer> findOwnerUserId(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final String orderId) {
+		log.info("*** Integer, resource; fetch owner user id of order *");
+		return ResponseEntity.ok(this.orderService.findOwnerUserId(Integer.parseInt(orderId)));
+	}
+
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
 			@RequestBody @NotNull(message = "Input must not be NULL") @Valid final OrderDto orderDto) {
@@ -51,6 +84,13 @@ public class OrderResource {
 		return ResponseEntity.ok(this.orderService.save(orderDto));
 	}
 
+	@PostMapping("/status-events")
+	public ResponseEntity<DtoCollectionResponse<OrderStatusEventResultDto>> applyStatusEvents(
+			@RequestBody @NotNull(message = "Input must not be NULL") final List<OrderStatusEventDto> events) {
+		log.info("*** OrderStatusEventResultDto List, resource; apply order status events *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderStatusEventService.applyAll(events)));
+	}
+
 	@PatchMapping("/{orderId}/status")
 	public ResponseEntity<OrderDto> updateStatus(
 			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final int orderId) {
@@ -58,6 +98,14 @@ public class OrderResource {
 		return ResponseEntity.ok(this.orderService.updateStatus(orderId));
 	}
 
+	@PatchMapping("/bulk/status")
+	public ResponseEntity<Integer> updateStatusByIds(
+			@RequestParam("orderIds") @NotNull(message = "Input must not be NULL") final List<Integer> orderIds,
+			@RequestParam("status") @NotNull(message = "Input must not be NULL") final OrderStatus expected) {
+		log.info("*** Integer, resource; update status of orders by ids *");
+		return ResponseEntity.ok(this.orderService.updateStatusByIds(orderIds, expected));
+	}
+
 	@PutMapping("/{orderId}")
 	public ResponseEntity<OrderDto> update(
 			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final String orderId,
@@ -1,15 +1,23 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
+import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderStatusChangeDto;
 
 public interface OrderService {
 	
 	List<OrderDto> findAll();
 	OrderDto findById(final Integer orderId);
+	List<OrderDto> findAllByIds(final Collection<Integer> orderIds, final OrderStatus status);
+	Integer findOwnerUserId(final Integer orderId);
+	List<OrderStatusChangeDto> findStatusChanges(final Instant since, final Integer afterId, final int limit);
 	OrderDto save(final OrderDto orderDto);
 	OrderDto updateStatus(final int orderId);
+	int updateStatusByIds(final Collection<Integer> orderIds, final OrderStatus expected);
 	OrderDto update(final Integer orderId, final OrderDto orderDto);
 	void deleteById(final Integer orderId);
 	
@@ -0,0 +1,12 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.OrderStatusEventDto;
+import com.selimhorri.app.dto.OrderStatusEventResultDto;
+
+public interface OrderStatusEventService {
+	
+	List<OrderStatusEventResultDto> applyAll(final List<OrderStatusEventDto> events);
+	
+}
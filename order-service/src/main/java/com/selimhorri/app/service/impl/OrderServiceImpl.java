@@ -1,18 +1,23 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
 import javax.transaction.Transactional;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.selimhorri.app.domain.Order;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderStatusChangeDto;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderStatusConflictException;
 import com.selimhorri.app.helper.OrderMappingHelper;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.repository.OrderRepository;
@@ -27,6 +32,9 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+        private static final int MAX_STATUS_CHANGES_PAGE_SIZE = 1000;
+        private static final int MAX_BULK_IDS = 500;
+
         private final OrderRepository orderRepository;
         private final CartRepository cartRepository;
 
@@ -49,6 +57,42 @@ public class OrderServiceImpl implements OrderService {
                                                 String.format("Order with id: %d not found", orderId)));
         }
 
+        @Override
+        public List<OrderDto> findAllByIds(final Collection<Integer> orderIds, final OrderStatus status) {
+                log.info("*** OrderDto List, service; fetch active orders by ids *");
+                if (orderIds == null || orderIds.isEmpty())
+                        return List.of();
+                // Los ids viajan en la query string: los clientes trocean las listas largas
+                if (orderIds.stream().distinct().count() > MAX_BULK_IDS)
+                        throw new IllegalArgumentException(String.format(
+                                        "At most %d order ids can be fetched at once", MAX_BULK_IDS));
+                final List<Order> orders = (status == null)
+                                ? this.orderRepository.findAllByOrderIdInAndIsActiveTrue(orderIds)
+                                : this.orderRepository.findAllByOrderIdInAndStatusAndIsActiveTrue(orderIds, status);
+                return orders.stream()
+                                .map(OrderMappingHelper::map)
+                                .distinct()
+                                .collect(Collectors.toUnmodifiableList());
+        }
+
+        @Override
+        public Integer findOwnerUserId(final Integer orderId) {
+                log.info("*** Integer, service; fetch owner user id of active order *");
+                return this.orderRepository.findOwnerUserIdByOrderId(orderId)
+                                .orElseThrow(() -> new OrderNotFoundException(
+                                                String.format("Order with id: %d not found", orderId)));
+        }
+
+        @Override
+        public List<OrderStatusChangeDto> findStatusChanges(final Instant since, final Integer afterId, final int limit) {
+                log.info("*** OrderStatusChangeDto List, service; fetch order status changes after cursor *");
+                // Incluye las órdenes desactivadas: las proyecciones también tienen que enterarse de las bajas
+                return this.orderRepository.findStatusChangesAfter(
+                                (since == null) ? Instant.EPOCH : since,
+                                (afterId == null) ? 0 : afterId,
+                                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_STATUS_CHANGES_PAGE_SIZE))));
+        }
+
         @Override
         public OrderDto save(final OrderDto orderDto) {
                 log.info("*** OrderDto, service; save order *");
@@ -76,42 +120,43 @@ public class OrderServiceImpl implements OrderService {
         @Override
         public OrderDto updateStatus(final int orderId) {
                 log.info("*** OrderDto, service; update order status *");
-                try {
-                        Order existingOrder = this.orderRepository
-                                        .findByOrderIdAndIsActiveTrue(orderId)
-                                        .orElseThrow(() -> new OrderNotFoundException(
-                                                        "Order not found with ID: " + orderId));
-
-                        // Actualizar al siguiente estado según la secuencia (Java 8+ compatible)
-                        OrderStatus newStatus;
-                        switch (existingOrder.getStatus()) {
-                                case CREATED:
-                                        newStatus = OrderStatus.ORDERED;
-                                        break;
-                                case ORDERED:
-                                        newStatus = OrderStatus.IN_PAYMENT;
-                                        break;
-                                case IN_PAYMENT:
-                                        throw new IllegalStateException(
-                                                        "Order with ID " + orderId
-                                                                        + " is already PAID and cannot be updated further");
-                                default:
-                                        throw new IllegalStateException(
-                                                        "Unknown order status: " + existingOrder.getStatus());
-                        }
-
-                        existingOrder.setStatus(newStatus);
-                        Order updatedOrder = this.orderRepository.save(existingOrder);
-
-                        log.info("Order status updated successfully from {} to {}",
-                                        existingOrder.getStatus(), newStatus);
-
-                        return OrderMappingHelper.map(updatedOrder);
-
-                } catch (Exception e) {
-                        log.error("Error during order status update: ", e);
-                        throw e;
-                }
+                final Order existingOrder = this.orderRepository
+                                .findByOrderIdAndIsActiveTrue(orderId)
+                                .orElseThrow(() -> new OrderNotFoundException(
+                                                "Order not found with ID: " + orderId));
+
+                final OrderStatus currentStatus = existingOrder.getStatus();
+                final OrderStatus newStatus = currentStatus.next();
+                if (newStatus == null)
+                        throw new IllegalStateException(
+                                        "Order with ID " + orderId
+                                                        + " is already PAID and cannot be updated further");
+
+                // Solo se aplica si nadie ha movido la orden desde que se leyó; sin reintento, que la avanzaría dos pasos
+                if (this.orderRepository.transitionStatus(orderId, currentStatus, newStatus) == 0)
+                        throw new OrderStatusConflictException(String.format(
+                                        "Order with ID %d left status %s concurrently, read it again before advancing it",
+                                        orderId, currentStatus));
+                log.info("Order status updated successfully from {} to {}", currentStatus, newStatus);
+                existingOrder.setStatus(newStatus);
+                // La transición subió la versión en la base de datos: el cliente recibe la que usará su siguiente PUT
+                existingOrder.setVersion(existingOrder.getVersion() + 1);
+                return OrderMappingHelper.map(existingOrder);
+        }
+
+        @Override
+        public int updateStatusByIds(final Collection<Integer> orderIds, final OrderStatus expected) {
+                log.info("*** Integer, service; update status of orders by ids *");
+                if (orderIds == null || orderIds.isEmpty())
+                        return 0;
+                final OrderStatus newStatus = expected.next();
+                if (newStatus == null)
+                        throw new IllegalStateException("Orders in status " + expected + " cannot be updated further");
+
+                // Una sola sentencia; las órdenes que ya no estaban en el estado esperado se quedan como están
+                final int updated = this.orderRepository.transitionStatusIn(orderIds, expected, newStatus);
+                log.info("Moved {} of {} orders from {} to {}", updated, orderIds.size(), expected, newStatus);
+                return updated;
         }
 
         @Override
@@ -122,10 +167,19 @@ public class OrderServiceImpl implements OrderService {
                 Order existingOrder = this.orderRepository.findByOrderIdAndIsActiveTrue(orderId)
                                 .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
                 orderDto.setOrderId(orderId);
+                // La versión es la que leyó el cliente: si la orden cambió desde entonces, la escritura se rechaza.
+                // Los clientes que aún no la envían siguen con la última escritura gana, de momento
+                if (orderDto.getVersion() == null) {
+                        log.warn("Deprecated: update of order {} without a version overwrites concurrent changes; "
+                                        + "send the version the update was based on", orderId);
+                        orderDto.setVersion(existingOrder.getVersion());
+                }
                 // Map the updates but preserve the cart from existing order
                 orderDto.setOrderStatus(existingOrder.getStatus());
                 Order updatedOrder = OrderMappingHelper.mapForUpdate(orderDto, existingOrder.getCart());
                 updatedOrder.setOrderDate(existingOrder.getOrderDate());
+                // El estado solo lo mueven las transiciones
+                updatedOrder.setStatus(existingOrder.getStatus());
                 return OrderMappingHelper.map(this.orderRepository.save(updatedOrder));
         }
 
@@ -0,0 +1,107 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.ProcessedStatusEvent;
+import com.selimhorri.app.domain.enums.StatusEventOutcome;
+import com.selimhorri.app.dto.OrderStatusEventDto;
+import com.selimhorri.app.dto.OrderStatusEventResultDto;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.repository.ProcessedStatusEventRepository;
+import com.selimhorri.app.service.OrderStatusEventService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies order status-change events delivered by other services. Each event is applied in its
+ * own transaction together with the record of its id and outcome, so redelivering an event,
+ * even concurrently, never moves an order twice and always gets the answer of its first delivery.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderStatusEventServiceImpl implements OrderStatusEventService {
+	
+	private final OrderRepository orderRepository;
+	private final ProcessedStatusEventRepository processedStatusEventRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final MeterRegistry meterRegistry;
+	
+	@Override
+	public List<OrderStatusEventResultDto> applyAll(final List<OrderStatusEventDto> events) {
+		log.info("*** OrderStatusEventResultDto List, service; apply order status events *");
+		return events.stream()
+				.map(this::apply)
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	private OrderStatusEventResultDto apply(final OrderStatusEventDto event) {
+		StatusEventOutcome outcome;
+		boolean replayed = false;
+		if (event.getEventId() == null || event.getEventId().isBlank()) {
+			outcome = StatusEventOutcome.REJECTED;
+		}
+		else {
+			// Una reentrega recibe la misma respuesta que la primera: si se perdió un REJECTED, el emisor aún debe verlo
+			final Optional<StatusEventOutcome> recorded = this.recordedOutcome(event.getEventId());
+			if (recorded.isPresent()) {
+				outcome = recorded.get();
+				replayed = true;
+			}
+			else {
+				try {
+					outcome = this.transactionTemplate.execute(status -> this.applyOnce(event));
+				}
+				catch (DataIntegrityViolationException e) {
+					// Otra entrega del mismo evento se registró entre la comprobación y el commit
+					outcome = this.recordedOutcome(event.getEventId()).orElse(StatusEventOutcome.DUPLICATE);
+					replayed = true;
+				}
+			}
+		}
+		Counter.builder("order.status.events")
+				.description("Order status-change events received, by outcome")
+				.tag("outcome", replayed ? "duplicate" : outcome.name().toLowerCase())
+				.register(this.meterRegistry)
+				.increment();
+		return OrderStatusEventResultDto.builder()
+				.eventId(event.getEventId())
+				.outcome(outcome)
+				.build();
+	}
+	
+	private Optional<StatusEventOutcome> recordedOutcome(final String eventId) {
+		return this.processedStatusEventRepository.findById(eventId)
+				.map(ProcessedStatusEvent::getOutcome);
+	}
+	
+	private StatusEventOutcome applyOnce(final OrderStatusEventDto event) {
+		// Solo transiciones legales de la máquina de estados, y solo si la orden sigue en el estado de origen
+		final boolean legal = event.getOrderId() != null && event.getFromStatus() != null
+				&& event.getToStatus() != null && event.getFromStatus().next() == event.getToStatus();
+		final StatusEventOutcome outcome = (legal
+				&& this.orderRepository.transitionStatus(event.getOrderId(), event.getFromStatus(), event.getToStatus()) == 1)
+						? StatusEventOutcome.APPLIED
+						: StatusEventOutcome.REJECTED;
+		if (outcome == StatusEventOutcome.REJECTED)
+			log.warn("Rejected status event {}: order {} cannot move from {} to {}", event.getEventId(),
+					event.getOrderId(), event.getFromStatus(), event.getToStatus());
+		
+		this.processedStatusEventRepository.saveAndFlush(ProcessedStatusEvent.builder()
+				.eventId(event.getEventId())
+				.orderId(event.getOrderId())
+				.outcome(outcome)
+				.build());
+		return outcome;
+	}
+	
+}
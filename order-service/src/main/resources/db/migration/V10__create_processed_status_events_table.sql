@@ -0,0 +1,9 @@
+
+CREATE TABLE processed_status_events (
+	event_id VARCHAR(64) NOT NULL PRIMARY KEY,
+	order_id INT(11),
+	outcome VARCHAR(20) NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
@@ -0,0 +1,5 @@
+
+UPDATE orders SET updated_at = created_at WHERE updated_at IS NULL;
+
+CREATE INDEX idx_orders_updated_at_order_id ON orders (updated_at, order_id);
+
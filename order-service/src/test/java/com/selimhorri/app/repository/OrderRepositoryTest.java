@@ -0,0 +1,169 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderStatusChangeDto;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("OrderRepository status transition and change feed tests")
+class OrderRepositoryTest {
+
+    private static final int CONCURRENT_CALLERS = 8;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should apply exactly one of many concurrent identical transitions")
+    void testConcurrentTransitionsHaveSingleWinner() throws Exception {
+        final Integer orderId = saveOrder(OrderStatus.CREATED).getOrderId();
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CALLERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        int applied = 0;
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status ->
+                            orderRepository.transitionStatus(orderId, OrderStatus.CREATED, OrderStatus.ORDERED));
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results)
+                applied += result.get(10, TimeUnit.SECONDS);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        final Order reloaded = orderRepository.findById(orderId).orElseThrow();
+        assertEquals(1, applied);
+        assertEquals(OrderStatus.ORDERED, reloaded.getStatus());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should not apply a transition from a status the order already left")
+    void testTransitionFromStaleStatusIsRejected() {
+        final Integer orderId = saveOrder(OrderStatus.ORDERED).getOrderId();
+
+        final int updated = transactionTemplate.execute(status ->
+                orderRepository.transitionStatus(orderId, OrderStatus.CREATED, OrderStatus.ORDERED));
+
+        assertEquals(0, updated);
+        assertEquals(OrderStatus.ORDERED, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should move only the orders still in the expected status in one statement")
+    void testBulkTransitionSkipsOrdersInOtherStatuses() {
+        final Integer first = saveOrder(OrderStatus.ORDERED).getOrderId();
+        final Integer second = saveOrder(OrderStatus.ORDERED).getOrderId();
+        final Integer notOrdered = saveOrder(OrderStatus.CREATED).getOrderId();
+
+        final int updated = transactionTemplate.execute(status -> orderRepository.transitionStatusIn(
+                List.of(first, second, notOrdered), OrderStatus.ORDERED, OrderStatus.IN_PAYMENT));
+
+        assertEquals(2, updated);
+        assertEquals(OrderStatus.IN_PAYMENT, orderRepository.findById(first).orElseThrow().getStatus());
+        assertEquals(OrderStatus.IN_PAYMENT, orderRepository.findById(second).orElseThrow().getStatus());
+        assertEquals(OrderStatus.CREATED, orderRepository.findById(notOrdered).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject a whole-entity save based on a version older than a transition")
+    void testStaleEntitySaveFailsOptimisticLock() {
+        final Order stale = saveOrder(OrderStatus.CREATED);
+        transactionTemplate.execute(status ->
+                orderRepository.transitionStatus(stale.getOrderId(), OrderStatus.CREATED, OrderStatus.ORDERED));
+
+        stale.setOrderDesc("stale edit");
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> transactionTemplate.execute(status -> orderRepository.save(stale)));
+        assertEquals(OrderStatus.ORDERED, orderRepository.findById(stale.getOrderId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should feed status changes in cursor order, resuming after the last change read")
+    void testStatusChangeFeedResumesAfterCursor() {
+        final Instant before = Instant.now().minusSeconds(1);
+        final Integer orderId = saveOrder(OrderStatus.CREATED).getOrderId();
+
+        final List<OrderStatusChangeDto> firstRead = orderRepository.findStatusChangesAfter(before, 0, PageRequest.of(0, 1000));
+        final OrderStatusChangeDto created = changeOf(firstRead, orderId);
+        assertEquals(OrderStatus.CREATED, created.getOrderStatus());
+        assertEquals(0L, created.getVersion());
+        assertEquals(cartRepository.findById(1).orElseThrow().getUserId(), created.getOwnerUserId());
+        for (int i = 1; i < firstRead.size(); i++)
+            assertFalse(firstRead.get(i).getChangedAt().isBefore(firstRead.get(i - 1).getChangedAt()));
+
+        transactionTemplate.execute(status ->
+                orderRepository.transitionStatus(orderId, OrderStatus.CREATED, OrderStatus.ORDERED));
+
+        final OrderStatusChangeDto ordered = changeOf(orderRepository.findStatusChangesAfter(
+                created.getChangedAt(), orderId, PageRequest.of(0, 1000)), orderId);
+        assertEquals(OrderStatus.ORDERED, ordered.getOrderStatus());
+        assertEquals(1L, ordered.getVersion());
+        assertTrue(ordered.getIsActive());
+    }
+
+    private OrderStatusChangeDto changeOf(final List<OrderStatusChangeDto> changes, final Integer orderId) {
+        return changes.stream()
+                .filter(change -> change.getOrderId().equals(orderId))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No status change fed for order " + orderId));
+    }
+
+    private Order saveOrder(final OrderStatus orderStatus) {
+        return transactionTemplate.execute(status -> orderRepository.save(Order.builder()
+                .orderDate(LocalDateTime.now())
+                .orderDesc("status transition test")
+                .orderFee(10.0)
+                .isActive(true)
+                .status(orderStatus)
+                .cart(cartRepository.findById(1).orElseThrow())
+                .build()));
+    }
+}
@@ -1,6 +1,8 @@
 package com.selimhorri.app.resource;
 
+import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -51,6 +53,17 @@ class OrderResourceTest {
         verify(orderService, times(1)).findAll();
     }
 
+    @Test
+    void findAllByIdsShouldReturnOrders() {
+        when(orderService.findAllByIds(List.of(1), OrderStatus.IN_PAYMENT)).thenReturn(List.of(testOrderDto));
+
+        ResponseEntity<DtoCollectionResponse<OrderDto>> response = orderResource.findAllByIds(List.of(1), OrderStatus.IN_PAYMENT);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getCollection().size());
+        verify(orderService, times(1)).findAllByIds(List.of(1), OrderStatus.IN_PAYMENT);
+    }
+
     @Test
     void findByIdShouldReturnOrder() {
         when(orderService.findById(any(Integer.class))).thenReturn(testOrderDto);
@@ -61,6 +74,17 @@ class OrderResourceTest {
         verify(orderService, times(1)).findById(any(Integer.class));
     }
 
+    @Test
+    void findOwnerUserIdShouldReturnOwner() {
+        when(orderService.findOwnerUserId(1)).thenReturn(7);
+
+        ResponseEntity<Integer> response = orderResource.findOwnerUserId("1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(7, response.getBody());
+        verify(orderService, times(1)).findOwnerUserId(1);
+    }
+
     @Test
     void saveShouldCreateOrder() {
         when(orderService.save(any(OrderDto.class))).thenReturn(testOrderDto);
@@ -12,13 +12,16 @@ import static org.mockito.Mockito.verify;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import com.selimhorri.app.domain.Cart;
 import com.selimhorri.app.domain.Order;
@@ -27,6 +30,7 @@ import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderStatusConflictException;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.repository.OrderRepository;
 
@@ -61,6 +65,7 @@ class OrderServiceImplTest {
         order.setStatus(OrderStatus.CREATED);
         order.setCart(cart);
         order.setActive(true);
+        order.setVersion(0L);
 
         orderDto = new OrderDto();
         orderDto.setOrderId(1);
@@ -79,6 +84,36 @@ class OrderServiceImplTest {
         verify(orderRepository, times(1)).findAllByIsActiveTrue();
     }
 
+    @Test
+    void shouldFindAllByIdsWithStatusFilter() {
+        order.setStatus(OrderStatus.IN_PAYMENT);
+        given(orderRepository.findAllByOrderIdInAndStatusAndIsActiveTrue(List.of(1, 2), OrderStatus.IN_PAYMENT))
+                .willReturn(List.of(order));
+
+        List<OrderDto> result = orderService.findAllByIds(List.of(1, 2), OrderStatus.IN_PAYMENT);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getOrderStatus()).isEqualTo(OrderStatus.IN_PAYMENT);
+        verify(orderRepository, never()).findAllByOrderIdInAndIsActiveTrue(any());
+    }
+
+    @Test
+    void shouldFindAllByIdsWithoutStatusFilter() {
+        given(orderRepository.findAllByOrderIdInAndIsActiveTrue(List.of(1))).willReturn(List.of(order));
+
+        List<OrderDto> result = orderService.findAllByIds(List.of(1), null);
+
+        assertThat(result).hasSize(1);
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenNoIdsRequested() {
+        List<OrderDto> result = orderService.findAllByIds(List.of(), OrderStatus.IN_PAYMENT);
+
+        assertThat(result).isEmpty();
+        verify(orderRepository, never()).findAllByOrderIdInAndStatusAndIsActiveTrue(any(), any());
+    }
+
     @Test
     void shouldFindById() {
         given(orderRepository.findByOrderIdAndIsActiveTrue(1)).willReturn(Optional.of(order));
@@ -99,6 +134,25 @@ class OrderServiceImplTest {
                 .hasMessageContaining("Order with id: 999 not found");
     }
 
+    @Test
+    void shouldFindOwnerUserId() {
+        given(orderRepository.findOwnerUserIdByOrderId(1)).willReturn(Optional.of(7));
+
+        Integer result = orderService.findOwnerUserId(1);
+
+        assertThat(result).isEqualTo(7);
+        verify(orderRepository, never()).findByOrderIdAndIsActiveTrue(anyInt());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenOwnerOfMissingOrderRequested() {
+        given(orderRepository.findOwnerUserIdByOrderId(anyInt())).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> orderService.findOwnerUserId(999))
+                .isInstanceOf(OrderNotFoundException.class)
+                .hasMessageContaining("Order with id: 999 not found");
+    }
+
     @Test
     void shouldSaveOrder() {
         given(cartRepository.findById(1)).willReturn(Optional.of(cart));
@@ -137,24 +191,73 @@ class OrderServiceImplTest {
     void shouldUpdateStatusFromCreatedToOrdered() {
         order.setStatus(OrderStatus.CREATED);
         given(orderRepository.findByOrderIdAndIsActiveTrue(1)).willReturn(Optional.of(order));
-        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(orderRepository.transitionStatus(1, OrderStatus.CREATED, OrderStatus.ORDERED)).willReturn(1);
 
         OrderDto result = orderService.updateStatus(1);
 
         assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.ORDERED);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
     void shouldUpdateStatusFromOrderedToInPayment() {
         order.setStatus(OrderStatus.ORDERED);
         given(orderRepository.findByOrderIdAndIsActiveTrue(1)).willReturn(Optional.of(order));
-        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(orderRepository.transitionStatus(1, OrderStatus.ORDERED, OrderStatus.IN_PAYMENT)).willReturn(1);
 
         OrderDto result = orderService.updateStatus(1);
 
         assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.IN_PAYMENT);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void shouldRejectAStatusTransitionThatLostTheRaceInsteadOfAdvancingTwice() {
+        order.setStatus(OrderStatus.CREATED);
+        given(orderRepository.findByOrderIdAndIsActiveTrue(1)).willReturn(Optional.of(order));
+        given(orderRepository.transitionStatus(1, OrderStatus.CREATED, OrderStatus.ORDERED)).willReturn(0);
+
+        assertThatThrownBy(() -> orderService.updateStatus(1))
+                .isInstanceOf(OrderStatusConflictException.class);
+
+        // La orden ya la movió otra petición: no se intenta la transición siguiente
+        verify(orderRepository, times(1)).transitionStatus(anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldAcceptAnUpdateAtTheVersionReturnedByAStatusTransition() {
+        // Versión de la fila en la base de datos: la transición la sube y save la exige igual, como @Version
+        final AtomicLong storedVersion = new AtomicLong(0L);
+        given(orderRepository.findByOrderIdAndIsActiveTrue(1)).willAnswer(invocation -> {
+            final Order stored = new Order();
+            stored.setOrderId(1);
+            stored.setOrderDate(order.getOrderDate());
+            stored.setStatus(order.getStatus());
+            stored.setCart(cart);
+            stored.setActive(true);
+            stored.setVersion(storedVersion.get());
+            return Optional.of(stored);
+        });
+        given(orderRepository.transitionStatus(1, OrderStatus.CREATED, OrderStatus.ORDERED)).willAnswer(invocation -> {
+            order.setStatus(OrderStatus.ORDERED);
+            storedVersion.incrementAndGet();
+            return 1;
+        });
+        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> {
+            final Order saved = invocation.getArgument(0);
+            if (!saved.getVersion().equals(storedVersion.get()))
+                throw new ObjectOptimisticLockingFailureException(Order.class, saved.getOrderId());
+            saved.setVersion(storedVersion.incrementAndGet());
+            return saved;
+        });
+
+        final OrderDto patched = orderService.updateStatus(1);
+        orderDto.setVersion(patched.getVersion());
+        final OrderDto updated = orderService.update(1, orderDto);
+
+        assertThat(patched.getVersion()).isEqualTo(1L);
+        assertThat(updated.getVersion()).isEqualTo(2L);
+        assertThat(updated.getOrderStatus()).isEqualTo(OrderStatus.ORDERED);
     }
 
     @Test
@@ -166,18 +269,47 @@ class OrderServiceImplTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("is already PAID and cannot be updated further");
         
-        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).transitionStatus(anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldUpdateStatusOfManyOrdersInOneStatement() {
+        given(orderRepository.transitionStatusIn(List.of(1, 2, 3), OrderStatus.ORDERED, OrderStatus.IN_PAYMENT))
+                .willReturn(2);
+
+        int updated = orderService.updateStatusByIds(List.of(1, 2, 3), OrderStatus.ORDERED);
+
+        assertThat(updated).isEqualTo(2);
     }
 
     @Test
     void shouldUpdateOrder() {
+        order.setVersion(4L);
+        orderDto.setVersion(3L);
         given(orderRepository.findByOrderIdAndIsActiveTrue(1)).willReturn(Optional.of(order));
         given(orderRepository.save(any(Order.class))).willReturn(order);
 
         OrderDto result = orderService.update(1, orderDto);
 
         assertThat(result).isNotNull();
-        verify(orderRepository, times(1)).save(any(Order.class));
+        // Se guarda con la versión que leyó el cliente, no con la actual: así @Version detecta la escritura perdida
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(1)).save(saved.capture());
+        assertThat(saved.getValue().getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldKeepLastWriteWinsForAnUpdateWithoutAVersion() {
+        order.setVersion(4L);
+        given(orderRepository.findByOrderIdAndIsActiveTrue(1)).willReturn(Optional.of(order));
+        given(orderRepository.save(any(Order.class))).willReturn(order);
+
+        OrderDto result = orderService.update(1, orderDto);
+
+        assertThat(result).isNotNull();
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(1)).save(saved.capture());
+        assertThat(saved.getValue().getVersion()).isEqualTo(4L);
     }
 
     @Test
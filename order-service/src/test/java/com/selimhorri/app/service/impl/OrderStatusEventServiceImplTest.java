@@ -0,0 +1,135 @@
+package com.selimhorri.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.StatusEventOutcome;
+import com.selimhorri.app.dto.OrderStatusEventDto;
+import com.selimhorri.app.dto.OrderStatusEventResultDto;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.repository.ProcessedStatusEventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusEventServiceImplTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProcessedStatusEventRepository processedStatusEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private OrderStatusEventServiceImpl orderStatusEventService;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        orderStatusEventService = new OrderStatusEventServiceImpl(orderRepository, processedStatusEventRepository,
+                transactionTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldApplyAnEventOnlyOnceWhenItIsRedelivered() {
+        final Integer orderId = saveOrder(OrderStatus.ORDERED).getOrderId();
+        final OrderStatusEventDto event = event(orderId, OrderStatus.ORDERED, OrderStatus.IN_PAYMENT);
+
+        final List<OrderStatusEventResultDto> first = orderStatusEventService.applyAll(List.of(event));
+        final List<OrderStatusEventResultDto> redelivered = orderStatusEventService.applyAll(List.of(event));
+
+        assertThat(first.get(0).getOutcome()).isEqualTo(StatusEventOutcome.APPLIED);
+        // La reentrega recibe la respuesta de la primera entrega
+        assertThat(redelivered.get(0).getOutcome()).isEqualTo(StatusEventOutcome.APPLIED);
+        final Order reloaded = orderRepository.findById(orderId).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.IN_PAYMENT);
+        assertThat(reloaded.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRejectEventsThatDoNotMatchTheOrderOrTheStateMachine() {
+        final Integer orderId = saveOrder(OrderStatus.CREATED).getOrderId();
+
+        final List<OrderStatusEventResultDto> results = orderStatusEventService.applyAll(List.of(
+                event(orderId, OrderStatus.ORDERED, OrderStatus.IN_PAYMENT),
+                event(orderId, OrderStatus.CREATED, OrderStatus.IN_PAYMENT),
+                event(Integer.MAX_VALUE, OrderStatus.CREATED, OrderStatus.ORDERED)));
+
+        assertThat(results).extracting(OrderStatusEventResultDto::getOutcome)
+                .containsOnly(StatusEventOutcome.REJECTED);
+        assertThat(orderRepository.findById(orderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.CREATED);
+    }
+
+    @Test
+    void shouldAnswerARedeliveredRejectedEventWithRejected() {
+        final Integer orderId = saveOrder(OrderStatus.CREATED).getOrderId();
+        final OrderStatusEventDto event = event(orderId, OrderStatus.ORDERED, OrderStatus.IN_PAYMENT);
+
+        orderStatusEventService.applyAll(List.of(event));
+        // Aunque la orden ya pueda aceptar la transición, el reintento no la aplica ni cambia la respuesta
+        transactionTemplate.execute(status -> orderRepository.transitionStatus(orderId, OrderStatus.CREATED, OrderStatus.ORDERED));
+        final List<OrderStatusEventResultDto> redelivered = orderStatusEventService.applyAll(List.of(event));
+
+        assertThat(redelivered.get(0).getOutcome()).isEqualTo(StatusEventOutcome.REJECTED);
+        assertThat(orderRepository.findById(orderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.ORDERED);
+    }
+
+    @Test
+    void shouldAnswerEveryEventOfABatchInOrder() {
+        final Integer first = saveOrder(OrderStatus.ORDERED).getOrderId();
+        final Integer second = saveOrder(OrderStatus.CREATED).getOrderId();
+        final OrderStatusEventDto firstEvent = event(first, OrderStatus.ORDERED, OrderStatus.IN_PAYMENT);
+        final OrderStatusEventDto secondEvent = event(second, OrderStatus.CREATED, OrderStatus.ORDERED);
+
+        final List<OrderStatusEventResultDto> results = orderStatusEventService.applyAll(List.of(firstEvent, secondEvent));
+
+        assertThat(results).extracting(OrderStatusEventResultDto::getEventId)
+                .containsExactly(firstEvent.getEventId(), secondEvent.getEventId());
+        assertThat(results).extracting(OrderStatusEventResultDto::getOutcome)
+                .containsOnly(StatusEventOutcome.APPLIED);
+    }
+
+    private OrderStatusEventDto event(final Integer orderId, final OrderStatus from, final OrderStatus to) {
+        return OrderStatusEventDto.builder()
+                .eventId(UUID.randomUUID().toString())
+                .orderId(orderId)
+                .fromStatus(from)
+                .toStatus(to)
+                .build();
+    }
+
+    private Order saveOrder(final OrderStatus orderStatus) {
+        return transactionTemplate.execute(status -> orderRepository.save(Order.builder()
+                .orderDate(LocalDateTime.now())
+                .orderDesc("status event test")
+                .orderFee(10.0)
+                .isActive(true)
+                .status(orderStatus)
+                .cart(cartRepository.findById(1).orElseThrow())
+                .build()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.selimhorri.app.config.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.selimhorri.app.service.OutboxRelayService;
+
+import lombok.RequiredArgsConstructor;
+
+// Arranca el relay del outbox y su purga; con app.outbox.relay.enabled=false los eventos se acumulan sin entregarse
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class OutboxConfig {
+	
+	private final OutboxRelayService outboxRelayService;
+	
+	@Scheduled(fixedDelayString = "${app.outbox.relay.fixed-delay-millis:500}")
+	public void relayPending() {
+		this.outboxRelayService.relayPending();
+	}
+	
+	@Scheduled(fixedDelayString = "${app.outbox.purge-interval-millis:3600000}")
+	public void purgeSettled() {
+		this.outboxRelayService.purgePublished();
+	}
+	
+}
@@ -0,0 +1,32 @@
+package com.selimhorri.app.config.projection;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.selimhorri.app.service.OrderStatusProjectionService;
+
+import lombok.RequiredArgsConstructor;
+
+// Mantiene la proyección local de estados de orden; con app.order-status-projection.sync.enabled=false se queda congelada
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.order-status-projection.sync.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class OrderStatusProjectionConfig {
+	
+	private final OrderStatusProjectionService orderStatusProjectionService;
+	
+	@Scheduled(fixedDelayString = "${app.order-status-projection.sync.fixed-delay-millis:1000}")
+	public void syncChanges() {
+		this.orderStatusProjectionService.syncChanges();
+	}
+	
+	@Scheduled(fixedDelayString = "${app.order-status-projection.reconcile.interval-millis:900000}",
+			initialDelayString = "${app.order-status-projection.reconcile.interval-millis:900000}")
+	public void reconcile() {
+		this.orderStatusProjectionService.reconcile();
+	}
+	
+}
@@ -0,0 +1,79 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// Copia local del estado de cada orden, alimentada por el feed de cambios de ORDER-SERVICE
+@Entity
+@Table(name = "order_status_projection")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class OrderStatusProjection extends AbstractMappedEntity implements Persistable<Integer>, Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "order_id", unique = true, nullable = false, updatable = false)
+	private Integer orderId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "order_status", nullable = false)
+	private OrderStatus orderStatus;
+	
+	// Versión de la orden en ORDER-SERVICE; un cambio solo se aplica si trae una versión mayor
+	@Column(name = "order_version", nullable = false)
+	private Long orderVersion;
+	
+	@Column(name = "is_active", nullable = false)
+	private Boolean isActive;
+	
+	// Dueño de la orden; nulo en filas proyectadas antes de que el feed lo incluyera
+	@Column(name = "owner_user_id")
+	private Integer ownerUserId;
+	
+	// Datos de la orden para devolverla completa; nulos en filas proyectadas antes de que el feed los incluyera
+	@Column(name = "order_date")
+	private LocalDateTime orderDate;
+	
+	@Column(name = "order_desc")
+	private String orderDesc;
+	
+	@Column(name = "order_fee", columnDefinition = "decimal")
+	private Double orderFee;
+	
+	@Column(name = "changed_at", nullable = false)
+	private Instant changedAt;
+	
+	@Override
+	public Integer getId() {
+		return this.orderId;
+	}
+	
+	// Solo se insertan con save(); los cambios posteriores van por la actualización condicional del repositorio
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+	
+}
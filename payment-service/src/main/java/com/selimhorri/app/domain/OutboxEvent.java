@@ -0,0 +1,79 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import com.selimhorri.app.domain.enums.DeliveryStatus;
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "outbox_events")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class OutboxEvent extends AbstractMappedEntity implements Persistable<String>, Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	// También es la clave de idempotencia con la que el destinatario reconoce las entregas repetidas
+	@Id
+	@Column(name = "event_id", unique = true, nullable = false, updatable = false)
+	private String eventId;
+	
+	@Column(name = "order_id", nullable = false)
+	private Integer orderId;
+	
+	// Pago que originó el cambio; se cancela si ORDER-SERVICE lo rechaza
+	@Column(name = "payment_id")
+	private Integer paymentId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "from_status", nullable = false)
+	private OrderStatus fromStatus;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "to_status", nullable = false)
+	private OrderStatus toStatus;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "delivery_status", nullable = false)
+	private DeliveryStatus deliveryStatus;
+	
+	@Column(name = "attempts", nullable = false)
+	private Integer attempts;
+	
+	@Column(name = "next_attempt_at", nullable = false)
+	private Instant nextAttemptAt;
+	
+	@Column(name = "published_at")
+	private Instant publishedAt;
+	
+	@Override
+	public String getId() {
+		return this.eventId;
+	}
+	
+	// Solo se insertan con save(); los cambios de entrega van por las actualizaciones del repositorio
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+	
+}
@@ -13,4 +13,16 @@ public enum PaymentStatus {
 	CANCELED("canceled");
 	private final String status;
 	
+	// Siguiente estado del pago; null cuando ya no puede avanzar
+	public PaymentStatus next() {
+		switch (this) {
+			case NOT_STARTED:
+				return IN_PROGRESS;
+			case IN_PROGRESS:
+				return COMPLETED;
+			default:
+				return null;
+		}
+	}
+	
 }
@@ -0,0 +1,12 @@
+package com.selimhorri.app.domain.enums;
+
+public enum DeliveryStatus {
+    // Pendiente de entregar, o de reintentar cuando llegue su siguiente intento
+    PENDING,
+    // Entregado y aplicado (o ya aplicado antes) por el destinatario
+    PUBLISHED,
+    // Entregado, pero el destinatario no puede aplicarlo
+    REJECTED,
+    // Se agotaron los reintentos sin poder entregarlo; su pago se cancela como en un rechazo
+    FAILED
+}
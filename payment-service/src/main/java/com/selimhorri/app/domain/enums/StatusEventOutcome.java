@@ -0,0 +1,7 @@
+package com.selimhorri.app.domain.enums;
+
+public enum StatusEventOutcome {
+    APPLIED,
+    DUPLICATE,
+    REJECTED
+}
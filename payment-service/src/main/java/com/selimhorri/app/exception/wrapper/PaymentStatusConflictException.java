@@ -0,0 +1,22 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class PaymentStatusConflictException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public PaymentStatusConflictException() {
+		super();
+	}
+	
+	public PaymentStatusConflictException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public PaymentStatusConflictException(String message) {
+		super(message);
+	}
+	
+	public PaymentStatusConflictException(Throwable cause) {
+		super(cause);
+	}
+}
@@ -0,0 +1,33 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.OrderStatusProjection;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderStatusChangeDto;
+
+public interface OrderStatusProjectionMappingHelper {
+	
+	public static OrderStatusProjection map(final OrderStatusChangeDto orderStatusChangeDto) {
+		return OrderStatusProjection.builder()
+				.orderId(orderStatusChangeDto.getOrderId())
+				.orderStatus(orderStatusChangeDto.getOrderStatus())
+				.orderVersion(orderStatusChangeDto.getVersion())
+				.isActive(!Boolean.FALSE.equals(orderStatusChangeDto.getIsActive()))
+				.ownerUserId(orderStatusChangeDto.getOwnerUserId())
+				.orderDate(orderStatusChangeDto.getOrderDate())
+				.orderDesc(orderStatusChangeDto.getOrderDesc())
+				.orderFee(orderStatusChangeDto.getOrderFee())
+				.changedAt(orderStatusChangeDto.getChangedAt())
+				.build();
+	}
+	
+	public static OrderDto map(final OrderStatusProjection orderStatusProjection) {
+		return OrderDto.builder()
+				.orderId(orderStatusProjection.getOrderId())
+				.orderDate(orderStatusProjection.getOrderDate())
+				.orderDesc(orderStatusProjection.getOrderDesc())
+				.orderFee(orderStatusProjection.getOrderFee())
+				.orderStatus(orderStatusProjection.getOrderStatus().name())
+				.build();
+	}
+	
+}
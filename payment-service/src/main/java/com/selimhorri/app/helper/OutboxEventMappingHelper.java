@@ -0,0 +1,36 @@
+package com.selimhorri.app.helper;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.enums.DeliveryStatus;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderStatusEventDto;
+
+public interface OutboxEventMappingHelper {
+	
+	public static OrderStatusEventDto map(final OutboxEvent outboxEvent) {
+		return OrderStatusEventDto.builder()
+				.eventId(outboxEvent.getEventId())
+				.orderId(outboxEvent.getOrderId())
+				.fromStatus(outboxEvent.getFromStatus())
+				.toStatus(outboxEvent.getToStatus())
+				.build();
+	}
+	
+	public static OutboxEvent mapForStatusChange(final Integer orderId, final Integer paymentId,
+			final OrderStatus fromStatus, final OrderStatus toStatus) {
+		return OutboxEvent.builder()
+				.eventId(UUID.randomUUID().toString())
+				.orderId(orderId)
+				.paymentId(paymentId)
+				.fromStatus(fromStatus)
+				.toStatus(toStatus)
+				.deliveryStatus(DeliveryStatus.PENDING)
+				.attempts(0)
+				.nextAttemptAt(Instant.now())
+				.build();
+	}
+	
+}
@@ -0,0 +1,34 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OrderStatusProjection;
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+public interface OrderStatusProjectionRepository extends JpaRepository<OrderStatusProjection, Integer> {
+	
+	// Último cambio ya proyectado: punto de partida del feed tras un reinicio
+	@Query("SELECT MAX(p.changedAt) FROM OrderStatusProjection p")
+	Optional<Instant> findLatestChangedAt();
+	
+	// Solo avanza: un cambio repetido o más antiguo que lo proyectado no toca la fila
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE OrderStatusProjection p SET p.orderStatus = :status, p.orderVersion = :version, "
+			+ "p.isActive = :active, p.ownerUserId = :ownerUserId, p.orderDate = :orderDate, "
+			+ "p.orderDesc = :orderDesc, p.orderFee = :orderFee, p.changedAt = :changedAt, "
+			+ "p.updatedAt = CURRENT_TIMESTAMP "
+			+ "WHERE p.orderId = :orderId AND p.orderVersion < :version")
+	int applyChange(@Param("orderId") Integer orderId, @Param("status") OrderStatus status,
+			@Param("version") Long version, @Param("active") Boolean active,
+			@Param("ownerUserId") Integer ownerUserId, @Param("orderDate") LocalDateTime orderDate,
+			@Param("orderDesc") String orderDesc, @Param("orderFee") Double orderFee,
+			@Param("changedAt") Instant changedAt);
+	
+}
@@ -0,0 +1,48 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.enums.DeliveryStatus;
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, String> {
+	
+	// Eventos cuyo siguiente intento ya toca, los más antiguos primero
+	@Query("SELECT e FROM OutboxEvent e WHERE e.deliveryStatus = :status AND e.nextAttemptAt <= :now "
+			+ "ORDER BY e.createdAt, e.eventId")
+	List<OutboxEvent> findDue(@Param("status") DeliveryStatus status, @Param("now") Instant now, Pageable pageable);
+	
+	// Transición de la orden ya registrada aquí aunque la proyección todavía no la refleje
+	boolean existsByOrderIdAndToStatusAndDeliveryStatusIn(Integer orderId, OrderStatus toStatus,
+			Collection<DeliveryStatus> deliveryStatuses);
+	
+	@Transactional
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.deliveryStatus = :status, e.publishedAt = :settledAt, e.updatedAt = :settledAt "
+			+ "WHERE e.eventId IN :eventIds")
+	int settle(@Param("eventIds") Collection<String> eventIds, @Param("status") DeliveryStatus status,
+			@Param("settledAt") Instant settledAt);
+	
+	@Transactional
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, "
+			+ "e.deliveryStatus = :status, e.updatedAt = CURRENT_TIMESTAMP WHERE e.eventId = :eventId")
+	int scheduleRetry(@Param("eventId") String eventId, @Param("attempts") Integer attempts,
+			@Param("nextAttemptAt") Instant nextAttemptAt, @Param("status") DeliveryStatus status);
+	
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM OutboxEvent e WHERE e.deliveryStatus = :status AND e.publishedAt < :before")
+	int deleteSettledBefore(@Param("status") DeliveryStatus status, @Param("before") Instant before);
+	
+}
@@ -1,11 +1,38 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.domain.enums.OrderStatus;
 
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
 	
+	// Pagos cuya orden está en el estado pedido según la proyección local, en una sola consulta y por páginas
+	// a partir del último id leído
+	@Query("SELECT p FROM Payment p JOIN OrderStatusProjection o ON o.orderId = p.orderId "
+			+ "WHERE o.orderStatus = :orderStatus AND o.isActive = true AND p.paymentId > :afterId ORDER BY p.paymentId")
+	List<Payment> findAllByOrderStatus(@Param("orderStatus") OrderStatus orderStatus, @Param("afterId") Integer afterId,
+			Pageable pageable);
+	
+	// Transiciones de estado como compare-and-set: solo cambian los pagos que siguen en el estado esperado
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Payment p SET p.paymentStatus = :next, p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP "
+			+ "WHERE p.paymentId = :paymentId AND p.paymentStatus = :expected")
+	int transitionStatus(@Param("paymentId") Integer paymentId, @Param("expected") PaymentStatus expected,
+			@Param("next") PaymentStatus next);
 	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Payment p SET p.paymentStatus = :next, p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP "
+			+ "WHERE p.paymentId IN :paymentIds AND p.paymentStatus = :expected")
+	int transitionStatusIn(@Param("paymentIds") Collection<Integer> paymentIds, @Param("expected") PaymentStatus expected,
+			@Param("next") PaymentStatus next);
 	
 }
@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -13,14 +15,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.config.deadline.ReactiveDeadlines;
+import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.PaymentService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -31,16 +37,29 @@ public class PaymentResource {
 	private final PaymentService paymentService;
 
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findAll() {
+	public Mono<ResponseEntity<DtoCollectionResponse<PaymentDto>>> findAll(
+			@RequestParam(name = "afterId", defaultValue = "0") final int afterId,
+			@RequestParam(name = "size", defaultValue = "50") final int size) {
 		log.info("*** PaymentDto List, controller; fetch all payments *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.findAll()));
+		return this.paymentService.findAll(afterId, size)
+				.map(paymentDtos -> ResponseEntity.ok(new DtoCollectionResponse<>(paymentDtos)))
+				.transform(ReactiveDeadlines::bind);
 	}
 
 	@GetMapping("/{paymentId}")
-	public ResponseEntity<PaymentDto> findById(
+	public Mono<ResponseEntity<PaymentDto>> findById(
 			@PathVariable("paymentId") @NotBlank(message = "Input must not be blank") @Valid final String paymentId) {
 		log.info("*** PaymentDto, resource; fetch payment by id *");
-		return ResponseEntity.ok(this.paymentService.findById(Integer.parseInt(paymentId)));
+		return this.paymentService.findById(Integer.parseInt(paymentId))
+				.map(ResponseEntity::ok)
+				.transform(ReactiveDeadlines::bind);
+	}
+
+	@GetMapping("/{paymentId}/owner")
+	public ResponseEntity<Integer> findOwnerUserId(
+			@PathVariable("paymentId") @NotBlank(message = "Input must not be blank") @Valid final String paymentId) {
+		log.info("*** Integer, resource; fetch owner user id of payment *");
+		return ResponseEntity.ok(this.paymentService.findOwnerUserId(Integer.parseInt(paymentId)));
 	}
 
 	@PostMapping
@@ -57,6 +76,14 @@ public class PaymentResource {
 		return ResponseEntity.ok(this.paymentService.updateStatus(Integer.parseInt(paymentId)));
 	}
 
+	@PatchMapping("/bulk/status")
+	public ResponseEntity<Integer> updateStatusByIds(
+			@RequestParam("paymentIds") @NotNull(message = "Input must not be NULL") final List<Integer> paymentIds,
+			@RequestParam("status") @NotNull(message = "Input must not be NULL") final PaymentStatus expected) {
+		log.info("*** Integer, resource; update status of payments by ids *");
+		return ResponseEntity.ok(this.paymentService.updateStatusByIds(paymentIds, expected));
+	}
+
 	@PutMapping("/{paymentId}")
 	public ResponseEntity<PaymentDto> updateStatusPut(
 			@PathVariable("paymentId") @NotBlank(message = "Input must not be blank") @Valid final String paymentId) {
@@ -0,0 +1,8 @@
+package com.selimhorri.app.service;
+
+public interface OrderStatusProjectionService {
+	
+	int syncChanges();
+	int reconcile();
+	
+}
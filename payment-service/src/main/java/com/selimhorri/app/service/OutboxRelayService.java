@@ -0,0 +1,9 @@
+package com.selimhorri.app.service;
+
+public interface OutboxRelayService {
+	
+	void relayPending();
+	int relayBatch();
+	int purgePublished();
+	
+}
@@ -1,15 +1,21 @@
 package com.selimhorri.app.service;
 
+import java.util.Collection;
 import java.util.List;
 
+import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.PaymentDto;
 
+import reactor.core.publisher.Mono;
+
 public interface PaymentService {
 	
-	List<PaymentDto> findAll();
-	PaymentDto findById(final Integer paymentId);
+	Mono<List<PaymentDto>> findAll(final int afterId, final int size);
+	Mono<PaymentDto> findById(final Integer paymentId);
+	Integer findOwnerUserId(final Integer paymentId);
 	PaymentDto save(final PaymentDto paymentDto);
 	PaymentDto updateStatus(int paymentId);
+	int updateStatusByIds(final Collection<Integer> paymentIds, final PaymentStatus expected);
 	void deleteById(final Integer paymentId);
 	
 }
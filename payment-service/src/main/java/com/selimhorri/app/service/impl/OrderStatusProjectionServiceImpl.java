@@ -0,0 +1,195 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderStatusProjection;
+import com.selimhorri.app.dto.OrderStatusChangeDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.OrderStatusProjectionMappingHelper;
+import com.selimhorri.app.repository.OrderStatusProjectionRepository;
+import com.selimhorri.app.service.OrderStatusProjectionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@link OrderStatusProjection} in step with ORDER-SERVICE by reading its status-change
+ * feed, ordered by (changedAt, orderId). The first sync on an empty table bulk-loads every order;
+ * later syncs resume from the newest change already projected, re-reading a short overlap so
+ * changes committed out of timestamp order are not skipped. A periodic sweep over a bounded
+ * window of recent changes reconciles whatever the incremental feed still missed; older changes
+ * were already read by earlier syncs and sweeps. Changes only apply over an older version, so
+ * re-reading the same change is harmless.
+ */
+@Service
+@Slf4j
+public class OrderStatusProjectionServiceImpl implements OrderStatusProjectionService {
+	
+	private static final String STATUS_CHANGES_URL = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/status-changes";
+	
+	private final OrderStatusProjectionRepository orderStatusProjectionRepository;
+	private final RestTemplate restTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int pageSize;
+	private final Duration overlap;
+	private final Duration reconcileWindow;
+	private final Timer lag;
+	private final Counter corrections;
+	
+	private volatile Instant watermark;
+	private volatile long lastSyncedAtMillis = System.currentTimeMillis();
+	
+	public OrderStatusProjectionServiceImpl(final OrderStatusProjectionRepository orderStatusProjectionRepository,
+			final RestTemplate restTemplate,
+			final TransactionTemplate transactionTemplate,
+			final MeterRegistry meterRegistry,
+			@Value("${app.order-status-projection.sync.page-size:500}") final int pageSize,
+			@Value("${app.order-status-projection.sync.overlap-millis:2000}") final long overlapMillis,
+			@Value("${app.order-status-projection.reconcile.window-hours:24}") final long reconcileWindowHours) {
+		this.orderStatusProjectionRepository = orderStatusProjectionRepository;
+		this.restTemplate = restTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.pageSize = pageSize;
+		this.overlap = Duration.ofMillis(overlapMillis);
+		this.reconcileWindow = Duration.ofHours(reconcileWindowHours);
+		this.lag = Timer.builder("order.status.projection.lag")
+				.description("Time from an order status change in ORDER-SERVICE to its local projection")
+				.register(meterRegistry);
+		this.corrections = Counter.builder("order.status.projection.corrections")
+				.description("Projected orders the reconciliation sweep found out of date")
+				.register(meterRegistry);
+		Gauge.builder("order.status.projection.staleness", this, target ->
+						(System.currentTimeMillis() - target.lastSyncedAtMillis) / 1000.0)
+				.description("Seconds since the projection last caught up with ORDER-SERVICE")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public int syncChanges() {
+		if (this.watermark == null)
+			this.watermark = this.orderStatusProjectionRepository.findLatestChangedAt().orElse(null);
+		final boolean bootstrap = (this.watermark == null);
+		try {
+			// Con la tabla vacía se carga todo el histórico una sola vez; la marca avanza por página, así que
+			// una carga interrumpida sigue donde se quedó. El retraso de esas órdenes no es lag del feed
+			final int applied = bootstrap
+					? this.sweep(Instant.EPOCH, false)
+					: this.sweep(this.watermark.minus(this.overlap), true);
+			this.lastSyncedAtMillis = System.currentTimeMillis();
+			if (bootstrap)
+				log.info("Bootstrapped order status projection with {} orders", applied);
+			return applied;
+		}
+		catch (RestClientException e) {
+			log.warn("Could not read order status changes from ORDER-SERVICE: {}", e.getMessage());
+			return 0;
+		}
+	}
+	
+	@Override
+	public int reconcile() {
+		try {
+			// Solo los cambios recientes: lo anterior ya pasó por sincronizaciones y barridos previos
+			final int corrected = this.sweep(Instant.now().minus(this.reconcileWindow), true);
+			if (corrected > 0) {
+				log.warn("Reconciliation corrected {} projected order statuses", corrected);
+				this.corrections.increment(corrected);
+			}
+			return corrected;
+		}
+		catch (RestClientException e) {
+			log.warn("Could not reconcile order status projection with ORDER-SERVICE: {}", e.getMessage());
+			return 0;
+		}
+	}
+	
+	private int sweep(final Instant from, final boolean recordLag) {
+		Instant since = from;
+		Integer afterId = 0;
+		int applied = 0;
+		List<OrderStatusChangeDto> changes;
+		do {
+			changes = this.fetch(since, afterId);
+			if (changes.isEmpty())
+				break;
+			applied += this.apply(changes, recordLag);
+			final OrderStatusChangeDto last = changes.get(changes.size() - 1);
+			since = last.getChangedAt();
+			afterId = last.getOrderId();
+			if (this.watermark == null || since.isAfter(this.watermark))
+				this.watermark = since;
+		} while (changes.size() == this.pageSize);
+		return applied;
+	}
+	
+	private List<OrderStatusChangeDto> fetch(final Instant since, final Integer afterId) {
+		final DtoCollectionResponse<OrderStatusChangeDto> response = this.restTemplate.exchange(
+				UriComponentsBuilder.fromHttpUrl(STATUS_CHANGES_URL)
+						.queryParam("since", since.toString())
+						.queryParam("afterId", afterId)
+						.queryParam("limit", this.pageSize)
+						.toUriString(),
+				HttpMethod.GET, null,
+				new ParameterizedTypeReference<DtoCollectionResponse<OrderStatusChangeDto>>() {})
+				.getBody();
+		return (response == null || response.getCollection() == null)
+				? List.of() : List.copyOf(response.getCollection());
+	}
+	
+	private int apply(final List<OrderStatusChangeDto> changes, final boolean recordLag) {
+		try {
+			return this.transactionTemplate.execute(status -> {
+				final Map<Integer, Long> projectedVersions = this.orderStatusProjectionRepository
+						.findAllById(changes.stream().map(OrderStatusChangeDto::getOrderId).collect(Collectors.toSet()))
+						.stream()
+						.collect(Collectors.toMap(OrderStatusProjection::getOrderId, OrderStatusProjection::getOrderVersion));
+				final Instant now = Instant.now();
+				int applied = 0;
+				for (final OrderStatusChangeDto change : changes) {
+					final Long projectedVersion = projectedVersions.get(change.getOrderId());
+					if (projectedVersion == null)
+						this.orderStatusProjectionRepository.save(OrderStatusProjectionMappingHelper.map(change));
+					else if (projectedVersion >= change.getVersion())
+						continue;
+					// Otra pasada pudo adelantarse entre la lectura y la actualización: sin filas, no hay cambio
+					else if (this.orderStatusProjectionRepository.applyChange(change.getOrderId(), change.getOrderStatus(),
+							change.getVersion(), !Boolean.FALSE.equals(change.getIsActive()), change.getOwnerUserId(),
+							change.getOrderDate(), change.getOrderDesc(), change.getOrderFee(), change.getChangedAt()) == 0)
+						continue;
+					applied++;
+					if (recordLag) {
+						// El reloj de ORDER-SERVICE puede ir algo por delante: un lag negativo cuenta como cero
+						final Duration changeLag = Duration.between(change.getChangedAt(), now);
+						this.lag.record(changeLag.isNegative() ? Duration.ZERO : changeLag);
+					}
+				}
+				return applied;
+			});
+		}
+		catch (DataIntegrityViolationException e) {
+			// Otra pasada insertó la misma orden a la vez; lo que quede pendiente lo recoge la reconciliación
+			log.debug("Order status projection page raced with a concurrent sweep: {}", e.getMessage());
+			return 0;
+		}
+	}
+	
+}
@@ -0,0 +1,224 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.domain.enums.DeliveryStatus;
+import com.selimhorri.app.domain.enums.StatusEventOutcome;
+import com.selimhorri.app.dto.OrderStatusEventDto;
+import com.selimhorri.app.dto.OrderStatusEventResultDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.OutboxEventMappingHelper;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.OutboxRelayService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the order status-change events written to the outbox by {@link PaymentServiceImpl}
+ * to ORDER-SERVICE in batches, outside any database transaction. Events the order service
+ * answers are settled; the rest are retried with exponential backoff until they run out of
+ * attempts. Every event carries its id as idempotency key, so a batch delivered twice (a lost
+ * response, two relays running) is applied once. A rejected event, or one that runs out of
+ * attempts, cancels the payment that raised it, as the synchronous call it replaced used to
+ * fail the checkout.
+ */
+@Service
+@Slf4j
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+	
+	private static final String STATUS_EVENTS_URL = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/status-events";
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final PaymentRepository paymentRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final RestTemplate restTemplate;
+	private final MeterRegistry meterRegistry;
+	private final int batchSize;
+	private final int maxAttempts;
+	private final long initialBackoffMillis;
+	private final long maxBackoffMillis;
+	private final Duration retention;
+	
+	public OutboxRelayServiceImpl(final OutboxEventRepository outboxEventRepository,
+			final PaymentRepository paymentRepository,
+			final TransactionTemplate transactionTemplate,
+			final RestTemplate restTemplate,
+			final MeterRegistry meterRegistry,
+			@Value("${app.outbox.relay.batch-size:100}") final int batchSize,
+			@Value("${app.outbox.relay.max-attempts:10}") final int maxAttempts,
+			@Value("${app.outbox.relay.initial-backoff-millis:1000}") final long initialBackoffMillis,
+			@Value("${app.outbox.relay.max-backoff-millis:60000}") final long maxBackoffMillis,
+			@Value("${app.outbox.retention-hours:24}") final long retentionHours) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.paymentRepository = paymentRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.restTemplate = restTemplate;
+		this.meterRegistry = meterRegistry;
+		this.batchSize = batchSize;
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffMillis = initialBackoffMillis;
+		this.maxBackoffMillis = maxBackoffMillis;
+		this.retention = Duration.ofHours(retentionHours);
+	}
+	
+	@Override
+	public void relayPending() {
+		// Mientras salgan lotes completos queda cola: se sigue sin esperar al siguiente ciclo
+		int settled;
+		do {
+			settled = this.relayBatch();
+		} while (settled == this.batchSize);
+	}
+	
+	@Override
+	public int relayBatch() {
+		final List<OutboxEvent> due = this.outboxEventRepository.findDue(DeliveryStatus.PENDING, Instant.now(),
+				PageRequest.of(0, this.batchSize));
+		if (due.isEmpty())
+			return 0;
+		
+		final Map<String, StatusEventOutcome> outcomes = this.deliver(due);
+		final Instant now = Instant.now();
+		final List<String> published = new ArrayList<>();
+		final List<OutboxEvent> rejected = new ArrayList<>();
+		final List<OutboxEvent> exhausted = new ArrayList<>();
+		for (final OutboxEvent event : due) {
+			final StatusEventOutcome outcome = outcomes.get(event.getEventId());
+			if (outcome == null) {
+				if (!this.scheduleRetry(event, now))
+					exhausted.add(event);
+				continue;
+			}
+			if (outcome == StatusEventOutcome.REJECTED) {
+				log.warn("ORDER-SERVICE rejected status event {}: order {} from {} to {}", event.getEventId(),
+						event.getOrderId(), event.getFromStatus(), event.getToStatus());
+				rejected.add(event);
+			}
+			else {
+				published.add(event.getEventId());
+			}
+			this.count(outcome.name());
+		}
+		if (!published.isEmpty())
+			this.outboxEventRepository.settle(published, DeliveryStatus.PUBLISHED, now);
+		if (!rejected.isEmpty())
+			this.settleRejected(rejected, now);
+		if (!exhausted.isEmpty())
+			this.settleFailed(exhausted, now);
+		return published.size() + rejected.size();
+	}
+	
+	// Evento y pago en una sola transacción: no queda un pago vivo para una orden que nunca pasó a IN_PAYMENT
+	private void settleRejected(final List<OutboxEvent> rejected, final Instant now) {
+		final List<String> eventIds = rejected.stream()
+				.map(OutboxEvent::getEventId)
+				.collect(Collectors.toUnmodifiableList());
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.outboxEventRepository.settle(eventIds, DeliveryStatus.REJECTED, now);
+			this.cancelPayments(rejected, "rejected");
+		});
+	}
+	
+	// Igual que un rechazo: un evento FAILED ya no bloquea la orden en el índice único, así que su pago no puede seguir vivo
+	private void settleFailed(final List<OutboxEvent> exhausted, final Instant now) {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			exhausted.forEach(event -> this.outboxEventRepository.scheduleRetry(event.getEventId(),
+					event.getAttempts() + 1, now, DeliveryStatus.FAILED));
+			this.cancelPayments(exhausted, "undeliverable");
+		});
+	}
+	
+	private void cancelPayments(final List<OutboxEvent> events, final String reason) {
+		final List<Integer> paymentIds = events.stream()
+				.map(OutboxEvent::getPaymentId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableList());
+		if (paymentIds.isEmpty())
+			return;
+		final int canceled = this.paymentRepository.transitionStatusIn(paymentIds, PaymentStatus.NOT_STARTED, PaymentStatus.CANCELED)
+				+ this.paymentRepository.transitionStatusIn(paymentIds, PaymentStatus.IN_PROGRESS, PaymentStatus.CANCELED);
+		// Uno ya completado no se puede deshacer aquí
+		if (canceled < paymentIds.size())
+			log.error("Only {} of payments {} behind {} status events could be canceled; the rest had already "
+					+ "completed or been canceled", canceled, paymentIds, reason);
+	}
+	
+	@Override
+	public int purgePublished() {
+		final int purged = this.outboxEventRepository.deleteSettledBefore(DeliveryStatus.PUBLISHED,
+				Instant.now().minus(this.retention));
+		if (purged > 0)
+			log.debug("Purged {} published outbox events", purged);
+		return purged;
+	}
+	
+	private Map<String, StatusEventOutcome> deliver(final List<OutboxEvent> events) {
+		final List<OrderStatusEventDto> body = events.stream()
+				.map(OutboxEventMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+		try {
+			final DtoCollectionResponse<OrderStatusEventResultDto> response = this.restTemplate.exchange(
+					STATUS_EVENTS_URL, HttpMethod.POST, new HttpEntity<>(body),
+					new ParameterizedTypeReference<DtoCollectionResponse<OrderStatusEventResultDto>>() {})
+					.getBody();
+			if (response == null || response.getCollection() == null)
+				return Map.of();
+			return response.getCollection().stream()
+					.filter(result -> result.getEventId() != null && result.getOutcome() != null)
+					.collect(Collectors.toMap(OrderStatusEventResultDto::getEventId,
+							OrderStatusEventResultDto::getOutcome, (a, b) -> a));
+		}
+		catch (RestClientException e) {
+			log.warn("Could not deliver {} order status events to ORDER-SERVICE: {}", events.size(), e.getMessage());
+			return Map.of();
+		}
+	}
+	
+	// Devuelve false cuando el evento agotó sus intentos y hay que darlo por fallido
+	private boolean scheduleRetry(final OutboxEvent event, final Instant now) {
+		final int attempts = event.getAttempts() + 1;
+		if (attempts >= this.maxAttempts) {
+			log.error("Giving up on status event {} for order {} after {} attempts; canceling its payment", event.getEventId(),
+					event.getOrderId(), attempts);
+			this.count("failed");
+			return false;
+		}
+		// Backoff exponencial acotado: 1x, 2x, 4x... el retardo inicial, hasta el máximo
+		final long backoffMillis = Math.min(this.maxBackoffMillis, this.initialBackoffMillis << Math.min(attempts - 1, 20));
+		this.outboxEventRepository.scheduleRetry(event.getEventId(), attempts, now.plusMillis(backoffMillis),
+				DeliveryStatus.PENDING);
+		this.count("retried");
+		return true;
+	}
+	
+	private void count(final String outcome) {
+		Counter.builder("outbox.relay.events")
+				.description("Outbox events handled by the relay, by outcome")
+				.tag("outcome", outcome.toLowerCase())
+				.register(this.meterRegistry)
+				.increment();
+	}
+	
+}
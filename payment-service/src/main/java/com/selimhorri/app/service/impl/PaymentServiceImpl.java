@@ -1,30 +1,46 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderStatusProjection;
 import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.domain.enums.DeliveryStatus;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.exception.wrapper.PaymentServiceException;
+import com.selimhorri.app.exception.wrapper.PaymentStatusConflictException;
+import com.selimhorri.app.helper.OrderStatusProjectionMappingHelper;
+import com.selimhorri.app.helper.OutboxEventMappingHelper;
 import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.repository.OrderStatusProjectionRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
 import com.selimhorri.app.repository.PaymentRepository;
 import com.selimhorri.app.service.PaymentService;
+import com.selimhorri.app.service.RemoteResourceService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 @Transactional
@@ -32,58 +48,111 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
 
+	private static final int MAX_PAGE_SIZE = 500;
+
 	private final PaymentRepository paymentRepository;
+	private final OutboxEventRepository outboxEventRepository;
+	private final OrderStatusProjectionRepository orderStatusProjectionRepository;
 	private final RestTemplate restTemplate;
+	private final RemoteResourceService remoteResourceService;
 
+	// Las lecturas devuelven un Mono que se ejecuta después en boundedElastic, fuera de cualquier transacción
+	// abierta aquí; cada consulta del repositorio lleva la suya, de solo lectura
 	@Override
-	public List<PaymentDto> findAll() {
+	@Transactional(TxType.NOT_SUPPORTED)
+	public Mono<List<PaymentDto>> findAll(final int afterId, final int size) {
 		log.info("*** PaymentDto List, service; fetch payments with order status IN_PAYMENT *");
+		final PageRequest page = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
 
-		return this.paymentRepository.findAll()
-				.stream()
-				.map(PaymentMappingHelper::map)
-				.filter(p -> {
-					try {
-						OrderDto orderDto = this.restTemplate.getForObject(
-								AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-										+ p.getOrderDto().getOrderId(),
-								OrderDto.class);
-
-						// Verificar si la orden tiene estado IN_PAYMENT
-						boolean isInPayment = "IN_PAYMENT".equalsIgnoreCase(orderDto.getOrderStatus());
-						if (isInPayment) {
-							p.setOrderDto(orderDto);
-							return true;
-						}
-						return false;
-
-					} catch (Exception e) {
-						log.error("Error fetching order for payment ID {}: {}", p.getPaymentId(), e.getMessage());
-						return false;
-					}
+		// El estado de cada orden sale de la proyección local: una consulta con join, sin llamadas a ORDER-SERVICE
+		return Mono.fromCallable(() -> {
+					final List<Payment> payments = this.paymentRepository.findAllByOrderStatus(
+							OrderStatus.IN_PAYMENT, afterId, page);
+					// El resto de datos de cada orden también está en la proyección: una segunda consulta local
+					final Map<Integer, OrderStatusProjection> projections = this.orderStatusProjectionRepository
+							.findAllById(payments.stream().map(Payment::getOrderId).collect(Collectors.toSet()))
+							.stream()
+							.collect(Collectors.toMap(OrderStatusProjection::getOrderId, Function.identity()));
+					return payments.stream()
+							.map(payment -> {
+								final PaymentDto paymentDto = PaymentMappingHelper.map(payment);
+								Optional.ofNullable(projections.get(payment.getOrderId()))
+										.map(OrderStatusProjectionMappingHelper::map)
+										.ifPresent(paymentDto::setOrderDto);
+								paymentDto.getOrderDto().setOrderStatus(OrderStatus.IN_PAYMENT.name());
+								return paymentDto;
+							})
+							.distinct()
+							.collect(Collectors.toUnmodifiableList());
 				})
-				.distinct()
-				.collect(Collectors.toUnmodifiableList());
+				.subscribeOn(Schedulers.boundedElastic());
 	}
 
 	@Override
-	public PaymentDto findById(final Integer paymentId) {
+	@Transactional(TxType.NOT_SUPPORTED)
+	public Mono<PaymentDto> findById(final Integer paymentId) {
 		log.info("*** PaymentDto, service; fetch payment by id *");
-		PaymentDto paymentDto = this.paymentRepository.findById(paymentId)
-				.map(PaymentMappingHelper::map)
+		return Mono.fromCallable(() -> {
+					final PaymentDto paymentDto = this.paymentRepository.findById(paymentId)
+							.map(PaymentMappingHelper::map)
+							.orElseThrow(() -> new PaymentServiceException(
+									String.format("Payment with id: %d not found", paymentId)));
+					Optional.ofNullable(paymentDto.getOrderDto().getOrderId())
+							.flatMap(this.orderStatusProjectionRepository::findById)
+							.ifPresent(projection -> paymentDto.setOrderDto(projection.getIsActive()
+									? OrderStatusProjectionMappingHelper.map(projection) : null));
+					return paymentDto;
+				})
+				.subscribeOn(Schedulers.boundedElastic())
+				// Solo se pregunta a ORDER-SERVICE por órdenes que la proyección aún no conoce
+				.flatMap(paymentDto -> (paymentDto.getOrderDto() == null || paymentDto.getOrderDto().getOrderStatus() != null)
+						? Mono.just(paymentDto)
+						: this.fetchOrder(paymentId, paymentDto));
+	}
+
+	private Mono<PaymentDto> fetchOrder(final Integer paymentId, final PaymentDto paymentDto) {
+		return this.remoteResourceService.findOne(
+						AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
+								+ paymentDto.getOrderDto().getOrderId(),
+						OrderDto.class)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.map(orderDto -> {
+					paymentDto.setOrderDto(orderDto.orElse(null));
+					return paymentDto;
+				})
+				.onErrorMap(e -> {
+					log.error("Error fetching order for payment ID {}: {}", paymentId, e.getMessage());
+					return new PaymentServiceException("Could not fetch order information for payment");
+				});
+	}
+
+	@Override
+	public Integer findOwnerUserId(final Integer paymentId) {
+		log.info("*** Integer, service; fetch owner user id of payment *");
+		final Integer orderId = this.paymentRepository.findById(paymentId)
+				.map(Payment::getOrderId)
 				.orElseThrow(
 						() -> new PaymentServiceException(String.format("Payment with id: %d not found", paymentId)));
 
+		// El dueño viaja en el feed de estados: solo las órdenes que la proyección aún no conoce van a ORDER-SERVICE
+		final Optional<Integer> projectedOwner = this.orderStatusProjectionRepository.findById(orderId)
+				.map(OrderStatusProjection::getOwnerUserId);
+		if (projectedOwner.isPresent())
+			return projectedOwner.get();
+
 		try {
-			OrderDto orderDto = this.restTemplate.getForObject(
-					AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-							+ paymentDto.getOrderDto().getOrderId(),
-					OrderDto.class);
-			paymentDto.setOrderDto(orderDto);
-			return paymentDto;
-		} catch (Exception e) {
-			log.error("Error fetching order for payment ID {}: {}", paymentId, e.getMessage());
-			throw new PaymentServiceException("Could not fetch order information for payment");
+			final Integer ownerUserId = this.restTemplate.getForObject(
+					AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + orderId + "/owner",
+					Integer.class);
+			if (ownerUserId == null)
+				throw new PaymentServiceException("Order with ID " + orderId + " has no owner");
+			return ownerUserId;
+		} catch (HttpClientErrorException.NotFound ex) {
+			throw new PaymentServiceException("Order with ID " + orderId + " not found");
+		} catch (RestClientException ex) {
+			log.error("Error fetching owner of order {} for payment ID {}: {}", orderId, paymentId, ex.getMessage());
+			throw new PaymentServiceException("Could not fetch owner information for payment", ex);
 		}
 	}
 
@@ -96,80 +165,81 @@ public class PaymentServiceImpl implements PaymentService {
 		if (paymentDto.getOrderDto() == null || paymentDto.getOrderDto().getOrderId() == null) {
 			throw new IllegalArgumentException("Order ID must not be null");
 		}
+		final Integer orderId = paymentDto.getOrderDto().getOrderId();
 
-		try {
-			// 1. Verificar existencia de la orden
-			OrderDto orderDto = this.restTemplate.getForObject(
-					AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-							+ paymentDto.getOrderDto().getOrderId(),
-					OrderDto.class);
-
-			if (orderDto == null) {
-				throw new PaymentServiceException(
-						"Order with ID " + paymentDto.getOrderDto().getOrderId() + " not found");
-			}
-			if (!orderDto.getOrderStatus().equals(OrderStatus.ORDERED.name())) {
-				throw new IllegalArgumentException(
-						"Cannot start the payment of an order that is not ordered or already in a payment process");
-			}
-			// 2. Guardar el pago
-			PaymentDto savedPayment = PaymentMappingHelper.map(
-					this.paymentRepository.save(PaymentMappingHelper.mapForPayment(paymentDto)));
-
-			// 3. Actualizar estado de la orden (PATCH)
-			String patchUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-					+ paymentDto.getOrderDto().getOrderId() + "/status";
-
-			try {
-				this.restTemplate.patchForObject(
-						patchUrl,
-						null,
-						Void.class);
-				log.info("Order status updated successfully for order ID: {}", paymentDto.getOrderDto().getOrderId());
-			} catch (RestClientException e) {
-				log.error("Failed to update order status for order ID: {}", paymentDto.getOrderDto().getOrderId(), e);
-				// Puedes decidir si lanzar excepción o continuar
-				throw new PaymentServiceException("Payment saved but failed to update order status: " + e.getMessage());
-			}
-
-			return savedPayment;
+		// 1. Estado de la orden según la proyección local; las bajas son definitivas
+		final Optional<OrderStatusProjection> projection = this.orderStatusProjectionRepository.findById(orderId);
+		if (projection.isPresent() && !projection.get().getIsActive()) {
+			throw new PaymentServiceException("Order with ID " + orderId + " not found");
+		}
+		// La proyección puede ir con retraso: si aún no conoce la orden o la ve en CREATED, el cliente reintenta
+		// cuando el feed la ponga al día, sin consultar a ORDER-SERVICE en el checkout
+		final OrderStatus orderStatus = projection.map(OrderStatusProjection::getOrderStatus)
+				.filter(status -> status != OrderStatus.CREATED)
+				.orElseThrow(() -> new PaymentStatusConflictException(String.format(
+						"Order with ID %d is not known to be ORDERED yet, retry once its status change is synced",
+						orderId)));
+		// Un pago previo cuyo evento aún no ha llegado a la proyección también deja la orden fuera
+		if (orderStatus != OrderStatus.ORDERED
+				|| this.outboxEventRepository.existsByOrderIdAndToStatusAndDeliveryStatusIn(orderId,
+						OrderStatus.IN_PAYMENT, List.of(DeliveryStatus.PENDING, DeliveryStatus.PUBLISHED))) {
+			throw new IllegalArgumentException(
+					"Cannot start the payment of an order that is not ordered or already in a payment process");
+		}
 
-		} catch (HttpClientErrorException.NotFound ex) {
-			throw new PaymentServiceException("Order with ID " + paymentDto.getOrderDto().getOrderId() + " not found");
-		} catch (RestClientException ex) {
-			throw new PaymentServiceException("Error while processing payment: " + ex.getMessage());
+		// 2. Guardar el pago
+		final PaymentDto savedPayment = PaymentMappingHelper.map(
+				this.paymentRepository.save(PaymentMappingHelper.mapForPayment(paymentDto)));
+
+		// 3. El cambio de estado de la orden se registra en el outbox en esta misma transacción;
+		// el relay lo entrega a ORDER-SERVICE después, sin que el checkout lo espere
+		try {
+			this.outboxEventRepository.saveAndFlush(OutboxEventMappingHelper.mapForStatusChange(
+					orderId, savedPayment.getPaymentId(), OrderStatus.ORDERED, OrderStatus.IN_PAYMENT));
+		}
+		catch (DataIntegrityViolationException e) {
+			// Un pago concurrente de la misma orden pasó la comprobación a la vez; el índice único deja solo uno
+			throw new PaymentStatusConflictException("Order with ID " + orderId + " is already in a payment process", e);
 		}
+
+		return savedPayment;
 	}
 
 	@Override
 	public PaymentDto updateStatus(final int paymentId) {
 		log.info("*** PaymentDto, service; update payment status *");
 
-		return this.paymentRepository.findById(paymentId)
-				.map(payment -> {
-					PaymentStatus currentStatus = payment.getPaymentStatus();
-					PaymentStatus newStatus;
-					switch (currentStatus) {
-						case NOT_STARTED:
-							newStatus = PaymentStatus.IN_PROGRESS;
-							break;
-						case IN_PROGRESS:
-							newStatus = PaymentStatus.COMPLETED;
-							break;
-						case COMPLETED:
-							throw new IllegalStateException(
-									"Payment is already COMPLETED and cannot be updated further");
-						case CANCELED:
-							throw new IllegalStateException("Payment is CANCELED and cannot be updated");
-						default:
-							throw new IllegalStateException("Unknown payment status: " + currentStatus);
-					}
-
-					payment.setPaymentStatus(newStatus);
-
-					return PaymentMappingHelper.map(this.paymentRepository.save(payment));
-				})
+		final Payment payment = this.paymentRepository.findById(paymentId)
 				.orElseThrow(() -> new PaymentNotFoundException("Payment with id: " + paymentId + " not found"));
+		final PaymentStatus currentStatus = payment.getPaymentStatus();
+		final PaymentStatus newStatus = currentStatus.next();
+		if (newStatus == null)
+			throw new IllegalStateException((currentStatus == PaymentStatus.COMPLETED)
+					? "Payment is already COMPLETED and cannot be updated further"
+					: "Payment is " + currentStatus + " and cannot be updated");
+
+		// Solo se aplica si nadie ha movido el pago desde que se leyó; sin reintento, que lo avanzaría dos pasos
+		if (this.paymentRepository.transitionStatus(paymentId, currentStatus, newStatus) == 0)
+			throw new PaymentStatusConflictException(String.format(
+					"Payment with id %d left status %s concurrently, read it again before advancing it",
+					paymentId, currentStatus));
+		payment.setPaymentStatus(newStatus);
+		return PaymentMappingHelper.map(payment);
+	}
+
+	@Override
+	public int updateStatusByIds(final Collection<Integer> paymentIds, final PaymentStatus expected) {
+		log.info("*** Integer, service; update status of payments by ids *");
+		if (paymentIds == null || paymentIds.isEmpty())
+			return 0;
+		final PaymentStatus newStatus = expected.next();
+		if (newStatus == null)
+			throw new IllegalStateException("Payments in status " + expected + " cannot be updated further");
+
+		// Una sola sentencia; los pagos que ya no estaban en el estado esperado se quedan como están
+		final int updated = this.paymentRepository.transitionStatusIn(paymentIds, expected, newStatus);
+		log.info("Moved {} of {} payments from {} to {}", updated, paymentIds.size(), expected, newStatus);
+		return updated;
 	}
 
 	@Override
@@ -0,0 +1,3 @@
+
+ALTER TABLE payments ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
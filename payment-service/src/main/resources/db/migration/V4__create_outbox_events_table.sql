@@ -0,0 +1,16 @@
+
+CREATE TABLE outbox_events (
+	event_id VARCHAR(64) NOT NULL PRIMARY KEY,
+	order_id INT(11) NOT NULL,
+	from_status VARCHAR(50) NOT NULL,
+	to_status VARCHAR(50) NOT NULL,
+	delivery_status VARCHAR(20) NOT NULL,
+	attempts INT(11) DEFAULT 0 NOT NULL,
+	next_attempt_at TIMESTAMP NOT NULL,
+	published_at TIMESTAMP,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_outbox_events_due ON outbox_events (delivery_status, next_attempt_at);
+
@@ -0,0 +1,17 @@
+
+CREATE TABLE order_status_projection (
+	order_id INT(11) NOT NULL PRIMARY KEY,
+	order_status VARCHAR(50) NOT NULL,
+	order_version BIGINT NOT NULL,
+	is_active BOOLEAN DEFAULT true NOT NULL,
+	changed_at TIMESTAMP NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_order_status_projection_status ON order_status_projection (order_status, order_id);
+
+CREATE INDEX idx_payments_order_id ON payments (order_id);
+
+CREATE INDEX idx_outbox_events_order_id ON outbox_events (order_id);
+
@@ -0,0 +1,3 @@
+
+ALTER TABLE order_status_projection ADD COLUMN owner_user_id INT(11);
+
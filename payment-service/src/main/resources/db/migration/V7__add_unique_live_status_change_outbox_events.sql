@@ -0,0 +1,5 @@
+
+ALTER TABLE outbox_events ADD COLUMN live_order_id INT(11) AS (CASE WHEN delivery_status IN ('PENDING', 'PUBLISHED') THEN order_id END);
+
+CREATE UNIQUE INDEX uk_outbox_events_live_status_change ON outbox_events (live_order_id, to_status);
+
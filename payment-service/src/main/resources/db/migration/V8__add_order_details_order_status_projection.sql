@@ -0,0 +1,5 @@
+
+ALTER TABLE order_status_projection ADD COLUMN order_date TIMESTAMP;
+ALTER TABLE order_status_projection ADD COLUMN order_desc VARCHAR(255);
+ALTER TABLE order_status_projection ADD COLUMN order_fee DECIMAL(7, 2);
+
@@ -0,0 +1,2 @@
+
+ALTER TABLE outbox_events ADD COLUMN payment_id INT(11);
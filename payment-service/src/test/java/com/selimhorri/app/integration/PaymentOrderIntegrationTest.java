@@ -12,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 
@@ -61,15 +62,23 @@ class PaymentOrderIntegrationTest {
 
     @Test
     void testGetPaymentById() throws Exception {
-        mockMvc.perform(get("/api/payments/1")
+        MvcResult result = mockMvc.perform(get("/api/payments/1")
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().is4xxClientError());
     }
 
     @Test
     void testPaymentListStructure() throws Exception {
-        mockMvc.perform(get("/api/payments")
+        MvcResult result = mockMvc.perform(get("/api/payments")
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.collection").isArray());
     }
@@ -0,0 +1,70 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.enums.DeliveryStatus;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.helper.OutboxEventMappingHelper;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("OutboxEventRepository live status change uniqueness tests")
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should reject a second live change of an order to the same status")
+    void testSecondLiveStatusChangeIsRejected() {
+        saveStatusChange(9101);
+
+        assertThrows(DataIntegrityViolationException.class, () -> saveStatusChange(9101));
+        assertEquals(1, outboxEventRepository.findAll().stream()
+                .filter(event -> event.getOrderId() == 9101)
+                .count());
+    }
+
+    @Test
+    @DisplayName("Should accept a new change once the earlier one failed to be delivered")
+    void testFailedStatusChangeDoesNotBlockANewOne() {
+        final OutboxEvent failed = saveStatusChange(9102);
+        transactionTemplate.execute(status -> outboxEventRepository.settle(
+                List.of(failed.getEventId()), DeliveryStatus.FAILED, Instant.now()));
+
+        assertDoesNotThrow(() -> saveStatusChange(9102));
+    }
+
+    private OutboxEvent saveStatusChange(final Integer orderId) {
+        return transactionTemplate.execute(status -> outboxEventRepository.saveAndFlush(
+                OutboxEventMappingHelper.mapForStatusChange(orderId, null, OrderStatus.ORDERED, OrderStatus.IN_PAYMENT)));
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OrderStatusProjection;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("PaymentRepository status transition and order status join tests")
+class PaymentRepositoryTest {
+
+    private static final int CONCURRENT_CALLERS = 8;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderStatusProjectionRepository orderStatusProjectionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should apply exactly one of many concurrent identical transitions")
+    void testConcurrentTransitionsHaveSingleWinner() throws Exception {
+        final Integer paymentId = savePayment(PaymentStatus.IN_PROGRESS).getPaymentId();
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CALLERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        int applied = 0;
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> paymentRepository.transitionStatus(
+                            paymentId, PaymentStatus.IN_PROGRESS, PaymentStatus.COMPLETED));
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results)
+                applied += result.get(10, TimeUnit.SECONDS);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        final Payment reloaded = paymentRepository.findById(paymentId).orElseThrow();
+        assertEquals(1, applied);
+        assertEquals(PaymentStatus.COMPLETED, reloaded.getPaymentStatus());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should move only the payments still in the expected status in one statement")
+    void testBulkTransitionSkipsPaymentsInOtherStatuses() {
+        final Integer first = savePayment(PaymentStatus.NOT_STARTED).getPaymentId();
+        final Integer second = savePayment(PaymentStatus.NOT_STARTED).getPaymentId();
+        final Integer canceled = savePayment(PaymentStatus.CANCELED).getPaymentId();
+
+        final int updated = transactionTemplate.execute(status -> paymentRepository.transitionStatusIn(
+                List.of(first, second, canceled), PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS));
+
+        assertEquals(2, updated);
+        assertEquals(PaymentStatus.IN_PROGRESS, paymentRepository.findById(first).orElseThrow().getPaymentStatus());
+        assertEquals(PaymentStatus.IN_PROGRESS, paymentRepository.findById(second).orElseThrow().getPaymentStatus());
+        assertEquals(PaymentStatus.CANCELED, paymentRepository.findById(canceled).orElseThrow().getPaymentStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject a cancellation based on a version older than a transition")
+    void testStaleCancellationFailsOptimisticLock() {
+        final Payment stale = savePayment(PaymentStatus.IN_PROGRESS);
+        transactionTemplate.execute(status -> paymentRepository.transitionStatus(
+                stale.getPaymentId(), PaymentStatus.IN_PROGRESS, PaymentStatus.COMPLETED));
+
+        stale.setPaymentStatus(PaymentStatus.CANCELED);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> transactionTemplate.execute(status -> paymentRepository.save(stale)));
+        assertEquals(PaymentStatus.COMPLETED,
+                paymentRepository.findById(stale.getPaymentId()).orElseThrow().getPaymentStatus());
+    }
+
+    @Test
+    @DisplayName("Should select the payments of projected IN_PAYMENT orders with a local join")
+    void testFindAllByOrderStatusJoinsTheLocalProjection() {
+        projectOrder(9001, OrderStatus.IN_PAYMENT, true);
+        projectOrder(9002, OrderStatus.ORDERED, true);
+        projectOrder(9003, OrderStatus.IN_PAYMENT, false);
+        final Integer inPayment = savePayment(9001, PaymentStatus.NOT_STARTED).getPaymentId();
+        savePayment(9002, PaymentStatus.NOT_STARTED);
+        savePayment(9003, PaymentStatus.NOT_STARTED);
+        savePayment(9004, PaymentStatus.NOT_STARTED);
+
+        final List<Integer> found = paymentRepository.findAllByOrderStatus(OrderStatus.IN_PAYMENT, 0, PageRequest.of(0, 500)).stream()
+                .filter(payment -> payment.getOrderId() > 9000)
+                .map(Payment::getPaymentId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(inPayment), found);
+    }
+
+    @Test
+    @DisplayName("Should page the payments of projected IN_PAYMENT orders from the last id read")
+    void testFindAllByOrderStatusPagesAfterTheLastId() {
+        projectOrder(9101, OrderStatus.IN_PAYMENT, true);
+        final Integer first = savePayment(9101, PaymentStatus.NOT_STARTED).getPaymentId();
+        final Integer second = savePayment(9101, PaymentStatus.IN_PROGRESS).getPaymentId();
+        final Integer third = savePayment(9101, PaymentStatus.COMPLETED).getPaymentId();
+
+        final List<Integer> firstPage = paymentRepository.findAllByOrderStatus(OrderStatus.IN_PAYMENT, first - 1, PageRequest.of(0, 2))
+                .stream().map(Payment::getPaymentId).collect(Collectors.toList());
+        final List<Integer> nextPage = paymentRepository.findAllByOrderStatus(OrderStatus.IN_PAYMENT, second, PageRequest.of(0, 2))
+                .stream().map(Payment::getPaymentId).collect(Collectors.toList());
+
+        assertEquals(List.of(first, second), firstPage);
+        assertEquals(List.of(third), nextPage);
+    }
+
+    private void projectOrder(final Integer orderId, final OrderStatus orderStatus, final boolean active) {
+        orderStatusProjectionRepository.save(OrderStatusProjection.builder()
+                .orderId(orderId)
+                .orderStatus(orderStatus)
+                .orderVersion(0L)
+                .isActive(active)
+                .changedAt(Instant.now())
+                .build());
+    }
+
+    private Payment savePayment(final PaymentStatus paymentStatus) {
+        return savePayment(1, paymentStatus);
+    }
+
+    private Payment savePayment(final Integer orderId, final PaymentStatus paymentStatus) {
+        return transactionTemplate.execute(status -> paymentRepository.save(Payment.builder()
+                .orderId(orderId)
+                .isPayed(false)
+                .paymentStatus(paymentStatus)
+                .build()));
+    }
+}
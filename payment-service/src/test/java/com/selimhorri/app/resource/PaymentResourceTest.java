@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -40,24 +41,35 @@ class PaymentResourceTest {
     void findAllShouldReturnPayments() {
         List<PaymentDto> payments = new ArrayList<>();
         payments.add(testPaymentDto);
-        when(paymentService.findAll()).thenReturn(payments);
+        when(paymentService.findAll(0, 50)).thenReturn(Mono.just(payments));
 
-        ResponseEntity<?> response = paymentResource.findAll();
+        ResponseEntity<?> response = paymentResource.findAll(0, 50).block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(paymentService, times(1)).findAll();
+        verify(paymentService, times(1)).findAll(0, 50);
     }
 
     @Test
     void findByIdShouldReturnPayment() {
-        when(paymentService.findById(any(Integer.class))).thenReturn(testPaymentDto);
+        when(paymentService.findById(any(Integer.class))).thenReturn(Mono.just(testPaymentDto));
 
-        ResponseEntity<?> response = paymentResource.findById("1");
+        ResponseEntity<?> response = paymentResource.findById("1").block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(paymentService, times(1)).findById(any(Integer.class));
     }
 
+    @Test
+    void findOwnerUserIdShouldReturnOwner() {
+        when(paymentService.findOwnerUserId(1)).thenReturn(7);
+
+        ResponseEntity<Integer> response = paymentResource.findOwnerUserId("1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(7, response.getBody());
+        verify(paymentService, times(1)).findOwnerUserId(1);
+    }
+
     @Test
     void saveShouldCreatePayment() {
         when(paymentService.save(any(PaymentDto.class))).thenReturn(testPaymentDto);
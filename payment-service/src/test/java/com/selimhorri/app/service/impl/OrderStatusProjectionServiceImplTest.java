@@ -0,0 +1,195 @@
+package com.selimhorri.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.selimhorri.app.domain.OrderStatusProjection;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderStatusChangeDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.OrderStatusProjectionMappingHelper;
+import com.selimhorri.app.repository.OrderStatusProjectionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusProjectionServiceImplTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private OrderStatusProjectionRepository orderStatusProjectionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RestTemplate restTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderStatusProjectionServiceImpl projectionService;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        orderStatusProjectionRepository.deleteAllInBatch();
+        restTemplate = mock(RestTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        projectionService = new OrderStatusProjectionServiceImpl(orderStatusProjectionRepository, restTemplate,
+                new TransactionTemplate(transactionManager), meterRegistry, PAGE_SIZE, 2000, 24);
+        now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBootstrapAnEmptyProjectionPageByPage() {
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .willReturn(feed(change(1, OrderStatus.CREATED, 0L), change(2, OrderStatus.ORDERED, 1L)),
+                        feed(change(3, OrderStatus.IN_PAYMENT, 2L)));
+
+        int applied = projectionService.syncChanges();
+
+        assertThat(applied).isEqualTo(3);
+        assertThat(orderStatusProjectionRepository.count()).isEqualTo(3);
+        assertThat(orderStatusProjectionRepository.findById(3).orElseThrow().getOwnerUserId()).isEqualTo(7);
+        assertThat(orderStatusProjectionRepository.findById(3).orElseThrow().getOrderStatus()).isEqualTo(OrderStatus.IN_PAYMENT);
+        // La segunda página sigue desde el último cambio de la primera
+        verify(restTemplate).exchange(contains("afterId=2"), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+        // La carga inicial no cuenta como lag del feed
+        assertThat(meterRegistry.get("order.status.projection.lag").timer().count()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldApplyOnlyChangesNewerThanTheProjectedVersion() {
+        project(change(1, OrderStatus.IN_PAYMENT, 2L));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .willReturn(feed(change(1, OrderStatus.ORDERED, 1L)));
+
+        int applied = projectionService.syncChanges();
+
+        assertThat(applied).isZero();
+        final OrderStatusProjection projection = orderStatusProjectionRepository.findById(1).orElseThrow();
+        assertThat(projection.getOrderStatus()).isEqualTo(OrderStatus.IN_PAYMENT);
+        assertThat(projection.getOrderVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepTheOrderDetailsOfANewerChange() {
+        project(change(1, OrderStatus.ORDERED, 1L));
+        final OrderStatusChangeDto edited = change(1, OrderStatus.ORDERED, 2L);
+        edited.setOrderDate(LocalDateTime.of(2024, 5, 1, 10, 30));
+        edited.setOrderDesc("Edited order");
+        edited.setOrderFee(42.5);
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .willReturn(feed(edited));
+
+        projectionService.syncChanges();
+
+        final OrderStatusProjection projection = orderStatusProjectionRepository.findById(1).orElseThrow();
+        assertThat(projection.getOrderDate()).isEqualTo(LocalDateTime.of(2024, 5, 1, 10, 30));
+        assertThat(projection.getOrderDesc()).isEqualTo("Edited order");
+        assertThat(projection.getOrderFee()).isEqualTo(42.5);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldResumeFromTheLatestProjectedChangeAndRecordLag() {
+        project(change(1, OrderStatus.CREATED, 0L));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .willReturn(feed(change(1, OrderStatus.ORDERED, 1L)));
+
+        int applied = projectionService.syncChanges();
+
+        assertThat(applied).isEqualTo(1);
+        assertThat(orderStatusProjectionRepository.findById(1).orElseThrow().getOrderStatus()).isEqualTo(OrderStatus.ORDERED);
+        verify(restTemplate).exchange(contains("since=" + now.minusMillis(2000)), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+        assertThat(meterRegistry.get("order.status.projection.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCountWhatTheReconciliationSweepCorrects() {
+        project(change(1, OrderStatus.CREATED, 0L));
+        project(change(2, OrderStatus.ORDERED, 1L));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .willReturn(feed(change(1, OrderStatus.ORDERED, 1L), change(2, OrderStatus.ORDERED, 1L)),
+                        feed());
+
+        int corrected = projectionService.reconcile();
+
+        assertThat(corrected).isEqualTo(1);
+        assertThat(meterRegistry.get("order.status.projection.corrections").counter().count()).isEqualTo(1.0);
+        final ArgumentCaptor<String> urls = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate, times(2)).exchange(urls.capture(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+        // El barrido solo cubre la ventana reciente, no todo el histórico de órdenes
+        final Instant since = Instant.parse(UriComponentsBuilder.fromUriString(urls.getAllValues().get(0)).build()
+                .getQueryParams().getFirst("since"));
+        assertThat(since).isBetween(now.minus(24, ChronoUnit.HOURS).minusSeconds(5), now.minus(24, ChronoUnit.HOURS).plusSeconds(5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepTheProjectionWhenOrderServiceIsUnreachable() {
+        project(change(1, OrderStatus.ORDERED, 1L));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .willThrow(new ResourceAccessException("connection refused"));
+
+        int applied = projectionService.syncChanges();
+
+        assertThat(applied).isZero();
+        assertThat(orderStatusProjectionRepository.findById(1).orElseThrow().getOrderStatus()).isEqualTo(OrderStatus.ORDERED);
+    }
+
+    private void project(final OrderStatusChangeDto change) {
+        orderStatusProjectionRepository.save(OrderStatusProjectionMappingHelper.map(change));
+    }
+
+    private OrderStatusChangeDto change(final Integer orderId, final OrderStatus orderStatus, final Long version) {
+        return OrderStatusChangeDto.builder()
+                .orderId(orderId)
+                .orderStatus(orderStatus)
+                .version(version)
+                .isActive(true)
+                .ownerUserId(7)
+                .changedAt(now)
+                .build();
+    }
+
+    private ResponseEntity<DtoCollectionResponse<OrderStatusChangeDto>> feed(final OrderStatusChangeDto... changes) {
+        return ResponseEntity.ok(new DtoCollectionResponse<>(List.of(changes)));
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.selimhorri.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.domain.enums.DeliveryStatus;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.StatusEventOutcome;
+import com.selimhorri.app.dto.OrderStatusEventDto;
+import com.selimhorri.app.dto.OrderStatusEventResultDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.OutboxEventMappingHelper;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.PaymentRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelayServiceImpl relay;
+
+    private OutboxEvent applied;
+    private OutboxEvent rejected;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelayServiceImpl(outboxEventRepository, paymentRepository, new TransactionTemplate(transactionManager),
+                restTemplate, meterRegistry, 100, 3, 1000, 60000, 24);
+        applied = OutboxEventMappingHelper.mapForStatusChange(1, 11, OrderStatus.ORDERED, OrderStatus.IN_PAYMENT);
+        rejected = OutboxEventMappingHelper.mapForStatusChange(2, 12, OrderStatus.ORDERED, OrderStatus.IN_PAYMENT);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDeliverDueEventsInOneBatchAndSettleThem() {
+        given(outboxEventRepository.findDue(eq(DeliveryStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .willReturn(List.of(applied, rejected));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        new OrderStatusEventResultDto(applied.getEventId(), StatusEventOutcome.APPLIED),
+                        new OrderStatusEventResultDto(rejected.getEventId(), StatusEventOutcome.REJECTED)))));
+
+        int settled = relay.relayBatch();
+
+        final ArgumentCaptor<HttpEntity<List<OrderStatusEventDto>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(anyString(), eq(HttpMethod.POST), request.capture(), any(ParameterizedTypeReference.class));
+        assertThat(request.getValue().getBody()).extracting(OrderStatusEventDto::getEventId)
+                .containsExactly(applied.getEventId(), rejected.getEventId());
+        assertThat(settled).isEqualTo(2);
+        verify(outboxEventRepository).settle(eq(List.of(applied.getEventId())), eq(DeliveryStatus.PUBLISHED), any(Instant.class));
+        verify(outboxEventRepository).settle(eq(List.of(rejected.getEventId())), eq(DeliveryStatus.REJECTED), any(Instant.class));
+        verify(outboxEventRepository, never()).scheduleRetry(anyString(), anyInt(), any(Instant.class), any(DeliveryStatus.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCancelThePaymentBehindARejectedEventWhenSettlingIt() {
+        given(outboxEventRepository.findDue(eq(DeliveryStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .willReturn(List.of(applied, rejected));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        new OrderStatusEventResultDto(applied.getEventId(), StatusEventOutcome.APPLIED),
+                        new OrderStatusEventResultDto(rejected.getEventId(), StatusEventOutcome.REJECTED)))));
+        given(paymentRepository.transitionStatusIn(List.of(12), PaymentStatus.NOT_STARTED, PaymentStatus.CANCELED))
+                .willReturn(1);
+
+        relay.relayBatch();
+
+        // Evento rechazado y pago cancelado dentro de la misma transacción
+        final InOrder inTransaction = inOrder(transactionManager, outboxEventRepository, paymentRepository);
+        inTransaction.verify(transactionManager).getTransaction(any());
+        inTransaction.verify(outboxEventRepository).settle(eq(List.of(rejected.getEventId())), eq(DeliveryStatus.REJECTED), any(Instant.class));
+        inTransaction.verify(paymentRepository).transitionStatusIn(List.of(12), PaymentStatus.NOT_STARTED, PaymentStatus.CANCELED);
+        inTransaction.verify(transactionManager).commit(any());
+        verify(paymentRepository).transitionStatusIn(List.of(12), PaymentStatus.IN_PROGRESS, PaymentStatus.CANCELED);
+        // El pago del evento aplicado sigue su curso
+        verify(paymentRepository, never()).transitionStatusIn(eq(List.of(11)), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBackOffWhenOrderServiceIsUnreachable() {
+        given(outboxEventRepository.findDue(eq(DeliveryStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .willReturn(List.of(applied));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .willThrow(new ResourceAccessException("connection refused"));
+
+        final Instant before = Instant.now();
+        int settled = relay.relayBatch();
+
+        final ArgumentCaptor<Instant> nextAttemptAt = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxEventRepository).scheduleRetry(eq(applied.getEventId()), eq(1), nextAttemptAt.capture(), eq(DeliveryStatus.PENDING));
+        assertThat(settled).isZero();
+        assertThat(nextAttemptAt.getValue()).isAfterOrEqualTo(before.plusMillis(1000));
+        verify(outboxEventRepository, never()).settle(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldGiveUpOnAnEventAfterItsLastAttempt() {
+        applied.setAttempts(2);
+        given(outboxEventRepository.findDue(eq(DeliveryStatus.PENDING), any(Instant.class), any(Pageable.class)))
+                .willReturn(List.of(applied));
+        given(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .willThrow(new ResourceAccessException("connection refused"));
+
+        relay.relayBatch();
+
+        // Evento fallido y pago cancelado dentro de la misma transacción, como un rechazo
+        final InOrder inTransaction = inOrder(transactionManager, outboxEventRepository, paymentRepository);
+        inTransaction.verify(transactionManager).getTransaction(any());
+        inTransaction.verify(outboxEventRepository).scheduleRetry(eq(applied.getEventId()), eq(3), any(Instant.class), eq(DeliveryStatus.FAILED));
+        inTransaction.verify(paymentRepository).transitionStatusIn(List.of(11), PaymentStatus.NOT_STARTED, PaymentStatus.CANCELED);
+        inTransaction.verify(transactionManager).commit(any());
+        verify(paymentRepository).transitionStatusIn(List.of(11), PaymentStatus.IN_PROGRESS, PaymentStatus.CANCELED);
+        assertThat(meterRegistry.get("outbox.relay.events").tag("outcome", "failed").counter().count()).isEqualTo(1.0);
+    }
+}
@@ -4,32 +4,47 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.domain.OrderStatusProjection;
+import com.selimhorri.app.domain.OutboxEvent;
 import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.domain.enums.DeliveryStatus;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.exception.wrapper.PaymentServiceException;
+import com.selimhorri.app.exception.wrapper.PaymentStatusConflictException;
+import com.selimhorri.app.repository.OrderStatusProjectionRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
 import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.RemoteResourceService;
+
+import reactor.core.publisher.Mono;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceImplTest {
@@ -37,10 +52,18 @@ class PaymentServiceImplTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OrderStatusProjectionRepository orderStatusProjectionRepository;
+
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
+    @Mock
+    private RemoteResourceService remoteResourceService;
+
     private PaymentServiceImpl paymentService;
 
     private Payment payment;
@@ -49,6 +72,9 @@ class PaymentServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        paymentService = new PaymentServiceImpl(paymentRepository, outboxEventRepository, orderStatusProjectionRepository,
+                restTemplate, remoteResourceService);
+
         payment = new Payment();
         payment.setPaymentId(1);
         payment.setPaymentStatus(PaymentStatus.NOT_STARTED);
@@ -65,27 +91,62 @@ class PaymentServiceImplTest {
     }
 
     @Test
-    void shouldFindAll() {
-        orderDto.setOrderStatus("IN_PAYMENT");
-        given(paymentRepository.findAll()).willReturn(List.of(payment));
-        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+    void shouldFindAllFromLocalOrderStatusProjection() {
+        Payment otherPayment = new Payment();
+        otherPayment.setPaymentId(2);
+        otherPayment.setOrderId(200);
+        given(paymentRepository.findAllByOrderStatus(OrderStatus.IN_PAYMENT, 0, PageRequest.of(0, 50))).willReturn(List.of(payment, otherPayment));
+        OrderStatusProjection projection = projection(OrderStatus.IN_PAYMENT, true);
+        projection.setOrderDesc("Projected order");
+        projection.setOrderFee(25.5);
+        given(orderStatusProjectionRepository.findAllById(Set.of(100, 200))).willReturn(List.of(projection));
+
+        List<PaymentDto> result = paymentService.findAll(0, 50).block();
+
+        assertThat(result).extracting(PaymentDto::getPaymentId).containsExactly(1, 2);
+        assertThat(result).extracting(paymentDto -> paymentDto.getOrderDto().getOrderStatus())
+                .containsOnly("IN_PAYMENT");
+        // Los datos de la orden también salen de la proyección, no solo el estado
+        assertThat(result.get(0).getOrderDto().getOrderDesc()).isEqualTo("Projected order");
+        assertThat(result.get(0).getOrderDto().getOrderFee()).isEqualTo(25.5);
+        assertThat(result.get(1).getOrderDto().getOrderId()).isEqualTo(200);
+        verify(remoteResourceService, never()).findAllByIds(anyString(), anyString(), any(), any(), any(), any(), any());
+        verify(remoteResourceService, never()).findOne(anyString(), eq(OrderDto.class));
+        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
+    }
+
+    @Test
+    void shouldCapThePageSizeOfFindAll() {
+        given(paymentRepository.findAllByOrderStatus(OrderStatus.IN_PAYMENT, 7, PageRequest.of(0, 500))).willReturn(List.of());
 
-        List<PaymentDto> result = paymentService.findAll();
+        List<PaymentDto> result = paymentService.findAll(7, 10_000).block();
 
-        assertThat(result).hasSize(1);
-        verify(paymentRepository, times(1)).findAll();
-        verify(restTemplate, times(1)).getForObject(anyString(), eq(OrderDto.class));
+        assertThat(result).isEmpty();
+        verify(paymentRepository).findAllByOrderStatus(OrderStatus.IN_PAYMENT, 7, PageRequest.of(0, 500));
+    }
+
+    @Test
+    void shouldFindByIdFromProjectionWithoutOrderLookup() {
+        given(paymentRepository.findById(1)).willReturn(Optional.of(payment));
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.of(projection(OrderStatus.IN_PAYMENT, true)));
+
+        PaymentDto result = paymentService.findById(1).block();
+
+        assertThat(result.getOrderDto().getOrderId()).isEqualTo(100);
+        assertThat(result.getOrderDto().getOrderStatus()).isEqualTo("IN_PAYMENT");
+        verify(remoteResourceService, never()).findOne(anyString(), eq(OrderDto.class));
     }
 
     @Test
     void shouldFindById() {
         given(paymentRepository.findById(1)).willReturn(Optional.of(payment));
-        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(remoteResourceService.findOne(anyString(), eq(OrderDto.class))).willReturn(Mono.just(orderDto));
 
-        PaymentDto result = paymentService.findById(1);
+        PaymentDto result = paymentService.findById(1).block();
 
         assertThat(result).isNotNull();
         assertThat(result.getPaymentId()).isEqualTo(1);
+        assertThat(result.getOrderDto()).isSameAs(orderDto);
         verify(paymentRepository, times(1)).findById(1);
     }
 
@@ -93,33 +154,124 @@ class PaymentServiceImplTest {
     void shouldThrowExceptionWhenPaymentNotFoundById() {
         given(paymentRepository.findById(1)).willReturn(Optional.empty());
 
-        assertThatThrownBy(() -> paymentService.findById(1))
+        assertThatThrownBy(() -> paymentService.findById(1).block())
                 .isInstanceOf(PaymentServiceException.class)
                 .hasMessageContaining("Payment with id: 1 not found");
     }
 
+    @Test
+    void shouldFindOwnerUserIdInTheProjectionWithoutCallingOrderService() {
+        given(paymentRepository.findById(1)).willReturn(Optional.of(payment));
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.of(OrderStatusProjection.builder()
+                .orderId(100)
+                .orderStatus(OrderStatus.IN_PAYMENT)
+                .ownerUserId(7)
+                .build()));
+
+        Integer result = paymentService.findOwnerUserId(1);
+
+        assertThat(result).isEqualTo(7);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void shouldFindOwnerUserIdWithSingleOrderLookup() {
+        given(paymentRepository.findById(1)).willReturn(Optional.of(payment));
+        given(restTemplate.getForObject(contains("/100/owner"), eq(Integer.class))).willReturn(7);
+
+        Integer result = paymentService.findOwnerUserId(1);
+
+        assertThat(result).isEqualTo(7);
+        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenOwnerOrderNotFound() {
+        given(paymentRepository.findById(1)).willReturn(Optional.of(payment));
+        given(restTemplate.getForObject(anyString(), eq(Integer.class)))
+                .willThrow(HttpClientErrorException.NotFound.class);
+
+        assertThatThrownBy(() -> paymentService.findOwnerUserId(1))
+                .isInstanceOf(PaymentServiceException.class)
+                .hasMessageContaining("Order with ID 100 not found");
+    }
+
     @Test
     void shouldSavePayment() {
-        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.of(projection(OrderStatus.ORDERED, true)));
         given(paymentRepository.save(any(Payment.class))).willReturn(payment);
 
         PaymentDto result = paymentService.save(paymentDto);
 
         assertThat(result).isNotNull();
-        verify(restTemplate, times(1)).getForObject(anyString(), eq(OrderDto.class));
+        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
         verify(paymentRepository, times(1)).save(any(Payment.class));
-        verify(restTemplate, times(1)).patchForObject(anyString(), any(), eq(Void.class));
+        verify(outboxEventRepository, times(1)).saveAndFlush(argThat(event -> event.getOrderId().equals(100)
+                && event.getPaymentId().equals(payment.getPaymentId())
+                && event.getFromStatus() == OrderStatus.ORDERED
+                && event.getToStatus() == OrderStatus.IN_PAYMENT
+                && event.getDeliveryStatus() == DeliveryStatus.PENDING));
+        verify(restTemplate, never()).patchForObject(anyString(), any(), eq(Void.class));
+    }
+
+    @Test
+    void shouldAnswerConflictWhenTheProjectionDoesNotKnowTheOrderYet() {
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> paymentService.save(paymentDto))
+                .isInstanceOf(PaymentStatusConflictException.class)
+                .hasMessageContaining("not known to be ORDERED yet");
+
+        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(outboxEventRepository, never()).saveAndFlush(any(OutboxEvent.class));
     }
 
     @Test
-    void shouldThrowExceptionWhenSavingPaymentForNonOrderedOrder() {
-        orderDto.setOrderStatus("CREATED");
-        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+    void shouldRejectSaveWhenProjectionShowsOrderAlreadyInPayment() {
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.of(projection(OrderStatus.IN_PAYMENT, true)));
 
         assertThatThrownBy(() -> paymentService.save(paymentDto))
                 .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Cannot start the payment of an order that is not ordered");
-        
+                .hasMessageContaining("already in a payment process");
+
+        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void shouldRejectSaveWhileAnEarlierPaymentOfTheOrderIsStillInTheOutbox() {
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.of(projection(OrderStatus.ORDERED, true)));
+        given(outboxEventRepository.existsByOrderIdAndToStatusAndDeliveryStatusIn(
+                100, OrderStatus.IN_PAYMENT, List.of(DeliveryStatus.PENDING, DeliveryStatus.PUBLISHED))).willReturn(true);
+
+        assertThatThrownBy(() -> paymentService.save(paymentDto))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void shouldAnswerConflictWhenAConcurrentPaymentOfTheOrderWonTheOutboxInsert() {
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.of(projection(OrderStatus.ORDERED, true)));
+        given(paymentRepository.save(any(Payment.class))).willReturn(payment);
+        given(outboxEventRepository.saveAndFlush(any(OutboxEvent.class)))
+                .willThrow(new DataIntegrityViolationException("uk_outbox_events_live_status_change"));
+
+        assertThatThrownBy(() -> paymentService.save(paymentDto))
+                .isInstanceOf(PaymentStatusConflictException.class)
+                .hasMessageContaining("already in a payment process");
+    }
+
+    @Test
+    void shouldAnswerConflictWhileTheProjectionStillSeesTheOrderCreated() {
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.of(projection(OrderStatus.CREATED, true)));
+
+        assertThatThrownBy(() -> paymentService.save(paymentDto))
+                .isInstanceOf(PaymentStatusConflictException.class)
+                .hasMessageContaining("retry once its status change is synced");
+
+        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
         verify(paymentRepository, never()).save(any(Payment.class));
     }
 
@@ -127,24 +279,37 @@ class PaymentServiceImplTest {
     void shouldUpdateStatusFromNotStartedToInProgress() {
         payment.setPaymentStatus(PaymentStatus.NOT_STARTED);
         given(paymentRepository.findById(1)).willReturn(Optional.of(payment));
-        given(paymentRepository.save(any(Payment.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(paymentRepository.transitionStatus(1, PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS)).willReturn(1);
 
         PaymentDto result = paymentService.updateStatus(1);
 
         assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.IN_PROGRESS);
-        verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(paymentRepository, never()).save(any(Payment.class));
     }
 
     @Test
     void shouldUpdateStatusFromInProgressToCompleted() {
         payment.setPaymentStatus(PaymentStatus.IN_PROGRESS);
         given(paymentRepository.findById(1)).willReturn(Optional.of(payment));
-        given(paymentRepository.save(any(Payment.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(paymentRepository.transitionStatus(1, PaymentStatus.IN_PROGRESS, PaymentStatus.COMPLETED)).willReturn(1);
 
         PaymentDto result = paymentService.updateStatus(1);
 
         assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.COMPLETED);
-        verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void shouldRejectAStatusTransitionThatLostTheRaceInsteadOfAdvancingTwice() {
+        payment.setPaymentStatus(PaymentStatus.NOT_STARTED);
+        given(paymentRepository.findById(1)).willReturn(Optional.of(payment));
+        given(paymentRepository.transitionStatus(1, PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS)).willReturn(0);
+
+        assertThatThrownBy(() -> paymentService.updateStatus(1))
+                .isInstanceOf(PaymentStatusConflictException.class);
+
+        // El pago ya lo movió otra petición: no se intenta la transición siguiente
+        verify(paymentRepository, times(1)).transitionStatus(any(), any(), any());
     }
 
     @Test
@@ -156,7 +321,17 @@ class PaymentServiceImplTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("is already COMPLETED");
         
-        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(paymentRepository, never()).transitionStatus(any(), any(), any());
+    }
+
+    @Test
+    void shouldUpdateStatusOfManyPaymentsInOneStatement() {
+        given(paymentRepository.transitionStatusIn(List.of(1, 2), PaymentStatus.IN_PROGRESS, PaymentStatus.COMPLETED))
+                .willReturn(2);
+
+        int updated = paymentService.updateStatusByIds(List.of(1, 2), PaymentStatus.IN_PROGRESS);
+
+        assertThat(updated).isEqualTo(2);
     }
 
     @Test
@@ -193,7 +368,7 @@ class PaymentServiceImplTest {
 
     @Test
     void shouldThrowExceptionWhenOrderNotFoundDuringSave() {
-        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willThrow(HttpClientErrorException.NotFound.class);
+        given(orderStatusProjectionRepository.findById(100)).willReturn(Optional.of(projection(OrderStatus.ORDERED, false)));
 
         assertThatThrownBy(() -> paymentService.save(paymentDto))
                 .isInstanceOf(PaymentServiceException.class)
@@ -201,4 +376,14 @@ class PaymentServiceImplTest {
         
         verify(paymentRepository, never()).save(any(Payment.class));
     }
+
+    private OrderStatusProjection projection(final OrderStatus orderStatus, final boolean active) {
+        return OrderStatusProjection.builder()
+                .orderId(100)
+                .orderStatus(orderStatus)
+                .orderVersion(1L)
+                .isActive(active)
+                .changedAt(Instant.now())
+                .build();
+    }
 }
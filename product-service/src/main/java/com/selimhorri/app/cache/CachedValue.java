@@ -0,0 +1,23 @@
+package com.selimhorri.app.cache;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A cached catalogue read together with the weak ETag of its JSON representation,
+ * computed once when the value is loaded.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class CachedValue<T> implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final T value;
+	private final String etag;
+	
+}
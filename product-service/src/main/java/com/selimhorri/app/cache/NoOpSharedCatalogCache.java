@@ -0,0 +1,30 @@
+package com.selimhorri.app.cache;
+
+import java.util.Optional;
+
+/**
+ * Default shared tier when none is configured: every lookup misses.
+ */
+public class NoOpSharedCatalogCache implements SharedCatalogCache {
+	
+	@Override
+	public Optional<CachedValue<?>> get(final String key) {
+		return Optional.empty();
+	}
+	
+	@Override
+	public void put(final String key, final CachedValue<?> value) {
+		// nada que compartir
+	}
+	
+	@Override
+	public void evict(final String key) {
+		// nada que invalidar
+	}
+	
+	@Override
+	public void evictByPrefix(final String keyPrefix) {
+		// nada que invalidar
+	}
+	
+}
@@ -0,0 +1,16 @@
+package com.selimhorri.app.cache;
+
+import java.util.Optional;
+
+/**
+ * Optional second tier shared by every product-service instance, consulted on a
+ * near-cache miss before going to the database.
+ */
+public interface SharedCatalogCache {
+	
+	Optional<CachedValue<?>> get(final String key);
+	void put(final String key, final CachedValue<?> value);
+	void evict(final String key);
+	void evictByPrefix(final String keyPrefix);
+	
+}
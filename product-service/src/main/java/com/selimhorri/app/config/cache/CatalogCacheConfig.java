@@ -0,0 +1,21 @@
+package com.selimhorri.app.config.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.cache.NoOpSharedCatalogCache;
+import com.selimhorri.app.cache.SharedCatalogCache;
+
+@Configuration
+public class CatalogCacheConfig {
+	
+	@Bean
+	@ConditionalOnMissingBean(SharedCatalogCache.class)
+	public SharedCatalogCache sharedCatalogCache() {
+		return new NoOpSharedCatalogCache();
+	}
+	
+	
+	
+}
@@ -0,0 +1,26 @@
+package com.selimhorri.app.config.reservation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.selimhorri.app.service.StockReservationService;
+
+import lombok.RequiredArgsConstructor;
+
+// Devuelve al stock las reservas caducadas; con app.stock-reservation.expiry.enabled=false quedan retenidas hasta cancelarlas
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.stock-reservation.expiry.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class StockReservationConfig {
+	
+	private final StockReservationService stockReservationService;
+	
+	@Scheduled(fixedDelayString = "${app.stock-reservation.expiry.fixed-delay-millis:5000}")
+	public void releaseExpired() {
+		this.stockReservationService.releaseExpired();
+	}
+	
+}
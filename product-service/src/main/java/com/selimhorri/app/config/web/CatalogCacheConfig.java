@@ -0,0 +1,31 @@
+package com.selimhorri.app.config.web;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+
+// El catálogo es público: la caché del gateway lo guarda app.catalog-cache.shared-max-age-seconds.
+// El resto de /api/** queda con el no-cache, private de ConditionalRequestConfig (commons)
+@Configuration
+public class CatalogCacheConfig {
+	
+	private static final String[] CATALOG_PATH_PATTERNS = { "/api/products/**", "/api/categories/**" };
+	// Cuelgan de /api/products pero no son catálogo: un estado de reserva cacheado rompería reservar/confirmar/cancelar
+	private static final String[] RESERVATION_PATH_PATTERNS = { "/api/products/reservations", "/api/products/reservations/**" };
+	
+	@Bean
+	public CacheControlCustomizer catalogCacheControlCustomizer(
+			@Value("${app.catalog-cache.shared-max-age-seconds:60}") final long catalogSharedMaxAgeSeconds) {
+		return mappings -> {
+			mappings.add(CacheControl.maxAge(0, TimeUnit.SECONDS)
+					.sMaxAge(catalogSharedMaxAgeSeconds, TimeUnit.SECONDS)
+					.cachePublic(), CATALOG_PATH_PATTERNS)
+					.excluding(RESERVATION_PATH_PATTERNS);
+			mappings.add(CacheControl.noCache().cachePrivate(), RESERVATION_PATH_PATTERNS);
+		};
+	}
+	
+}
@@ -0,0 +1,66 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import com.selimhorri.app.domain.enums.ReservationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "stock_reservations")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+public final class StockReservation extends AbstractMappedEntity implements Persistable<String>, Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	// Lo puede fijar el cliente: repetir la misma reserva tras un timeout no descuenta el stock dos veces
+	@Id
+	@Column(name = "reservation_id", unique = true, nullable = false, updatable = false)
+	private String reservationId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false)
+	private ReservationStatus status;
+	
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+	
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "stock_reservation_lines", joinColumns = @JoinColumn(name = "reservation_id"))
+	private List<StockReservationLine> lines;
+	
+	@Override
+	public String getId() {
+		return this.reservationId;
+	}
+	
+	// Solo se insertan con save(); los cambios de estado van por las actualizaciones condicionales del repositorio
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+	
+}
@@ -0,0 +1,49 @@
+package com.selimhorri.app.domain.enums;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Orderings the catalogue can be read in. Each one maps to an ORDER BY backed by
+ * an index (see V7 migration); product_id breaks ties so pages are stable.
+ */
+public enum ProductSort {
+	
+	DEFAULT("default", Sort.by("productId")),
+	PRICE("price", Sort.by("priceUnit", "productId")),
+	TITLE("title", Sort.by("productTitle", "productId")),
+	NEWEST("newest", Sort.by(Direction.DESC, "createdAt", "productId"));
+	
+	private static final Map<String, ProductSort> BY_KEY = Arrays.stream(values())
+			.collect(Collectors.toUnmodifiableMap(ProductSort::getKey, Function.identity()));
+	
+	private final String key;
+	private final Sort sort;
+	
+	ProductSort(final String key, final Sort sort) {
+		this.key = key;
+		this.sort = sort;
+	}
+	
+	public String getKey() {
+		return this.key;
+	}
+	
+	public Sort getSort() {
+		return this.sort;
+	}
+	
+	// Claves desconocidas caen en el orden por defecto, igual que antes en el proxy
+	public static ProductSort fromKey(final String key) {
+		if (key == null)
+			return DEFAULT;
+		return BY_KEY.getOrDefault(key.toLowerCase(Locale.ROOT), DEFAULT);
+	}
+	
+}
@@ -0,0 +1,12 @@
+package com.selimhorri.app.domain.enums;
+
+public enum ReservationStatus {
+	
+	// Stock descontado a la espera de confirmación; caduca si nadie la confirma a tiempo
+	PENDING,
+	CONFIRMED,
+	// Stock devuelto al producto
+	CANCELED,
+	EXPIRED
+	
+}
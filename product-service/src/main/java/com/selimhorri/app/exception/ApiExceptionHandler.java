@@ -13,9 +13,15 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationConflictException;
+import com.selimhorri.app.exception.wrapper.StockReservationLinesMismatchException;
+import com.selimhorri.app.exception.wrapper.StockReservationNotFoundException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +31,24 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ApiExceptionHandler {
 
+	@ExceptionHandler(value = {
+			DeadlineExceededException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleDeadlineExceededException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle deadline exceeded*\n");
+		final var gatewayTimeout = HttpStatus.GATEWAY_TIMEOUT;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg(e.getMessage())
+						.httpStatus(gatewayTimeout)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				gatewayTimeout);
+	}
+
 	@ExceptionHandler(value = {
 			MethodArgumentNotValidException.class,
 			HttpMessageNotReadableException.class,
@@ -62,9 +86,38 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	@ExceptionHandler(value = {
+			InsufficientStockException.class,
+			StockReservationConflictException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleConflictException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle conflict*\n");
+		final var conflict = HttpStatus.CONFLICT;
+
+		return ResponseEntity.status(conflict)
+				.header(AppConstant.ERROR_CODE_HEADER, conflictCode(e))
+				.body(ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(conflict)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build());
+	}
+
+	// Falta de stock y reserva con otras líneas piden reacciones distintas al llamante
+	private static String conflictCode(final RuntimeException e) {
+		if (e instanceof InsufficientStockException)
+			return InsufficientStockException.ERROR_CODE;
+		if (e instanceof StockReservationLinesMismatchException)
+			return StockReservationLinesMismatchException.ERROR_CODE;
+		return StockReservationConflictException.ERROR_CODE;
+	}
+
 	@ExceptionHandler(value = {
 			CategoryNotFoundException.class,
 			ProductNotFoundException.class,
+			StockReservationNotFoundException.class,
 			EntityNotFoundException.class
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
@@ -0,0 +1,36 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class StockReservationConflictException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	public static final String ERROR_CODE = "RESERVATION_CONFLICT";
+	
+	public StockReservationConflictException() {
+		super();
+	}
+	
+	public StockReservationConflictException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public StockReservationConflictException(String message) {
+		super(message);
+	}
+	
+	public StockReservationConflictException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,37 @@
+package com.selimhorri.app.exception.wrapper;
+
+// El id ya está en uso por una reserva con otras líneas: no es un reintento de la misma
+public class StockReservationLinesMismatchException extends StockReservationConflictException {
+	
+	private static final long serialVersionUID = 1L;
+	public static final String ERROR_CODE = "RESERVATION_LINES_MISMATCH";
+	
+	public StockReservationLinesMismatchException() {
+		super();
+	}
+	
+	public StockReservationLinesMismatchException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public StockReservationLinesMismatchException(String message) {
+		super(message);
+	}
+	
+	public StockReservationLinesMismatchException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
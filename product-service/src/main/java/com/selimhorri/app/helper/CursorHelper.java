@@ -0,0 +1,64 @@
+package com.selimhorri.app.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.selimhorri.app.domain.enums.ProductSort;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Opaque keyset cursors, Base64 (URL-safe) encoded: the id of the last row of a page, or for
+ * secondary sorts the sort key, the last id and the last value of the sort column.
+ */
+public interface CursorHelper {
+	
+	public static String encode(final Integer lastId) {
+		if (lastId == null)
+			return null;
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static Integer decode(final String cursor) {
+		if (cursor == null || cursor.isBlank())
+			return null;
+		try {
+			return Integer.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+		}
+	}
+	
+	// Un valor NULL se codifica omitiendo el tercer campo; el valor va al final porque puede contener '|'
+	public static String encode(final ProductSort sort, final Integer lastId, final String lastValue) {
+		final String payload = sort.getKey() + "|" + lastId + (lastValue == null ? "" : "|" + lastValue);
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static SortCursor decode(final String cursor, final ProductSort sort) {
+		if (cursor == null || cursor.isBlank())
+			return null;
+		try {
+			final String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+			// Un cursor de otro orden (o del antiguo formato por número de página) no sirve para seguir este
+			if (parts.length < 2 || !parts[0].equals(sort.getKey()))
+				throw new IllegalArgumentException("cursor does not belong to sort " + sort.getKey());
+			return new SortCursor(Integer.valueOf(parts[1]), parts.length == 3 ? parts[2] : null);
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+		}
+	}
+	
+	@Getter
+	@AllArgsConstructor
+	public static final class SortCursor {
+		private final Integer lastId;
+		private final String lastValue;
+	}
+	
+}
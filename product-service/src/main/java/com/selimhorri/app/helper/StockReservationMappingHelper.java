@@ -0,0 +1,25 @@
+package com.selimhorri.app.helper;
+
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationLineDto;
+
+public interface StockReservationMappingHelper {
+	
+	public static StockReservationDto map(final StockReservation stockReservation) {
+		return StockReservationDto.builder()
+				.reservationId(stockReservation.getReservationId())
+				.status(stockReservation.getStatus())
+				.expiresAt(stockReservation.getExpiresAt())
+				.lines(stockReservation.getLines().stream()
+						.map(line -> StockReservationLineDto.builder()
+								.productId(line.getProductId())
+								.quantity(line.getQuantity())
+								.build())
+						.collect(Collectors.toUnmodifiableList()))
+				.build();
+	}
+	
+}
@@ -1,11 +1,83 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Product;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 	
+	List<Product> findAllByProductIdIn(final Collection<Integer> productIds);
+	
+	// Keyset (seek) pagination: se recorre la PK desde el último id visto, sin OFFSET
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.productId > :afterId ORDER BY p.productId")
+	List<Product> findAllAfter(@Param("afterId") final Integer afterId, final Pageable pageable);
+	
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category ORDER BY p.productId")
+	List<Product> findFirstPage(final Pageable pageable);
+	
+	// Primera página de un orden secundario (precio, título, novedad); el orden viene en el Pageable
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category")
+	List<Product> findSortedFirstPage(final Pageable pageable);
+	
+	// Keyset sobre los índices de V7: (valor, id) posterior al último visto. En orden ascendente
+	// los NULL van primero (H2 y MySQL), así que tras un NULL siguen los NULL de id mayor y luego el resto
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category "
+			+ "WHERE p.priceUnit > :price OR (p.priceUnit = :price AND p.productId > :afterId) "
+			+ "ORDER BY p.priceUnit, p.productId")
+	List<Product> findAllAfterPrice(@Param("price") final Double price, @Param("afterId") final Integer afterId,
+			final Pageable pageable);
+	
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category "
+			+ "WHERE p.priceUnit IS NOT NULL OR p.productId > :afterId "
+			+ "ORDER BY p.priceUnit, p.productId")
+	List<Product> findAllAfterNullPrice(@Param("afterId") final Integer afterId, final Pageable pageable);
+	
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category "
+			+ "WHERE p.productTitle > :title OR (p.productTitle = :title AND p.productId > :afterId) "
+			+ "ORDER BY p.productTitle, p.productId")
+	List<Product> findAllAfterTitle(@Param("title") final String title, @Param("afterId") final Integer afterId,
+			final Pageable pageable);
+	
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category "
+			+ "WHERE p.productTitle IS NOT NULL OR p.productId > :afterId "
+			+ "ORDER BY p.productTitle, p.productId")
+	List<Product> findAllAfterNullTitle(@Param("afterId") final Integer afterId, final Pageable pageable);
+	
+	// Novedades en orden descendente: se sigue por (createdAt, id) anterior al último visto
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category "
+			+ "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.productId < :beforeId) "
+			+ "ORDER BY p.createdAt DESC, p.productId DESC")
+	List<Product> findAllBeforeCreatedAt(@Param("createdAt") final Instant createdAt,
+			@Param("beforeId") final Integer beforeId, final Pageable pageable);
+	
+	// Cursor JDBC de solo lectura; debe consumirse dentro de una transacción
+	@QueryHints({
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"),
+			@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+	})
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category ORDER BY p.productId")
+	Stream<Product> streamAll();
+	
+	// Descuento atómico: sin lectura previa, la fila solo queda bloqueada lo que dura la sentencia y el commit
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Product p SET p.quantity = p.quantity - :quantity "
+			+ "WHERE p.productId = :productId AND p.quantity >= :quantity")
+	int decrementQuantity(@Param("productId") final Integer productId, @Param("quantity") final Integer quantity);
 	
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Product p SET p.quantity = p.quantity + :quantity WHERE p.productId = :productId")
+	int incrementQuantity(@Param("productId") final Integer productId, @Param("quantity") final Integer quantity);
 	
 }
@@ -0,0 +1,37 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.domain.enums.ReservationStatus;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+	
+	// Transiciones como compare-and-set: de una reserva solo sale una confirmación, cancelación o caducidad
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE StockReservation r SET r.status = :next, r.updatedAt = CURRENT_TIMESTAMP "
+			+ "WHERE r.reservationId = :reservationId AND r.status = :expected")
+	int transitionStatus(@Param("reservationId") String reservationId, @Param("expected") ReservationStatus expected,
+			@Param("next") ReservationStatus next);
+	
+	// Una reserva caducada ya no se puede confirmar aunque el barrido aún no haya devuelto su stock
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE StockReservation r SET r.status = :next, r.updatedAt = CURRENT_TIMESTAMP "
+			+ "WHERE r.reservationId = :reservationId AND r.status = :expected AND r.expiresAt > :now")
+	int transitionStatusIfNotExpired(@Param("reservationId") String reservationId,
+			@Param("expected") ReservationStatus expected, @Param("next") ReservationStatus next,
+			@Param("now") Instant now);
+	
+	@Query("SELECT r.reservationId FROM StockReservation r WHERE r.status = :status AND r.expiresAt <= :now "
+			+ "ORDER BY r.expiresAt")
+	List<String> findIdsExpiredBefore(@Param("status") ReservationStatus status, @Param("now") Instant now,
+			Pageable pageable);
+	
+}
@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.cache.CachedValue;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.CategoryService;
@@ -32,7 +35,10 @@ public class CategoryResource {
 	@GetMapping
 	public ResponseEntity<DtoCollectionResponse<CategoryDto>> findAll() {
 		log.info("*** CategoryDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.categoryService.findAll()));
+		final CachedValue<List<CategoryDto>> categories = this.categoryService.findAllCached();
+		return ResponseEntity.ok()
+				.eTag(categories.getEtag())
+				.body(new DtoCollectionResponse<>(categories.getValue()));
 	}
 	
 	@GetMapping("/{categoryId}")
@@ -41,7 +47,10 @@ public class CategoryResource {
 			@NotBlank(message = "Input must not be blank") 
 			@Valid final String categoryId) {
 		log.info("*** CategoryDto, resource; fetch category by id *");
-		return ResponseEntity.ok(this.categoryService.findById(Integer.parseInt(categoryId)));
+		final CachedValue<CategoryDto> category = this.categoryService.findCachedById(Integer.parseInt(categoryId));
+		return ResponseEntity.ok()
+				.eTag(category.getEtag())
+				.body(category.getValue());
 	}
 	
 	@PostMapping
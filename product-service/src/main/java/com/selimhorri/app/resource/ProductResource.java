@@ -1,9 +1,15 @@
 package com.selimhorri.app.resource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,10 +18,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.selimhorri.app.cache.CachedValue;
+import com.selimhorri.app.domain.enums.ProductSort;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -27,12 +41,59 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ProductResource {
 	
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	
 	private final ProductService productService;
+	private final ObjectMapper objectMapper;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAll(
+			@RequestParam(name = "sort", required = false) final String sort) {
 		log.info("*** ProductDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAll()));
+		final CachedValue<List<ProductDto>> products = (sort == null)
+				? this.productService.findAllCached()
+				: this.productService.findAllCached(ProductSort.fromKey(sort));
+		return ResponseEntity.ok()
+				.eTag(products.getEtag())
+				.body(new DtoCollectionResponse<>(products.getValue()));
+	}
+	
+	@GetMapping("/page")
+	public ResponseEntity<DtoCursorPageResponse<ProductDto>> findPage(
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			@RequestParam(name = "size", defaultValue = "50") final int size,
+			@RequestParam(name = "sort", required = false) final String sort) {
+		log.info("*** ProductDto Page, controller; fetch products page *");
+		return ResponseEntity.ok(this.productService.findPage(cursor, size, ProductSort.fromKey(sort)));
+	}
+	
+	@GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamAll(final HttpServletRequest request) {
+		log.info("*** ProductDto Stream, controller; stream all products *");
+		// El filtro de ETag acumularía todo el catálogo para calcular el hash
+		ShallowEtagHeaderFilter.disableContentCaching(request);
+		// Un producto por línea (NDJSON), escrito según sale del cursor
+		final ObjectWriter writer = this.objectMapper.writer();
+		final StreamingResponseBody body = outputStream -> this.productService.streamAll(productDto -> {
+			try {
+				outputStream.write(writer.writeValueAsBytes(productDto));
+				outputStream.write('\n');
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+				.body(body);
+	}
+	
+	@GetMapping("/bulk")
+	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAllByIds(
+			@RequestParam("productIds") 
+			@NotNull(message = "Input must not be NULL!") final List<Integer> productIds) {
+		log.info("*** ProductDto List, controller; fetch products by ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAllByIds(productIds)));
 	}
 	
 	@GetMapping("/{productId}")
@@ -41,7 +102,10 @@ public class ProductResource {
 			@NotBlank(message = "Input must not be blank!") 
 			@Valid final String productId) {
 		log.info("*** ProductDto, resource; fetch product by id *");
-		return ResponseEntity.ok(this.productService.findById(Integer.parseInt(productId)));
+		final CachedValue<ProductDto> product = this.productService.findCachedById(Integer.parseInt(productId));
+		return ResponseEntity.ok()
+				.eTag(product.getEtag())
+				.body(product.getValue());
 	}
 	
 	@PostMapping
@@ -0,0 +1,69 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.domain.enums.ReservationStatus;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.service.StockReservationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products/reservations")
+@Slf4j
+@RequiredArgsConstructor
+public class StockReservationResource {
+	
+	private final StockReservationService stockReservationService;
+	
+	@GetMapping("/{reservationId}")
+	public ResponseEntity<StockReservationDto> findById(
+			@PathVariable("reservationId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String reservationId) {
+		log.info("*** StockReservationDto, resource; fetch stock reservation by id *");
+		return ResponseEntity.ok(this.stockReservationService.findById(reservationId));
+	}
+	
+	@PostMapping
+	public ResponseEntity<StockReservationDto> reserve(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final StockReservationDto stockReservationDto) {
+		log.info("*** StockReservationDto, resource; reserve stock *");
+		return ResponseEntity.ok(this.stockReservationService.reserve(stockReservationDto));
+	}
+	
+	@PatchMapping("/{reservationId}/confirm")
+	public ResponseEntity<StockReservationDto> confirm(
+			@PathVariable("reservationId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String reservationId) {
+		log.info("*** StockReservationDto, resource; confirm stock reservation *");
+		return ResponseEntity.ok(this.stockReservationService.confirm(reservationId));
+	}
+	
+	@PatchMapping("/{reservationId}/cancel")
+	public ResponseEntity<StockReservationDto> cancel(
+			@PathVariable("reservationId") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String reservationId,
+			@RequestParam(name = "expectedStatus", required = false) final ReservationStatus expectedStatus) {
+		log.info("*** StockReservationDto, resource; cancel stock reservation *");
+		return ResponseEntity.ok(this.stockReservationService.cancel(reservationId, expectedStatus));
+	}
+	
+}
@@ -0,0 +1,23 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.selimhorri.app.cache.CachedValue;
+
+public interface CatalogCacheService {
+	
+	String PRODUCT_KEY_PREFIX = "product:";
+	String PRODUCT_LIST_KEY_PREFIX = "products:";
+	String CATEGORY_KEY_PREFIX = "category:";
+	String CATEGORY_LIST_KEY_PREFIX = "categories:";
+	
+	<T> CachedValue<T> get(final String key, final Supplier<T> loader);
+	<T> Map<String, T> getAll(final Collection<String> keys, final Function<Set<String>, Map<String, T>> loader);
+	void evict(final String key);
+	void evictByPrefix(final String keyPrefix);
+	
+}
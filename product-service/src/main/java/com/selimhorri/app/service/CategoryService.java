@@ -2,12 +2,15 @@ package com.selimhorri.app.service;
 
 import java.util.List;
 
+import com.selimhorri.app.cache.CachedValue;
 import com.selimhorri.app.dto.CategoryDto;
 
 public interface CategoryService {
 	
 	List<CategoryDto> findAll();
+	CachedValue<List<CategoryDto>> findAllCached();
 	CategoryDto findById(final Integer categoryId);
+	CachedValue<CategoryDto> findCachedById(final Integer categoryId);
 	CategoryDto save(final CategoryDto categoryDto);
 	CategoryDto update(final CategoryDto categoryDto);
 	CategoryDto update(final Integer categoryId, final CategoryDto categoryDto);
@@ -1,13 +1,25 @@
 package com.selimhorri.app.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.selimhorri.app.cache.CachedValue;
+import com.selimhorri.app.domain.enums.ProductSort;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
 
 public interface ProductService {
 	
 	List<ProductDto> findAll();
+	CachedValue<List<ProductDto>> findAllCached();
+	List<ProductDto> findAll(final ProductSort sort);
+	CachedValue<List<ProductDto>> findAllCached(final ProductSort sort);
+	DtoCursorPageResponse<ProductDto> findPage(final String cursor, final int size, final ProductSort sort);
+	void streamAll(final Consumer<ProductDto> consumer);
 	ProductDto findById(final Integer productId);
+	CachedValue<ProductDto> findCachedById(final Integer productId);
+	List<ProductDto> findAllByIds(final Collection<Integer> productIds);
 	ProductDto save(final ProductDto productDto);
 	ProductDto update(final ProductDto productDto);
 	ProductDto update(final Integer productId, final ProductDto productDto);
@@ -0,0 +1,15 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.domain.enums.ReservationStatus;
+import com.selimhorri.app.dto.StockReservationDto;
+
+public interface StockReservationService {
+	
+	StockReservationDto findById(final String reservationId);
+	StockReservationDto reserve(final StockReservationDto stockReservationDto);
+	StockReservationDto confirm(final String reservationId);
+	StockReservationDto cancel(final String reservationId);
+	StockReservationDto cancel(final String reservationId, final ReservationStatus expectedStatus);
+	int releaseExpired();
+	
+}
@@ -0,0 +1,163 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.cache.CachedValue;
+import com.selimhorri.app.cache.SharedCatalogCache;
+import com.selimhorri.app.service.CatalogCacheService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier read-through cache for catalogue reads: an in-process Caffeine near cache
+ * in front of an optional {@link SharedCatalogCache}. Entries carry an ETag computed
+ * once at load time. Evictions run immediately and again after the surrounding
+ * transaction commits, so a concurrent read cannot re-cache the pre-commit state.
+ */
+@Service
+@Slf4j
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+	
+	public static final String CACHE_NAME = "catalogCache";
+	
+	private final SharedCatalogCache sharedCache;
+	private final ObjectWriter etagWriter;
+	private final Cache<String, CachedValue<?>> nearCache;
+	private final Counter sharedHits;
+	private final Counter sharedMisses;
+	
+	public CatalogCacheServiceImpl(final SharedCatalogCache sharedCache,
+			final ObjectMapper objectMapper,
+			final MeterRegistry meterRegistry,
+			@Value("${app.catalog-cache.maximum-size:10000}") final long maximumSize,
+			@Value("${app.catalog-cache.ttl-seconds:60}") final long ttlSeconds) {
+		this.sharedCache = sharedCache;
+		this.etagWriter = objectMapper.writer();
+		this.nearCache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		
+		CaffeineCacheMetrics.monitor(meterRegistry, this.nearCache, CACHE_NAME);
+		Gauge.builder("catalog.cache.hit.ratio", this.nearCache, cache -> cache.stats().hitRate())
+				.tag("tier", "near")
+				.description("Hit ratio of the in-process catalogue cache")
+				.register(meterRegistry);
+		this.sharedHits = Counter.builder("catalog.cache.shared.requests").tag("result", "hit").register(meterRegistry);
+		this.sharedMisses = Counter.builder("catalog.cache.shared.requests").tag("result", "miss").register(meterRegistry);
+		Gauge.builder("catalog.cache.hit.ratio", this, CatalogCacheServiceImpl::sharedHitRatio)
+				.tag("tier", "shared")
+				.description("Hit ratio of the shared catalogue cache on near-cache misses")
+				.register(meterRegistry);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> CachedValue<T> get(final String key, final Supplier<T> loader) {
+		return (CachedValue<T>) this.nearCache.get(key, k -> this.loadThroughSharedTier(k, loader));
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> Map<String, T> getAll(final Collection<String> keys, final Function<Set<String>, Map<String, T>> loader) {
+		final Map<String, CachedValue<?>> cached = this.nearCache.getAll(keys, missingKeys -> {
+			final Map<String, CachedValue<?>> loaded = new HashMap<>();
+			final Set<String> toLoad = new HashSet<>();
+			missingKeys.forEach(key -> this.fromSharedTier(key)
+					.ifPresentOrElse(value -> loaded.put(key, value), () -> toLoad.add(key)));
+			if (!toLoad.isEmpty())
+				loader.apply(toLoad).forEach((key, value) -> loaded.put(key, this.store(key, value)));
+			return loaded;
+		});
+		final Map<String, T> values = new HashMap<>();
+		cached.forEach((key, value) -> values.put(key, (T) value.getValue()));
+		return values;
+	}
+	
+	@Override
+	public void evict(final String key) {
+		this.nowAndAfterCommit(() -> {
+			this.nearCache.invalidate(key);
+			this.sharedCache.evict(key);
+		});
+	}
+	
+	@Override
+	public void evictByPrefix(final String keyPrefix) {
+		log.info("** Evicting catalogue cache entries with prefix: '{}' *", keyPrefix);
+		this.nowAndAfterCommit(() -> {
+			this.nearCache.asMap().keySet().removeIf(key -> key.startsWith(keyPrefix));
+			this.sharedCache.evictByPrefix(keyPrefix);
+		});
+	}
+	
+	private <T> CachedValue<?> loadThroughSharedTier(final String key, final Supplier<T> loader) {
+		return this.fromSharedTier(key)
+				.orElseGet(() -> this.store(key, loader.get()));
+	}
+	
+	private Optional<CachedValue<?>> fromSharedTier(final String key) {
+		final Optional<CachedValue<?>> shared = this.sharedCache.get(key);
+		(shared.isPresent() ? this.sharedHits : this.sharedMisses).increment();
+		return shared;
+	}
+	
+	private CachedValue<?> store(final String key, final Object value) {
+		final CachedValue<?> cachedValue = new CachedValue<>(value, this.etagOf(value));
+		this.sharedCache.put(key, cachedValue);
+		return cachedValue;
+	}
+	
+	private String etagOf(final Object value) {
+		try {
+			return "W/\"" + DigestUtils.md5DigestAsHex(this.etagWriter.writeValueAsBytes(value)) + "\"";
+		}
+		catch (JsonProcessingException e) {
+			log.warn("Could not compute ETag for catalogue entry: {}", e.getMessage());
+			return "W/\"" + Integer.toHexString(Objects.hashCode(value)) + "\"";
+		}
+	}
+	
+	private double sharedHitRatio() {
+		final double total = this.sharedHits.count() + this.sharedMisses.count();
+		return (total == 0) ? 0.0 : this.sharedHits.count() / total;
+	}
+	
+	private void nowAndAfterCommit(final Runnable eviction) {
+		eviction.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					eviction.run();
+				}
+			});
+		}
+	}
+	
+}
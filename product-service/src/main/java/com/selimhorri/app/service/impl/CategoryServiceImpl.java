@@ -7,10 +7,12 @@ import javax.transaction.Transactional;
 
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.cache.CachedValue;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.helper.CategoryMappingHelper;
 import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.service.CatalogCacheService;
 import com.selimhorri.app.service.CategoryService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,50 +25,79 @@ import lombok.extern.slf4j.Slf4j;
 public class CategoryServiceImpl implements CategoryService {
 	
 	private final CategoryRepository categoryRepository;
+	private final CatalogCacheService catalogCacheService;
 	
 	@Override
 	public List<CategoryDto> findAll() {
+		return this.findAllCached().getValue();
+	}
+	
+	@Override
+	public CachedValue<List<CategoryDto>> findAllCached() {
 		log.info("*** CategoryDto List, service; fetch all categorys *");
-		return this.categoryRepository.findAll()
-				.stream()
-					.map(CategoryMappingHelper::map)
-					.distinct()
-					.collect(Collectors.toUnmodifiableList());
+		return this.catalogCacheService.get(CatalogCacheService.CATEGORY_LIST_KEY_PREFIX + "all",
+				() -> this.categoryRepository.findAll()
+					.stream()
+						.map(CategoryMappingHelper::map)
+						.distinct()
+						.collect(Collectors.toUnmodifiableList()));
 	}
 	
 	@Override
 	public CategoryDto findById(final Integer categoryId) {
+		return this.findCachedById(categoryId).getValue();
+	}
+	
+	@Override
+	public CachedValue<CategoryDto> findCachedById(final Integer categoryId) {
 		log.info("*** CategoryDto, service; fetch category by id *");
-		return this.categoryRepository.findById(categoryId)
-				.map(CategoryMappingHelper::map)
-				.orElseThrow(() -> new CategoryNotFoundException(String.format("Category with id: %d not found", categoryId)));
+		return this.catalogCacheService.get(CatalogCacheService.CATEGORY_KEY_PREFIX + categoryId,
+				() -> this.loadById(categoryId));
 	}
 	
 	@Override
 	public CategoryDto save(final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; save category *");
-		return CategoryMappingHelper.map(this.categoryRepository
+		final CategoryDto savedCategoryDto = CategoryMappingHelper.map(this.categoryRepository
 				.save(CategoryMappingHelper.map(categoryDto)));
+		this.evictAll();
+		return savedCategoryDto;
 	}
 	
 	@Override
 	public CategoryDto update(final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; update category *");
-		return CategoryMappingHelper.map(this.categoryRepository
+		final CategoryDto updatedCategoryDto = CategoryMappingHelper.map(this.categoryRepository
 				.save(CategoryMappingHelper.map(categoryDto)));
+		this.evictAll();
+		return updatedCategoryDto;
 	}
 	
 	@Override
 	public CategoryDto update(final Integer categoryId, final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; update category with categoryId *");
-		return CategoryMappingHelper.map(this.categoryRepository
-				.save(CategoryMappingHelper.map(this.findById(categoryId))));
+		final CategoryDto updatedCategoryDto = CategoryMappingHelper.map(this.categoryRepository
+				.save(CategoryMappingHelper.map(this.loadById(categoryId))));
+		this.evictAll();
+		return updatedCategoryDto;
 	}
 	
 	@Override
 	public void deleteById(final Integer categoryId) {
 		log.info("*** Void, service; delete category by id *");
 		this.categoryRepository.deleteById(categoryId);
+		this.evictAll();
+	}
+	
+	private CategoryDto loadById(final Integer categoryId) {
+		return this.categoryRepository.findById(categoryId)
+				.map(CategoryMappingHelper::map)
+				.orElseThrow(() -> new CategoryNotFoundException(String.format("Category with id: %d not found", categoryId)));
+	}
+	
+	// Los productos embeben su categoría (y las categorías a su padre), así que se invalida todo el catálogo
+	private void evictAll() {
+		this.catalogCacheService.evictByPrefix("");
 	}
 	
 	
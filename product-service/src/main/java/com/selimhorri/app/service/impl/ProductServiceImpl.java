@@ -1,16 +1,35 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.cache.CachedValue;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.enums.ProductSort;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.helper.CursorHelper;
 import com.selimhorri.app.helper.ProductMappingHelper;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.CatalogCacheService;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -22,52 +41,231 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 	
+	private static final int MAX_PAGE_SIZE = 500;
+	private static final int MAX_BULK_IDS = 500;
+	
 	private final ProductRepository productRepository;
+	private final EntityManager entityManager;
+	private final CatalogCacheService catalogCacheService;
 	
 	@Override
 	public List<ProductDto> findAll() {
+		return this.findAllCached().getValue();
+	}
+	
+	@Override
+	public CachedValue<List<ProductDto>> findAllCached() {
 		log.info("*** ProductDto List, service; fetch all products *");
-		return this.productRepository.findAll()
-				.stream()
-					.map(ProductMappingHelper::map)
-					.distinct()
-					.collect(Collectors.toUnmodifiableList());
+		return this.catalogCacheService.get(CatalogCacheService.PRODUCT_LIST_KEY_PREFIX + "all",
+				() -> this.productRepository.findAll()
+					.stream()
+						.map(ProductMappingHelper::map)
+						.distinct()
+						.collect(Collectors.toUnmodifiableList()));
+	}
+	
+	@Override
+	public List<ProductDto> findAll(final ProductSort sort) {
+		return this.findAllCached(sort).getValue();
+	}
+	
+	@Override
+	public CachedValue<List<ProductDto>> findAllCached(final ProductSort sort) {
+		log.info("*** ProductDto List, service; fetch all products sorted by {} *", sort.getKey());
+		return this.catalogCacheService.get(CatalogCacheService.PRODUCT_LIST_KEY_PREFIX + "all:" + sort.getKey(),
+				() -> this.productRepository.findAll(sort.getSort())
+					.stream()
+						.map(ProductMappingHelper::map)
+						.distinct()
+						.collect(Collectors.toUnmodifiableList()));
+	}
+	
+	@Override
+	public DtoCursorPageResponse<ProductDto> findPage(final String cursor, final int size, final ProductSort sort) {
+		log.info("*** ProductDto Page, service; fetch products page sorted by {} *", sort.getKey());
+		final int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+		if (sort != ProductSort.DEFAULT)
+			return this.findSortedPage(cursor, pageSize, sort);
+		
+		final Integer afterId = CursorHelper.decode(cursor);
+		// Se pide una fila extra para saber si existe una página siguiente sin hacer COUNT
+		final PageRequest limit = PageRequest.of(0, pageSize + 1);
+		final List<Product> products = (afterId == null)
+				? this.productRepository.findFirstPage(limit)
+				: this.productRepository.findAllAfter(afterId, limit);
+		
+		final boolean hasNext = products.size() > pageSize;
+		final List<ProductDto> page = products.stream()
+				.limit(pageSize)
+				.map(ProductMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+		
+		return DtoCursorPageResponse.<ProductDto>builder()
+				.collection(page)
+				.nextCursor(hasNext ? CursorHelper.encode(page.get(page.size() - 1).getProductId()) : null)
+				.size(page.size())
+				.build();
+	}
+	
+	// Órdenes secundarios también por keyset: el cursor guarda el valor de la columna de orden y el id de la última fila
+	private DtoCursorPageResponse<ProductDto> findSortedPage(final String cursor, final int pageSize,
+			final ProductSort sort) {
+		final CursorHelper.SortCursor after = CursorHelper.decode(cursor, sort);
+		final List<Product> products = (after == null)
+				? this.productRepository.findSortedFirstPage(PageRequest.of(0, pageSize + 1, sort.getSort()))
+				: this.findSortedAfter(sort, after, PageRequest.of(0, pageSize + 1));
+		
+		final boolean hasNext = products.size() > pageSize;
+		final List<Product> rows = products.subList(0, Math.min(products.size(), pageSize));
+		final Product last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+		
+		return DtoCursorPageResponse.<ProductDto>builder()
+				.collection(rows.stream()
+						.map(ProductMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()))
+				.nextCursor(hasNext ? CursorHelper.encode(sort, last.getProductId(), sortValue(sort, last)) : null)
+				.size(rows.size())
+				.build();
+	}
+	
+	private List<Product> findSortedAfter(final ProductSort sort, final CursorHelper.SortCursor after,
+			final Pageable limit) {
+		final String value = after.getLastValue();
+		try {
+			switch (sort) {
+				case PRICE:
+					return (value == null)
+							? this.productRepository.findAllAfterNullPrice(after.getLastId(), limit)
+							: this.productRepository.findAllAfterPrice(Double.valueOf(value), after.getLastId(), limit);
+				case TITLE:
+					return (value == null)
+							? this.productRepository.findAllAfterNullTitle(after.getLastId(), limit)
+							: this.productRepository.findAllAfterTitle(value, after.getLastId(), limit);
+				case NEWEST:
+					if (value == null)
+						throw new IllegalArgumentException("Invalid page cursor: missing creation date");
+					return this.productRepository.findAllBeforeCreatedAt(Instant.parse(value), after.getLastId(), limit);
+				default:
+					throw new IllegalArgumentException("Sort " + sort.getKey() + " has no secondary cursor");
+			}
+		}
+		catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid page cursor: " + e.getMessage(), e);
+		}
+	}
+	
+	private static String sortValue(final ProductSort sort, final Product product) {
+		switch (sort) {
+			case PRICE:
+				return (product.getPriceUnit() == null) ? null : product.getPriceUnit().toString();
+			case TITLE:
+				return product.getProductTitle();
+			case NEWEST:
+				return product.getCreatedAt().toString();
+			default:
+				throw new IllegalArgumentException("Sort " + sort.getKey() + " has no secondary cursor");
+		}
+	}
+	
+	@Override
+	public void streamAll(final Consumer<ProductDto> consumer) {
+		log.info("*** ProductDto Stream, service; stream all products *");
+		try (final Stream<Product> products = this.productRepository.streamAll()) {
+			products.forEach(product -> {
+				consumer.accept(ProductMappingHelper.map(product));
+				// Se libera del contexto de persistencia para que la memoria no crezca con el catálogo
+				this.entityManager.detach(product);
+			});
+		}
 	}
 	
 	@Override
 	public ProductDto findById(final Integer productId) {
+		return this.findCachedById(productId).getValue();
+	}
+	
+	@Override
+	public CachedValue<ProductDto> findCachedById(final Integer productId) {
 		log.info("*** ProductDto, service; fetch product by id *");
-		return this.productRepository.findById(productId)
-				.map(ProductMappingHelper::map)
-				.orElseThrow(() -> new ProductNotFoundException(String.format("Product with id: %d not found", productId)));
+		return this.catalogCacheService.get(productKey(productId), () -> this.loadById(productId));
+	}
+	
+	@Override
+	public List<ProductDto> findAllByIds(final Collection<Integer> productIds) {
+		log.info("*** ProductDto List, service; fetch products by ids *");
+		if (productIds == null || productIds.isEmpty())
+			return List.of();
+		final Set<String> keys = productIds.stream()
+				.map(ProductServiceImpl::productKey)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		// Los ids viajan en la query string: los clientes trocean las listas largas
+		if (keys.size() > MAX_BULK_IDS)
+			throw new IllegalArgumentException(String.format(
+					"At most %d product ids can be fetched at once, got %d", MAX_BULK_IDS, keys.size()));
+		// Solo los ids que faltan en caché van a la base de datos, en una única consulta IN
+		final Map<String, ProductDto> products = this.catalogCacheService.<ProductDto>getAll(keys, missingKeys ->
+				this.productRepository.findAllByProductIdIn(missingKeys.stream()
+						.map(key -> Integer.valueOf(key.substring(CatalogCacheService.PRODUCT_KEY_PREFIX.length())))
+						.collect(Collectors.toUnmodifiableSet()))
+					.stream()
+						.map(ProductMappingHelper::map)
+						.collect(Collectors.toMap(productDto -> productKey(productDto.getProductId()),
+								Function.identity(), (first, second) -> first)));
+		return keys.stream()
+				.map(products::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toUnmodifiableList());
 	}
 	
 	@Override
 	public ProductDto save(final ProductDto productDto) {
 		log.info("*** ProductDto, service; save product *");
-		return ProductMappingHelper.map(this.productRepository
+		final ProductDto savedProductDto = ProductMappingHelper.map(this.productRepository
 				.save(ProductMappingHelper.map(productDto)));
+		this.evict(savedProductDto.getProductId());
+		return savedProductDto;
 	}
 	
 	@Override
 	public ProductDto update(final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product *");
-		return ProductMappingHelper.map(this.productRepository
+		final ProductDto updatedProductDto = ProductMappingHelper.map(this.productRepository
 				.save(ProductMappingHelper.map(productDto)));
+		this.evict(updatedProductDto.getProductId());
+		return updatedProductDto;
 	}
 	
 	@Override
 	public ProductDto update(final Integer productId, final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product with productId *");
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(this.findById(productId))));
+		final ProductDto updatedProductDto = ProductMappingHelper.map(this.productRepository
+				.save(ProductMappingHelper.map(this.loadById(productId))));
+		this.evict(productId);
+		return updatedProductDto;
 	}
 	
 	@Override
 	public void deleteById(final Integer productId) {
 		log.info("*** Void, service; delete product by id *");
 		this.productRepository.delete(ProductMappingHelper
-				.map(this.findById(productId)));
+				.map(this.loadById(productId)));
+		this.evict(productId);
+	}
+	
+	private ProductDto loadById(final Integer productId) {
+		return this.productRepository.findById(productId)
+				.map(ProductMappingHelper::map)
+				.orElseThrow(() -> new ProductNotFoundException(String.format("Product with id: %d not found", productId)));
+	}
+	
+	private void evict(final Integer productId) {
+		if (productId != null)
+			this.catalogCacheService.evict(productKey(productId));
+		this.catalogCacheService.evictByPrefix(CatalogCacheService.PRODUCT_LIST_KEY_PREFIX);
+	}
+	
+	private static String productKey(final Integer productId) {
+		return CatalogCacheService.PRODUCT_KEY_PREFIX + productId;
 	}
 	
 	
@@ -0,0 +1,276 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.domain.StockReservationLine;
+import com.selimhorri.app.domain.enums.ReservationStatus;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationLineDto;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationConflictException;
+import com.selimhorri.app.exception.wrapper.StockReservationLinesMismatchException;
+import com.selimhorri.app.exception.wrapper.StockReservationNotFoundException;
+import com.selimhorri.app.helper.StockReservationMappingHelper;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.StockReservationRepository;
+import com.selimhorri.app.service.CatalogCacheService;
+import com.selimhorri.app.service.StockReservationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds stock for a checkout without a read-compare-write race. Each line is taken with one
+ * conditional decrement that only succeeds while enough units remain, so concurrent buyers of
+ * the same product can never push its quantity below zero. All lines of a reservation commit or
+ * roll back together. A reservation is then confirmed, canceled, or expired once its TTL runs
+ * out; cancellation and expiry return the held units to stock.
+ */
+@Service
+@Transactional
+@Slf4j
+public class StockReservationServiceImpl implements StockReservationService {
+	
+	private final StockReservationRepository stockReservationRepository;
+	private final ProductRepository productRepository;
+	private final CatalogCacheService catalogCacheService;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration ttl;
+	private final int expiryBatchSize;
+	private final Counter reserved;
+	private final Counter rejected;
+	private final Counter confirmed;
+	private final Counter canceled;
+	private final Counter expired;
+	
+	public StockReservationServiceImpl(final StockReservationRepository stockReservationRepository,
+			final ProductRepository productRepository,
+			final CatalogCacheService catalogCacheService,
+			final TransactionTemplate transactionTemplate,
+			final MeterRegistry meterRegistry,
+			@Value("${app.stock-reservation.ttl-seconds:900}") final long ttlSeconds,
+			@Value("${app.stock-reservation.expiry.batch-size:100}") final int expiryBatchSize) {
+		this.stockReservationRepository = stockReservationRepository;
+		this.productRepository = productRepository;
+		this.catalogCacheService = catalogCacheService;
+		this.transactionTemplate = transactionTemplate;
+		this.ttl = Duration.ofSeconds(ttlSeconds);
+		this.expiryBatchSize = expiryBatchSize;
+		this.reserved = outcome(meterRegistry, "reserved");
+		this.rejected = outcome(meterRegistry, "rejected");
+		this.confirmed = outcome(meterRegistry, "confirmed");
+		this.canceled = outcome(meterRegistry, "canceled");
+		this.expired = outcome(meterRegistry, "expired");
+	}
+	
+	@Override
+	public StockReservationDto findById(final String reservationId) {
+		log.info("*** StockReservationDto, service; fetch stock reservation by id *");
+		return StockReservationMappingHelper.map(this.loadById(reservationId));
+	}
+	
+	@Override
+	@Transactional(TxType.NOT_SUPPORTED)
+	public StockReservationDto reserve(final StockReservationDto stockReservationDto) {
+		log.info("*** StockReservationDto, service; reserve stock *");
+		final List<StockReservationLine> lines = mergeLines(stockReservationDto.getLines());
+		
+		// Un reintento con el mismo id devuelve la reserva ya hecha sin volver a descontar
+		final String reservationId = stockReservationDto.getReservationId();
+		if (reservationId != null && (reservationId.isBlank() || reservationId.length() > 64))
+			throw new IllegalArgumentException("A reservation id must have between 1 and 64 characters");
+		if (reservationId != null) {
+			final var existing = this.stockReservationRepository.findById(reservationId);
+			if (existing.isPresent())
+				return replay(existing.get(), lines);
+		}
+		
+		try {
+			// Transacción propia: si otra petición con el mismo id gana el INSERT, esta se deshace entera y se relee la suya
+			return this.transactionTemplate.execute(status -> this.insert(
+					reservationId != null ? reservationId : UUID.randomUUID().toString(), lines));
+		}
+		catch (DataIntegrityViolationException e) {
+			if (reservationId == null)
+				throw e;
+			return replay(this.stockReservationRepository.findById(reservationId)
+					.orElseThrow(() -> new StockReservationConflictException(String.format(
+							"Reservation with id: %s is being created concurrently, retry the reservation", reservationId))),
+					lines);
+		}
+	}
+	
+	private StockReservationDto insert(final String reservationId, final List<StockReservationLine> lines) {
+		final StockReservation stockReservation = StockReservation.builder()
+				.reservationId(reservationId)
+				.status(ReservationStatus.PENDING)
+				.expiresAt(Instant.now().plus(this.ttl))
+				.lines(lines)
+				.build();
+		// La reserva se inserta antes de tocar el stock: las filas de producto, las disputadas, se bloquean lo más tarde posible
+		this.stockReservationRepository.saveAndFlush(stockReservation);
+		
+		// Líneas ordenadas por producto: dos reservas multilínea bloquean en el mismo orden y no se interbloquean
+		for (final StockReservationLine line : lines) {
+			if (this.productRepository.decrementQuantity(line.getProductId(), line.getQuantity()) == 0) {
+				this.rejected.increment();
+				// La excepción deshace la reserva entera, incluidas las líneas ya descontadas
+				if (!this.productRepository.existsById(line.getProductId()))
+					throw new ProductNotFoundException(String.format("Product with id: %d not found", line.getProductId()));
+				throw new InsufficientStockException(String.format(
+						"Not enough stock of product with id: %d to reserve %d units",
+						line.getProductId(), line.getQuantity()));
+			}
+		}
+		
+		this.evict(lines);
+		this.reserved.increment();
+		return StockReservationMappingHelper.map(stockReservation);
+	}
+	
+	// Mismo id con otras líneas no es un reintento: devolver la reserva previa ocultaría que no cubre lo pedido
+	private static StockReservationDto replay(final StockReservation existing, final List<StockReservationLine> lines) {
+		if (!Set.copyOf(existing.getLines()).equals(Set.copyOf(lines)))
+			throw new StockReservationLinesMismatchException(String.format(
+					"Reservation with id: %s already exists with different lines", existing.getReservationId()));
+		return StockReservationMappingHelper.map(existing);
+	}
+	
+	@Override
+	public StockReservationDto confirm(final String reservationId) {
+		log.info("*** StockReservationDto, service; confirm stock reservation *");
+		// Confirmar no toca el stock: las unidades ya se descontaron al reservar
+		if (this.stockReservationRepository.transitionStatusIfNotExpired(reservationId,
+				ReservationStatus.PENDING, ReservationStatus.CONFIRMED, Instant.now()) == 1) {
+			this.confirmed.increment();
+			return StockReservationMappingHelper.map(this.loadById(reservationId));
+		}
+		
+		final StockReservation stockReservation = this.loadById(reservationId);
+		if (stockReservation.getStatus() == ReservationStatus.CONFIRMED)
+			return StockReservationMappingHelper.map(stockReservation);
+		throw new StockReservationConflictException(String.format("Reservation with id: %s is %s and cannot be confirmed",
+				reservationId, stockReservation.getStatus() == ReservationStatus.PENDING
+						? ReservationStatus.EXPIRED
+						: stockReservation.getStatus()));
+	}
+	
+	@Override
+	public StockReservationDto cancel(final String reservationId) {
+		return this.cancel(reservationId, null);
+	}
+	
+	@Override
+	public StockReservationDto cancel(final String reservationId, final ReservationStatus expectedStatus) {
+		log.info("*** StockReservationDto, service; cancel stock reservation *");
+		final StockReservation stockReservation = this.loadById(reservationId);
+		final ReservationStatus status = stockReservation.getStatus();
+		// Sus unidades ya volvieron al stock
+		if (status == ReservationStatus.CANCELED || status == ReservationStatus.EXPIRED)
+			return StockReservationMappingHelper.map(stockReservation);
+		// Una compensación solo deshace lo suyo: la reserva que otro checkout ya confirmó no se toca
+		if (expectedStatus != null && status != expectedStatus)
+			throw new StockReservationConflictException(String.format(
+					"Reservation with id: %s is %s and cannot be canceled as %s", reservationId, status, expectedStatus));
+		
+		// También se cancela una reserva confirmada: la línea del pedido se retiró y el stock vuelve
+		if (this.stockReservationRepository.transitionStatus(reservationId, status, ReservationStatus.CANCELED) == 0)
+			throw new StockReservationConflictException(String.format(
+					"Reservation with id: %s changed status concurrently, retry the cancellation", reservationId));
+		
+		this.restock(stockReservation);
+		this.canceled.increment();
+		stockReservation.setStatus(ReservationStatus.CANCELED);
+		return StockReservationMappingHelper.map(stockReservation);
+	}
+	
+	@Override
+	@Transactional(TxType.NOT_SUPPORTED)
+	public int releaseExpired() {
+		int released = 0;
+		List<String> reservationIds;
+		do {
+			reservationIds = this.stockReservationRepository.findIdsExpiredBefore(ReservationStatus.PENDING,
+					Instant.now(), PageRequest.of(0, this.expiryBatchSize));
+			for (final String reservationId : reservationIds) {
+				// Cada reserva en su propia transacción: frente a una confirmación concurrente solo gana una
+				final Boolean release = this.transactionTemplate.execute(status -> {
+					if (this.stockReservationRepository.transitionStatus(reservationId,
+							ReservationStatus.PENDING, ReservationStatus.EXPIRED) == 0)
+						return false;
+					this.restock(this.loadById(reservationId));
+					return true;
+				});
+				if (Boolean.TRUE.equals(release))
+					released++;
+			}
+		} while (reservationIds.size() == this.expiryBatchSize);
+		
+		if (released > 0) {
+			log.info("Released stock held by {} expired reservations", released);
+			this.expired.increment(released);
+		}
+		return released;
+	}
+	
+	private StockReservation loadById(final String reservationId) {
+		return this.stockReservationRepository.findById(reservationId)
+				.orElseThrow(() -> new StockReservationNotFoundException(
+						String.format("Reservation with id: %s not found", reservationId)));
+	}
+	
+	private void restock(final StockReservation stockReservation) {
+		stockReservation.getLines().forEach(line ->
+				this.productRepository.incrementQuantity(line.getProductId(), line.getQuantity()));
+		this.evict(stockReservation.getLines());
+	}
+	
+	// Solo la entrada de cada producto: vaciar los listados en cada reserva anularía su caché con un producto caliente
+	private void evict(final List<StockReservationLine> lines) {
+		lines.forEach(line -> this.catalogCacheService.evict(CatalogCacheService.PRODUCT_KEY_PREFIX + line.getProductId()));
+	}
+	
+	private static List<StockReservationLine> mergeLines(final List<StockReservationLineDto> lines) {
+		if (lines == null || lines.isEmpty())
+			throw new IllegalArgumentException("A stock reservation needs at least one line");
+		final Map<Integer, Integer> quantities = new TreeMap<>();
+		for (final StockReservationLineDto line : lines) {
+			if (line == null || line.getProductId() == null || line.getQuantity() == null || line.getQuantity() <= 0)
+				throw new IllegalArgumentException("Every reservation line needs a product id and a positive quantity");
+			quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+		}
+		return quantities.entrySet().stream()
+				.map(entry -> StockReservationLine.builder()
+						.productId(entry.getKey())
+						.quantity(entry.getValue())
+						.build())
+				.collect(Collectors.toList());
+	}
+	
+	private static Counter outcome(final MeterRegistry meterRegistry, final String outcome) {
+		return Counter.builder("stock.reservations")
+				.description("Stock reservations by outcome")
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+	
+}
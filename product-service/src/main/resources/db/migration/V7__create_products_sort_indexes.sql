@@ -0,0 +1,5 @@
+
+CREATE INDEX idx_products_price_unit ON products (price_unit, product_id);
+CREATE INDEX idx_products_product_title ON products (product_title, product_id);
+CREATE INDEX idx_products_created_at ON products (created_at, product_id);
+
@@ -0,0 +1,19 @@
+
+CREATE TABLE stock_reservations (
+	reservation_id VARCHAR(64) NOT NULL PRIMARY KEY,
+	status VARCHAR(20) NOT NULL,
+	expires_at TIMESTAMP NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
+CREATE TABLE stock_reservation_lines (
+	reservation_id VARCHAR(64) NOT NULL,
+	product_id INT(11) NOT NULL,
+	quantity INT(11) NOT NULL,
+	PRIMARY KEY (reservation_id, product_id),
+	CONSTRAINT fk_stock_reservation_lines_reservation FOREIGN KEY (reservation_id) REFERENCES stock_reservations (reservation_id)
+);
+
+CREATE INDEX idx_stock_reservations_expiry ON stock_reservations (status, expires_at);
+
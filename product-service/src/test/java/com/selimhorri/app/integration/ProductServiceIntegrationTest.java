@@ -1,6 +1,7 @@
 package com.selimhorri.app.integration;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,8 +13,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.mapper.JacksonMapperHelper;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 
@@ -57,6 +61,55 @@ class ProductServiceIntegrationTest {
                 .andExpect(jsonPath("$.collection").isArray());
     }
 
+    @Test
+    void testWalkProductPagesWithCursor() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get("/api/products/page?size=3")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(3))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/products/page?size=3&cursor=" + cursor)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(4))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testWalkProductPagesSortedByTitle() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get("/api/products/page?size=2&sort=title")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productTitle").value("Armani"))
+                .andExpect(jsonPath("$.collection[1].productTitle").value("GTA"))
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/products/page?size=2&sort=title&cursor=" + cursor)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productTitle").value("asus"))
+                .andExpect(jsonPath("$.collection[1].productTitle").value("hp"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testStreamProductsAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/products/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(4, body.lines().count());
+        assertEquals(1, objectMapper.readTree(body.lines().findFirst().orElseThrow()).get("productId").asInt());
+    }
+
     @Test
     void testGetProductById() throws Exception {
         mockMvc.perform(get("/api/products/1")
@@ -65,6 +118,68 @@ class ProductServiceIntegrationTest {
                 .andExpect(jsonPath("$.productId").value(1));
     }
 
+    @Test
+    void testGetProductByIdWithMatchingEtagReturnsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetProductPageIsRevalidatedWithShallowEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/products/page?size=2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=0, public, s-maxage=60"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products/page?size=2").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetStockReservationIsNeverCachedAsCatalogue() throws Exception {
+        String reservationId = "cache-control-" + System.nanoTime();
+        mockMvc.perform(post("/api/products/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reservationId\":\"" + reservationId + "\",\"lines\":[{\"productId\":1,\"quantity\":1}]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/reservations/" + reservationId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+
+        mockMvc.perform(patch("/api/products/reservations/" + reservationId + "/cancel"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetProductsAsCompactJsonByDefault() throws Exception {
+        String body = mockMvc.perform(get("/api/products/page?size=3")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(-1, body.indexOf('\n'));
+    }
+
+    @Test
+    void testGetProductsAsSmileWhenRequested() throws Exception {
+        MediaType smile = new MediaType("application", "x-jackson-smile");
+        MvcResult result = mockMvc.perform(get("/api/products/page?size=3")
+                .accept(smile, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn();
+
+        JsonNode page = JacksonMapperHelper.smileMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(3, page.get("collection").size());
+    }
+
     @Test
     void testGetProductsWithDefaultSort() throws Exception {
         mockMvc.perform(get("/api/products?sort=default")
@@ -0,0 +1,100 @@
+package com.selimhorri.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.enums.ProductSort;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRepositoryTest {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 2);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Integer> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Valores repetidos y NULL para recorrer los empates y el tramo de NULL de cada orden
+        product(null, "Keyset B");
+        product(null, null);
+        product(5.0, "Keyset A");
+        product(5.0, "Keyset A");
+        product(7.5, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllById(created);
+        created.clear();
+    }
+
+    @Test
+    void shouldWalkEveryProductOnceByPriceIncludingNullPrices() {
+        List<Integer> walked = walk(ProductSort.PRICE, last -> last.getPriceUnit() == null
+                ? productRepository.findAllAfterNullPrice(last.getProductId(), PAGE)
+                : productRepository.findAllAfterPrice(last.getPriceUnit(), last.getProductId(), PAGE));
+
+        assertThat(walked).containsExactlyElementsOf(ids(productRepository.findAll(ProductSort.PRICE.getSort())));
+    }
+
+    @Test
+    void shouldWalkEveryProductOnceByTitleIncludingNullTitles() {
+        List<Integer> walked = walk(ProductSort.TITLE, last -> last.getProductTitle() == null
+                ? productRepository.findAllAfterNullTitle(last.getProductId(), PAGE)
+                : productRepository.findAllAfterTitle(last.getProductTitle(), last.getProductId(), PAGE));
+
+        assertThat(walked).containsExactlyElementsOf(ids(productRepository.findAll(ProductSort.TITLE.getSort())));
+    }
+
+    @Test
+    void shouldWalkEveryProductOnceNewestFirst() {
+        List<Integer> walked = walk(ProductSort.NEWEST, last ->
+                productRepository.findAllBeforeCreatedAt(last.getCreatedAt(), last.getProductId(), PAGE));
+
+        assertThat(walked).containsExactlyElementsOf(ids(productRepository.findAll(ProductSort.NEWEST.getSort())));
+    }
+
+    private List<Integer> walk(final ProductSort sort, final Function<Product, List<Product>> next) {
+        List<Integer> walked = new ArrayList<>();
+        List<Product> page = productRepository.findSortedFirstPage(PageRequest.of(0, 2, sort.getSort()));
+        while (!page.isEmpty()) {
+            walked.addAll(ids(page));
+            page = next.apply(page.get(page.size() - 1));
+        }
+        return walked;
+    }
+
+    private void product(final Double priceUnit, final String productTitle) {
+        created.add(productRepository.saveAndFlush(Product.builder()
+                .productTitle(productTitle)
+                .sku(UUID.randomUUID().toString())
+                .priceUnit(priceUnit)
+                .quantity(1)
+                .build()).getProductId());
+    }
+
+    private static List<Integer> ids(final List<Product> products) {
+        return products.stream().map(Product::getProductId).collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,6 @@
 package com.selimhorri.app.resource;
 
+import com.selimhorri.app.cache.CachedValue;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.service.CategoryService;
@@ -42,22 +43,24 @@ class CategoryResourceTest {
     void findAllShouldReturnCategories() {
         List<CategoryDto> categories = new ArrayList<>();
         categories.add(testCategoryDto);
-        when(categoryService.findAll()).thenReturn(categories);
+        when(categoryService.findAllCached()).thenReturn(new CachedValue<>(categories, "\"abc\""));
 
         ResponseEntity<?> response = categoryResource.findAll();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(categoryService, times(1)).findAll();
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        verify(categoryService, times(1)).findAllCached();
     }
 
     @Test
     void findByIdShouldReturnCategory() {
-        when(categoryService.findById(1)).thenReturn(testCategoryDto);
+        when(categoryService.findCachedById(1)).thenReturn(new CachedValue<>(testCategoryDto, "\"abc\""));
 
         ResponseEntity<?> response = categoryResource.findById("1");
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(categoryService, times(1)).findById(1);
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        verify(categoryService, times(1)).findCachedById(1);
     }
 
     @Test
@@ -1,6 +1,9 @@
 package com.selimhorri.app.resource;
 
+import com.selimhorri.app.cache.CachedValue;
+import com.selimhorri.app.domain.enums.ProductSort;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
@@ -44,22 +47,62 @@ class ProductResourceTest {
     void findAllShouldReturnProducts() {
         List<ProductDto> products = new ArrayList<>();
         products.add(testProductDto);
-        when(productService.findAll()).thenReturn(products);
+        when(productService.findAllCached()).thenReturn(new CachedValue<>(products, "\"abc\""));
 
-        ResponseEntity<?> response = productResource.findAll();
+        ResponseEntity<?> response = productResource.findAll(null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(productService, times(1)).findAll();
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        verify(productService, times(1)).findAllCached();
+    }
+
+    @Test
+    void findAllWithSortShouldDelegateOrderingToService() {
+        when(productService.findAllCached(ProductSort.PRICE))
+                .thenReturn(new CachedValue<>(List.of(testProductDto), "\"abc\""));
+
+        ResponseEntity<?> response = productResource.findAll("price");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(productService, times(1)).findAllCached(ProductSort.PRICE);
+        verify(productService, never()).findAllCached();
+    }
+
+    @Test
+    void findPageShouldReturnProductsPage() {
+        DtoCursorPageResponse<ProductDto> page = DtoCursorPageResponse.<ProductDto>builder()
+                .collection(List.of(testProductDto))
+                .nextCursor("Mg")
+                .size(1)
+                .build();
+        when(productService.findPage("MQ", 1, ProductSort.PRICE)).thenReturn(page);
+
+        ResponseEntity<DtoCursorPageResponse<ProductDto>> response = productResource.findPage("MQ", 1, "price");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Mg", response.getBody().getNextCursor());
+        verify(productService, times(1)).findPage("MQ", 1, ProductSort.PRICE);
+    }
+
+    @Test
+    void findAllByIdsShouldReturnProducts() {
+        when(productService.findAllByIds(List.of(1))).thenReturn(List.of(testProductDto));
+
+        ResponseEntity<?> response = productResource.findAllByIds(List.of(1));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(productService, times(1)).findAllByIds(List.of(1));
     }
 
     @Test
     void findByIdShouldReturnProduct() {
-        when(productService.findById(1)).thenReturn(testProductDto);
+        when(productService.findCachedById(1)).thenReturn(new CachedValue<>(testProductDto, "\"abc\""));
 
         ResponseEntity<?> response = productResource.findById("1");
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(productService, times(1)).findById(1);
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        verify(productService, times(1)).findCachedById(1);
     }
 
     @Test
@@ -0,0 +1,111 @@
+package com.selimhorri.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.cache.CachedValue;
+import com.selimhorri.app.cache.SharedCatalogCache;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheServiceImplTest {
+
+    @Mock
+    private SharedCatalogCache sharedCatalogCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogCacheServiceImpl catalogCacheService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalogCacheService = new CatalogCacheServiceImpl(sharedCatalogCache, new ObjectMapper(), meterRegistry, 100, 60);
+    }
+
+    @Test
+    void shouldLoadOnceAndServeFromNearCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        CachedValue<String> first = catalogCacheService.get("product:1", () -> "laptop-" + loads.incrementAndGet());
+        CachedValue<String> second = catalogCacheService.get("product:1", () -> "laptop-" + loads.incrementAndGet());
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getEtag()).startsWith("W/\"").endsWith("\"");
+        assertThat(loads).hasValue(1);
+        verify(sharedCatalogCache).put(eq("product:1"), any());
+        assertThat(meterRegistry.get("catalog.cache.hit.ratio").tag("tier", "near").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldServeNearMissFromSharedTierWithoutLoading() {
+        CachedValue<String> shared = new CachedValue<>("laptop", "\"shared\"");
+        given(sharedCatalogCache.get("product:1")).willReturn(Optional.of(shared));
+
+        CachedValue<String> result = catalogCacheService.get("product:1", () -> {
+            throw new AssertionError("loader must not run");
+        });
+
+        assertThat(result).isSameAs(shared);
+        verify(sharedCatalogCache, never()).put(any(), any());
+        assertThat(meterRegistry.get("catalog.cache.shared.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReloadAfterEvictionByKeyAndPrefix() {
+        AtomicInteger loads = new AtomicInteger();
+
+        catalogCacheService.get("products:all", loads::incrementAndGet);
+        catalogCacheService.evictByPrefix("products:");
+        catalogCacheService.get("products:all", loads::incrementAndGet);
+        catalogCacheService.evict("products:all");
+        catalogCacheService.get("products:all", loads::incrementAndGet);
+
+        assertThat(loads).hasValue(3);
+        verify(sharedCatalogCache).evictByPrefix("products:");
+        verify(sharedCatalogCache).evict("products:all");
+    }
+
+    @Test
+    void shouldNotCacheFailedLoads() {
+        assertThatThrownBy(() -> catalogCacheService.get("product:9", () -> {
+            throw new ProductNotFoundException("Product with id: 9 not found");
+        })).isInstanceOf(ProductNotFoundException.class);
+
+        assertThat(catalogCacheService.get("product:9", () -> "created").getValue()).isEqualTo("created");
+    }
+
+    @Test
+    void shouldBulkLoadOnlyMissingKeys() {
+        catalogCacheService.get("product:1", () -> "laptop");
+
+        Map<String, String> result = catalogCacheService.<String>getAll(List.of("product:1", "product:2"),
+                missingKeys -> {
+                    assertThat(missingKeys).isEqualTo(Set.of("product:2"));
+                    return missingKeys.stream().collect(Collectors.toMap(key -> key, key -> "phone"));
+                });
+
+        assertThat(result).containsEntry("product:1", "laptop").containsEntry("product:2", "phone");
+    }
+}
@@ -15,12 +15,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.cache.NoOpSharedCatalogCache;
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.service.CatalogCacheService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceImplTest {
@@ -28,6 +34,10 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Spy
+    private CatalogCacheService catalogCacheService = new CatalogCacheServiceImpl(
+            new NoOpSharedCatalogCache(), new ObjectMapper(), new SimpleMeterRegistry(), 100, 60);
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -112,4 +122,18 @@ class CategoryServiceImplTest {
         categoryService.deleteById(1);
         verify(categoryRepository, times(1)).deleteById(1);
     }
+
+    @Test
+    void shouldEvictWholeCatalogueOnCategoryWrite() {
+        given(categoryRepository.findAll()).willReturn(List.of(category));
+        given(categoryRepository.save(any(Category.class))).willReturn(category);
+
+        categoryService.findAll();
+        categoryService.findAll();
+        categoryService.save(categoryDto);
+        categoryService.findAll();
+
+        verify(categoryRepository, times(2)).findAll();
+        verify(catalogCacheService, times(1)).evictByPrefix("");
+    }
 }
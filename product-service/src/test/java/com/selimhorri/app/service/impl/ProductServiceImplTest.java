@@ -3,26 +3,46 @@ package com.selimhorri.app.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.cache.NoOpSharedCatalogCache;
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.enums.ProductSort;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.helper.CursorHelper;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.CatalogCacheService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceImplTest {
@@ -30,6 +50,13 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private CatalogCacheService catalogCacheService = new CatalogCacheServiceImpl(
+            new NoOpSharedCatalogCache(), new ObjectMapper(), new SimpleMeterRegistry(), 100, 60);
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -70,6 +97,133 @@ class ProductServiceImplTest {
         verify(productRepository, times(1)).findAll();
     }
 
+    @Test
+    void shouldReturnFirstPageWithCursorWhenMoreRowsExist() {
+        Product second = Product.builder().productId(2).productTitle("Phone").category(product.getCategory()).build();
+        Product third = Product.builder().productId(3).productTitle("Tablet").category(product.getCategory()).build();
+        given(productRepository.findFirstPage(any(Pageable.class))).willReturn(List.of(product, second, third));
+
+        DtoCursorPageResponse<ProductDto> result = productService.findPage(null, 2, ProductSort.DEFAULT);
+
+        assertThat(result.getCollection()).extracting(ProductDto::getProductId).containsExactly(1, 2);
+        assertThat(result.getSize()).isEqualTo(2);
+        assertThat(CursorHelper.decode(result.getNextCursor())).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSeekAfterCursorAndEndWithoutNextCursor() {
+        given(productRepository.findAllAfter(eq(1), any(Pageable.class))).willReturn(List.of(product));
+
+        DtoCursorPageResponse<ProductDto> result = productService.findPage(CursorHelper.encode(1), 2, ProductSort.DEFAULT);
+
+        assertThat(result.getCollection()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+        verify(productRepository, never()).findFirstPage(any(Pageable.class));
+    }
+
+    @Test
+    void shouldEncodeSortValueAndIdInSortedPageCursor() {
+        Product second = Product.builder().productId(2).productTitle("Phone").priceUnit(19.99).category(product.getCategory()).build();
+        Product third = Product.builder().productId(3).productTitle("Tablet").priceUnit(25.0).category(product.getCategory()).build();
+        given(productRepository.findSortedFirstPage(PageRequest.of(0, 3, ProductSort.PRICE.getSort())))
+                .willReturn(List.of(product, second, third));
+
+        DtoCursorPageResponse<ProductDto> result = productService.findPage(null, 2, ProductSort.PRICE);
+
+        assertThat(result.getCollection()).extracting(ProductDto::getProductId).containsExactly(1, 2);
+        CursorHelper.SortCursor next = CursorHelper.decode(result.getNextCursor(), ProductSort.PRICE);
+        assertThat(next.getLastId()).isEqualTo(2);
+        assertThat(next.getLastValue()).isEqualTo("19.99");
+    }
+
+    @Test
+    void shouldSeekSortedPagesWithoutOffset() {
+        given(productRepository.findAllAfterPrice(19.99, 2, PageRequest.of(0, 3))).willReturn(List.of(product));
+
+        DtoCursorPageResponse<ProductDto> result = productService.findPage(
+                CursorHelper.encode(ProductSort.PRICE, 2, "19.99"), 2, ProductSort.PRICE);
+
+        assertThat(result.getCollection()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+        verify(productRepository, never()).findSortedFirstPage(any(Pageable.class));
+    }
+
+    @Test
+    void shouldSeekPastNullSortValues() {
+        given(productRepository.findAllAfterNullTitle(eq(4), any(Pageable.class))).willReturn(List.of(product));
+
+        productService.findPage(CursorHelper.encode(ProductSort.TITLE, 4, null), 2, ProductSort.TITLE);
+
+        verify(productRepository, times(1)).findAllAfterNullTitle(eq(4), any(Pageable.class));
+    }
+
+    @Test
+    void shouldRejectCursorOfAnotherSort() {
+        String priceCursor = CursorHelper.encode(ProductSort.PRICE, 2, "19.99");
+
+        assertThatThrownBy(() -> productService.findPage(priceCursor, 2, ProductSort.NEWEST))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.findPage(CursorHelper.encode(1), 2, ProductSort.PRICE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldFindAllSortedByDatabase() {
+        given(productRepository.findAll(ProductSort.NEWEST.getSort())).willReturn(List.of(product));
+
+        List<ProductDto> result = productService.findAll(ProductSort.NEWEST);
+
+        assertThat(result).hasSize(1);
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> productService.findPage("not-a-cursor!", 10, ProductSort.DEFAULT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldStreamAllAndDetachEachProduct() {
+        given(productRepository.streamAll()).willReturn(Stream.of(product));
+        List<ProductDto> streamed = new ArrayList<>();
+
+        productService.streamAll(streamed::add);
+
+        assertThat(streamed).extracting(ProductDto::getProductTitle).containsExactly("Laptop");
+        verify(entityManager, times(1)).detach(product);
+    }
+
+    @Test
+    void shouldFindAllByIds() {
+        given(productRepository.findAllByProductIdIn(Set.of(1, 2))).willReturn(List.of(product));
+
+        List<ProductDto> result = productService.findAllByIds(List.of(1, 2));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getProductId()).isEqualTo(1);
+        verify(productRepository, times(1)).findAllByProductIdIn(Set.of(1, 2));
+    }
+
+    @Test
+    void shouldRejectBulkLookupsAboveTheCap() {
+        List<Integer> productIds = IntStream.rangeClosed(1, 501).boxed().collect(Collectors.toList());
+
+        assertThatThrownBy(() -> productService.findAllByIds(productIds))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(productRepository, never()).findAllByProductIdIn(any());
+    }
+
+    @Test
+    void shouldLoadOnlyUncachedIdsInBulk() {
+        given(productRepository.findById(1)).willReturn(Optional.of(product));
+        productService.findById(1);
+
+        productService.findAllByIds(List.of(1, 2));
+
+        verify(productRepository, times(1)).findAllByProductIdIn(Set.of(2));
+    }
+
     @Test
     void shouldFindById() {
         given(productRepository.findById(1)).willReturn(Optional.of(product));
@@ -80,6 +234,30 @@ class ProductServiceImplTest {
         verify(productRepository, times(1)).findById(1);
     }
 
+    @Test
+    void shouldServeRepeatedReadsFromCacheWithStableEtag() {
+        given(productRepository.findById(1)).willReturn(Optional.of(product));
+
+        String etag = productService.findCachedById(1).getEtag();
+
+        assertThat(productService.findCachedById(1).getEtag()).isEqualTo(etag).startsWith("W/\"");
+        verify(productRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void shouldReloadAfterWriteEvictsProduct() {
+        given(productRepository.findById(1)).willReturn(Optional.of(product));
+        given(productRepository.save(any(Product.class))).willReturn(product);
+
+        productService.findById(1);
+        productService.update(productDto);
+        productService.findById(1);
+
+        verify(productRepository, times(2)).findById(1);
+        verify(catalogCacheService, times(1)).evict("product:1");
+        verify(catalogCacheService, times(1)).evictByPrefix(CatalogCacheService.PRODUCT_LIST_KEY_PREFIX);
+    }
+
     @Test
     void shouldThrowExceptionWhenProductNotFoundById() {
         given(productRepository.findById(1)).willReturn(Optional.empty());
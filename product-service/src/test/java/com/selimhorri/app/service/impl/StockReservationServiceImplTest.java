@@ -0,0 +1,300 @@
+package com.selimhorri.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.enums.ReservationStatus;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationLineDto;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
+import com.selimhorri.app.exception.wrapper.StockReservationConflictException;
+import com.selimhorri.app.exception.wrapper.StockReservationLinesMismatchException;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.StockReservationRepository;
+import com.selimhorri.app.service.CatalogCacheService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceImplTest {
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private StockReservationServiceImpl stockReservationService;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry = new SimpleMeterRegistry();
+        stockReservationService = service(900);
+    }
+
+    @Test
+    void shouldNeverOversellAHotProductUnderConcurrentReservations() throws InterruptedException {
+        final int stock = 10;
+        final int buyers = 24;
+        final Integer productId = product(stock);
+        final ExecutorService executor = Executors.newFixedThreadPool(buyers);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger reserved = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < buyers; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    stockReservationService.reserve(reservation(null, line(productId, 1)));
+                    reserved.incrementAndGet();
+                }
+                catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(errors).isEmpty();
+        // Se vende exactamente el stock: ni una unidad de más ni reservas rechazadas con stock disponible
+        assertThat(reserved.get()).isEqualTo(stock);
+        assertThat(rejected.get()).isEqualTo(buyers - stock);
+        assertThat(quantityOf(productId)).isZero();
+        assertThat(meterRegistry.get("stock.reservations").tag("outcome", "reserved").counter().count()).isEqualTo(stock);
+    }
+
+    @Test
+    void shouldRollBackEveryLineWhenOneLineIsShort() {
+        final Integer plentiful = product(5);
+        final Integer scarce = product(1);
+        final String reservationId = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> stockReservationService.reserve(
+                reservation(reservationId, line(plentiful, 2), line(scarce, 3))))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(quantityOf(plentiful)).isEqualTo(5);
+        assertThat(quantityOf(scarce)).isEqualTo(1);
+        assertThat(stockReservationRepository.findById(reservationId)).isEmpty();
+    }
+
+    @Test
+    void shouldNotTakeStockTwiceWhenAReservationIsRetried() {
+        final Integer productId = product(5);
+        final String reservationId = UUID.randomUUID().toString();
+
+        stockReservationService.reserve(reservation(reservationId, line(productId, 1), line(productId, 1)));
+        StockReservationDto retried = stockReservationService.reserve(reservation(reservationId, line(productId, 2)));
+
+        // Las líneas repetidas del mismo producto se agrupan en una
+        assertThat(retried.getLines()).containsExactly(line(productId, 2));
+        assertThat(quantityOf(productId)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectAReusedIdWhoseLinesDiffer() {
+        final Integer productId = product(5);
+        final String reservationId = UUID.randomUUID().toString();
+        stockReservationService.reserve(reservation(reservationId, line(productId, 1)));
+
+        assertThatThrownBy(() -> stockReservationService.reserve(reservation(reservationId, line(productId, 3))))
+                .isInstanceOf(StockReservationLinesMismatchException.class);
+        assertThat(quantityOf(productId)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldTakeStockOnceWhenTheSameReservationArrivesConcurrently() throws InterruptedException {
+        final Integer productId = product(5);
+        final String reservationId = UUID.randomUUID().toString();
+        final int retries = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(retries);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<StockReservationDto> returned = Collections.synchronizedList(new ArrayList<>());
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < retries; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    returned.add(stockReservationService.reserve(reservation(reservationId, line(productId, 2))));
+                }
+                catch (StockReservationConflictException e) {
+                    // Solo mientras la primera no ha confirmado su INSERT; un nuevo reintento recibiría la reserva
+                }
+                catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(errors).isEmpty();
+        assertThat(returned).isNotEmpty().extracting(StockReservationDto::getReservationId).containsOnly(reservationId);
+        assertThat(quantityOf(productId)).isEqualTo(3);
+        assertThat(stockReservationService.reserve(reservation(reservationId, line(productId, 2))).getStatus())
+                .isEqualTo(ReservationStatus.PENDING);
+    }
+
+    @Test
+    void shouldConfirmOnceAndReturnStockOnlyOnceWhenCanceled() {
+        final Integer productId = product(5);
+        final String reservationId = stockReservationService.reserve(reservation(null, line(productId, 2))).getReservationId();
+
+        inTransaction(() -> stockReservationService.confirm(reservationId));
+        StockReservationDto confirmedAgain = inTransaction(() -> stockReservationService.confirm(reservationId));
+        assertThat(confirmedAgain.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(quantityOf(productId)).isEqualTo(3);
+
+        inTransaction(() -> stockReservationService.cancel(reservationId));
+        StockReservationDto canceledAgain = inTransaction(() -> stockReservationService.cancel(reservationId));
+        assertThat(canceledAgain.getStatus()).isEqualTo(ReservationStatus.CANCELED);
+        assertThat(quantityOf(productId)).isEqualTo(5);
+
+        assertThatThrownBy(() -> inTransaction(() -> stockReservationService.confirm(reservationId)))
+                .isInstanceOf(StockReservationConflictException.class);
+    }
+
+    @Test
+    void shouldNeverReturnTheStockOfAConfirmedReservationToAPendingOnlyCancel() throws InterruptedException {
+        final Integer productId = product(5);
+        final int checkouts = 8;
+
+        for (int round = 0; round < checkouts; round++) {
+            // Dos checkouts de la misma línea comparten la reserva: uno confirma y el otro compensa su fallo
+            final String reservationId = stockReservationService.reserve(reservation(null, line(productId, 2))).getReservationId();
+            final ExecutorService executor = Executors.newFixedThreadPool(2);
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            executor.submit(() -> race(start, errors, () -> inTransaction(() -> stockReservationService.confirm(reservationId))));
+            executor.submit(() -> race(start, errors, () -> inTransaction(
+                    () -> stockReservationService.cancel(reservationId, ReservationStatus.PENDING))));
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(errors).isEmpty();
+
+            // Gane quien gane, el stock cuadra con el estado final: una reserva confirmada nunca se repone
+            final ReservationStatus status = stockReservationRepository.findById(reservationId).orElseThrow().getStatus();
+            assertThat(status).isIn(ReservationStatus.CONFIRMED, ReservationStatus.CANCELED);
+            assertThat(quantityOf(productId)).isEqualTo(status == ReservationStatus.CONFIRMED ? 3 : 5);
+            if (status == ReservationStatus.CONFIRMED)
+                inTransaction(() -> stockReservationService.cancel(reservationId));
+        }
+
+        final String confirmedId = stockReservationService.reserve(reservation(null, line(productId, 2))).getReservationId();
+        inTransaction(() -> stockReservationService.confirm(confirmedId));
+        assertThatThrownBy(() -> inTransaction(() -> stockReservationService.cancel(confirmedId, ReservationStatus.PENDING)))
+                .isInstanceOf(StockReservationConflictException.class);
+        assertThat(quantityOf(productId)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReturnExpiredReservationsToStock() {
+        final StockReservationServiceImpl expiringService = service(0);
+        final Integer productId = product(5);
+        final String reservationId = expiringService.reserve(reservation(null, line(productId, 4))).getReservationId();
+        assertThat(quantityOf(productId)).isEqualTo(1);
+
+        // Caducada aunque el barrido aún no haya pasado: ya no se puede confirmar
+        assertThatThrownBy(() -> inTransaction(() -> expiringService.confirm(reservationId)))
+                .isInstanceOf(StockReservationConflictException.class);
+
+        assertThat(expiringService.releaseExpired()).isEqualTo(1);
+        assertThat(expiringService.releaseExpired()).isZero();
+        assertThat(quantityOf(productId)).isEqualTo(5);
+        assertThat(stockReservationRepository.findById(reservationId).orElseThrow().getStatus())
+                .isEqualTo(ReservationStatus.EXPIRED);
+    }
+
+    // El perdedor de la carrera sale con un conflicto; cualquier otro fallo es un error de la prueba
+    private static void race(final CountDownLatch start, final List<Throwable> errors, final Runnable action) {
+        try {
+            start.await();
+            action.run();
+        }
+        catch (StockReservationConflictException e) {
+            // Esperado para quien llega tarde
+        }
+        catch (Throwable e) {
+            errors.add(e);
+        }
+    }
+
+    // Sin proxy de Spring, la transacción que pondría @Transactional se abre aquí
+    private <T> T inTransaction(final Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private StockReservationServiceImpl service(final long ttlSeconds) {
+        return new StockReservationServiceImpl(stockReservationRepository, productRepository,
+                mock(CatalogCacheService.class), transactionTemplate, meterRegistry, ttlSeconds, 100);
+    }
+
+    private Integer product(final int quantity) {
+        return productRepository.saveAndFlush(Product.builder()
+                .productTitle("Reservation Test Product")
+                .sku(UUID.randomUUID().toString())
+                .priceUnit(10.0)
+                .quantity(quantity)
+                .build()).getProductId();
+    }
+
+    private Integer quantityOf(final Integer productId) {
+        return productRepository.findById(productId).orElseThrow().getQuantity();
+    }
+
+    private static StockReservationDto reservation(final String reservationId, final StockReservationLineDto... lines) {
+        return StockReservationDto.builder()
+                .reservationId(reservationId)
+                .lines(List.of(lines))
+                .build();
+    }
+
+    private static StockReservationLineDto line(final Integer productId, final int quantity) {
+        return StockReservationLineDto.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.selimhorri.app.business.auth.service;
+
+import com.selimhorri.app.business.auth.enums.ResourceType;
+
+public interface OwnershipResolutionService {
+	
+	String getOwner(final String resourceId, final ResourceType resourceType);
+	void evict(final ResourceType resourceType, final String resourceId);
+	
+}
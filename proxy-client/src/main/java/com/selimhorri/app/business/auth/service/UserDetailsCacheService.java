@@ -0,0 +1,11 @@
+package com.selimhorri.app.business.auth.service;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+public interface UserDetailsCacheService {
+	
+	UserDetails getUserDetails(final String username);
+	void evictByUsername(final String username);
+	void evictByCredentialId(final Integer credentialId);
+	
+}
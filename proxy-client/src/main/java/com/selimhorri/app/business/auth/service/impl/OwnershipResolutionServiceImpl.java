@@ -0,0 +1,150 @@
+package com.selimhorri.app.business.auth.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.auth.service.OwnershipResolutionService;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.user.model.AddressDto;
+import com.selimhorri.app.business.user.model.CredentialDto;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.exception.wrapper.OwnershipResolutionException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves the owner user id of a resource with one remote call per lookup and
+ * caches the result per {@link ResourceType}. Concurrent lookups of the same
+ * resource share a single in-flight call; failures are propagated, never cached.
+ */
+@Service
+@Slf4j
+public class OwnershipResolutionServiceImpl implements OwnershipResolutionService {
+	
+	public static final String CACHE_NAME = "ownershipCache";
+	
+	private final RestTemplate restTemplate;
+	private final AsyncCache<String, String> cache;
+	
+	public OwnershipResolutionServiceImpl(final RestTemplate restTemplate,
+			final MeterRegistry meterRegistry,
+			@Value("${app.security.ownership-cache.maximum-size:10000}") final long maximumSize,
+			@Value("${app.security.ownership-cache.ttl-seconds:600}") final long ttlSeconds) {
+		this.restTemplate = restTemplate;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.buildAsync();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache.synchronous(), CACHE_NAME);
+	}
+	
+	@Override
+	public String getOwner(final String resourceId, final ResourceType resourceType) {
+		
+		final String key = key(resourceType, resourceId);
+		final CompletableFuture<String> cached = this.cache.getIfPresent(key);
+		if (cached != null)
+			return join(cached);
+		
+		// Single-flight: sólo el primer hilo llama al servicio dueño, el resto espera su resultado
+		final CompletableFuture<String> inFlight = new CompletableFuture<>();
+		final CompletableFuture<String> existing = this.cache.asMap().putIfAbsent(key, inFlight);
+		if (existing != null)
+			return join(existing);
+		
+		try {
+			inFlight.complete(this.fetchOwner(resourceId, resourceType));
+		}
+		catch (RuntimeException e) {
+			this.cache.asMap().remove(key, inFlight);
+			inFlight.completeExceptionally(e);
+		}
+		return join(inFlight);
+	}
+	
+	@Override
+	public void evict(final ResourceType resourceType, final String resourceId) {
+		if (resourceType == null || resourceId == null)
+			return;
+		log.info("** Evicting cached owner of {} with id: {} *", resourceType, resourceId);
+		this.cache.synchronous().invalidate(key(resourceType, resourceId));
+	}
+	
+	private String fetchOwner(final String resourceId, final ResourceType resourceType) {
+		log.info("** Resolving owner of {} with id: {} *", resourceType, resourceId);
+		switch (resourceType) {
+			case USERS:
+				return resourceId;
+			case CREDENTIALS:
+				return this.fetch(AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/credentials/" + resourceId,
+						CredentialDto.class, resourceType, resourceId,
+						credentialDto -> credentialDto.getUserDto() != null ? credentialDto.getUserDto().getUserId() : null);
+			case ADDRESSES:
+				return this.fetch(AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/address/" + resourceId,
+						AddressDto.class, resourceType, resourceId,
+						addressDto -> addressDto.getUserDto() != null ? addressDto.getUserDto().getUserId() : null);
+			case CARTS:
+				return this.fetch(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/" + resourceId,
+						CartDto.class, resourceType, resourceId,
+						cartDto -> cartDto.getUserDto() != null ? cartDto.getUserDto().getUserId() : null);
+			case ORDERS:
+				return this.fetch(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + resourceId + "/owner",
+						Integer.class, resourceType, resourceId, Function.identity());
+			case PAYMENTS:
+				return this.fetch(AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_API_URL + "/" + resourceId + "/owner",
+						Integer.class, resourceType, resourceId, Function.identity());
+			default:
+				throw new IllegalArgumentException(String.format("Resource type %s has no owner", resourceType));
+		}
+	}
+	
+	private <T> String fetch(final String url, final Class<T> responseType, final ResourceType resourceType,
+			final String resourceId, final Function<T, Integer> ownerExtractor) {
+		try {
+			final T body = this.restTemplate.getForObject(url, responseType);
+			final Integer ownerUserId = (body != null) ? ownerExtractor.apply(body) : null;
+			if (ownerUserId == null)
+				throw new OwnershipResolutionException(
+						String.format("Owner of %s with id: %s could not be resolved", resourceType, resourceId));
+			return ownerUserId.toString();
+		}
+		catch (HttpClientErrorException.NotFound e) {
+			throw new OwnershipResolutionException(
+					String.format("%s with id: %s not found", resourceType, resourceId), e);
+		}
+		catch (RestClientException e) {
+			throw new OwnershipResolutionException(
+					String.format("Owner of %s with id: %s could not be resolved", resourceType, resourceId), e);
+		}
+	}
+	
+	private static String key(final ResourceType resourceType, final String resourceId) {
+		return resourceType.name() + ":" + resourceId;
+	}
+	
+	private static String join(final CompletableFuture<String> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+	
+}
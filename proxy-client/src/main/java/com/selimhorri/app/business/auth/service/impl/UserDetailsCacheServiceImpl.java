@@ -0,0 +1,68 @@
+package com.selimhorri.app.business.auth.service.impl;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.business.auth.service.UserDetailsCacheService;
+import com.selimhorri.app.business.user.model.UserDetailsImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Size- and time-bounded cache of authenticated principals, so the JWT filter
+ * does not call USER-SERVICE on every request. Failed lookups are not cached.
+ */
+@Service
+@Slf4j
+public class UserDetailsCacheServiceImpl implements UserDetailsCacheService {
+	
+	public static final String CACHE_NAME = "userDetailsCache";
+	
+	private final UserDetailsService userDetailsService;
+	private final Cache<String, UserDetails> cache;
+	
+	public UserDetailsCacheServiceImpl(final UserDetailsService userDetailsService,
+			final MeterRegistry meterRegistry,
+			@Value("${app.security.user-details-cache.maximum-size:10000}") final long maximumSize,
+			@Value("${app.security.user-details-cache.ttl-seconds:300}") final long ttlSeconds) {
+		this.userDetailsService = userDetailsService;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+	}
+	
+	@Override
+	public UserDetails getUserDetails(final String username) {
+		return this.cache.get(username, this.userDetailsService::loadUserByUsername);
+	}
+	
+	@Override
+	public void evictByUsername(final String username) {
+		if (username == null)
+			return;
+		log.info("** Evicting cached user details for username: {} *", username);
+		this.cache.invalidate(username);
+	}
+	
+	@Override
+	public void evictByCredentialId(final Integer credentialId) {
+		if (credentialId == null)
+			return;
+		log.info("** Evicting cached user details for credentialId: {} *", credentialId);
+		this.cache.asMap().values().removeIf(userDetails -> userDetails instanceof UserDetailsImpl
+				&& Objects.equals(((UserDetailsImpl) userDetails).getCredentialId(), credentialId));
+	}
+	
+}
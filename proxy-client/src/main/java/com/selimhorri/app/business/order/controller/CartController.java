@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.auth.service.OwnershipResolutionService;
 import com.selimhorri.app.business.order.model.CartDto;
 import com.selimhorri.app.business.order.model.response.CartOrderServiceDtoCollectionResponse;
 import com.selimhorri.app.business.order.service.CartClientService;
@@ -25,6 +27,7 @@ import lombok.RequiredArgsConstructor;
 public class CartController {
 
 	private final CartClientService cartClientService;
+	private final OwnershipResolutionService ownershipResolutionService;
 
 	@GetMapping
 	public ResponseEntity<CartOrderServiceDtoCollectionResponse> findAll() {
@@ -46,6 +49,7 @@ public class CartController {
 	@DeleteMapping("/{cartId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("cartId") final String cartId) {
 		this.cartClientService.deleteById(cartId).getBody();
+		this.ownershipResolutionService.evict(ResourceType.CARTS, cartId);
 		return ResponseEntity.ok(true);
 	}
 
@@ -1,10 +1,13 @@
 package com.selimhorri.app.business.order.controller;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -15,6 +18,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.auth.service.OwnershipResolutionService;
+import com.selimhorri.app.business.auth.util.AuthUtil;
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
 import com.selimhorri.app.business.order.service.OrderClientService;
@@ -27,6 +33,8 @@ import lombok.RequiredArgsConstructor;
 public class OrderController {
 
 	private final OrderClientService orderClientService;
+	private final OwnershipResolutionService ownershipResolutionService;
+	private final AuthUtil authUtil;
 
 	@GetMapping
 	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll() {
@@ -47,21 +55,31 @@ public class OrderController {
 
 	@PatchMapping("/{orderId}/status")
 	public ResponseEntity<OrderDto> update(
-			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final int orderId) {
-				
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final int orderId,
+			final HttpServletRequest request,
+			@AuthenticationPrincipal final UserDetails userDetails) {
+		// Solo el dueño de la orden (o un administrador) la modifica
+		this.authUtil.canActivate(request, String.valueOf(orderId), ResourceType.ORDERS, userDetails);
 		return ResponseEntity.ok(this.orderClientService.updateStatus(orderId).getBody());
 	}
 
 	@PutMapping("/{orderId}")
 	public ResponseEntity<OrderDto> update(
 			@PathVariable("orderId") @NotBlank(message = "Input must not be blank!") @Valid final String orderId,
-			@RequestBody @NotNull(message = "Input must not be NULL!") @Valid final OrderDto orderDto) {
+			@RequestBody @NotNull(message = "Input must not be NULL!") @Valid final OrderDto orderDto,
+			final HttpServletRequest request,
+			@AuthenticationPrincipal final UserDetails userDetails) {
+		this.authUtil.canActivate(request, orderId, ResourceType.ORDERS, userDetails);
 		return ResponseEntity.ok(this.orderClientService.update(orderId, orderDto).getBody());
 	}
 
 	@DeleteMapping("/{orderId}")
-	public ResponseEntity<Boolean> deleteById(@PathVariable("orderId") final String orderId) {
+	public ResponseEntity<Boolean> deleteById(@PathVariable("orderId") final String orderId,
+			final HttpServletRequest request,
+			@AuthenticationPrincipal final UserDetails userDetails) {
+		this.authUtil.canActivate(request, orderId, ResourceType.ORDERS, userDetails);
 		this.orderClientService.deleteById(orderId).getBody();
+		this.ownershipResolutionService.evict(ResourceType.ORDERS, orderId);
 		return ResponseEntity.ok(true);
 	}
 
@@ -39,6 +39,8 @@ public class OrderDto implements Serializable {
 	private String orderDesc;
 	private String orderStatus;
 	private Double orderFee;
+	// Versión leída por el cliente; order-service rechaza con 409 una actualización basada en una vieja
+	private Long version;
 
 	@JsonProperty("cart")
 	@JsonInclude(Include.NON_NULL)
@@ -1,9 +1,12 @@
 package com.selimhorri.app.business.payment.controller;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,8 +14,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.auth.service.OwnershipResolutionService;
+import com.selimhorri.app.business.auth.util.AuthUtil;
 import com.selimhorri.app.business.payment.model.PaymentDto;
 import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
 import com.selimhorri.app.business.payment.service.PaymentClientService;
@@ -25,10 +32,14 @@ import lombok.RequiredArgsConstructor;
 public class PaymentController {
 
 	private final PaymentClientService paymentClientService;
+	private final OwnershipResolutionService ownershipResolutionService;
+	private final AuthUtil authUtil;
 
 	@GetMapping
-	public ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> findAll() {
-		return ResponseEntity.ok(this.paymentClientService.findAll().getBody());
+	public ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> findAll(
+			@RequestParam(name = "afterId", defaultValue = "0") final int afterId,
+			@RequestParam(name = "size", defaultValue = "50") final int size) {
+		return ResponseEntity.ok(this.paymentClientService.findAll(afterId, size).getBody());
 	}
 
 	@GetMapping("/{paymentId}")
@@ -43,13 +54,22 @@ public class PaymentController {
 
 	@PutMapping("/{paymentId}")
 	public ResponseEntity<PaymentDto> updateStatus(
-			@PathVariable("paymentId") @NotBlank(message = "Input must not be blank") @Valid final String paymentId) {
+			@PathVariable("paymentId") @NotBlank(message = "Input must not be blank") @Valid final String paymentId,
+			final HttpServletRequest request,
+			@AuthenticationPrincipal final UserDetails userDetails) {
+		// Solo el dueño del pago (o un administrador) lo modifica
+		this.authUtil.canActivate(request, paymentId, ResourceType.PAYMENTS, userDetails);
 		return ResponseEntity.ok(this.paymentClientService.updateStatus(paymentId).getBody());
 	}
 
 	@DeleteMapping("/{paymentId}")
-	public ResponseEntity<Boolean> deleteById(@PathVariable("paymentId") final String paymentId) {
-		return ResponseEntity.ok(this.paymentClientService.deleteById(paymentId).getBody());
+	public ResponseEntity<Boolean> deleteById(@PathVariable("paymentId") final String paymentId,
+			final HttpServletRequest request,
+			@AuthenticationPrincipal final UserDetails userDetails) {
+		this.authUtil.canActivate(request, paymentId, ResourceType.PAYMENTS, userDetails);
+		final Boolean deleted = this.paymentClientService.deleteById(paymentId).getBody();
+		this.ownershipResolutionService.evict(ResourceType.PAYMENTS, paymentId);
+		return ResponseEntity.ok(deleted);
 	}
 
 }
@@ -1,9 +1,12 @@
 package com.selimhorri.app.business.product.controller;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.InputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,13 +17,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.selimhorri.app.business.product.model.ProductDto;
 import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCursorPageDtoResponse;
 import com.selimhorri.app.business.product.service.ProductClientService;
 import com.selimhorri.app.business.product.strategy.ProductSortStrategy;
+import com.selimhorri.app.business.product.strategy.ProductSortStrategyResolver;
+import com.selimhorri.app.business.product.strategy.impl.DefaultSortStrategy;
+import com.selimhorri.app.config.limit.AdaptiveConcurrencyLimit;
 
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import feign.Response;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -28,34 +37,52 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ProductController {
 	
+	private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	
 	private final ProductClientService productClientService;
-	private final List<ProductSortStrategy> sortStrategies;
+	private final ProductSortStrategyResolver sortStrategyResolver;
 
 	@Value("${feature.products.readonly:false}")
 	private boolean readOnlyMode;
 	
 	@GetMapping
-	@Bulkhead(name = "productClientService", type = Bulkhead.Type.SEMAPHORE)
+	@AdaptiveConcurrencyLimit(name = "productClientService")
 	public ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll(
 			@RequestParam(name = "sort", defaultValue = "default") String sortStrategyName) {
 		
-		var response = this.productClientService.findAll().getBody();
+		final ProductSortStrategy strategy = this.sortStrategyResolver.resolve(sortStrategyName);
 		
-		if (response != null && response.getCollection() != null) {
-			List<ProductDto> products = new ArrayList<>(response.getCollection());
-			
-			ProductSortStrategy strategy = sortStrategies.stream()
-					.filter(s -> s.getStrategyName().equalsIgnoreCase(sortStrategyName))
-					.findFirst()
-					.orElse(sortStrategies.stream()
-							.filter(s -> s.getStrategyName().equals("default"))
-							.findFirst()
-							.orElseThrow());
-			
-			response.setCollection(strategy.sort(products));
+		if (DefaultSortStrategy.NAME.equals(strategy.getSortKey()))
+			return ResponseEntity.ok(this.productClientService.findAll().getBody());
+		return ResponseEntity.ok(this.productClientService.findAll(strategy.getSortKey()).getBody());
+	}
+	
+	@GetMapping("/page")
+	@AdaptiveConcurrencyLimit(name = "productClientService")
+	public ResponseEntity<ProductProductServiceCursorPageDtoResponse> findPage(
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			@RequestParam(name = "size", defaultValue = "50") final int size,
+			@RequestParam(name = "sort", defaultValue = "default") final String sortStrategyName) {
+		final ProductSortStrategy strategy = this.sortStrategyResolver.resolve(sortStrategyName);
+		return ResponseEntity.ok(this.productClientService.findPage(cursor, size, strategy.getSortKey()).getBody());
+	}
+	
+	@GetMapping("/stream")
+	public ResponseEntity<StreamingResponseBody> stream(final HttpServletRequest request) {
+		ShallowEtagHeaderFilter.disableContentCaching(request);
+		final Response response = this.productClientService.stream();
+		if (response == null || response.body() == null) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
 		}
-		
-		return ResponseEntity.ok(response);
+		// Se copia el flujo tal cual llega, sin acumular el catálogo en memoria
+		final StreamingResponseBody body = outputStream -> {
+			try (response; InputStream inputStream = response.body().asInputStream()) {
+				inputStream.transferTo(outputStream);
+			}
+		};
+		return ResponseEntity.status(response.status())
+				.contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+				.body(body);
 	}
 	
 	@GetMapping("/{productId}")
@@ -12,9 +12,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.product.model.ProductDto;
 import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCursorPageDtoResponse;
+
+import feign.Response;
 
 @FeignClient(name = "PRODUCT-SERVICE", contextId = "productClientService", path = "/product-service/api/products", fallback = ProductClientServiceFallback.class)
 public interface ProductClientService {
@@ -22,6 +26,21 @@ public interface ProductClientService {
 	@GetMapping
 	ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll();
 	
+	// El orden lo aplica PRODUCT-SERVICE con ORDER BY; el proxy ya no reordena en memoria
+	@GetMapping
+	ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll(
+			@RequestParam(name = "sort") final String sort);
+	
+	@GetMapping("/page")
+	ResponseEntity<ProductProductServiceCursorPageDtoResponse> findPage(
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			@RequestParam(name = "size") final int size,
+			@RequestParam(name = "sort") final String sort);
+	
+	// Respuesta cruda: el cuerpo NDJSON se reenvía sin deserializar el catálogo completo
+	@GetMapping("/stream")
+	Response stream();
+	
 	@GetMapping("/{productId}")
 	ResponseEntity<ProductDto> findById(
 			@PathVariable("productId") 
@@ -5,25 +5,62 @@ import org.springframework.stereotype.Component;
 
 import com.selimhorri.app.business.product.model.ProductDto;
 import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCursorPageDtoResponse;
+import com.selimhorri.app.config.feign.FeignResponseCache;
 
+import feign.Response;
+
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class ProductClientServiceFallback implements ProductClientService {
 
+    private final FeignResponseCache feignResponseCache;
+
     @Override
     public ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll() {
-        log.error("Circuit Breaker Fallback: Product Service is unavailable. Returning empty list.");
-        return ResponseEntity.ok(ProductProductServiceCollectionDtoResponse.builder()
+        return this.lastKnownCollection(this.feignResponseCache.lastKnownGood(ProductClientService.class, "findAll"));
+    }
+
+    @Override
+    public ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll(String sort) {
+        return this.lastKnownCollection(this.feignResponseCache.lastKnownGood(ProductClientService.class, "findAll", sort));
+    }
+
+    @Override
+    public ResponseEntity<ProductProductServiceCursorPageDtoResponse> findPage(String cursor, int size, String sort) {
+        final Optional<ResponseEntity<ProductProductServiceCursorPageDtoResponse>> lastKnownGood =
+                this.feignResponseCache.lastKnownGood(ProductClientService.class, "findPage", cursor, size, sort);
+        if (lastKnownGood.isPresent()) {
+            log.warn("Circuit Breaker Fallback: Product Service is unavailable. Returning last known page.");
+            return lastKnownGood.get();
+        }
+        log.error("Circuit Breaker Fallback: Product Service is unavailable. Returning empty page.");
+        return ResponseEntity.ok(ProductProductServiceCursorPageDtoResponse.builder()
                 .collection(Collections.emptyList())
                 .build());
     }
 
+    @Override
+    public Response stream() {
+        log.error("Circuit Breaker Fallback: Product Service is unavailable. Cannot stream products.");
+        return null;
+    }
+
     @Override
     public ResponseEntity<ProductDto> findById(String productId) {
+        final Optional<ResponseEntity<ProductDto>> lastKnownGood =
+                this.feignResponseCache.lastKnownGood(ProductClientService.class, "findById", productId);
+        if (lastKnownGood.isPresent()) {
+            log.warn("Circuit Breaker Fallback: Product Service is unavailable. Returning last known product.");
+            return lastKnownGood.get();
+        }
         log.error("Circuit Breaker Fallback: Product Service is unavailable. Returning empty product.");
         return ResponseEntity.ok(ProductDto.builder()
                 .productId(Integer.parseInt(productId))
@@ -54,4 +91,16 @@ public class ProductClientServiceFallback implements ProductClientService {
         log.error("Circuit Breaker Fallback: Cannot delete product.");
         return ResponseEntity.ok(false);
     }
+
+    private ResponseEntity<ProductProductServiceCollectionDtoResponse> lastKnownCollection(
+            final Optional<ResponseEntity<ProductProductServiceCollectionDtoResponse>> lastKnownGood) {
+        if (lastKnownGood.isPresent()) {
+            log.warn("Circuit Breaker Fallback: Product Service is unavailable. Returning last known list.");
+            return lastKnownGood.get();
+        }
+        log.error("Circuit Breaker Fallback: Product Service is unavailable. Returning empty list.");
+        return ResponseEntity.ok(ProductProductServiceCollectionDtoResponse.builder()
+                .collection(Collections.emptyList())
+                .build());
+    }
 }
@@ -1,9 +1,10 @@
 package com.selimhorri.app.business.product.strategy;
 
-import java.util.List;
-import com.selimhorri.app.business.product.model.ProductDto;
-
+/**
+ * Sort option exposed by the proxy. It no longer sorts in memory: it names the
+ * ordering PRODUCT-SERVICE applies in its query (ORDER BY over an index).
+ */
 public interface ProductSortStrategy {
-    List<ProductDto> sort(List<ProductDto> products);
     String getStrategyName();
+    String getSortKey();
 }
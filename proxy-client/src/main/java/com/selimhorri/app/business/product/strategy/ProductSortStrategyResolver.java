@@ -0,0 +1,38 @@
+package com.selimhorri.app.business.product.strategy;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.product.strategy.impl.DefaultSortStrategy;
+
+/**
+ * Indexes the sort strategies by name once at startup, so a request resolves
+ * its strategy with a single map lookup.
+ */
+@Component
+public class ProductSortStrategyResolver {
+
+    private final Map<String, ProductSortStrategy> strategiesByName;
+    private final ProductSortStrategy defaultStrategy;
+
+    public ProductSortStrategyResolver(final List<ProductSortStrategy> sortStrategies) {
+        this.strategiesByName = sortStrategies.stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        strategy -> strategy.getStrategyName().toLowerCase(Locale.ROOT), Function.identity()));
+        this.defaultStrategy = this.strategiesByName.get(DefaultSortStrategy.NAME);
+        if (this.defaultStrategy == null)
+            throw new IllegalStateException("No default product sort strategy registered");
+    }
+
+    public ProductSortStrategy resolve(final String strategyName) {
+        if (strategyName == null)
+            return this.defaultStrategy;
+        return this.strategiesByName.getOrDefault(strategyName.toLowerCase(Locale.ROOT), this.defaultStrategy);
+    }
+
+}
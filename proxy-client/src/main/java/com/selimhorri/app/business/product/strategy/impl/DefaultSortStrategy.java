@@ -1,22 +1,21 @@
 package com.selimhorri.app.business.product.strategy.impl;
 
-import java.util.List;
-
 import org.springframework.stereotype.Component;
 
 import com.selimhorri.app.business.product.strategy.ProductSortStrategy;
-import com.selimhorri.app.business.product.model.ProductDto;
 
 @Component
 public class DefaultSortStrategy implements ProductSortStrategy {
 
+    public static final String NAME = "default";
+
     @Override
-    public List<ProductDto> sort(List<ProductDto> products) {
-        return products;
+    public String getStrategyName() {
+        return NAME;
     }
 
     @Override
-    public String getStrategyName() {
-        return "default";
+    public String getSortKey() {
+        return NAME;
     }
 }
@@ -0,0 +1,19 @@
+package com.selimhorri.app.business.product.strategy.impl;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.product.strategy.ProductSortStrategy;
+
+@Component
+public class NewestSortStrategy implements ProductSortStrategy {
+
+    @Override
+    public String getStrategyName() {
+        return "newest";
+    }
+
+    @Override
+    public String getSortKey() {
+        return "newest";
+    }
+}
@@ -0,0 +1,19 @@
+package com.selimhorri.app.business.product.strategy.impl;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.business.product.strategy.ProductSortStrategy;
+
+@Component
+public class TitleSortStrategy implements ProductSortStrategy {
+
+    @Override
+    public String getStrategyName() {
+        return "title";
+    }
+
+    @Override
+    public String getSortKey() {
+        return "title";
+    }
+}
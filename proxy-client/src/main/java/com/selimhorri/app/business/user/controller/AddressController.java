@@ -10,6 +10,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.auth.service.OwnershipResolutionService;
 import com.selimhorri.app.business.user.model.AddressDto;
 import com.selimhorri.app.business.user.model.response.AddressUserServiceCollectionDtoResponse;
 import com.selimhorri.app.business.user.service.AddressClientService;
@@ -21,6 +23,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AddressController {
 	private final AddressClientService addressClientService;
+	private final OwnershipResolutionService ownershipResolutionService;
 
 	@GetMapping
 	public ResponseEntity<AddressUserServiceCollectionDtoResponse> findAll() {
@@ -40,12 +43,17 @@ public class AddressController {
 	@PutMapping("/{addressId}")
 	public ResponseEntity<AddressDto> update(@PathVariable("addressId") final String addressId,
 			@RequestBody final AddressDto addressDto) {
-		return ResponseEntity.ok(this.addressClientService.update(addressId, addressDto).getBody());
+		final AddressDto updated = this.addressClientService.update(addressId, addressDto).getBody();
+		// La dirección pudo reasignarse a otro usuario
+		this.ownershipResolutionService.evict(ResourceType.ADDRESSES, addressId);
+		return ResponseEntity.ok(updated);
 	}
 
 	@DeleteMapping("/{addressId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("addressId") final String addressId) {
-		return ResponseEntity.ok(this.addressClientService.deleteById(addressId).getBody());
+		final Boolean deleted = this.addressClientService.deleteById(addressId).getBody();
+		this.ownershipResolutionService.evict(ResourceType.ADDRESSES, addressId);
+		return ResponseEntity.ok(deleted);
 	}
 
 }
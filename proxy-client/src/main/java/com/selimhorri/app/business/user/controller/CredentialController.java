@@ -9,6 +9,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.auth.service.OwnershipResolutionService;
+import com.selimhorri.app.business.auth.service.UserDetailsCacheService;
 import com.selimhorri.app.business.user.model.CredentialDto;
 import com.selimhorri.app.business.user.model.response.CredentialUserServiceCollectionDtoResponse;
 import com.selimhorri.app.business.user.service.CredentialClientService;
@@ -21,6 +24,8 @@ import lombok.RequiredArgsConstructor;
 public class CredentialController {
 
 	private final CredentialClientService credentialClientService;
+	private final UserDetailsCacheService userDetailsCacheService;
+	private final OwnershipResolutionService ownershipResolutionService;
 
 	@GetMapping
 	public ResponseEntity<CredentialUserServiceCollectionDtoResponse> findAll() {
@@ -39,12 +44,17 @@ public class CredentialController {
 
 	@PostMapping
 	public ResponseEntity<CredentialDto> save(@RequestBody final CredentialDto credentialDto) {
-		return ResponseEntity.ok(this.credentialClientService.save(credentialDto).getBody());
+		final CredentialDto saved = this.credentialClientService.save(credentialDto).getBody();
+		this.userDetailsCacheService.evictByUsername(credentialDto.getUsername());
+		return ResponseEntity.ok(saved);
 	}
 
 	@DeleteMapping("/{credentialId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("credentialId") final String credentialId) {
-		return ResponseEntity.ok(this.credentialClientService.deleteById(credentialId).getBody());
+		final Boolean deleted = this.credentialClientService.deleteById(credentialId).getBody();
+		this.userDetailsCacheService.evictByCredentialId(Integer.parseInt(credentialId));
+		this.ownershipResolutionService.evict(ResourceType.CREDENTIALS, credentialId);
+		return ResponseEntity.ok(deleted);
 	}
 
 }
@@ -0,0 +1,121 @@
+package com.selimhorri.app.config.feign;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feign {@link Client} that revalidates GET responses carrying an ETag. The last
+ * representation of each path is kept; the next call for that path sends
+ * If-None-Match and, on 304, is answered from the stored copy so the downstream
+ * service neither re-serializes nor re-transfers an unchanged payload.
+ */
+@Slf4j
+public class ConditionalRequestClient implements Client {
+	
+	public static final String CACHE_NAME = "feignConditionalCache";
+	
+	private final Client delegate;
+	private final Cache<String, StoredResponse> responses;
+	private final Counter notModified;
+	private final Counter modified;
+	
+	public ConditionalRequestClient(final Client delegate, final MeterRegistry meterRegistry,
+			final long maximumWeightBytes, final long ttlSeconds) {
+		this.delegate = delegate;
+		this.responses = Caffeine.newBuilder()
+				.maximumWeight(maximumWeightBytes)
+				.weigher((String key, StoredResponse value) -> key.length() + value.getBody().length)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.responses, CACHE_NAME);
+		this.notModified = Counter.builder("feign.conditional.requests").tag("result", "not_modified").register(meterRegistry);
+		this.modified = Counter.builder("feign.conditional.requests").tag("result", "modified").register(meterRegistry);
+	}
+	
+	@Override
+	public Response execute(final Request request, final Request.Options options) throws IOException {
+		if (request.httpMethod() != Request.HttpMethod.GET || request.headers().containsKey(HttpHeaders.IF_NONE_MATCH))
+			return this.delegate.execute(request, options);
+		
+		final String key = keyOf(request);
+		final StoredResponse stored = this.responses.getIfPresent(key);
+		final Response response = this.delegate.execute(
+				(stored == null) ? request : withIfNoneMatch(request, stored.getEtag()), options);
+		
+		if (stored != null && response.status() == HttpStatus.NOT_MODIFIED.value()) {
+			response.close();
+			this.notModified.increment();
+			return Response.builder()
+					.status(HttpStatus.OK.value())
+					.reason(HttpStatus.OK.getReasonPhrase())
+					.headers(stored.getHeaders())
+					.body(stored.getBody())
+					.request(request)
+					.build();
+		}
+		if (stored != null)
+			this.modified.increment();
+		
+		final Collection<String> etag = response.headers().get(HttpHeaders.ETAG);
+		if (response.status() != HttpStatus.OK.value() || etag == null || etag.isEmpty() || response.body() == null) {
+			if (stored != null)
+				this.responses.invalidate(key);
+			return response;
+		}
+		
+		final byte[] body;
+		try (InputStream inputStream = response.body().asInputStream()) {
+			body = Util.toByteArray(inputStream);
+		}
+		this.responses.put(key, new StoredResponse(etag.iterator().next(), response.headers(), body));
+		return response.toBuilder()
+				.body(body)
+				.build();
+	}
+	
+	// La URL ya viene resuelta a una instancia; el ETag depende del contenido, no de la instancia
+	private static String keyOf(final Request request) {
+		final URI uri = URI.create(request.url());
+		return (uri.getRawQuery() == null) ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+	}
+	
+	private static Request withIfNoneMatch(final Request request, final String etag) {
+		final Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+		headers.put(HttpHeaders.IF_NONE_MATCH, List.of(etag));
+		return Request.create(request.httpMethod(), request.url(), headers,
+				request.body(), request.charset(), request.requestTemplate());
+	}
+	
+	@Getter
+	@AllArgsConstructor
+	private static final class StoredResponse {
+		private final String etag;
+		private final Map<String, Collection<String>> headers;
+		private final byte[] body;
+	}
+	
+}
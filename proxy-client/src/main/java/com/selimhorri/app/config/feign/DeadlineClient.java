@@ -0,0 +1,54 @@
+package com.selimhorri.app.config.feign;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.selimhorri.app.config.deadline.Deadline;
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Feign {@link Client} that forwards the current {@link Deadline} and gives the call, hedged
+ * attempts included, no more connect and read time than is left of it. Once the deadline has
+ * passed no call is made at all.
+ */
+public class DeadlineClient implements Client {
+	
+	private final Client delegate;
+	private final DeadlineMetrics deadlineMetrics;
+	
+	public DeadlineClient(final Client delegate, final DeadlineMetrics deadlineMetrics) {
+		this.delegate = delegate;
+		this.deadlineMetrics = deadlineMetrics;
+	}
+	
+	@Override
+	public Response execute(final Request request, final Request.Options options) throws IOException {
+		final Deadline deadline = Deadline.current();
+		if (deadline == null)
+			return this.delegate.execute(request, options);
+		if (deadline.isExpired()) {
+			this.deadlineMetrics.exceeded(DeadlineMetrics.OUTBOUND);
+			throw new DeadlineExceededException(
+					String.format("Deadline exceeded before calling %s %s", request.httpMethod(), request.url()));
+		}
+		
+		final Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+		headers.put(Deadline.HEADER, List.of(deadline.toHeaderValue()));
+		final Request.Options cappedOptions = new Request.Options(
+				Deadline.capMillis(options.connectTimeoutMillis()), TimeUnit.MILLISECONDS,
+				Deadline.capMillis(options.readTimeoutMillis()), TimeUnit.MILLISECONDS,
+				options.isFollowRedirects());
+		return this.delegate.execute(Request.create(request.httpMethod(), request.url(), headers,
+				request.body(), request.charset(), request.requestTemplate()), cappedOptions);
+	}
+	
+}
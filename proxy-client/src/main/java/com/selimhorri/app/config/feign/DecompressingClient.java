@@ -0,0 +1,64 @@
+package com.selimhorri.app.config.feign;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.http.HttpHeaders;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Feign {@link Client} that accepts gzip from the services and inflates the body before it
+ * reaches the decoders. {@link Client.Default} passes compressed bodies through untouched,
+ * so without this the services' response compression could not be enabled.
+ */
+public class DecompressingClient implements Client {
+	
+	public static final String GZIP = "gzip";
+	
+	private final Client delegate;
+	
+	public DecompressingClient(final Client delegate) {
+		this.delegate = delegate;
+	}
+	
+	@Override
+	public Response execute(final Request request, final Request.Options options) throws IOException {
+		final Response response = this.delegate.execute(withAcceptEncoding(request), options);
+		if (response.body() == null || !isGzip(response))
+			return response;
+		
+		final Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		headers.putAll(response.headers());
+		headers.remove(HttpHeaders.CONTENT_ENCODING);
+		headers.remove(HttpHeaders.CONTENT_LENGTH);
+		return response.toBuilder()
+				.headers(headers)
+				.body(new GZIPInputStream(response.body().asInputStream()), null)
+				.build();
+	}
+	
+	private static boolean isGzip(final Response response) {
+		return response.headers().entrySet().stream()
+				.filter(header -> HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(header.getKey()))
+				.flatMap(header -> header.getValue().stream())
+				.anyMatch(GZIP::equalsIgnoreCase);
+	}
+	
+	private static Request withAcceptEncoding(final Request request) {
+		if (request.headers().keySet().stream().anyMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase))
+			return request;
+		final Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+		headers.put(HttpHeaders.ACCEPT_ENCODING, List.of(GZIP));
+		return Request.create(request.httpMethod(), request.url(), headers,
+				request.body(), request.charset(), request.requestTemplate());
+	}
+	
+}
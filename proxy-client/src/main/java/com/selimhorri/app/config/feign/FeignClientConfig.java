@@ -0,0 +1,125 @@
+package com.selimhorri.app.config.feign;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.selimhorri.app.config.client.PreferSmileInterceptor;
+import com.selimhorri.app.config.deadline.Deadline;
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+import com.selimhorri.app.config.hedging.HedgingPolicy;
+
+import feign.Capability;
+import feign.Client;
+import feign.RequestInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class FeignClientConfig {
+	
+	public static final String HEDGING_POOL_NAME = "feignHedging";
+	
+	public static final String REFRESH_POOL_NAME = "feignRefresh";
+	
+	@Bean
+	public Client feignClient(final LoadBalancerClient loadBalancerClient,
+			final LoadBalancerProperties loadBalancerProperties,
+			final LoadBalancerClientFactory loadBalancerClientFactory,
+			final MeterRegistry meterRegistry,
+			final HedgingPolicy hedgingPolicy,
+			final ExecutorService feignHedgingExecutor,
+			final DeadlineMetrics deadlineMetrics,
+			@Value("${app.feign.conditional-cache.maximum-weight-bytes:33554432}") final long maximumWeightBytes,
+			@Value("${app.feign.conditional-cache.ttl-seconds:300}") final long ttlSeconds,
+			@Value("${app.hedging.feign.enabled:true}") final boolean hedgingEnabled) {
+		// Se revalida con If-None-Match sobre la instancia ya elegida por el balanceador; el cuerpo se guarda ya descomprimido
+		final Client loadBalancedClient = new FeignBlockingLoadBalancerClient(
+				new ConditionalRequestClient(new DecompressingClient(new Client.Default(null, null)),
+						meterRegistry, maximumWeightBytes, ttlSeconds),
+				loadBalancerClient, loadBalancerProperties, loadBalancerClientFactory);
+		// Por fuera del balanceador: cada intento elige su propia instancia
+		final Client client = hedgingEnabled ? new HedgingClient(loadBalancedClient, hedgingPolicy, feignHedgingExecutor) : loadBalancedClient;
+		// Lo más externo: los intentos de hedging heredan los timeouts ya recortados por el deadline
+		return new DeadlineClient(client, deadlineMetrics);
+	}
+	
+	@Bean
+	public Customizer<Resilience4JCircuitBreakerFactory> deadlinePropagatingCircuitBreakerCustomizer() {
+		// El circuit breaker ejecuta cada llamada Feign en su propio pool; sin decorar, el deadline se perdería
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(0);
+		executor.setQueueCapacity(0);
+		executor.setKeepAliveSeconds(60);
+		executor.setThreadNamePrefix("circuit-breaker-");
+		executor.setTaskDecorator(Deadline::propagate);
+		executor.initialize();
+		return factory -> factory.configureExecutorService(executor.getThreadPoolExecutor());
+	}
+	
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService feignHedgingExecutor(final MeterRegistry meterRegistry,
+			@Value("${app.hedging.feign.pool-size:64}") final int poolSize) {
+		// Sin cola: si no hay hilo libre la petición se hace en el hilo que llama, sin hedging
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), new CustomizableThreadFactory("feign-hedging-"));
+		executor.allowCoreThreadTimeOut(true);
+		return ExecutorServiceMetrics.monitor(meterRegistry, executor, HEDGING_POOL_NAME);
+	}
+	
+	@Bean
+	public FeignResponseCache feignResponseCache(final MeterRegistry meterRegistry,
+			final ExecutorService feignRefreshExecutor,
+			@Value("${app.feign.response-cache.clients:productClientService,categoryClientService}") final Set<String> clients,
+			@Value("${app.feign.response-cache.maximum-size:10000}") final long maximumSize,
+			@Value("${app.feign.response-cache.ttl-seconds:30}") final long ttlSeconds,
+			@Value("${app.feign.response-cache.max-stale-seconds:300}") final long maxStaleSeconds,
+			@Value("${app.feign.response-cache.last-known-good-seconds:3600}") final long lastKnownGoodSeconds) {
+		return new FeignResponseCache(meterRegistry, feignRefreshExecutor, clients, maximumSize,
+				Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(maxStaleSeconds), Duration.ofSeconds(lastKnownGoodSeconds));
+	}
+	
+	@Bean
+	public Capability responseCacheCapability(final FeignResponseCache feignResponseCache,
+			final CircuitBreakerFactory<?, ?> circuitBreakerFactory) {
+		return new ResponseCacheCapability(feignResponseCache, circuitBreakerFactory);
+	}
+	
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService feignRefreshExecutor(final MeterRegistry meterRegistry,
+			@Value("${app.feign.response-cache.refresh-pool-size:4}") final int poolSize) {
+		// Sin cola: si todos los hilos están ocupados se sigue sirviendo la copia vieja y se refresca más tarde
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), new CustomizableThreadFactory("feign-refresh-"));
+		executor.allowCoreThreadTimeOut(true);
+		return ExecutorServiceMetrics.monitor(meterRegistry, executor, REFRESH_POOL_NAME);
+	}
+	
+	@Bean
+	public RequestInterceptor preferSmileRequestInterceptor() {
+		// Los servicios responden en Smile (JSON binario); SpringDecoder lo lee con el conversor Smile
+		return template -> {
+			if (!template.headers().containsKey(HttpHeaders.ACCEPT))
+				template.header(HttpHeaders.ACCEPT, PreferSmileInterceptor.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_JSON_VALUE);
+		};
+	}
+	
+}
@@ -0,0 +1,180 @@
+package com.selimhorri.app.config.feign;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decoded responses of the Feign read methods, per client, method and arguments. A response
+ * younger than {@code ttl} is served as is; up to {@code maxStale} later it is still served
+ * while one background call refreshes it; after that the caller waits for the downstream
+ * again. Entries are kept for {@code lastKnownGood} so the circuit-breaker fallbacks can answer
+ * with the last good response ({@link #lastKnownGood}) instead of an empty one.
+ * <p>
+ * Only 2xx responses are stored, and a successful write through a client drops everything
+ * cached for it. Background refreshes go through {@code refresher}, the same call behind the
+ * method's circuit breaker: they run outside the breaker's invocation handler, and an open
+ * breaker must stop them like any other call.
+ */
+@Slf4j
+public class FeignResponseCache {
+
+	public static final String CACHE_NAME = "feignResponseCache";
+
+	private final Cache<List<Object>, Entry> entries;
+	private final Set<List<Object>> refreshing = ConcurrentHashMap.newKeySet();
+	private final Set<String> clients;
+	private final Executor refreshExecutor;
+	private final MeterRegistry meterRegistry;
+	private final LongSupplier nanoClock;
+	private final long ttlNanos;
+	private final long maxStaleNanos;
+
+	public FeignResponseCache(final MeterRegistry meterRegistry, final Executor refreshExecutor, final Set<String> clients,
+			final long maximumSize, final Duration ttl, final Duration maxStale, final Duration lastKnownGood) {
+		this(meterRegistry, refreshExecutor, clients, maximumSize, ttl, maxStale, lastKnownGood, System::nanoTime);
+	}
+
+	FeignResponseCache(final MeterRegistry meterRegistry, final Executor refreshExecutor, final Set<String> clients,
+			final long maximumSize, final Duration ttl, final Duration maxStale, final Duration lastKnownGood,
+			final LongSupplier nanoClock) {
+		this.meterRegistry = meterRegistry;
+		this.refreshExecutor = refreshExecutor;
+		this.clients = Set.copyOf(clients);
+		this.nanoClock = nanoClock;
+		this.ttlNanos = ttl.toNanos();
+		this.maxStaleNanos = maxStale.toNanos();
+		this.entries = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(lastKnownGood.compareTo(ttl.plus(maxStale)) < 0 ? ttl.plus(maxStale) : lastKnownGood)
+				.ticker(nanoClock::getAsLong)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.entries, CACHE_NAME);
+	}
+
+	/**
+	 * Name a client is configured and reported under: its interface name with a lower-case
+	 * first letter, which is also the contextId every {@code @FeignClient} here declares.
+	 */
+	public static String clientName(final Class<?> clientType) {
+		return StringUtils.uncapitalize(clientType.getSimpleName());
+	}
+
+	public boolean isEnabled(final String client) {
+		return this.clients.contains(client);
+	}
+
+	public Object get(final String client, final String method, final Object[] args, final MethodHandler loader,
+			final MethodHandler refresher) throws Throwable {
+		final List<Object> key = keyOf(client, method, args);
+		final Entry entry = this.entries.getIfPresent(key);
+		final long age = (entry == null) ? Long.MAX_VALUE : this.nanoClock.getAsLong() - entry.getWrittenAtNanos();
+		if (age < this.ttlNanos) {
+			this.count(client, "hit");
+			return entry.getValue();
+		}
+		if (age - this.ttlNanos < this.maxStaleNanos) {
+			this.count(client, "stale");
+			this.refresh(key, client, args, refresher);
+			return entry.getValue();
+		}
+		this.count(client, "miss");
+		return this.load(key, args, loader);
+	}
+
+	public void invalidate(final String client) {
+		this.entries.asMap().keySet().removeIf(key -> client.equals(key.get(0)));
+	}
+
+	/**
+	 * Last good response of {@code method} called with {@code args}, however old, for the
+	 * fallback of {@code clientType}.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Optional<T> lastKnownGood(final Class<?> clientType, final String method, final Object... args) {
+		final String client = clientName(clientType);
+		final Entry entry = this.entries.getIfPresent(keyOf(client, method, args));
+		this.count(client, (entry == null) ? "unavailable" : "last_known_good");
+		return (entry == null) ? Optional.empty() : Optional.of((T) entry.getValue());
+	}
+
+	private Object load(final List<Object> key, final Object[] args, final MethodHandler loader) throws Throwable {
+		final Object value = loader.invoke(args);
+		if (isCacheable(value))
+			this.entries.put(key, new Entry(value, this.nanoClock.getAsLong()));
+		return value;
+	}
+
+	private void refresh(final List<Object> key, final String client, final Object[] args, final MethodHandler refresher) {
+		if (!this.refreshing.add(key))
+			return;
+		try {
+			this.refreshExecutor.execute(() -> {
+				try {
+					this.load(key, args, refresher);
+				}
+				catch (Throwable e) {
+					// También con el circuit breaker abierto: se sigue sirviendo la copia vieja; la próxima petición volverá a intentarlo
+					log.debug("Background refresh of {} failed: {}", key, e.toString());
+					this.count(client, "refresh_failed");
+				}
+				finally {
+					this.refreshing.remove(key);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			this.refreshing.remove(key);
+		}
+	}
+
+	private static boolean isCacheable(final Object value) {
+		if (value instanceof ResponseEntity)
+			return ((ResponseEntity<?>) value).getStatusCode().is2xxSuccessful() && ((ResponseEntity<?>) value).hasBody();
+		return value != null;
+	}
+
+	private static List<Object> keyOf(final String client, final String method, final Object[] args) {
+		// Arrays.asList admite nulos (p. ej. el cursor de la primera página)
+		return Arrays.asList(client, method, (args == null) ? Collections.emptyList() : Arrays.asList(args.clone()));
+	}
+
+	private void count(final String client, final String result) {
+		Counter.builder("feign.response.cache.requests")
+				.description("Feign read calls by how the response cache answered them")
+				.tag("client", client)
+				.tag("result", result)
+				.register(this.meterRegistry)
+				.increment();
+	}
+
+	@Getter
+	@AllArgsConstructor
+	private static final class Entry {
+		private final Object value;
+		private final long writtenAtNanos;
+	}
+
+}
@@ -0,0 +1,200 @@
+package com.selimhorri.app.config.feign;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.MDC;
+
+import com.selimhorri.app.config.hedging.HedgingPolicy;
+import com.selimhorri.app.config.loadbalancer.LoadBalancerStats;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Feign {@link Client} that hedges GETs. The call runs on the hedging pool while the caller
+ * waits; if it has not answered after the method's hedge delay (see {@link HedgingPolicy}) and
+ * the budget allows it, a backup is sent and the first response without a 5xx is returned.
+ * Both attempts carry the same {@value LoadBalancerStats#HEDGE_ID_HEADER}, so the wrapped load
+ * balancer sends the backup to a different instance.
+ * <p>
+ * A blocking read cannot be aborted: the losing attempt is cancelled if it has not started and
+ * otherwise the attempt closes its own response when it arrives after the race was decided.
+ * When the pool is full the request runs on the caller thread without hedging.
+ */
+public class HedgingClient implements Client {
+	
+	private final Client delegate;
+	private final HedgingPolicy hedgingPolicy;
+	private final ExecutorService executor;
+	
+	public HedgingClient(final Client delegate, final HedgingPolicy hedgingPolicy, final ExecutorService executor) {
+		this.delegate = delegate;
+		this.hedgingPolicy = hedgingPolicy;
+		this.executor = executor;
+	}
+	
+	@Override
+	public Response execute(final Request request, final Request.Options options) throws IOException {
+		if (!Request.HttpMethod.GET.equals(request.httpMethod()))
+			return this.delegate.execute(request, options);
+		
+		final HedgingPolicy.Target target = this.hedgingPolicy.target(targetOf(request));
+		final long delayNanos = target.onRequest().toNanos();
+		final Request hedgeable = withHedgeId(request);
+		
+		final CompletableFuture<Response> primary;
+		try {
+			primary = this.submit(hedgeable, options, target);
+		}
+		catch (RejectedExecutionException e) {
+			return this.delegate.execute(request, options);
+		}
+		
+		try {
+			return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			// Sigue: se evalúa el intento de respaldo
+		}
+		catch (InterruptedException e) {
+			primary.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+		}
+		catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		}
+		
+		if (!target.tryHedge())
+			return await(primary, request);
+		final CompletableFuture<Response> backup;
+		try {
+			backup = this.submit(hedgeable, options, target);
+		}
+		catch (RejectedExecutionException e) {
+			return await(primary, request);
+		}
+		return this.race(primary, backup, target, request);
+	}
+	
+	private Response race(final CompletableFuture<Response> primary, final CompletableFuture<Response> backup,
+			final HedgingPolicy.Target target, final Request request) throws IOException {
+		final AtomicReference<CompletableFuture<Response>> winner = new AtomicReference<>();
+		final AtomicInteger pending = new AtomicInteger(2);
+		final CompletableFuture<Void> decided = new CompletableFuture<>();
+		List.of(primary, backup).forEach(attempt -> attempt.whenComplete((response, error) -> {
+			if (isSuccessful(response, error) && winner.compareAndSet(null, attempt))
+				decided.complete(null);
+			else if (pending.decrementAndGet() == 0)
+				decided.complete(null);
+		}));
+		
+		try {
+			decided.get();
+		}
+		catch (InterruptedException e) {
+			primary.cancel(true);
+			backup.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+		}
+		catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		}
+		
+		final CompletableFuture<Response> chosen = (winner.get() == null) ? primary : winner.get();
+		final CompletableFuture<Response> loser = (chosen == primary) ? backup : primary;
+		// Si ya tenía respuesta no se cancela y se cierra aquí; si no, la cierra el propio intento al llegar
+		if (!loser.cancel(true))
+			loser.thenAccept(Response::close);
+		target.recordWinner(chosen == backup);
+		return await(chosen, request);
+	}
+	
+	private CompletableFuture<Response> submit(final Request request, final Request.Options options,
+			final HedgingPolicy.Target target) {
+		final Map<String, String> mdc = MDC.getCopyOfContextMap();
+		final CompletableFuture<Response> attempt = new CompletableFuture<>();
+		this.executor.execute(() -> {
+			// Cancelado antes de empezar: ya hay ganador
+			if (attempt.isDone())
+				return;
+			if (mdc != null)
+				MDC.setContextMap(mdc);
+			final long start = System.nanoTime();
+			try {
+				final Response response = this.delegate.execute(request, options);
+				// La carrera ya se decidió sin este intento: nadie más va a leer ni cerrar la respuesta
+				if (!attempt.complete(response))
+					response.close();
+			}
+			catch (Throwable e) {
+				attempt.completeExceptionally(e);
+			}
+			finally {
+				target.recordLatency(System.nanoTime() - start);
+				MDC.clear();
+			}
+		});
+		return attempt;
+	}
+	
+	private static Response await(final CompletableFuture<Response> attempt, final Request request) throws IOException {
+		try {
+			return attempt.get();
+		}
+		catch (InterruptedException e) {
+			attempt.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+		}
+		catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		}
+	}
+	
+	private static boolean isSuccessful(final Response response, final Throwable error) {
+		return error == null && response != null && response.status() < 500;
+	}
+	
+	private static IOException unwrap(final Throwable error) {
+		final Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+		if (cause instanceof IOException)
+			return (IOException) cause;
+		if (cause instanceof RuntimeException)
+			throw (RuntimeException) cause;
+		if (cause instanceof Error)
+			throw (Error) cause;
+		return new IOException(cause);
+	}
+	
+	private static String targetOf(final Request request) {
+		if (request.requestTemplate() != null && request.requestTemplate().methodMetadata() != null)
+			return request.requestTemplate().methodMetadata().configKey();
+		return "feign";
+	}
+	
+	private static Request withHedgeId(final Request request) {
+		final Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+		headers.put(LoadBalancerStats.HEDGE_ID_HEADER, List.of(UUID.randomUUID().toString()));
+		return Request.create(request.httpMethod(), request.url(), headers,
+				request.body(), request.charset(), request.requestTemplate());
+	}
+	
+}
@@ -0,0 +1,83 @@
+package com.selimhorri.app.config.feign;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import feign.Capability;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Response;
+
+/**
+ * Puts {@link FeignResponseCache} in front of the GET methods of the configured clients. The
+ * method handlers are wrapped before they reach the circuit breaker's invocation handler, so
+ * the breaker still sees every downstream failure while hits and stale answers count as
+ * successful calls. Background refreshes bypass that handler, so they are run through the
+ * method's circuit breaker here, under the name Spring Cloud OpenFeign gives it.
+ */
+public class ResponseCacheCapability implements Capability {
+
+	private final FeignResponseCache feignResponseCache;
+	private final CircuitBreakerFactory<?, ?> circuitBreakerFactory;
+
+	public ResponseCacheCapability(final FeignResponseCache feignResponseCache,
+			final CircuitBreakerFactory<?, ?> circuitBreakerFactory) {
+		this.feignResponseCache = feignResponseCache;
+		this.circuitBreakerFactory = circuitBreakerFactory;
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(final InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			final String client = FeignResponseCache.clientName(target.type());
+			if (!this.feignResponseCache.isEnabled(client))
+				return invocationHandlerFactory.create(target, dispatch);
+
+			final Map<Method, MethodHandler> cachingDispatch = new HashMap<>(dispatch);
+			dispatch.forEach((method, handler) -> {
+				if (isRead(method)) {
+					final MethodHandler refresher = this.throughCircuitBreaker(Feign.configKey(target.type(), method), handler);
+					cachingDispatch.put(method, args -> this.feignResponseCache.get(client, method.getName(), args, handler, refresher));
+				}
+				else
+					cachingDispatch.put(method, args -> {
+						final Object result = handler.invoke(args);
+						this.feignResponseCache.invalidate(client);
+						return result;
+					});
+			});
+			return invocationHandlerFactory.create(target, cachingDispatch);
+		};
+	}
+
+	private MethodHandler throughCircuitBreaker(final String circuitBreaker, final MethodHandler handler) {
+		return args -> this.circuitBreakerFactory.create(circuitBreaker).run(() -> {
+			try {
+				return handler.invoke(args);
+			}
+			catch (RuntimeException e) {
+				throw e;
+			}
+			catch (Throwable e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+
+	// Las respuestas crudas (flujos NDJSON) no se pueden guardar
+	private static boolean isRead(final Method method) {
+		final RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+		return mapping != null
+				&& mapping.method().length == 1 && mapping.method()[0] == RequestMethod.GET
+				&& !Response.class.isAssignableFrom(method.getReturnType());
+	}
+
+}
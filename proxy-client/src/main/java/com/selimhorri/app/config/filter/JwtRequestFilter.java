@@ -10,11 +10,12 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.selimhorri.app.business.auth.service.UserDetailsCacheService;
+import com.selimhorri.app.jwt.model.ParsedToken;
 import com.selimhorri.app.jwt.service.JwtService;
 
 import lombok.RequiredArgsConstructor;
@@ -25,7 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-	private final UserDetailsService userDetailsService;
+	private final UserDetailsCacheService userDetailsCacheService;
 	private final JwtService jwtService;
 
 	@Override
@@ -37,20 +38,20 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
 		final var authorizationHeader = request.getHeader("Authorization");
 
-		String username = null;
-		String jwt = null;
+		ParsedToken parsedToken = null;
 
 		if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-			jwt = authorizationHeader.substring(7);
-			username = jwtService.extractUsername(jwt);
+			// El token se verifica una sola vez; sujeto, expiración y userId salen del mismo parseo
+			parsedToken = this.jwtService.parseToken(authorizationHeader.substring(7));
 		}
 
-		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+		if (parsedToken != null && parsedToken.getUsername() != null
+				&& SecurityContextHolder.getContext().getAuthentication() == null) {
 
-			final UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+			final UserDetails userDetails = this.userDetailsCacheService.getUserDetails(parsedToken.getUsername());
 
-			if (this.jwtService.validateToken(jwt, userDetails)) {
-				final String userId = jwtService.extractUserId(jwt);
+			if (parsedToken.isValidFor(userDetails)) {
+				final String userId = parsedToken.getUserId();
 
 				final UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
 						userDetails, null, userDetails.getAuthorities());
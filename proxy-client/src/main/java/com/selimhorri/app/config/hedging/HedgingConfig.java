@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.hedging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class HedgingConfig {
+	
+	@Bean
+	public HedgingPolicy hedgingPolicy(final MeterRegistry meterRegistry,
+			@Value("${app.hedging.percentile:0.95}") final double percentile,
+			@Value("${app.hedging.min-delay-millis:20}") final long minDelayMillis,
+			@Value("${app.hedging.max-delay-millis:1000}") final long maxDelayMillis,
+			@Value("${app.hedging.min-samples:50}") final int minSamples,
+			@Value("${app.hedging.budget-percent:5}") final double budgetPercent) {
+		return new HedgingPolicy(meterRegistry, percentile, minDelayMillis, maxDelayMillis, minSamples, budgetPercent);
+	}
+	
+}
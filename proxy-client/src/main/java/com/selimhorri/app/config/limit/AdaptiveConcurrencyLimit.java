@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.limit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Guards the annotated method with the adaptive concurrency limit called {@link #name()}
+ * (usually the contextId of the Feign client it calls). Methods sharing a name share the
+ * limit; calls over it fail with
+ * {@link com.selimhorri.app.exception.wrapper.ConcurrencyLimitExceededException}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AdaptiveConcurrencyLimit {
+	
+	String name();
+	
+}
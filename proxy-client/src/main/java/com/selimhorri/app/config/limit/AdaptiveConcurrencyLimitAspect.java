@@ -0,0 +1,57 @@
+package com.selimhorri.app.config.limit;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import com.selimhorri.app.exception.wrapper.ConcurrencyLimitExceededException;
+
+import feign.FeignException.FeignServerException;
+import feign.RetryableException;
+import lombok.RequiredArgsConstructor;
+
+@Aspect
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimitAspect {
+	
+	private final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+	
+	@Around("@annotation(concurrencyLimit)")
+	public Object limit(final ProceedingJoinPoint joinPoint, final AdaptiveConcurrencyLimit concurrencyLimit) throws Throwable {
+		final AdaptiveConcurrencyLimiter.Limit limit = this.adaptiveConcurrencyLimiter.limit(concurrencyLimit.name());
+		if (!limit.tryAcquire())
+			throw new ConcurrencyLimitExceededException(String.format("Concurrency limit of %s reached (limit %d)",
+					concurrencyLimit.name(), limit.getLimit()));
+		
+		final long start = System.nanoTime();
+		try {
+			final Object result = joinPoint.proceed();
+			limit.onSuccess(System.nanoTime() - start);
+			return result;
+		}
+		catch (Throwable t) {
+			if (isOverload(t))
+				limit.onDropped();
+			else
+				limit.onIgnored();
+			throw t;
+		}
+	}
+	
+	// Solo los 5xx, los timeouts y los fallos de conexión del servicio de abajo hablan de su carga; el resto
+	// (4xx, validaciones previas a la llamada, límites anidados, deadlines agotados) libera el permiso sin recortar
+	private static boolean isOverload(final Throwable throwable) {
+		for (Throwable cause = throwable; cause != null; cause = (cause.getCause() == cause) ? null : cause.getCause()) {
+			if (cause instanceof FeignServerException || cause instanceof RetryableException
+					|| cause instanceof SocketTimeoutException || cause instanceof ConnectException
+					|| cause instanceof TimeoutException)
+				return true;
+		}
+		return false;
+	}
+	
+}
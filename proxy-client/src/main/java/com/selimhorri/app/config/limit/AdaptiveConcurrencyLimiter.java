@@ -0,0 +1,148 @@
+package com.selimhorri.app.config.limit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Concurrency limits that follow the latency of each downstream (one limit per Feign client),
+ * after the gradient algorithm of Netflix concurrency-limits. Every successful call compares
+ * its RTT with a long-term average: while they agree the limit grows by about
+ * {@code sqrt(limit)}, and as the RTT rises above {@code rttTolerance} times the average the
+ * limit shrinks by the same ratio (at most by half per sample). A call that fails downstream
+ * cuts the limit by {@code backoffRatio}, AIMD style. The limit always stays between
+ * {@code minLimit} and {@code maxLimit}.
+ * <p>
+ * Calls over the limit are rejected straight away rather than queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	// Si la media larga supera el doble de la RTT actual, la latencia bajó de verdad y la media se acerca más rápido
+	private static final double LONG_RTT_DRIFT_RATIO = 2.0;
+	private static final double LONG_RTT_DRIFT_DECAY = 0.95;
+	private static final double MIN_GRADIENT = 0.5;
+
+	private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+	private final int initialLimit;
+	private final int minLimit;
+	private final int maxLimit;
+	private final double rttTolerance;
+	private final double smoothing;
+	private final double backoffRatio;
+	private final double longRttAlpha;
+
+	public AdaptiveConcurrencyLimiter(final MeterRegistry meterRegistry, final int initialLimit, final int minLimit,
+			final int maxLimit, final double rttTolerance, final double smoothing, final double backoffRatio,
+			final int longWindow) {
+		this.meterRegistry = meterRegistry;
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit);
+		this.initialLimit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+		this.rttTolerance = Math.max(1.0, rttTolerance);
+		this.smoothing = Math.max(0.0, Math.min(1.0, smoothing));
+		this.backoffRatio = Math.max(0.1, Math.min(1.0, backoffRatio));
+		this.longRttAlpha = 2.0 / (Math.max(1, longWindow) + 1);
+	}
+
+	public Limit limit(final String name) {
+		return this.limits.computeIfAbsent(name, this::register);
+	}
+
+	private Limit register(final String name) {
+		final Limit limit = new Limit();
+		Gauge.builder("concurrency.limit", limit, Limit::getLimit)
+				.description("Current adaptive concurrency limit")
+				.tag("name", name)
+				.register(this.meterRegistry);
+		Gauge.builder("concurrency.limit.inflight", limit, Limit::getInFlight)
+				.description("Calls currently holding a permit")
+				.tag("name", name)
+				.register(this.meterRegistry);
+		FunctionCounter.builder("concurrency.limit.rejections", limit.rejections, LongAdder::sum)
+				.description("Calls rejected because the limit was reached")
+				.tag("name", name)
+				.register(this.meterRegistry);
+		return limit;
+	}
+
+	public class Limit {
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final LongAdder rejections = new LongAdder();
+		private volatile double estimatedLimit = initialLimit;
+		private double longRttNanos;
+
+		/**
+		 * Takes a permit if the call fits under the current limit. Every {@code true} must be
+		 * followed by exactly one of {@link #onSuccess}, {@link #onDropped} or {@link #onIgnored}.
+		 */
+		public boolean tryAcquire() {
+			while (true) {
+				final int current = this.inFlight.get();
+				if (current >= (int) this.estimatedLimit) {
+					this.rejections.increment();
+					return false;
+				}
+				if (this.inFlight.compareAndSet(current, current + 1))
+					return true;
+			}
+		}
+
+		public void onSuccess(final long rttNanos) {
+			final int inFlightNow = this.inFlight.getAndDecrement();
+			if (rttNanos > 0)
+				this.update(rttNanos, inFlightNow);
+		}
+
+		public void onDropped() {
+			this.inFlight.decrementAndGet();
+			synchronized (this) {
+				this.estimatedLimit = Math.max(minLimit, this.estimatedLimit * backoffRatio);
+			}
+		}
+
+		// Errores del cliente (4xx) u otros que no dicen nada de la carga del servicio
+		public void onIgnored() {
+			this.inFlight.decrementAndGet();
+		}
+
+		private synchronized void update(final long rttNanos, final int inFlightNow) {
+			if (this.longRttNanos == 0)
+				this.longRttNanos = rttNanos;
+			else
+				this.longRttNanos += longRttAlpha * (rttNanos - this.longRttNanos);
+			if (this.longRttNanos / rttNanos > LONG_RTT_DRIFT_RATIO)
+				this.longRttNanos *= LONG_RTT_DRIFT_DECAY;
+
+			// Con menos de la mitad del límite en uso no hay evidencia para subirlo
+			if (inFlightNow < this.estimatedLimit / 2)
+				return;
+
+			final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * this.longRttNanos / rttNanos));
+			final double queueSize = Math.sqrt(this.estimatedLimit);
+			final double target = this.estimatedLimit * gradient + queueSize;
+			final double smoothed = this.estimatedLimit * (1 - smoothing) + target * smoothing;
+			this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+		}
+
+		public int getLimit() {
+			return (int) this.estimatedLimit;
+		}
+
+		public int getInFlight() {
+			return this.inFlight.get();
+		}
+
+		public long getRejections() {
+			return this.rejections.sum();
+		}
+
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.selimhorri.app.config.limit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class ConcurrencyLimitConfig {
+	
+	@Bean
+	public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(final MeterRegistry meterRegistry,
+			@Value("${app.concurrency-limit.initial-limit:20}") final int initialLimit,
+			@Value("${app.concurrency-limit.min-limit:5}") final int minLimit,
+			@Value("${app.concurrency-limit.max-limit:200}") final int maxLimit,
+			@Value("${app.concurrency-limit.rtt-tolerance:1.5}") final double rttTolerance,
+			@Value("${app.concurrency-limit.smoothing:0.2}") final double smoothing,
+			@Value("${app.concurrency-limit.backoff-ratio:0.9}") final double backoffRatio,
+			@Value("${app.concurrency-limit.long-window:600}") final int longWindow) {
+		return new AdaptiveConcurrencyLimiter(meterRegistry, initialLimit, minLimit, maxLimit,
+				rttTolerance, smoothing, backoffRatio, longWindow);
+	}
+	
+	@Bean
+	public AdaptiveConcurrencyLimitAspect adaptiveConcurrencyLimitAspect(final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter) {
+		return new AdaptiveConcurrencyLimitAspect(adaptiveConcurrencyLimiter);
+	}
+	
+}
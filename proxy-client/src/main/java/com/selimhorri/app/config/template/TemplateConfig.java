@@ -1,5 +1,6 @@
 package com.selimhorri.app.config.template;
 
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
@@ -14,16 +15,23 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 
+import com.selimhorri.app.config.client.PreferSmileInterceptor;
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+import com.selimhorri.app.config.deadline.DeadlineRequestFactory;
+
 @Configuration
 public class TemplateConfig {
 	
 	private static final Logger logger = LoggerFactory.getLogger(TemplateConfig.class);
 	
+	// Pool, timeouts y métricas del cliente HTTP vienen de commons (HttpClientConfig)
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean(RestTemplateBuilder builder) {
+	public RestTemplate restTemplateBean(RestTemplateBuilder builder, CloseableHttpClient outboundHttpClient,
+			DeadlineMetrics deadlineMetrics) {
 		return builder
-				.interceptors(new TraceInterceptor())
+				.requestFactory(() -> new DeadlineRequestFactory(outboundHttpClient, deadlineMetrics))
+				.interceptors(new TraceInterceptor(), new PreferSmileInterceptor())
 				.build();
 	}
 	
@@ -0,0 +1,25 @@
+package com.selimhorri.app.config.web;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+
+// El catálogo es público: la caché del gateway lo guarda app.catalog-cache.shared-max-age-seconds.
+// La revalidación contra los servicios la hace ConditionalRequestClient
+@Configuration
+public class CatalogCacheConfig {
+	
+	private static final String[] CATALOG_PATH_PATTERNS = { "/api/products/**", "/api/categories/**" };
+	
+	@Bean
+	public CacheControlCustomizer catalogCacheControlCustomizer(
+			@Value("${app.catalog-cache.shared-max-age-seconds:60}") final long catalogSharedMaxAgeSeconds) {
+		return mappings -> mappings.add(CacheControl.maxAge(0, TimeUnit.SECONDS)
+				.sMaxAge(catalogSharedMaxAgeSeconds, TimeUnit.SECONDS)
+				.cachePublic(), CATALOG_PATH_PATTERNS);
+	}
+	
+}
@@ -1,8 +1,12 @@
 package com.selimhorri.app.exception;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
+import org.springframework.cloud.client.circuitbreaker.NoFallbackAvailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -11,9 +15,15 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.selimhorri.app.config.mapper.JacksonMapperHelper;
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.ConcurrencyLimitExceededException;
 import com.selimhorri.app.exception.wrapper.CredentialNotFoundException;
+import com.selimhorri.app.exception.wrapper.DeadlineExceededException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.OwnershipResolutionException;
 import com.selimhorri.app.exception.wrapper.UnauthorizedException;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.exception.wrapper.VerificationTokenNotFoundException;
@@ -29,6 +39,48 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ApiExceptionHandler {
 
+	private static final ObjectMapper JSON_MAPPER = JacksonMapperHelper.jsonMapper();
+	private static final ObjectMapper SMILE_MAPPER = JacksonMapperHelper.smileMapper();
+
+	@ExceptionHandler(value = {
+			NoFallbackAvailableException.class
+	})
+	public ResponseEntity<ExceptionMsg> handleNoFallbackAvailableException(final NoFallbackAvailableException e) {
+
+		log.info("**ApiExceptionHandler controller, handle open circuit or failed call without fallback*\n");
+		// El circuit breaker envuelve la causa real; un deadline vencido sigue siendo un 504
+		final var status = (e.getCause() instanceof DeadlineExceededException)
+				? HttpStatus.GATEWAY_TIMEOUT
+				: HttpStatus.SERVICE_UNAVAILABLE;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg((e.getCause() == null) ? e.getMessage() : e.getCause().getMessage())
+						.httpStatus(status)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				status);
+	}
+
+	@ExceptionHandler(value = {
+			DeadlineExceededException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleDeadlineExceededException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle deadline exceeded*\n");
+		final var gatewayTimeout = HttpStatus.GATEWAY_TIMEOUT;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg(e.getMessage())
+						.httpStatus(gatewayTimeout)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				gatewayTimeout);
+	}
+
 	@ExceptionHandler(value = {
 			FeignClientException.class,
 			FeignServerException.class,
@@ -41,7 +93,7 @@ public class ApiExceptionHandler {
 
 		return new ResponseEntity<>(
 				ExceptionMsg.builder()
-						.msg(e.contentUTF8())
+						.msg(this.errorContent(e))
 						.httpStatus(badRequest)
 						.timestamp(ZonedDateTime
 								.now(ZoneId.systemDefault()))
@@ -86,11 +138,31 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	@ExceptionHandler(value = {
+			ConcurrencyLimitExceededException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleConcurrencyLimitExceededException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle concurrency limit*\n");
+		final var serviceUnavailable = HttpStatus.SERVICE_UNAVAILABLE;
+
+		// Rechazo inmediato: el cliente puede reintentar enseguida, cuando el límite se haya ajustado
+		return ResponseEntity.status(serviceUnavailable)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(ExceptionMsg.builder()
+						.msg(e.getMessage())
+						.httpStatus(serviceUnavailable)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build());
+	}
+
 	@ExceptionHandler(value = {
 			UserObjectNotFoundException.class,
 			CredentialNotFoundException.class,
 			VerificationTokenNotFoundException.class,
 			FavouriteNotFoundException.class,
+			OwnershipResolutionException.class,
 			IllegalStateException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
@@ -108,4 +180,22 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	// Los servicios responden en Smile cuando Feign lo pide; el mensaje de error se devuelve como JSON legible
+	private String errorContent(final FeignException e) {
+		final ByteBuffer content = e.responseBody()
+				.map(ByteBuffer::asReadOnlyBuffer)
+				.orElse(null);
+		// Todo documento Smile empieza con la cabecera ":)\n"
+		final boolean smile = content != null && content.remaining() >= 3
+				&& content.get(0) == ':' && content.get(1) == ')' && content.get(2) == '\n';
+		if (!smile)
+			return e.contentUTF8();
+		try {
+			return JSON_MAPPER.writeValueAsString(SMILE_MAPPER.readTree(new ByteBufferBackedInputStream(content)));
+		}
+		catch (IOException ex) {
+			return e.contentUTF8();
+		}
+	}
+
 }
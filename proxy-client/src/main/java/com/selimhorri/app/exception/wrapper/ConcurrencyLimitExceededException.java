@@ -0,0 +1,23 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public ConcurrencyLimitExceededException() {
+		super();
+	}
+	
+	public ConcurrencyLimitExceededException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public ConcurrencyLimitExceededException(String message) {
+		super(message);
+	}
+	
+	public ConcurrencyLimitExceededException(Throwable cause) {
+		super(cause);
+	}
+	
+}
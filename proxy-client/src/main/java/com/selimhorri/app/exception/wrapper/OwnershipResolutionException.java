@@ -0,0 +1,25 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class OwnershipResolutionException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public OwnershipResolutionException() {
+		super();
+	}
+	
+	public OwnershipResolutionException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public OwnershipResolutionException(String message) {
+		super(message);
+	}
+	
+	public OwnershipResolutionException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
\ No newline at end of file
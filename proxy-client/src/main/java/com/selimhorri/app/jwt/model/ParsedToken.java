@@ -0,0 +1,36 @@
+package com.selimhorri.app.jwt.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Claims of a JWT whose signature has already been verified, so callers can
+ * read subject, userId and expiry without parsing the token again.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public final class ParsedToken implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final String username;
+	private final String userId;
+	private final Date expiration;
+	
+	// Todos los tokens se emiten con exp: uno sin él no se acepta nunca
+	public boolean isExpired() {
+		return this.expiration == null || this.expiration.before(new Date());
+	}
+	
+	public boolean isValidFor(final UserDetails userDetails) {
+		return this.username.equals(userDetails.getUsername()) && !this.isExpired();
+	}
+	
+}
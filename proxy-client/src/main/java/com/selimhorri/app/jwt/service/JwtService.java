@@ -5,10 +5,13 @@ import java.util.function.Function;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.selimhorri.app.jwt.model.ParsedToken;
+
 import io.jsonwebtoken.Claims;
 
 public interface JwtService {
 	
+	ParsedToken parseToken(final String token);
 	String extractUsername(final String token);
 	String extractUserId(final String token);
 	Date extractExpiration(final String token);
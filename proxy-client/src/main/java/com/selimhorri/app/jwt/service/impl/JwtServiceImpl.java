@@ -6,6 +6,7 @@ import java.util.function.Function;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.jwt.model.ParsedToken;
 import com.selimhorri.app.jwt.service.JwtService;
 import com.selimhorri.app.jwt.util.JwtUtil;
 
@@ -20,6 +21,12 @@ public class JwtServiceImpl implements JwtService {
 	
 	private final JwtUtil jwtUtil;
 	
+	@Override
+	public ParsedToken parseToken(final String token) {
+		log.info("**ParsedToken, jwt service parse and verify given token!*");
+		return this.jwtUtil.parseToken(token);
+	}
+	
 	@Override
 	public String extractUsername(final String token) {
 		log.info("**String, jwt service extract username from given token!*");
@@ -5,10 +5,14 @@ import java.util.function.Function;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.selimhorri.app.jwt.model.ParsedToken;
+
 import io.jsonwebtoken.Claims;
 
 public interface JwtUtil {
 
+	ParsedToken parseToken(final String token);
+
 	String extractUserId(final String token);
 	String extractUsername(final String token);
 
@@ -1,13 +1,23 @@
 package com.selimhorri.app.jwt.util.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.selimhorri.app.jwt.model.ParsedToken;
 import com.selimhorri.app.jwt.util.JwtUtil;
 
 import io.jsonwebtoken.Claims;
@@ -19,14 +29,47 @@ public class JwtUtilImpl implements JwtUtil {
 
 	private static final String SECRET_KEY = "secret";
 
+	/**
+	 * Recently verified tokens, keyed by their SHA-256 digest so raw bearer
+	 * tokens are not retained. An entry never outlives the token it describes.
+	 */
+	private final Cache<String, ParsedToken> verifiedTokens;
+
+	public JwtUtilImpl(
+			@Value("${app.security.jwt-cache.maximum-size:10000}") final long maximumSize,
+			@Value("${app.security.jwt-cache.max-ttl-seconds:600}") final long maxTtlSeconds) {
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new TokenExpiry(TimeUnit.SECONDS.toNanos(maxTtlSeconds)))
+				.build();
+	}
+
+	@Override
+	public ParsedToken parseToken(final String token) {
+		final String digest = digest(token);
+		final ParsedToken cached = this.verifiedTokens.getIfPresent(digest);
+		if (cached != null && !cached.isExpired())
+			return cached;
+
+		final Claims claims = this.extractAllClaims(token);
+		final ParsedToken parsedToken = new ParsedToken(
+				claims.getSubject(),
+				claims.get("userId", String.class),
+				claims.getExpiration());
+		// Sin exp no hay cuándo caducar la entrada; el token tampoco pasará isValidFor
+		if (parsedToken.getExpiration() != null)
+			this.verifiedTokens.put(digest, parsedToken);
+		return parsedToken;
+	}
+
 	@Override
 	public String extractUsername(final String token) {
-		return this.extractClaims(token, Claims::getSubject);
+		return this.parseToken(token).getUsername();
 	}
 
 	@Override
 	public Date extractExpiration(final String token) {
-		return this.extractClaims(token, Claims::getExpiration);
+		return this.parseToken(token).getExpiration();
 	}
 
 	@Override
@@ -39,10 +82,6 @@ public class JwtUtilImpl implements JwtUtil {
 		return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
 	}
 
-	private Boolean isTokenExpired(final String token) {
-		return this.extractExpiration(token).before(new Date());
-	}
-
 	@Override
 	public String generateToken(final UserDetails userDetails, final String userId) {
 		final Map<String, Object> claims = new HashMap<>();
@@ -62,12 +101,52 @@ public class JwtUtilImpl implements JwtUtil {
 
 	@Override
 	public Boolean validateToken(final String token, final UserDetails userDetails) {
-		final String username = this.extractUsername(token);
-		return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+		return this.parseToken(token).isValidFor(userDetails);
 	}
 
 	public String extractUserId(final String token) {
-		return extractClaims(token, claims -> claims.get("userId", String.class));
+		return this.parseToken(token).getUserId();
+	}
+
+	private static String digest(final String token) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(hash);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	private static final class TokenExpiry implements Expiry<String, ParsedToken> {
+
+		private final long maxTtlNanos;
+
+		private TokenExpiry(final long maxTtlNanos) {
+			this.maxTtlNanos = maxTtlNanos;
+		}
+
+		@Override
+		public long expireAfterCreate(final String key, final ParsedToken value, final long currentTime) {
+			if (value.getExpiration() == null)
+				return 0;
+			final long remainingNanos = TimeUnit.MILLISECONDS
+					.toNanos(value.getExpiration().getTime() - System.currentTimeMillis());
+			return Math.max(0, Math.min(remainingNanos, this.maxTtlNanos));
+		}
+
+		@Override
+		public long expireAfterUpdate(final String key, final ParsedToken value, final long currentTime,
+				final long currentDuration) {
+			return this.expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(final String key, final ParsedToken value, final long currentTime,
+				final long currentDuration) {
+			return currentDuration;
+		}
+
 	}
 
 }
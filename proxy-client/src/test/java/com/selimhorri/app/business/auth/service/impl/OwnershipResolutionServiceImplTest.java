@@ -0,0 +1,130 @@
+package com.selimhorri.app.business.auth.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.exception.wrapper.OwnershipResolutionException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OwnershipResolutionServiceImplTest {
+
+    private static final String PAYMENT_OWNER_URL = AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_API_URL + "/5/owner";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OwnershipResolutionServiceImpl ownershipResolutionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ownershipResolutionService = new OwnershipResolutionServiceImpl(restTemplate, meterRegistry, 100, 600);
+    }
+
+    @Test
+    void shouldResolvePaymentOwnerInOneCallAndServeFromCache() {
+        given(restTemplate.getForObject(PAYMENT_OWNER_URL, Integer.class)).willReturn(3);
+
+        assertThat(ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS)).isEqualTo("3");
+        assertThat(ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS)).isEqualTo("3");
+
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Integer.class));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", OwnershipResolutionServiceImpl.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepResourceTypesApart() {
+        given(restTemplate.getForObject(PAYMENT_OWNER_URL, Integer.class)).willReturn(3);
+        given(restTemplate.getForObject(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/5/owner", Integer.class))
+                .willReturn(4);
+
+        assertThat(ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS)).isEqualTo("3");
+        assertThat(ownershipResolutionService.getOwner("5", ResourceType.ORDERS)).isEqualTo("4");
+    }
+
+    @Test
+    void shouldReloadAfterEviction() {
+        given(restTemplate.getForObject(PAYMENT_OWNER_URL, Integer.class)).willReturn(3);
+
+        ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS);
+        ownershipResolutionService.evict(ResourceType.PAYMENTS, "5");
+        ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS);
+
+        verify(restTemplate, times(2)).getForObject(PAYMENT_OWNER_URL, Integer.class);
+    }
+
+    @Test
+    void shouldPropagateAndNotCacheFailedLookups() {
+        given(restTemplate.getForObject(PAYMENT_OWNER_URL, Integer.class))
+                .willThrow(HttpClientErrorException.NotFound.class);
+
+        assertThatThrownBy(() -> ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS))
+                .isInstanceOf(OwnershipResolutionException.class)
+                .hasMessageContaining("PAYMENTS with id: 5 not found");
+        assertThatThrownBy(() -> ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS))
+                .isInstanceOf(OwnershipResolutionException.class);
+
+        verify(restTemplate, times(2)).getForObject(PAYMENT_OWNER_URL, Integer.class);
+    }
+
+    @Test
+    void shouldResolveUsersWithoutRemoteCall() {
+        assertThat(ownershipResolutionService.getOwner("9", ResourceType.USERS)).isEqualTo("9");
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void shouldCollapseConcurrentLookupsOfSameResource() throws Exception {
+        final int callers = 8;
+        final CountDownLatch release = new CountDownLatch(1);
+        given(restTemplate.getForObject(PAYMENT_OWNER_URL, Integer.class)).willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 3;
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++)
+                results.add(executor.submit(() -> ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS)));
+            // Da tiempo a que todos los hilos se encolen detrás de la llamada en curso
+            Thread.sleep(200);
+            release.countDown();
+            for (final Future<String> result : results)
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("3");
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        verify(restTemplate, times(1)).getForObject(PAYMENT_OWNER_URL, Integer.class);
+    }
+}
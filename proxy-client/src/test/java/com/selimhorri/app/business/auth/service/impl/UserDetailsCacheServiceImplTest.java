@@ -0,0 +1,92 @@
+package com.selimhorri.app.business.auth.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.selimhorri.app.business.user.model.CredentialDto;
+import com.selimhorri.app.business.user.model.RoleBasedAuthority;
+import com.selimhorri.app.business.user.model.UserDetailsImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsCacheServiceImplTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetailsCacheServiceImpl userDetailsCacheService;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsCacheService = new UserDetailsCacheServiceImpl(userDetailsService, meterRegistry, 100, 300);
+        userDetails = new UserDetailsImpl(CredentialDto.builder()
+                .credentialId(7)
+                .username("selim")
+                .password("secret")
+                .roleBasedAuthority(RoleBasedAuthority.ROLE_USER)
+                .build());
+    }
+
+    @Test
+    void shouldLoadOnceAndServeFromCache() {
+        given(userDetailsService.loadUserByUsername("selim")).willReturn(userDetails);
+
+        assertThat(userDetailsCacheService.getUserDetails("selim")).isSameAs(userDetails);
+        assertThat(userDetailsCacheService.getUserDetails("selim")).isSameAs(userDetails);
+
+        verify(userDetailsService, times(1)).loadUserByUsername("selim");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserDetailsCacheServiceImpl.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReloadAfterEvictionByUsername() {
+        given(userDetailsService.loadUserByUsername("selim")).willReturn(userDetails);
+
+        userDetailsCacheService.getUserDetails("selim");
+        userDetailsCacheService.evictByUsername("selim");
+        userDetailsCacheService.getUserDetails("selim");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("selim");
+    }
+
+    @Test
+    void shouldReloadAfterEvictionByCredentialId() {
+        given(userDetailsService.loadUserByUsername("selim")).willReturn(userDetails);
+
+        userDetailsCacheService.getUserDetails("selim");
+        userDetailsCacheService.evictByCredentialId(7);
+        userDetailsCacheService.getUserDetails("selim");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("selim");
+    }
+
+    @Test
+    void shouldNotCacheFailedLookups() {
+        given(userDetailsService.loadUserByUsername("ghost"))
+                .willThrow(new UsernameNotFoundException("User not found with username: ghost"));
+
+        assertThatThrownBy(() -> userDetailsCacheService.getUserDetails("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> userDetailsCacheService.getUserDetails("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("ghost");
+    }
+}
@@ -0,0 +1,74 @@
+package com.selimhorri.app.business.auth.util;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.auth.service.OwnershipResolutionService;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+
+@ExtendWith(MockitoExtension.class)
+class AuthUtilTest {
+
+    @Mock
+    private OwnershipResolutionService ownershipResolutionService;
+
+    private AuthUtil authUtil;
+    private MockHttpServletRequest request;
+    private UserDetails user;
+
+    @BeforeEach
+    void setUp() {
+        authUtil = new AuthUtil(ownershipResolutionService);
+        request = new MockHttpServletRequest();
+        request.setAttribute("userId", "7");
+        user = new User("selimhorri", "secret", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void shouldLetTheOwnerModifyTheirPayment() {
+        given(ownershipResolutionService.getOwner("5", ResourceType.PAYMENTS)).willReturn("7");
+
+        assertThatCode(() -> authUtil.canActivate(request, "5", ResourceType.PAYMENTS, user))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldRejectAnotherUsersOrder() {
+        given(ownershipResolutionService.getOwner("5", ResourceType.ORDERS)).willReturn("8");
+
+        assertThatThrownBy(() -> authUtil.canActivate(request, "5", ResourceType.ORDERS, user))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void shouldRejectRequestsWithoutAuthenticatedUserId() {
+        given(ownershipResolutionService.getOwner("5", ResourceType.ORDERS)).willReturn("7");
+
+        assertThatThrownBy(() -> authUtil.canActivate(new MockHttpServletRequest(), "5", ResourceType.ORDERS, user))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void shouldNotResolveOwnersForAdmins() {
+        UserDetails admin = new User("admin", "secret", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        assertThatCode(() -> authUtil.canActivate(request, "5", ResourceType.ORDERS, admin))
+                .doesNotThrowAnyException();
+        verifyNoInteractions(ownershipResolutionService);
+    }
+}
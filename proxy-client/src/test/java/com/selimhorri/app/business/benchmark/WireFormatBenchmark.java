@@ -0,0 +1,170 @@
+package com.selimhorri.app.business.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.PaymentStatus;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.business.product.model.CategoryDto;
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.config.mapper.JacksonMapperHelper;
+
+/**
+ * Compares the wire formats the domain services can answer with: the former
+ * pretty-printed JSON, compact JSON (the default now) and Smile, which the
+ * Feign clients and RestTemplates request. Encode and decode cost is measured
+ * per collection response; the payload size of each combination is printed
+ * once per trial.
+ *
+ * Run from the proxy-client module with:
+ * mvn test-compile exec:java -Dexec.mainClass=com.selimhorri.app.business.benchmark.WireFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+	public enum WireFormat {
+		PRETTY_JSON, JSON, SMILE
+	}
+
+	public enum Payload {
+		PRODUCTS, ORDERS, PAYMENTS
+	}
+
+	@Param
+	private WireFormat format;
+
+	@Param
+	private Payload payload;
+
+	@Param({ "200" })
+	private int size;
+
+	private ObjectMapper mapper;
+	private Object value;
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.mapper = mapperFor(this.format);
+		this.value = payloadFor(this.payload, this.size);
+		this.encoded = this.mapper.writeValueAsBytes(this.value);
+		System.out.printf("%n%s %s x%d: %d bytes%n", this.format, this.payload, this.size, this.encoded.length);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return this.mapper.writeValueAsBytes(this.value);
+	}
+
+	@Benchmark
+	public Object decode() throws IOException {
+		return this.mapper.readValue(this.encoded, this.value.getClass());
+	}
+
+	private static ObjectMapper mapperFor(final WireFormat format) {
+		switch (format) {
+		case PRETTY_JSON:
+			return JacksonMapperHelper.jsonMapper().enable(SerializationFeature.INDENT_OUTPUT);
+		case SMILE:
+			return JacksonMapperHelper.smileMapper();
+		default:
+			return JacksonMapperHelper.jsonMapper();
+		}
+	}
+
+	private static Object payloadFor(final Payload payload, final int size) {
+		switch (payload) {
+		case ORDERS:
+			return OrderOrderServiceDtoCollectionResponse.builder()
+					.collection(IntStream.rangeClosed(1, size)
+							.mapToObj(WireFormatBenchmark::order)
+							.collect(Collectors.toList()))
+					.build();
+		case PAYMENTS:
+			return PaymentPaymentServiceDtoCollectionResponse.builder()
+					.collection(IntStream.rangeClosed(1, size)
+							.mapToObj(id -> PaymentDto.builder()
+									.paymentId(id)
+									.isPayed(id % 2 == 0)
+									.paymentStatus(PaymentStatus.IN_PROGRESS)
+									.orderDto(com.selimhorri.app.business.payment.model.OrderDto.builder()
+											.orderId(id)
+											.orderDate(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id))
+											.orderDesc("Order " + id)
+											.orderStatus("IN_PAYMENT")
+											.orderFee(10.0 * id)
+											.build())
+									.build())
+							.collect(Collectors.toList()))
+					.build();
+		default:
+			final CategoryDto category = CategoryDto.builder()
+					.categoryId(1)
+					.categoryTitle("Computers")
+					.imageUrl("https://cdn.example.com/categories/computers.png")
+					.build();
+			final List<ProductDto> products = IntStream.rangeClosed(1, size)
+					.mapToObj(id -> ProductDto.builder()
+							.productId(id)
+							.productTitle("Product " + id)
+							.imageUrl("https://cdn.example.com/products/" + id + ".png")
+							.sku("SKU-" + id)
+							.priceUnit(9.99 * id)
+							.quantity(id % 50)
+							.categoryDto(category)
+							.build())
+					.collect(Collectors.toList());
+			return ProductProductServiceCollectionDtoResponse.builder()
+					.collection(products)
+					.build();
+		}
+	}
+
+	private static OrderDto order(final int id) {
+		return OrderDto.builder()
+				.orderId(id)
+				.orderDate(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id))
+				.orderDesc("Order " + id)
+				.orderStatus("ORDERED")
+				.orderFee(10.0 * id)
+				.build();
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(WireFormatBenchmark.class.getSimpleName())
+				.build())
+				.run();
+	}
+
+}
@@ -23,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.business.product.model.ProductDto;
 import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCursorPageDtoResponse;
 import com.selimhorri.app.business.product.service.ProductClientService;
 
 @Tag("integration")
@@ -85,6 +86,28 @@ class ProductProxyIntegrationTest {
         verify(productClientService, times(1)).findAll();
     }
 
+    @Test
+    void shouldGetProductPageWithCursor() throws Exception {
+        // Mock data
+        ProductProductServiceCursorPageDtoResponse page = ProductProductServiceCursorPageDtoResponse.builder()
+                .collection(List.of(ProductDto.builder().productId(3).productTitle("Product 3").build()))
+                .nextCursor("Mw")
+                .size(1)
+                .build();
+
+        // Mock service call
+        when(productClientService.findPage("Mg", 1, "default")).thenReturn(ResponseEntity.ok(page));
+
+        // Perform request and verify
+        mockMvc.perform(get("/api/products/page?cursor=Mg&size=1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(3))
+                .andExpect(jsonPath("$.nextCursor").value("Mw"));
+
+        verify(productClientService, times(1)).findPage("Mg", 1, "default");
+    }
+
     @Test
     void shouldGetProductById() throws Exception {
         // Mock data
@@ -186,7 +209,7 @@ class ProductProxyIntegrationTest {
                 .build();
 
         // Mock service call
-        when(productClientService.findAll()).thenReturn(ResponseEntity.ok(response));
+        when(productClientService.findAll("price")).thenReturn(ResponseEntity.ok(response));
 
         // Perform request and verify
         mockMvc.perform(get("/api/products?sort=price")
@@ -194,6 +217,7 @@ class ProductProxyIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.collection").isArray());
 
-        verify(productClientService, times(1)).findAll();
+        verify(productClientService, times(1)).findAll("price");
+        verify(productClientService, never()).findAll();
     }
 }
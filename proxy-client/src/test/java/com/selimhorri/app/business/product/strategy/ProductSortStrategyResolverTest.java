@@ -0,0 +1,37 @@
+package com.selimhorri.app.business.product.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.business.product.strategy.impl.DefaultSortStrategy;
+import com.selimhorri.app.business.product.strategy.impl.NewestSortStrategy;
+import com.selimhorri.app.business.product.strategy.impl.PriceSortStrategy;
+import com.selimhorri.app.business.product.strategy.impl.TitleSortStrategy;
+
+class ProductSortStrategyResolverTest {
+
+    private final ProductSortStrategyResolver resolver = new ProductSortStrategyResolver(List.of(
+            new DefaultSortStrategy(), new PriceSortStrategy(), new TitleSortStrategy(), new NewestSortStrategy()));
+
+    @Test
+    void shouldResolveStrategyByNameIgnoringCase() {
+        assertThat(resolver.resolve("PRICE").getSortKey()).isEqualTo("price");
+        assertThat(resolver.resolve("newest").getSortKey()).isEqualTo("newest");
+    }
+
+    @Test
+    void shouldFallBackToDefaultForUnknownOrMissingName() {
+        assertThat(resolver.resolve("asc").getSortKey()).isEqualTo(DefaultSortStrategy.NAME);
+        assertThat(resolver.resolve(null).getSortKey()).isEqualTo(DefaultSortStrategy.NAME);
+    }
+
+    @Test
+    void shouldRequireDefaultStrategy() {
+        assertThatThrownBy(() -> new ProductSortStrategyResolver(List.of(new PriceSortStrategy())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
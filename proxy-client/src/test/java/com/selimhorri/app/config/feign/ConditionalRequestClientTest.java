@@ -0,0 +1,105 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalRequestClientTest {
+
+    private static final String URL = "http://10.0.0.7:8500/product-service/api/products/1";
+
+    @Mock
+    private Client delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConditionalRequestClient conditionalRequestClient;
+    private Request request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        conditionalRequestClient = new ConditionalRequestClient(delegate, meterRegistry, 1024 * 1024, 300);
+        request = Request.create(Request.HttpMethod.GET, URL, Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    @Test
+    void shouldRevalidateWithEtagAndServeStoredBodyOnNotModified() throws Exception {
+        given(delegate.execute(any(Request.class), any()))
+                .willReturn(response(200, "\"v1\"", "{\"productId\":1}"))
+                .willReturn(response(304, "\"v1\"", null));
+
+        Response first = conditionalRequestClient.execute(request, new Request.Options());
+        Response second = conditionalRequestClient.execute(request, new Request.Options());
+
+        assertThat(Util.toString(first.body().asReader(StandardCharsets.UTF_8))).isEqualTo("{\"productId\":1}");
+        assertThat(second.status()).isEqualTo(200);
+        assertThat(Util.toString(second.body().asReader(StandardCharsets.UTF_8))).isEqualTo("{\"productId\":1}");
+
+        ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+        verify(delegate, times(2)).execute(sent.capture(), any());
+        assertThat(sent.getAllValues().get(0).headers()).doesNotContainKey("If-None-Match");
+        assertThat(sent.getAllValues().get(1).headers().get("If-None-Match")).containsExactly("\"v1\"");
+        assertThat(meterRegistry.get("feign.conditional.requests").tag("result", "not_modified").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReplaceStoredBodyWhenRepresentationChanged() throws Exception {
+        given(delegate.execute(any(Request.class), any()))
+                .willReturn(response(200, "\"v1\"", "{\"productId\":1}"))
+                .willReturn(response(200, "\"v2\"", "{\"productId\":1,\"quantity\":3}"))
+                .willReturn(response(304, "\"v2\"", null));
+
+        conditionalRequestClient.execute(request, new Request.Options());
+        conditionalRequestClient.execute(request, new Request.Options());
+        Response third = conditionalRequestClient.execute(request, new Request.Options());
+
+        assertThat(Util.toString(third.body().asReader(StandardCharsets.UTF_8)))
+                .isEqualTo("{\"productId\":1,\"quantity\":3}");
+    }
+
+    @Test
+    void shouldPassThroughResponsesWithoutEtag() throws Exception {
+        Response upstream = response(200, null, "[]");
+        given(delegate.execute(any(Request.class), any())).willReturn(upstream);
+
+        assertThat(conditionalRequestClient.execute(request, new Request.Options())).isSameAs(upstream);
+        conditionalRequestClient.execute(request, new Request.Options());
+
+        ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+        verify(delegate, times(2)).execute(sent.capture(), any());
+        assertThat(sent.getValue().headers()).doesNotContainKey("If-None-Match");
+    }
+
+    private Response response(final int status, final String etag, final String body) {
+        Map<String, Collection<String>> headers = (etag == null) ? Map.of() : Map.of("ETag", List.of(etag));
+        return Response.builder()
+                .status(status)
+                .reason("")
+                .headers(headers)
+                .body(body == null ? null : body.getBytes(StandardCharsets.UTF_8))
+                .request(request)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+@ExtendWith(MockitoExtension.class)
+class DecompressingClientTest {
+
+    private static final String URL = "http://10.0.0.7:8500/product-service/api/products";
+
+    @Mock
+    private Client delegate;
+
+    private DecompressingClient decompressingClient;
+    private Request request;
+
+    @BeforeEach
+    void setUp() {
+        decompressingClient = new DecompressingClient(delegate);
+        request = Request.create(Request.HttpMethod.GET, URL, Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    @Test
+    void shouldAcceptGzipAndInflateCompressedBodies() throws Exception {
+        given(delegate.execute(any(Request.class), any()))
+                .willReturn(response(Map.of(HttpHeaders.CONTENT_ENCODING, List.of("gzip")), gzip("{\"collection\":[]}")));
+
+        Response response = decompressingClient.execute(request, new Request.Options());
+
+        assertThat(Util.toString(response.body().asReader(StandardCharsets.UTF_8))).isEqualTo("{\"collection\":[]}");
+        assertThat(response.headers()).doesNotContainKey(HttpHeaders.CONTENT_ENCODING);
+        ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+        verify(delegate).execute(sent.capture(), any());
+        assertThat(sent.getValue().headers().get(HttpHeaders.ACCEPT_ENCODING)).containsExactly("gzip");
+    }
+
+    @Test
+    void shouldPassUncompressedBodiesThrough() throws Exception {
+        byte[] body = "{\"collection\":[]}".getBytes(StandardCharsets.UTF_8);
+        given(delegate.execute(any(Request.class), any())).willReturn(response(Map.of(), body));
+
+        Response response = decompressingClient.execute(request, new Request.Options());
+
+        assertThat(Util.toString(response.body().asReader(StandardCharsets.UTF_8))).isEqualTo("{\"collection\":[]}");
+    }
+
+    private Response response(Map<String, Collection<String>> headers, byte[] body) {
+        return Response.builder()
+                .status(200)
+                .reason("OK")
+                .headers(headers)
+                .body(body)
+                .request(request)
+                .build();
+    }
+
+    private static byte[] gzip(String content) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
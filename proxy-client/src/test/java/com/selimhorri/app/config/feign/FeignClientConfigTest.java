@@ -0,0 +1,37 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.selimhorri.app.config.client.PreferSmileInterceptor;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+class FeignClientConfigTest {
+
+    private final RequestInterceptor preferSmileRequestInterceptor =
+            new FeignClientConfig().preferSmileRequestInterceptor();
+
+    @Test
+    void shouldAskForSmileBeforeJson() {
+        RequestTemplate template = new RequestTemplate();
+
+        preferSmileRequestInterceptor.apply(template);
+
+        assertThat(template.headers().get(HttpHeaders.ACCEPT))
+                .containsExactly(PreferSmileInterceptor.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Test
+    void shouldKeepAcceptHeaderDeclaredByTheClient() {
+        RequestTemplate template = new RequestTemplate().header(HttpHeaders.ACCEPT, MediaType.TEXT_PLAIN_VALUE);
+
+        preferSmileRequestInterceptor.apply(template);
+
+        assertThat(template.headers().get(HttpHeaders.ACCEPT)).containsExactly(MediaType.TEXT_PLAIN_VALUE);
+    }
+}
@@ -0,0 +1,124 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.selimhorri.app.business.product.service.ProductClientService;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeignResponseCacheTest {
+
+    private static final String CLIENT = "productClientService";
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private SimpleMeterRegistry meterRegistry;
+    private FeignResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Los refrescos se ejecutan a mano para controlar cuándo llega la respuesta nueva
+        cache = new FeignResponseCache(meterRegistry, refreshes::add, Set.of(CLIENT), 100,
+                Duration.ofSeconds(30), Duration.ofSeconds(300), Duration.ofSeconds(3600), now::get);
+    }
+
+    @Test
+    void shouldServeFreshResponsesFromTheCache() throws Throwable {
+        assertThat(get(CLIENT, "findById", new Object[] { "1" }, counting())).isEqualTo(ResponseEntity.ok("v1"));
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(get(CLIENT, "findById", new Object[] { "1" }, counting())).isEqualTo(ResponseEntity.ok("v1"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(count("miss")).isEqualTo(1.0);
+        assertThat(count("hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldServeStaleWhileOneRefreshRuns() throws Throwable {
+        get(CLIENT, "findAll", null, counting());
+        now.addAndGet(Duration.ofSeconds(60).toNanos());
+
+        assertThat(get(CLIENT, "findAll", null, counting())).isEqualTo(ResponseEntity.ok("v1"));
+        assertThat(get(CLIENT, "findAll", null, counting())).isEqualTo(ResponseEntity.ok("v1"));
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.get(0).run();
+        assertThat(get(CLIENT, "findAll", null, counting())).isEqualTo(ResponseEntity.ok("v2"));
+        assertThat(count("stale")).isEqualTo(2.0);
+        assertThat(count("hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldWaitForTheDownstreamOnceTooStale() throws Throwable {
+        get(CLIENT, "findAll", null, counting());
+        now.addAndGet(Duration.ofSeconds(400).toNanos());
+
+        assertThat(get(CLIENT, "findAll", null, counting())).isEqualTo(ResponseEntity.ok("v2"));
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void shouldKeepTheLastKnownGoodResponseForTheFallback() throws Throwable {
+        get(CLIENT, "findAll", new Object[] { "price" }, counting());
+        now.addAndGet(Duration.ofSeconds(400).toNanos());
+        assertThatThrownBy(() -> get(CLIENT, "findAll", new Object[] { "price" }, args -> {
+            throw new IllegalStateException("Product service down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.lastKnownGood(ProductClientService.class, "findAll", "price"))
+                .contains(ResponseEntity.ok("v1"));
+        assertThat(cache.lastKnownGood(ProductClientService.class, "findAll", "title")).isEmpty();
+        assertThat(count("last_known_good")).isEqualTo(1.0);
+        assertThat(count("unavailable")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotStoreErrorResponses() throws Throwable {
+        get(CLIENT, "findById", new Object[] { "1" }, args -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        assertThat(cache.lastKnownGood(ProductClientService.class, "findById", "1")).isEmpty();
+    }
+
+    @Test
+    void shouldDropEverythingOfAClientOnInvalidate() throws Throwable {
+        get(CLIENT, "findById", new Object[] { "1" }, counting());
+        get("categoryClientService", "findById", new Object[] { "1" }, counting());
+
+        cache.invalidate(CLIENT);
+
+        assertThat(cache.lastKnownGood(ProductClientService.class, "findById", "1")).isEmpty();
+        get("categoryClientService", "findById", new Object[] { "1" }, counting());
+        assertThat(loads).hasValue(2);
+    }
+
+    // Sin circuit breaker de por medio: el refresco repite la misma llamada
+    private Object get(final String client, final String method, final Object[] args, final MethodHandler loader) throws Throwable {
+        return cache.get(client, method, args, loader, loader);
+    }
+
+    private MethodHandler counting() {
+        return args -> ResponseEntity.ok("v" + loads.incrementAndGet());
+    }
+
+    private double count(final String result) {
+        return meterRegistry.get("feign.response.cache.requests").tag("client", CLIENT).tag("result", result)
+                .counter().count();
+    }
+}
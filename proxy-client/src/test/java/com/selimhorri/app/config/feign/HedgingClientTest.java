@@ -0,0 +1,157 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.config.hedging.HedgingPolicy;
+import com.selimhorri.app.config.loadbalancer.LoadBalancerStats;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HedgingClientTest {
+
+    private static final String URL = "http://ORDER-SERVICE/order-service/api/orders/1";
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private HedgingPolicy hedgingPolicy;
+    private AtomicInteger attempts;
+    private List<Request> requests;
+    private CountDownLatch releaseSlowAttempt;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        meterRegistry = new SimpleMeterRegistry();
+        // Sin muestras suficientes el retardo es el máximo: 50 ms
+        hedgingPolicy = new HedgingPolicy(meterRegistry, 0.95, 10, 50, 1000, 5);
+        attempts = new AtomicInteger();
+        requests = new CopyOnWriteArrayList<>();
+        releaseSlowAttempt = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowAttempt.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldReturnTheBackupWhenThePrimaryIsSlow() throws Exception {
+        HedgingClient client = new HedgingClient(slowFirst(), hedgingPolicy, executor);
+
+        Response response = client.execute(request(Request.HttpMethod.GET), new Request.Options());
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(Util.toString(response.body().asReader(StandardCharsets.UTF_8))).isEqualTo("attempt 2");
+        assertThat(requests).extracting(request -> request.headers().get(LoadBalancerStats.HEDGE_ID_HEADER))
+                .doesNotContainNull()
+                .containsOnly(requests.get(0).headers().get(LoadBalancerStats.HEDGE_ID_HEADER));
+        assertThat(meterRegistry.get("hedging.wins").tag("winner", "hedge").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldCloseTheSlowAttemptsResponseWhenItArrivesAfterTheBackupWon() throws Exception {
+        CountDownLatch slowResponseClosed = new CountDownLatch(1);
+        HedgingClient client = new HedgingClient((request, options) -> {
+            if (attempts.incrementAndGet() > 1)
+                return response(request, 200, "attempt 2");
+            try {
+                releaseSlowAttempt.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Response.builder()
+                    .request(request)
+                    .status(200)
+                    .headers(Map.of())
+                    .body(new ByteArrayInputStream("attempt 1".getBytes(StandardCharsets.UTF_8)) {
+                        @Override
+                        public void close() {
+                            slowResponseClosed.countDown();
+                        }
+                    }, 9)
+                    .build();
+        }, hedgingPolicy, executor);
+
+        Response response = client.execute(request(Request.HttpMethod.GET), new Request.Options());
+        assertThat(Util.toString(response.body().asReader(StandardCharsets.UTF_8))).isEqualTo("attempt 2");
+
+        // El primario responde cuando la carrera ya está decidida: su conexión vuelve al pool
+        releaseSlowAttempt.countDown();
+        assertThat(slowResponseClosed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldReturnFastResponsesWithoutHedging() throws Exception {
+        releaseSlowAttempt.countDown();
+        HedgingClient client = new HedgingClient(slowFirst(), hedgingPolicy, executor);
+
+        Response response = client.execute(request(Request.HttpMethod.GET), new Request.Options());
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(Util.toString(response.body().asReader(StandardCharsets.UTF_8))).isEqualTo("attempt 1");
+    }
+
+    @Test
+    void shouldNeverHedgeWrites() throws Exception {
+        HedgingClient client = new HedgingClient((request, options) -> {
+            attempts.incrementAndGet();
+            requests.add(request);
+            return response(request, 201, "created");
+        }, hedgingPolicy, executor);
+
+        client.execute(request(Request.HttpMethod.POST), new Request.Options());
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(requests.get(0).headers()).doesNotContainKey(LoadBalancerStats.HEDGE_ID_HEADER);
+    }
+
+    private Client slowFirst() {
+        return (request, options) -> {
+            int attempt = attempts.incrementAndGet();
+            requests.add(request);
+            if (attempt == 1) {
+                try {
+                    releaseSlowAttempt.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return response(request, 200, "attempt " + attempt);
+        };
+    }
+
+    private static Request request(Request.HttpMethod method) {
+        return Request.create(method, URL, Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Response response(Request request, int status, String body) {
+        return Response.builder()
+                .request(request)
+                .status(status)
+                .headers(Map.of())
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.selimhorri.app.config.feign;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResponseCacheCapabilityTest {
+
+    private List<Request> requests;
+    private Resilience4JCircuitBreakerFactory circuitBreakerFactory;
+    private CatalogClient catalogClient;
+
+    @BeforeEach
+    void setUp() {
+        requests = new CopyOnWriteArrayList<>();
+        circuitBreakerFactory = new Resilience4JCircuitBreakerFactory();
+        catalogClient = client(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldAnswerRepeatedReadsFromTheCache() {
+        assertThat(catalogClient.findById("1")).isEqualTo("body 1");
+        assertThat(catalogClient.findById("1")).isEqualTo("body 1");
+        assertThat(catalogClient.findById("2")).isEqualTo("body 2");
+
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void shouldInvalidateTheClientAfterAWrite() {
+        catalogClient.findById("1");
+        catalogClient.save("product");
+        catalogClient.findById("1");
+
+        assertThat(requests).extracting(Request::httpMethod)
+                .containsExactly(Request.HttpMethod.GET, Request.HttpMethod.POST, Request.HttpMethod.GET);
+    }
+
+    @Test
+    void shouldNotCacheRawResponses() {
+        catalogClient.stream().close();
+        catalogClient.stream().close();
+
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void shouldNotRefreshInTheBackgroundWhileTheCircuitBreakerIsOpen() throws Exception {
+        // Sin TTL cada lectura posterior es vieja y lanza un refresco, aquí en el mismo hilo
+        catalogClient = client(Duration.ZERO);
+        assertThat(catalogClient.findById("1")).isEqualTo("body 1");
+
+        circuitBreakerFactory.getCircuitBreakerRegistry()
+                .circuitBreaker(Feign.configKey(CatalogClient.class, CatalogClient.class.getMethod("findById", String.class)))
+                .transitionToOpenState();
+        assertThat(catalogClient.findById("1")).isEqualTo("body 1");
+        assertThat(requests).hasSize(1);
+
+        circuitBreakerFactory.getCircuitBreakerRegistry().getAllCircuitBreakers()
+                .forEach(CircuitBreaker::transitionToClosedState);
+        catalogClient.findById("1");
+        assertThat(requests).hasSize(2);
+    }
+
+    private CatalogClient client(final Duration ttl) {
+        final FeignResponseCache cache = new FeignResponseCache(new SimpleMeterRegistry(), Runnable::run,
+                Set.of("catalogClient"), 100, ttl, Duration.ofSeconds(300), Duration.ofSeconds(3600));
+        return Feign.builder()
+                .contract(new SpringMvcContract())
+                .client(recording())
+                .addCapability(new ResponseCacheCapability(cache, circuitBreakerFactory))
+                .target(CatalogClient.class, "http://PRODUCT-SERVICE");
+    }
+
+    private Client recording() {
+        return (request, options) -> {
+            requests.add(request);
+            return Response.builder()
+                    .status(200)
+                    .reason("OK")
+                    .headers(Map.of())
+                    .body("body " + requests.size(), StandardCharsets.UTF_8)
+                    .request(request)
+                    .build();
+        };
+    }
+
+    interface CatalogClient {
+
+        @GetMapping("/products/{productId}")
+        String findById(@PathVariable("productId") String productId);
+
+        @GetMapping("/products/stream")
+        Response stream();
+
+        @PostMapping("/products")
+        String save(@RequestBody String product);
+    }
+}
@@ -0,0 +1,116 @@
+package com.selimhorri.app.config.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.selimhorri.app.exception.wrapper.ConcurrencyLimitExceededException;
+
+import feign.Request;
+import feign.RetryableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimitAspectTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private GuardedService service;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), 1, 1, 10, 1.5, 0.2, 0.5, 600);
+        final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new GuardedService());
+        proxyFactory.addAspect(new AdaptiveConcurrencyLimitAspect(limiter));
+        service = proxyFactory.getProxy();
+    }
+
+    @Test
+    void shouldRejectWhileThePermitIsHeld() throws InterruptedException {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread holder = new Thread(() -> service.await(entered, release));
+        holder.start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> service.call())
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        release.countDown();
+        holder.join(5000);
+        assertThat(service.call()).isEqualTo("ok");
+        assertThat(limiter.limit("productClientService").getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldReleaseAndBackOffWhenTheCallTimesOut() {
+        final GuardedService failing = guardedWithLimit(4);
+
+        assertThatThrownBy(failing::timeOut).isInstanceOf(RetryableException.class);
+
+        assertThat(limiter.limit("productClientService").getInFlight()).isZero();
+        assertThat(limiter.limit("productClientService").getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReleaseWithoutBackingOffWhenTheCallFailsForAnotherReason() {
+        final GuardedService failing = guardedWithLimit(4);
+
+        assertThatThrownBy(failing::fail).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(failing::rejectNested).isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        assertThat(limiter.limit("productClientService").getInFlight()).isZero();
+        assertThat(limiter.limit("productClientService").getLimit()).isEqualTo(4);
+    }
+
+    private GuardedService guardedWithLimit(final int initialLimit) {
+        limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), initialLimit, 1, 10, 1.5, 0.2, 0.5, 600);
+        final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new GuardedService());
+        proxyFactory.addAspect(new AdaptiveConcurrencyLimitAspect(limiter));
+        return proxyFactory.getProxy();
+    }
+
+    static class GuardedService {
+
+        @AdaptiveConcurrencyLimit(name = "productClientService")
+        public String call() {
+            return "ok";
+        }
+
+        @AdaptiveConcurrencyLimit(name = "productClientService")
+        public void await(final CountDownLatch entered, final CountDownLatch release) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @AdaptiveConcurrencyLimit(name = "productClientService")
+        public void fail() {
+            throw new IllegalStateException("Invalid sort strategy");
+        }
+
+        @AdaptiveConcurrencyLimit(name = "productClientService")
+        public void rejectNested() {
+            throw new ConcurrencyLimitExceededException("Concurrency limit of a nested call reached");
+        }
+
+        @AdaptiveConcurrencyLimit(name = "productClientService")
+        public void timeOut() {
+            final Request request = Request.create(Request.HttpMethod.GET, "http://PRODUCT-SERVICE/api/products",
+                    Map.of(), null, StandardCharsets.UTF_8, null);
+            throw new RetryableException(-1, "Read timed out", Request.HttpMethod.GET,
+                    new SocketTimeoutException("Read timed out"), null, request);
+        }
+    }
+}
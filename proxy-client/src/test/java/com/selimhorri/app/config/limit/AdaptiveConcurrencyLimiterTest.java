@@ -0,0 +1,108 @@
+package com.selimhorri.app.config.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASELINE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 10, 2, 100, 1.5, 0.2, 0.9, 600);
+    }
+
+    @Test
+    void shouldRejectCallsOverTheLimit() {
+        final AdaptiveConcurrencyLimiter.Limit limit = limiter.limit("productClientService");
+
+        for (int i = 0; i < 10; i++)
+            assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        assertThat(limit.getInFlight()).isEqualTo(10);
+        assertThat(meterRegistry.get("concurrency.limit.rejections").tag("name", "productClientService")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("concurrency.limit.inflight").tag("name", "productClientService")
+                .gauge().value()).isEqualTo(10.0);
+    }
+
+    @Test
+    void shouldGrowWhileSaturatedAndLatencyIsSteady() {
+        final AdaptiveConcurrencyLimiter.Limit limit = limiter.limit("productClientService");
+
+        for (int round = 0; round < 20; round++)
+            saturate(limit, BASELINE_RTT);
+
+        assertThat(limit.getLimit()).isGreaterThan(10);
+        assertThat(meterRegistry.get("concurrency.limit").tag("name", "productClientService")
+                .gauge().value()).isEqualTo(limit.getLimit());
+    }
+
+    @Test
+    void shouldNotGrowWhenMostlyIdle() {
+        final AdaptiveConcurrencyLimiter.Limit limit = limiter.limit("productClientService");
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.onSuccess(BASELINE_RTT);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() {
+        final AdaptiveConcurrencyLimiter.Limit limit = limiter.limit("productClientService");
+        for (int round = 0; round < 20; round++)
+            saturate(limit, BASELINE_RTT);
+        final int grown = limit.getLimit();
+
+        for (int round = 0; round < 5; round++)
+            saturate(limit, BASELINE_RTT * 5);
+
+        assertThat(limit.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void shouldBackOffOnDropsButNotBelowMinimum() {
+        final AdaptiveConcurrencyLimiter.Limit limit = limiter.limit("productClientService");
+
+        limit.tryAcquire();
+        limit.onDropped();
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.onDropped();
+        }
+        assertThat(limit.getLimit()).isEqualTo(2);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldKeepOneLimitPerName() {
+        limiter.limit("productClientService").tryAcquire();
+
+        assertThat(limiter.limit("productClientService").getInFlight()).isEqualTo(1);
+        assertThat(limiter.limit("userClientService").getInFlight()).isZero();
+    }
+
+    private static void saturate(final AdaptiveConcurrencyLimiter.Limit limit, final long rttNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire())
+            acquired++;
+        for (int i = 0; i < acquired; i++)
+            limit.onSuccess(rttNanos);
+    }
+}
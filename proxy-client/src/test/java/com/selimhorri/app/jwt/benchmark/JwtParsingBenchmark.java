@@ -0,0 +1,90 @@
+package com.selimhorri.app.jwt.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.selimhorri.app.jwt.model.ParsedToken;
+import com.selimhorri.app.jwt.util.impl.JwtUtilImpl;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Compares the JWT work done by JwtRequestFilter per request: the former
+ * path that parsed and verified the token four times, a single verification,
+ * and the digest-cached verification used now.
+ *
+ * Run from the proxy-client module with:
+ * mvn test-compile exec:java -Dexec.mainClass=com.selimhorri.app.jwt.benchmark.JwtParsingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+	private JwtUtilImpl jwtUtil;
+	private UserDetails userDetails;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		this.jwtUtil = new JwtUtilImpl(10_000, 600);
+		this.userDetails = new User("selimhorri", "secret", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+		this.token = this.jwtUtil.generateToken(this.userDetails, "1");
+	}
+
+	@Benchmark
+	public void parsePerClaim(final Blackhole blackhole) {
+		final String username = this.jwtUtil.extractClaims(this.token, Claims::getSubject);
+		final String subject = this.jwtUtil.extractClaims(this.token, Claims::getSubject);
+		final boolean expired = this.jwtUtil.extractClaims(this.token, Claims::getExpiration)
+				.before(new java.util.Date());
+		final String userId = this.jwtUtil.extractClaims(this.token, claims -> claims.get("userId", String.class));
+		blackhole.consume(username.equals(this.userDetails.getUsername()) && subject.equals(username) && !expired);
+		blackhole.consume(userId);
+	}
+
+	@Benchmark
+	public void parseOnceUncached(final Blackhole blackhole) {
+		final Claims claims = this.jwtUtil.extractClaims(this.token, c -> c);
+		final ParsedToken parsedToken = new ParsedToken(claims.getSubject(), claims.get("userId", String.class),
+				claims.getExpiration());
+		blackhole.consume(parsedToken.isValidFor(this.userDetails));
+		blackhole.consume(parsedToken.getUserId());
+	}
+
+	@Benchmark
+	public void parseOnceCached(final Blackhole blackhole) {
+		final ParsedToken parsedToken = this.jwtUtil.parseToken(this.token);
+		blackhole.consume(parsedToken.isValidFor(this.userDetails));
+		blackhole.consume(parsedToken.getUserId());
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtParsingBenchmark.class.getSimpleName())
+				.build())
+				.run();
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.selimhorri.app.jwt.util.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.selimhorri.app.jwt.model.ParsedToken;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+
+class JwtUtilImplTest {
+
+    private JwtUtilImpl jwtUtil;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtilImpl(100, 600);
+        userDetails = new User("selimhorri", "secret", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void shouldExposeSubjectUserIdAndExpiryFromOneParse() {
+        String token = jwtUtil.generateToken(userDetails, "42");
+
+        ParsedToken parsedToken = jwtUtil.parseToken(token);
+
+        assertThat(parsedToken.getUsername()).isEqualTo("selimhorri");
+        assertThat(parsedToken.getUserId()).isEqualTo("42");
+        assertThat(parsedToken.isExpired()).isFalse();
+        assertThat(parsedToken.isValidFor(userDetails)).isTrue();
+    }
+
+    @Test
+    void shouldServeRepeatedTokensFromVerifiedCache() {
+        String token = jwtUtil.generateToken(userDetails, "42");
+
+        assertThat(jwtUtil.parseToken(token)).isSameAs(jwtUtil.parseToken(token));
+        assertThat(jwtUtil.validateToken(token, userDetails)).isTrue();
+        assertThat(jwtUtil.extractUserId(token)).isEqualTo("42");
+    }
+
+    @Test
+    void shouldRejectTamperedTokens() {
+        String token = jwtUtil.generateToken(userDetails, "42");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtUtil.parseToken(tampered)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void shouldRejectTokensWithoutExpiryInsteadOfFailing() {
+        String token = Jwts.builder()
+                .setSubject("selimhorri")
+                .claim("userId", "42")
+                .signWith(SignatureAlgorithm.HS256, "secret")
+                .compact();
+
+        ParsedToken parsedToken = jwtUtil.parseToken(token);
+
+        assertThat(parsedToken.getExpiration()).isNull();
+        assertThat(parsedToken.isExpired()).isTrue();
+        assertThat(jwtUtil.validateToken(token, userDetails)).isFalse();
+        assertThat(jwtUtil.parseToken(token)).isNotSameAs(parsedToken);
+    }
+
+    @Test
+    void shouldNotValidateTokenForAnotherUser() {
+        String token = jwtUtil.generateToken(userDetails, "42");
+        UserDetails other = new User("someone", "secret", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        assertThat(jwtUtil.parseToken(token).isValidFor(other)).isFalse();
+    }
+}
@@ -1,22 +1,21 @@
 package com.selimhorri.app.config.client;
 
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+
 @Configuration
 public class ClientConfig {
-
+	
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
-		CloseableHttpClient httpClient = HttpClients.createDefault();
-		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
-		return new RestTemplate(requestFactory);
+	public RestTemplate restTemplateBean(final CloseableHttpClient outboundHttpClient, final DeadlineMetrics deadlineMetrics) {
+		// Pool, timeouts y métricas compartidos en commons; aquí solo el bean balanceado
+		return HttpClientConfig.restTemplate(outboundHttpClient, deadlineMetrics);
 	}
-
+	
 }
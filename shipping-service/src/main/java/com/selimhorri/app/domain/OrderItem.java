@@ -41,4 +41,8 @@ public final class OrderItem extends AbstractMappedEntity implements Serializabl
 	@Column(name = "is_active")
 	private boolean isActive;
 
+	// Reserva de stock que respalda la línea; al retirarla se cancela para devolver sus unidades
+	@Column(name = "reservation_id")
+	private String reservationId;
+
 }
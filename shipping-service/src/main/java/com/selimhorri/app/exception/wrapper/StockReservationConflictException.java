@@ -0,0 +1,36 @@
+package com.selimhorri.app.exception.wrapper;
+
+// PRODUCT-SERVICE no pudo reservar el stock de la línea por un conflicto que reintentar no resuelve
+public class StockReservationConflictException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public StockReservationConflictException() {
+		super();
+	}
+	
+	public StockReservationConflictException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public StockReservationConflictException(String message) {
+		super(message);
+	}
+	
+	public StockReservationConflictException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
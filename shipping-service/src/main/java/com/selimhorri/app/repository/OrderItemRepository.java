@@ -10,5 +10,7 @@ import com.selimhorri.app.domain.OrderItem;
 public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
     List<OrderItem> findByIsActiveTrue();
     Optional<OrderItem> findByOrderIdAndIsActiveTrue(Integer orderId); // Cambiado de "Id" a "OrderId"
+    Optional<OrderItem> findByReservationIdAndIsActiveTrue(String reservationId);
+    boolean existsByReservationIdAndIsActiveTrue(String reservationId);
 
 }
@@ -12,12 +12,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.config.deadline.ReactiveDeadlines;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.OrderItemService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/shippings")
@@ -28,16 +30,20 @@ public class OrderItemResource {
 	private final OrderItemService orderItemService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> findAll() {
+	public Mono<ResponseEntity<DtoCollectionResponse<OrderItemDto>>> findAll() {
 		log.info("*** OrderItemDto List, controller; fetch all orderItems *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderItemService.findAll()));
+		return this.orderItemService.findAll()
+				.map(orderItemDtos -> ResponseEntity.ok(new DtoCollectionResponse<>(orderItemDtos)))
+				.transform(ReactiveDeadlines::bind);
 	}
 	
 	@GetMapping("/{orderId}")
-	public ResponseEntity<OrderItemDto> findById(
+	public Mono<ResponseEntity<OrderItemDto>> findById(
 			@PathVariable("orderId") final String orderId) {
 		log.info("*** OrderItemDto, resource; fetch orderItem by id *");
-		return ResponseEntity.ok(this.orderItemService.findById(Integer.parseInt(orderId)));
+		return this.orderItemService.findById(Integer.parseInt(orderId))
+				.map(ResponseEntity::ok)
+				.transform(ReactiveDeadlines::bind);
 	}
 	
 	@PostMapping
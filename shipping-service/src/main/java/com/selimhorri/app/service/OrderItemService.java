@@ -4,10 +4,12 @@ import java.util.List;
 
 import com.selimhorri.app.dto.OrderItemDto;
 
+import reactor.core.publisher.Mono;
+
 public interface OrderItemService {
 	
-	List<OrderItemDto> findAll();
-	OrderItemDto findById(final int shippingId);
+	Mono<List<OrderItemDto>> findAll();
+	Mono<OrderItemDto> findById(final int shippingId);
 	OrderItemDto save(final OrderItemDto orderItemDto);
 	void deleteById(final int shippingId);
 	
@@ -1,13 +1,20 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClientException;
 
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.OrderItem;
@@ -15,13 +22,20 @@ import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.OrderStatus;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationLineDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationConflictException;
 import com.selimhorri.app.helper.OrderItemMappingHelper;
 import com.selimhorri.app.repository.OrderItemRepository;
 import com.selimhorri.app.service.OrderItemService;
+import com.selimhorri.app.service.RemoteResourceService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 @Transactional
@@ -29,122 +43,125 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderItemServiceImpl implements OrderItemService {
 
+	private static final String STOCK_RESERVATIONS_URL = AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/reservations";
+	private static final Set<String> RELEASED_RESERVATION_STATUSES = Set.of("CANCELED", "EXPIRED");
+	private static final String PENDING_RESERVATION_STATUS = "PENDING";
+	private static final String CONFIRMED_RESERVATION_STATUS = "CONFIRMED";
+	private static final int MAX_RESERVATION_GENERATIONS = 5;
+	// Códigos de PRODUCT-SERVICE en la cabecera de sus 409
+	private static final String INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+	private static final String RESERVATION_LINES_MISMATCH = "RESERVATION_LINES_MISMATCH";
+
 	private final OrderItemRepository orderItemRepository;
 	private final RestTemplate restTemplate;
+	private final RemoteResourceService remoteResourceService;
 
 	@Override
-	public List<OrderItemDto> findAll() {
+	public Mono<List<OrderItemDto>> findAll() {
 		log.info("*** OrderItemDto List, service; fetch all active orderItems *");
-		return this.orderItemRepository.findByIsActiveTrue()
-				.stream()
-				.map(OrderItemMappingHelper::map)
-				.filter(o -> {
-					// Verificar producto
-					if (o.getProductDto() != null && o.getProductDto().getProductId() != null) {
-						try {
-							ProductDto product = this.restTemplate.getForObject(
-									AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/" +
-											o.getProductDto().getProductId(),
-									ProductDto.class);
-							if (product == null) {
-								log.warn("Product {} not found", o.getProductDto().getProductId());
-								return false;
-							}
-							o.setProductDto(product);
-						} catch (RestClientException e) {
-							log.warn("Failed to fetch product with id: {}", o.getProductDto().getProductId(), e);
-							return false;
-						}
-					} else {
-						return false;
-					}
+		return Mono.fromCallable(this.orderItemRepository::findByIsActiveTrue)
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMap(this::enrich);
+	}
 
-					// Verificar orden
-					if (o.getOrderDto() != null && o.getOrderDto().getOrderId() != null) {
-						try {
-							OrderDto order = this.restTemplate.getForObject(
-									AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" +
-											o.getOrderDto().getOrderId(),
-									OrderDto.class);
-							if (order == null) {
-								log.warn("Order {} not found", o.getOrderDto().getOrderId());
-								return false;
-							}
-							System.out.println("====================");
-							System.out.println(OrderStatus.ORDERED.name());
-							System.out.println(order.getOrderStatus());
-							System.out.println("====================");
-
-							if (!OrderStatus.ORDERED.name().equals(order.getOrderStatus())) {
-								return false;
-							}
-							o.setOrderDto(order);
-						} catch (RestClientException e) {
-							log.warn("Failed to fetch order with id: {}", o.getOrderDto().getOrderId(), e);
-							return false;
-						}
-					} else {
-						return false;
-					}
+	// Productos y órdenes se piden a la vez; el hilo no espera la suma de ambas latencias
+	private Mono<List<OrderItemDto>> enrich(final List<OrderItem> orderItems) {
+		final Set<Integer> productIds = orderItems.stream()
+				.map(OrderItem::getProductId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		final Set<Integer> orderIds = orderItems.stream()
+				.map(OrderItem::getOrderId)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		if (productIds.isEmpty() || orderIds.isEmpty())
+			return Mono.just(List.of());
+
+		final Mono<Map<Integer, ProductDto>> products = this.remoteResourceService.findAllByIds(
+				AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/bulk", "productIds", productIds,
+				Map.of(), new ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>() {},
+				DtoCollectionResponse::getCollection, ProductDto::getProductId)
+				.onErrorResume(e -> this.logAndSkip("products", e));
+		final Mono<Map<Integer, OrderDto>> orders = this.remoteResourceService.findAllByIds(
+				AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/bulk", "orderIds", orderIds,
+				Map.of("status", OrderStatus.ORDERED.name()),
+				new ParameterizedTypeReference<DtoCollectionResponse<OrderDto>>() {},
+				DtoCollectionResponse::getCollection, OrderDto::getOrderId)
+				.onErrorResume(e -> this.logAndSkip("orders", e));
+
+		return Mono.zip(products, orders)
+				.map(resolved -> {
+					final Map<Integer, ProductDto> productsById = resolved.getT1();
+					final Map<Integer, OrderDto> ordersById = resolved.getT2();
+					return orderItems.stream()
+							.map(OrderItemMappingHelper::map)
+							.filter(o -> productsById.containsKey(o.getProductId()))
+							.filter(o -> {
+								final OrderDto order = ordersById.get(o.getOrderId());
+								return order != null && OrderStatus.ORDERED.name().equals(order.getOrderStatus());
+							})
+							.map(o -> {
+								o.setProductDto(productsById.get(o.getProductId()));
+								o.setOrderDto(ordersById.get(o.getOrderId()));
+								return o;
+							})
+							.distinct()
+							.collect(Collectors.toUnmodifiableList());
+				});
+	}
 
-					return true;
-				})
-				.distinct()
-				.collect(Collectors.toUnmodifiableList());
+	private <T> Mono<Map<Integer, T>> logAndSkip(final String resource, final Throwable e) {
+		log.warn("Failed to fetch {} for order items: {}", resource, e.getMessage());
+		return Mono.just(Map.of());
 	}
 
 	@Override
-	public OrderItemDto findById(final int orderItemId) {
+	public Mono<OrderItemDto> findById(final int orderItemId) {
 		log.info("*** OrderItemDto, service; fetch orderItem by id *");
+		return Mono.fromCallable(() -> this.orderItemRepository.findById(orderItemId)
+						.filter(OrderItem::isActive)
+						.orElseThrow(() -> new OrderItemNotFoundException(
+								String.format("Active OrderItem with id: %s not found", orderItemId))))
+				.subscribeOn(Schedulers.boundedElastic())
+				.map(OrderItemMappingHelper::map)
+				.flatMap(dto -> this.resolveProductAndOrder(orderItemId, dto));
+	}
 
-		OrderItem orderItem = this.orderItemRepository.findById(orderItemId)
-				.filter(OrderItem::isActive)
-				.orElseThrow(() -> new OrderItemNotFoundException(
-						String.format("Active OrderItem with id: %s not found", orderItemId)));
-
-		OrderItemDto dto = OrderItemMappingHelper.map(orderItem);
+	private Mono<OrderItemDto> resolveProductAndOrder(final int orderItemId, final OrderItemDto dto) {
+		if (dto.getOrderDto() == null || dto.getOrderDto().getOrderId() == null)
+			return Mono.error(new OrderItemNotFoundException("No associated order found for this order item"));
 
 		// Verificar y cargar producto
-		if (dto.getProductDto() != null && dto.getProductDto().getProductId() != null) {
-			try {
-				ProductDto product = this.restTemplate.getForObject(
-						AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/" +
-								dto.getProductDto().getProductId(),
-						ProductDto.class);
-				dto.setProductDto(product);
-			} catch (RestClientException e) {
-				log.error("Failed to fetch product details for order item: {}", orderItemId, e);
-				throw new OrderItemNotFoundException("Product information not available for this order item");
-			}
-		}
+		final Mono<Optional<ProductDto>> product = (dto.getProductDto() == null || dto.getProductDto().getProductId() == null)
+				? Mono.just(Optional.ofNullable(dto.getProductDto()))
+				: this.remoteResourceService.findOne(
+						AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/" + dto.getProductDto().getProductId(),
+						ProductDto.class)
+					.map(Optional::of)
+					.defaultIfEmpty(Optional.empty())
+					.onErrorMap(WebClientException.class, e -> {
+						log.error("Failed to fetch product details for order item: {}", orderItemId, e);
+						return new OrderItemNotFoundException("Product information not available for this order item");
+					});
 
 		// Verificar y cargar orden, y comprobar su estado
-		if (dto.getOrderDto() != null && dto.getOrderDto().getOrderId() != null) {
-			try {
-				OrderDto order = this.restTemplate.getForObject(
-						AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" +
-								dto.getOrderDto().getOrderId(),
-						OrderDto.class);
-
-				if (order == null) {
-					throw new OrderItemNotFoundException("Associated order not found");
-				}
-
-				// Verificar que el estado sea ORDERED
-				if (!OrderStatus.ORDERED.name().equals(order.getOrderStatus())) {
-					throw new OrderItemNotFoundException("Shipping not found");
-				}
-
-				dto.setOrderDto(order);
-			} catch (RestClientException e) {
-				log.error("Failed to fetch order details for order item: {}", orderItemId, e);
-				throw new OrderItemNotFoundException("Order information not available for this order item");
-			}
-		} else {
-			throw new OrderItemNotFoundException("No associated order found for this order item");
-		}
-
-		return dto;
+		final Mono<OrderDto> order = this.remoteResourceService.findOne(
+						AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + dto.getOrderDto().getOrderId(),
+						OrderDto.class)
+				.onErrorMap(WebClientException.class, e -> {
+					log.error("Failed to fetch order details for order item: {}", orderItemId, e);
+					return new OrderItemNotFoundException("Order information not available for this order item");
+				})
+				.switchIfEmpty(Mono.error(() -> new OrderItemNotFoundException("Associated order not found")))
+				.filter(o -> OrderStatus.ORDERED.name().equals(o.getOrderStatus()))
+				.switchIfEmpty(Mono.error(() -> new OrderItemNotFoundException("Shipping not found")));
+
+		return Mono.zip(product, order)
+				.map(resolved -> {
+					dto.setProductDto(resolved.getT1().orElse(null));
+					dto.setOrderDto(resolved.getT2());
+					return dto;
+				});
 	}
 
 	@Override
@@ -177,31 +194,32 @@ public class OrderItemServiceImpl implements OrderItemService {
 			throw new OrderItemNotFoundException("Error verifying order existence: " + e.getMessage());
 		}
 
-		// Verify the product exists
+		// Reservar en vez de leer y comparar: dos compras concurrentes ya no pueden vender la misma unidad
+		final StockReservationDto reservation = this.reserveStock(orderItemDto);
+		final String reservationId = reservation.getReservationId();
+		// Reintento de un checkout que ya terminó: su línea y su reserva confirmada se devuelven tal cual, sin tocarlas
+		if (CONFIRMED_RESERVATION_STATUS.equals(reservation.getStatus()))
+			return this.orderItemRepository.findByReservationIdAndIsActiveTrue(reservationId)
+					.map(OrderItemMappingHelper::map)
+					.orElseThrow(() -> new OrderItemNotFoundException(
+							"Order item holding stock reservation " + reservationId + " not found"));
+
+		final OrderItemDto savedItem;
 		try {
-			ProductDto product = this.restTemplate.getForObject(
-					AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/"
-							+ orderItemDto.getProductId(),
-					ProductDto.class);
-
-			if (product == null) {
-				throw new OrderItemNotFoundException(
-						"Product with ID " + orderItemDto.getProductId() + " not found");
-			}
-
-			if (product.getQuantity() < orderItemDto.getOrderedQuantity()) {
-				throw new IllegalArgumentException(
-						"You cannot order more units than there is available, available units: "
-								+ product.getQuantity());
-			}
-		} catch (RestClientException e) {
-			throw new OrderItemNotFoundException("Error verifying product existence: " + e.getMessage());
+			final OrderItem orderItem = OrderItemMappingHelper.mapForCreation(orderItemDto);
+			orderItem.setReservationId(reservationId);
+			// Se fuerza el INSERT antes de confirmar: un fallo al guardar no deja stock confirmado sin línea
+			savedItem = OrderItemMappingHelper.map(this.orderItemRepository.saveAndFlush(orderItem));
+			this.restTemplate.patchForObject(STOCK_RESERVATIONS_URL + "/" + reservationId + "/confirm",
+					null, StockReservationDto.class);
+		} catch (RuntimeException e) {
+			// Solo si sigue pendiente: si otro checkout de la misma línea ya la confirmó, esas unidades son suyas
+			this.cancelPendingStock(reservationId);
+			if (e instanceof RestClientException)
+				throw new OrderItemNotFoundException("Error confirming product stock reservation: " + e.getMessage());
+			throw e;
 		}
 
-		// Save the order item
-		OrderItemDto savedItem = OrderItemMappingHelper.map(
-				this.orderItemRepository.save(OrderItemMappingHelper.mapForCreation(orderItemDto)));
-
 		// Update order status after successful save
 		try {
 			String patchUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
@@ -220,6 +238,70 @@ public class OrderItemServiceImpl implements OrderItemService {
 		return savedItem;
 	}
 
+	private StockReservationDto reserveStock(final OrderItemDto orderItemDto) {
+		// Id derivado de la orden y el producto: un checkout reintentado recibe de PRODUCT-SERVICE la misma reserva sin descontar otra vez
+		final String baseReservationId = orderItemDto.getOrderId() + ":" + orderItemDto.getProductId();
+		for (int generation = 1; generation <= MAX_RESERVATION_GENERATIONS; generation++) {
+			final String reservationId = (generation == 1) ? baseReservationId : baseReservationId + ":" + generation;
+			// Vacía si el id ya lo tiene una reserva con otras líneas (el checkout se reintentó con otra cantidad)
+			final Optional<StockReservationDto> reserved = this.postReservation(reservationId, orderItemDto);
+			// Devuelta o consumida por una línea ya retirada no sirve: se pasa a la siguiente, igual de determinista
+			if (reserved.isPresent() && this.isReusable(reserved.get()))
+				return reserved.get();
+		}
+		throw new StockReservationConflictException(String.format(
+				"Stock of product with ID %d was reserved and released %d times for order with ID %d",
+				orderItemDto.getProductId(), MAX_RESERVATION_GENERATIONS, orderItemDto.getOrderId()));
+	}
+
+	private boolean isReusable(final StockReservationDto reservation) {
+		if (CONFIRMED_RESERVATION_STATUS.equals(reservation.getStatus()))
+			return this.orderItemRepository.existsByReservationIdAndIsActiveTrue(reservation.getReservationId());
+		return reservation.getStatus() == null || !RELEASED_RESERVATION_STATUSES.contains(reservation.getStatus());
+	}
+
+	private Optional<StockReservationDto> postReservation(final String reservationId, final OrderItemDto orderItemDto) {
+		final StockReservationDto reservation = StockReservationDto.builder()
+				.reservationId(reservationId)
+				.lines(List.of(StockReservationLineDto.builder()
+						.productId(orderItemDto.getProductId())
+						.quantity(orderItemDto.getOrderedQuantity())
+						.build()))
+				.build();
+		try {
+			return Optional.of(Optional.ofNullable(
+					this.restTemplate.postForObject(STOCK_RESERVATIONS_URL, reservation, StockReservationDto.class))
+					.orElseGet(() -> StockReservationDto.builder().reservationId(reservationId).build()));
+		} catch (HttpClientErrorException.Conflict e) {
+			final String errorCode = (e.getResponseHeaders() == null) ? null
+					: e.getResponseHeaders().getFirst(AppConstant.ERROR_CODE_HEADER);
+			if (RESERVATION_LINES_MISMATCH.equals(errorCode))
+				return Optional.empty();
+			if (INSUFFICIENT_STOCK.equals(errorCode))
+				throw new IllegalArgumentException(
+						"You cannot order more units than there is available for product with ID "
+								+ orderItemDto.getProductId());
+			throw new StockReservationConflictException("Error reserving product stock: " + e.getMessage());
+		} catch (HttpClientErrorException.NotFound e) {
+			throw new OrderItemNotFoundException(
+					"Product with ID " + orderItemDto.getProductId() + " not found");
+		} catch (RestClientException e) {
+			throw new OrderItemNotFoundException("Error reserving product stock: " + e.getMessage());
+		}
+	}
+
+	private void cancelPendingStock(final String reservationId) {
+		try {
+			this.restTemplate.patchForObject(STOCK_RESERVATIONS_URL + "/" + reservationId + "/cancel?expectedStatus="
+					+ PENDING_RESERVATION_STATUS, null, StockReservationDto.class);
+		} catch (HttpClientErrorException.Conflict e) {
+			log.info("Stock reservation {} is held by another checkout of the same line, keeping it", reservationId);
+		} catch (RestClientException e) {
+			// Si la cancelación no llega, la reserva caduca sola y PRODUCT-SERVICE devuelve las unidades
+			log.warn("Failed to cancel stock reservation {}: {}", reservationId, e.getMessage());
+		}
+	}
+
 	@Override
 	@Transactional
 	public void deleteById(final int orderItemId) {
@@ -244,12 +326,17 @@ public class OrderItemServiceImpl implements OrderItemService {
 						}
 
 						orderItem.setActive(false);
-						this.orderItemRepository.save(orderItem);
+						// Se fuerza el UPDATE antes de devolver el stock: un fallo al guardar no deja activa una línea con la reserva ya cancelada
+						this.orderItemRepository.saveAndFlush(orderItem);
+						// Una reserva confirmada no caduca: sin cancelarla, las unidades de la línea retirada no vuelven al stock
+						if (orderItem.getReservationId() != null)
+							this.restTemplate.patchForObject(STOCK_RESERVATIONS_URL + "/" + orderItem.getReservationId() + "/cancel",
+									null, StockReservationDto.class);
 						log.info("OrderItem with id {} has been deactivated", orderItemId);
 
 					} catch (RestClientException e) {
-						log.error("Failed to fetch order details for order item: {}", orderItemId, e);
-						throw new OrderItemNotFoundException("Order information not available for this order item");
+						log.error("Failed to fetch order details or cancel the stock reservation for order item: {}", orderItemId, e);
+						throw new OrderItemNotFoundException("Order information or stock reservation not available for this order item");
 					}
 
 				}, () -> {
@@ -0,0 +1 @@
+ALTER TABLE order_items ADD COLUMN reservation_id VARCHAR(64);
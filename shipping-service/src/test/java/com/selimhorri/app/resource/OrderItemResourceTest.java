@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,9 +42,9 @@ class OrderItemResourceTest {
     void findAllShouldReturnOrderItems() {
         List<OrderItemDto> orderItems = new ArrayList<>();
         orderItems.add(testOrderItemDto);
-        when(orderItemService.findAll()).thenReturn(orderItems);
+        when(orderItemService.findAll()).thenReturn(Mono.just(orderItems));
 
-        ResponseEntity<?> response = orderItemResource.findAll();
+        ResponseEntity<?> response = orderItemResource.findAll().block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(orderItemService, times(1)).findAll();
@@ -51,9 +52,9 @@ class OrderItemResourceTest {
 
     @Test
     void findByIdShouldReturnOrderItem() {
-        when(orderItemService.findById(any(Integer.class))).thenReturn(testOrderItemDto);
+        when(orderItemService.findById(any(Integer.class))).thenReturn(Mono.just(testOrderItemDto));
 
-        ResponseEntity<?> response = orderItemResource.findById("1");
+        ResponseEntity<?> response = orderItemResource.findById("1").block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(orderItemService, times(1)).findById(any(Integer.class));
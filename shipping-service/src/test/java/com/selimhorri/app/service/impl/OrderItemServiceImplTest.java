@@ -4,31 +4,57 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.OrderStatus;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.StockReservationLineDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationConflictException;
 import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.service.RemoteResourceService;
+
+import reactor.core.publisher.Mono;
 
 @ExtendWith(MockitoExtension.class)
 class OrderItemServiceImplTest {
@@ -39,6 +65,9 @@ class OrderItemServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private RemoteResourceService remoteResourceService;
+
     @InjectMocks
     private OrderItemServiceImpl orderItemService;
 
@@ -75,35 +104,78 @@ class OrderItemServiceImplTest {
 
     @Test
     void shouldFindAll() {
-        given(orderItemRepository.findByIsActiveTrue()).willReturn(Collections.singletonList(orderItem));
-        given(restTemplate.getForObject(anyString(), eq(ProductDto.class))).willReturn(productDto);
-        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
-
-        List<OrderItemDto> result = orderItemService.findAll();
+        OrderItem otherItem = new OrderItem();
+        otherItem.setOrderId(2);
+        otherItem.setProductId(100);
+        otherItem.setOrderedQuantity(1);
+        otherItem.setActive(true);
+        given(orderItemRepository.findByIsActiveTrue()).willReturn(List.of(orderItem, otherItem));
+        given(remoteResourceService.<DtoCollectionResponse<ProductDto>, ProductDto>findAllByIds(
+                contains("/api/products/bulk"), eq("productIds"), any(), any(), any(), any(), any()))
+                .willReturn(Mono.just(Map.of(100, productDto)));
+        given(remoteResourceService.<DtoCollectionResponse<OrderDto>, OrderDto>findAllByIds(
+                contains("/api/orders/bulk"), eq("orderIds"), any(), eq(Map.of("status", OrderStatus.ORDERED.name())),
+                any(), any(), any()))
+                .willReturn(Mono.just(Map.of(1, orderDto)));
+
+        List<OrderItemDto> result = orderItemService.findAll().block();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getOrderId()).isEqualTo(1);
+        assertThat(result.get(0).getProductDto().getQuantity()).isEqualTo(10);
         verify(orderItemRepository, times(1)).findByIsActiveTrue();
+        verify(remoteResourceService, never()).findOne(anyString(), any());
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenProductLookupFails() {
+        given(orderItemRepository.findByIsActiveTrue()).willReturn(Collections.singletonList(orderItem));
+        given(remoteResourceService.<DtoCollectionResponse<ProductDto>, ProductDto>findAllByIds(
+                contains("/api/products/bulk"), any(), any(), any(), any(), any(), any()))
+                .willReturn(Mono.error(new WebClientRequestException(new IOException("product-service down"),
+                        HttpMethod.GET, URI.create("http://PRODUCT-SERVICE/product-service/api/products/bulk"),
+                        HttpHeaders.EMPTY)));
+        given(remoteResourceService.<DtoCollectionResponse<OrderDto>, OrderDto>findAllByIds(
+                contains("/api/orders/bulk"), any(), any(), any(), any(), any(), any()))
+                .willReturn(Mono.just(Map.of(1, orderDto)));
+
+        List<OrderItemDto> result = orderItemService.findAll().block();
+
+        assertThat(result).isEmpty();
     }
 
     @Test
     void shouldFindById() {
         given(orderItemRepository.findById(1)).willReturn(Optional.of(orderItem));
-        given(restTemplate.getForObject(anyString(), eq(ProductDto.class))).willReturn(productDto);
-        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(remoteResourceService.findOne(anyString(), eq(ProductDto.class))).willReturn(Mono.just(productDto));
+        given(remoteResourceService.findOne(anyString(), eq(OrderDto.class))).willReturn(Mono.just(orderDto));
 
-        OrderItemDto result = orderItemService.findById(1);
+        OrderItemDto result = orderItemService.findById(1).block();
 
         assertThat(result).isNotNull();
         assertThat(result.getOrderId()).isEqualTo(1);
+        assertThat(result.getProductDto().getQuantity()).isEqualTo(10);
         verify(orderItemRepository, times(1)).findById(1);
     }
 
+    @Test
+    void shouldRejectFindByIdWhenOrderIsNotOrdered() {
+        orderDto.setOrderStatus(OrderStatus.CREATED.name());
+        given(orderItemRepository.findById(1)).willReturn(Optional.of(orderItem));
+        given(remoteResourceService.findOne(anyString(), eq(ProductDto.class))).willReturn(Mono.just(productDto));
+        given(remoteResourceService.findOne(anyString(), eq(OrderDto.class))).willReturn(Mono.just(orderDto));
+
+        assertThatThrownBy(() -> orderItemService.findById(1).block())
+                .isInstanceOf(OrderItemNotFoundException.class)
+                .hasMessageContaining("Shipping not found");
+    }
+
     @Test
     void shouldThrowExceptionWhenOrderItemNotFoundById() {
         given(orderItemRepository.findById(1)).willReturn(Optional.empty());
 
-        assertThatThrownBy(() -> orderItemService.findById(1))
+        assertThatThrownBy(() -> orderItemService.findById(1).block())
                 .isInstanceOf(OrderItemNotFoundException.class)
                 .hasMessageContaining("Active OrderItem with id: 1 not found");
     }
@@ -112,17 +184,89 @@ class OrderItemServiceImplTest {
     void shouldSaveOrderItem() {
         orderDto.setOrderStatus(OrderStatus.CREATED.name());
         given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
-        given(restTemplate.getForObject(anyString(), eq(ProductDto.class))).willReturn(productDto);
-        given(orderItemRepository.save(any(OrderItem.class))).willReturn(orderItem);
+        given(orderItemRepository.saveAndFlush(any(OrderItem.class))).willReturn(orderItem);
 
         OrderItemDto result = orderItemService.save(orderItemDto);
 
         assertThat(result).isNotNull();
-        verify(restTemplate, times(2)).getForObject(anyString(), any());
-        verify(orderItemRepository, times(1)).save(any(OrderItem.class));
+        // El stock se reserva de forma atómica en PRODUCT-SERVICE; ya no se lee el producto para comparar
+        verify(restTemplate, times(1)).getForObject(anyString(), any());
+        ArgumentCaptor<StockReservationDto> reservation = ArgumentCaptor.forClass(StockReservationDto.class);
+        verify(restTemplate).postForObject(endsWith("/api/products/reservations"), reservation.capture(),
+                eq(StockReservationDto.class));
+        assertThat(reservation.getValue().getLines())
+                .containsExactly(StockReservationLineDto.builder().productId(100).quantity(2).build());
+        // Derivado de la orden y el producto: un reintento del mismo checkout reutiliza la reserva
+        assertThat(reservation.getValue().getReservationId()).isEqualTo("1:100");
+        verify(orderItemRepository, times(1)).saveAndFlush(any(OrderItem.class));
+        verify(restTemplate).patchForObject(endsWith("/" + reservation.getValue().getReservationId() + "/confirm"),
+                any(), eq(StockReservationDto.class));
         verify(restTemplate, times(1)).patchForObject(anyString(), any(), eq(Void.class));
     }
 
+    @Test
+    void shouldReserveUnderTheNextIdWhenAnEarlierAttemptReleasedItsReservation() {
+        orderDto.setOrderStatus(OrderStatus.CREATED.name());
+        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(restTemplate.postForObject(anyString(), any(), eq(StockReservationDto.class))).willAnswer(invocation -> {
+            StockReservationDto requested = invocation.getArgument(1);
+            return StockReservationDto.builder()
+                    .reservationId(requested.getReservationId())
+                    .status("1:100".equals(requested.getReservationId()) ? "CANCELED" : "PENDING")
+                    .build();
+        });
+        given(orderItemRepository.saveAndFlush(any(OrderItem.class))).willReturn(orderItem);
+
+        orderItemService.save(orderItemDto);
+
+        ArgumentCaptor<StockReservationDto> reservations = ArgumentCaptor.forClass(StockReservationDto.class);
+        verify(restTemplate, times(2)).postForObject(anyString(), reservations.capture(), eq(StockReservationDto.class));
+        assertThat(reservations.getAllValues()).extracting(StockReservationDto::getReservationId)
+                .containsExactly("1:100", "1:100:2");
+        verify(restTemplate).patchForObject(endsWith("/1:100:2/confirm"), any(), eq(StockReservationDto.class));
+    }
+
+    @Test
+    void shouldReturnTheSavedItemWhenARetriedCheckoutFindsItsReservationConfirmed() {
+        orderDto.setOrderStatus(OrderStatus.CREATED.name());
+        orderItem.setReservationId("1:100");
+        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(restTemplate.postForObject(anyString(), any(), eq(StockReservationDto.class)))
+                .willReturn(StockReservationDto.builder().reservationId("1:100").status("CONFIRMED").build());
+        given(orderItemRepository.existsByReservationIdAndIsActiveTrue("1:100")).willReturn(true);
+        given(orderItemRepository.findByReservationIdAndIsActiveTrue("1:100")).willReturn(Optional.of(orderItem));
+
+        OrderItemDto result = orderItemService.save(orderItemDto);
+
+        assertThat(result.getOrderedQuantity()).isEqualTo(2);
+        // La reserva confirmada respalda una línea ya guardada: ni se vuelve a guardar ni se cancela
+        verify(orderItemRepository, never()).saveAndFlush(any(OrderItem.class));
+        verify(restTemplate, never()).patchForObject(endsWith("/cancel"), any(), eq(StockReservationDto.class));
+        verify(restTemplate, never()).patchForObject(endsWith("/confirm"), any(), eq(StockReservationDto.class));
+    }
+
+    @Test
+    void shouldNotReuseAConfirmedReservationOfAWithdrawnItem() {
+        orderDto.setOrderStatus(OrderStatus.CREATED.name());
+        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(restTemplate.postForObject(anyString(), any(), eq(StockReservationDto.class))).willAnswer(invocation -> {
+            StockReservationDto requested = invocation.getArgument(1);
+            return StockReservationDto.builder()
+                    .reservationId(requested.getReservationId())
+                    .status("1:100".equals(requested.getReservationId()) ? "CONFIRMED" : "PENDING")
+                    .build();
+        });
+        given(orderItemRepository.existsByReservationIdAndIsActiveTrue("1:100")).willReturn(false);
+        given(orderItemRepository.saveAndFlush(any(OrderItem.class))).willReturn(orderItem);
+
+        orderItemService.save(orderItemDto);
+
+        ArgumentCaptor<OrderItem> saved = ArgumentCaptor.forClass(OrderItem.class);
+        verify(orderItemRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getReservationId()).isEqualTo("1:100:2");
+        verify(restTemplate).patchForObject(endsWith("/1:100:2/confirm"), any(), eq(StockReservationDto.class));
+    }
+
     @Test
     void shouldThrowExceptionWhenSavingWithInvalidOrderStatus() {
         orderDto.setOrderStatus(OrderStatus.ORDERED.name());
@@ -132,33 +276,146 @@ class OrderItemServiceImplTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Cannot create a shipping for an order that is in any state other than CREATED");
         
-        verify(orderItemRepository, never()).save(any(OrderItem.class));
+        verify(orderItemRepository, never()).saveAndFlush(any(OrderItem.class));
+        verify(restTemplate, never()).postForObject(anyString(), any(), eq(StockReservationDto.class));
     }
 
     @Test
     void shouldThrowExceptionWhenSavingWithInsufficientProductQuantity() {
         orderDto.setOrderStatus(OrderStatus.CREATED.name());
-        productDto.setQuantity(1); // Less than ordered quantity (2)
-        
         given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
-        given(restTemplate.getForObject(anyString(), eq(ProductDto.class))).willReturn(productDto);
+        given(restTemplate.postForObject(anyString(), any(), eq(StockReservationDto.class)))
+                .willThrow(conflict("INSUFFICIENT_STOCK"));
 
         assertThatThrownBy(() -> orderItemService.save(orderItemDto))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("You cannot order more units than there is available");
         
-        verify(orderItemRepository, never()).save(any(OrderItem.class));
+        verify(orderItemRepository, never()).saveAndFlush(any(OrderItem.class));
+    }
+
+    @Test
+    void shouldReserveUnderTheNextIdWhenARetriedCheckoutChangedTheQuantity() {
+        orderDto.setOrderStatus(OrderStatus.CREATED.name());
+        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(restTemplate.postForObject(anyString(), any(), eq(StockReservationDto.class))).willAnswer(invocation -> {
+            StockReservationDto requested = invocation.getArgument(1);
+            // El primer intento reservó otra cantidad con el mismo id
+            if ("1:100".equals(requested.getReservationId()))
+                throw conflict("RESERVATION_LINES_MISMATCH");
+            return StockReservationDto.builder().reservationId(requested.getReservationId()).status("PENDING").build();
+        });
+        given(orderItemRepository.saveAndFlush(any(OrderItem.class))).willReturn(orderItem);
+
+        orderItemService.save(orderItemDto);
+
+        ArgumentCaptor<OrderItem> saved = ArgumentCaptor.forClass(OrderItem.class);
+        verify(orderItemRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getReservationId()).isEqualTo("1:100:2");
+        verify(restTemplate).patchForObject(endsWith("/1:100:2/confirm"), any(), eq(StockReservationDto.class));
+    }
+
+    @Test
+    void shouldAnswerConflictWhenEveryReservationIdIsTaken() {
+        orderDto.setOrderStatus(OrderStatus.CREATED.name());
+        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(restTemplate.postForObject(anyString(), any(), eq(StockReservationDto.class)))
+                .willThrow(conflict("RESERVATION_LINES_MISMATCH"));
+
+        assertThatThrownBy(() -> orderItemService.save(orderItemDto))
+                .isInstanceOf(StockReservationConflictException.class);
+
+        verify(restTemplate, times(5)).postForObject(anyString(), any(), eq(StockReservationDto.class));
+        verify(orderItemRepository, never()).saveAndFlush(any(OrderItem.class));
+    }
+
+    @Test
+    void shouldCancelTheReservationWhenTheOrderItemCannotBeSaved() {
+        orderDto.setOrderStatus(OrderStatus.CREATED.name());
+        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(orderItemRepository.saveAndFlush(any(OrderItem.class)))
+                .willThrow(new DataIntegrityViolationException("duplicate order item"));
+
+        assertThatThrownBy(() -> orderItemService.save(orderItemDto))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        verify(restTemplate).patchForObject(endsWith("/1:100/cancel?expectedStatus=PENDING"), any(),
+                eq(StockReservationDto.class));
+        verify(restTemplate, never()).patchForObject(endsWith("/confirm"), any(), eq(StockReservationDto.class));
+        verify(restTemplate, never()).patchForObject(anyString(), any(), eq(Void.class));
+    }
+
+    @Test
+    void shouldKeepTheWinnersReservationWhenConcurrentCheckoutsOfTheSameLineCollide() throws InterruptedException {
+        orderDto.setOrderStatus(OrderStatus.CREATED.name());
+        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        // Ambos checkouts reciben la misma reserva pendiente; solo el primer INSERT de la línea gana
+        given(restTemplate.postForObject(anyString(), any(), eq(StockReservationDto.class)))
+                .willReturn(StockReservationDto.builder().reservationId("1:100").status("PENDING").build());
+        final AtomicBoolean inserted = new AtomicBoolean();
+        given(orderItemRepository.saveAndFlush(any(OrderItem.class))).willAnswer(invocation -> {
+            if (!inserted.compareAndSet(false, true))
+                throw new DataIntegrityViolationException("duplicate order item");
+            return orderItem;
+        });
+        // PRODUCT-SERVICE ya la tiene confirmada por el ganador y rechaza la cancelación condicionada
+        given(restTemplate.patchForObject(endsWith("/cancel?expectedStatus=PENDING"), any(), eq(StockReservationDto.class)))
+                .willThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", HttpHeaders.EMPTY, null, null));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Object> outcomes = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    outcomes.add(orderItemService.save(orderItemDto));
+                }
+                catch (Throwable e) {
+                    outcomes.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(outcomes).hasSize(2);
+        assertThat(outcomes).filteredOn(OrderItemDto.class::isInstance).hasSize(1);
+        assertThat(outcomes).filteredOn(DataIntegrityViolationException.class::isInstance).hasSize(1);
+        // El perdedor solo compensa una reserva pendiente: nunca la cancela sin condición ni repone el stock del ganador
+        verify(restTemplate).patchForObject(endsWith("/1:100/cancel?expectedStatus=PENDING"), any(),
+                eq(StockReservationDto.class));
+        verify(restTemplate, never()).patchForObject(endsWith("/1:100/cancel"), any(), eq(StockReservationDto.class));
+        verify(restTemplate).patchForObject(endsWith("/1:100/confirm"), any(), eq(StockReservationDto.class));
     }
 
     @Test
     void shouldDeleteById() {
+        orderItem.setReservationId("1:100");
         given(orderItemRepository.findByOrderIdAndIsActiveTrue(1)).willReturn(Optional.of(orderItem));
         given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
 
         orderItemService.deleteById(1);
 
-        verify(orderItemRepository, times(1)).save(orderItem);
+        verify(orderItemRepository, times(1)).saveAndFlush(orderItem);
         assertThat(orderItem.isActive()).isFalse();
+        // La reserva confirmada se cancela para que las unidades de la línea vuelvan al stock
+        verify(restTemplate).patchForObject(endsWith("/api/products/reservations/1:100/cancel"), any(),
+                eq(StockReservationDto.class));
+    }
+
+    @Test
+    void shouldFailTheDeletionWhenTheReservationCannotBeCanceled() {
+        orderItem.setReservationId("1:100");
+        given(orderItemRepository.findByOrderIdAndIsActiveTrue(1)).willReturn(Optional.of(orderItem));
+        given(restTemplate.getForObject(anyString(), eq(OrderDto.class))).willReturn(orderDto);
+        given(restTemplate.patchForObject(endsWith("/cancel"), any(), eq(StockReservationDto.class)))
+                .willThrow(new ResourceAccessException("product-service down"));
+
+        // La excepción deshace la desactivación: la línea sigue activa con su reserva
+        assertThatThrownBy(() -> orderItemService.deleteById(1))
+                .isInstanceOf(OrderItemNotFoundException.class);
     }
 
     @Test
@@ -171,7 +428,7 @@ class OrderItemServiceImplTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Cannot delete order item - associated order is not in ORDERED status");
         
-        verify(orderItemRepository, never()).save(orderItem);
+        verify(orderItemRepository, never()).saveAndFlush(orderItem);
     }
 
     @Test
@@ -182,4 +439,10 @@ class OrderItemServiceImplTest {
                 .isInstanceOf(OrderItemNotFoundException.class)
                 .hasMessageContaining("OrderItem with id: 1 not found");
     }
-}
\ No newline at end of file
+
+    private static HttpClientErrorException conflict(final String errorCode) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Error-Code", errorCode);
+        return HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", headers, null, null);
+    }
+}
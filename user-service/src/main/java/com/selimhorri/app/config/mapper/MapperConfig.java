@@ -2,19 +2,23 @@ package com.selimhorri.app.config.mapper;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-
 @Configuration
 public class MapperConfig {
 	
     @Bean
     public ObjectMapper objectMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        return objectMapper;
+        return JacksonMapperHelper.jsonMapper();
+    }
+	
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        // Se sirve Smile (JSON binario) cuando el cliente lo pide con Accept: application/x-jackson-smile,
+        // con los mismos módulos que el mapper JSON
+        return new MappingJackson2SmileHttpMessageConverter(JacksonMapperHelper.smileMapper());
     }
 	
 }
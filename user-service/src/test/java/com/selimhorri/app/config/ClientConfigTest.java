@@ -1,7 +1,17 @@
 package com.selimhorri.app.config;
 
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
 import com.selimhorri.app.config.client.ClientConfig;
+import com.selimhorri.app.config.client.HttpClientConfig;
+import com.selimhorri.app.config.client.PreferSmileInterceptor;
+import com.selimhorri.app.config.deadline.DeadlineMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class ClientConfigTest {
@@ -11,4 +21,17 @@ class ClientConfigTest {
         ClientConfig config = new ClientConfig();
         assertNotNull(config);
     }
+
+    @Test
+    void testRestTemplateUsesTheSharedPooledClient() {
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        PoolingHttpClientConnectionManager connectionManager = httpClientConfig.httpClientConnectionManager(20, 5, 2000, 300);
+
+        RestTemplate restTemplate = new ClientConfig().restTemplateBean(
+                httpClientConfig.outboundHttpClient(connectionManager, 30, 2000, 2000, 5000),
+                new DeadlineMetrics(new SimpleMeterRegistry(), "USER-SERVICE"));
+
+        assertTrue(restTemplate.getInterceptors().stream().anyMatch(PreferSmileInterceptor.class::isInstance));
+        connectionManager.close();
+    }
 }